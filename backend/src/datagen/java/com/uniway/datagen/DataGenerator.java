@@ -0,0 +1,525 @@
+package com.uniway.datagen;
+
+import com.uniway.UniWayApplication;
+import com.uniway.id.Ids;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataGenerator - Carga masiva de datos sintéticos para pruebas a escala
+ *
+ * Solo con el perfil "datagen". Inserta usuarios, publicaciones, reacciones,
+ * comentarios y recomendaciones de profesores con sesgo realista:
+ * - popularidad de publicaciones y actividad de usuarios con distribución de Zipf
+ * - fechas en ráfagas (ciclo diario, fines de semana, días pico; ver BurstyTimestamps)
+ * - reacciones y comentarios poco después de su publicación
+ *
+ * Las cantidades por publicación se reparten antes de insertar, así que los
+ * contadores like_count, dislike_count y comment_count quedan consistentes con las
+ * filas. Las publicaciones se procesan por tareas en paralelo, cada una con su
+ * propia conexión y semilla: el resultado no depende del orden de los hilos.
+ *
+ * No forma parte de la aplicación: se compila solo con el perfil Maven "datagen", que
+ * lo ejecuta en una JVM aparte (la aplicación termina con System.exit al acabar):
+ *   mvn -P datagen verify -Ddatagen.args="--datagen.posts=200000 --datagen.users=100000"
+ */
+@Component
+@Profile("datagen")
+public class DataGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+
+    /** Prefijos de los IDs generados, uno por tabla */
+    private static final int USER = 1;
+    private static final int POST = 2;
+    private static final int COMMENT = 4;
+    private static final int RECOMMENDATION = 5;
+
+    private static final int USERS_PER_TASK = 20_000;
+
+    private static final String EMAIL_DOMAIN = "@datagen.uniway.edu.co";
+
+    private static final String[] FIRST_NAMES = {
+        "María", "Juan", "Ana", "Andrés", "Laura", "Santiago", "Daniela", "Carlos", "Valentina", "Sebastián",
+        "Camila", "Mateo", "Sofía", "Alejandro", "Isabella", "Felipe", "Mariana", "Nicolás", "Paula", "David"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Gómez", "Rodríguez", "Martínez", "López", "Hernández", "García", "Pérez", "Ramírez", "Torres", "Ocampo",
+        "Restrepo", "Vargas", "Castro", "Montoya", "Zapata", "Mejía", "Ríos", "Cardona", "Osorio", "Arango"
+    };
+
+    private static final String[] PROGRAMS = {
+        "Ingeniería de Software", "Ingeniería Eléctrica", "Ingeniería Mecánica", "Tecnología en Sistemas",
+        "Diseño Gráfico", "Administración de Empresas", "Contaduría Pública", "Ingeniería Industrial"
+    };
+
+    private static final String[] SUBJECTS = {
+        "Cálculo Diferencial", "Cálculo Integral", "Álgebra Lineal", "Física Mecánica", "Programación I",
+        "Programación Orientada a Objetos", "Bases de Datos", "Estructuras de Datos", "Redes de Computadores",
+        "Ingeniería de Software", "Estadística", "Electrónica Digital", "Contabilidad General", "Inglés III"
+    };
+
+    private static final String[] WORDS = {
+        "la", "clase", "de", "hoy", "parcial", "semestre", "proyecto", "grupo", "laboratorio", "entrega",
+        "biblioteca", "horario", "profesor", "nota", "reunión", "convocatoria", "evento", "universidad",
+        "mañana", "tarea", "examen", "práctica", "asesoría", "bloque", "salón", "bienestar", "deporte", "y"
+    };
+
+    private static final String[] POST_TYPES = {"GENERAL", "GENERAL", "GENERAL", "GENERAL", "NEWS", "ANNOUNCEMENT", "ALERT"};
+    private static final String[] PRIORITIES = {"NORMAL", "NORMAL", "NORMAL", "LOW", "HIGH", "URGENT"};
+
+    /** Profesores distintos entre las recomendaciones */
+    private static final int TEACHERS = 3000;
+
+    @Autowired
+    private DataGeneratorProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    /**
+     * Punto de entrada de línea de comandos: inicia la aplicación con el perfil datagen y sin servidor web
+     */
+    public static void main(String[] args) {
+        // Con devtools en el classpath (mvn exec:java) el reinicio automático ejecutaría el generador dos veces
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        new SpringApplicationBuilder(UniWayApplication.class)
+                .profiles("datagen")
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            generate();
+        } catch (Exception e) {
+            log.error("Error generando datos sintéticos", e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    // ==================== GENERACIÓN ====================
+
+    private void generate() throws Exception {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?",
+                Integer.class, email(0));
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("La base ya contiene datos sintéticos (" + email(0) + ")");
+        }
+
+        long started = System.currentTimeMillis();
+        Plan plan = new Plan();
+        log.info("Plan: {} usuarios, {} publicaciones, {} reacciones, {} comentarios, {} recomendaciones ({} ms)",
+                properties.getUsers(), properties.getPosts(), plan.totalReactions, plan.totalComments,
+                properties.getRecommendations(), System.currentTimeMillis() - started);
+
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            String passwordHash = passwordEncoder.encode(properties.getPassword());
+            phase("usuarios", executor, tasks(properties.getUsers(), USERS_PER_TASK,
+                    (from, to) -> insertUsers(plan, from, to, passwordHash)));
+            phase("publicaciones, reacciones y comentarios", executor, tasks(properties.getPosts(),
+                    properties.getPostsPerTask(), (from, to) -> insertPosts(plan, from, to)));
+            phase("recomendaciones", executor, tasks(properties.getRecommendations(), USERS_PER_TASK,
+                    (from, to) -> insertRecommendations(plan, from, to)));
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Datos sintéticos generados en {} s", (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private void phase(String name, ExecutorService executor, List<RangeTask> tasks) throws Exception {
+        long started = System.currentTimeMillis();
+        List<Future<Long>> futures = new ArrayList<>();
+        for (RangeTask task : tasks) {
+            futures.add(executor.submit(task::run));
+        }
+        long rows = 0;
+        for (Future<Long> future : futures) {
+            rows += future.get();
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        log.info("{}: {} filas en {} ms ({} filas/s)", name, rows, elapsed, rows * 1000 / elapsed);
+    }
+
+    private long insertUsers(Plan plan, int from, int to, String passwordHash) {
+        return withConnection(connection -> {
+            SplittableRandom random = random(USER, from);
+            try (MultiRowInserter users = inserter(connection, "users", "id", "email", "password_hash", "role",
+                    "full_name", "student_id", "program", "is_active", "created_at", "updated_at")) {
+                for (int i = from; i < to; i++) {
+                    LocalDateTime createdAt = toDateTime(plan.clock.sample(random));
+                    users.add(id(USER, i, 0), email(i), passwordHash,
+                            i % 100 == 0 ? "ADMINISTRATION" : "STUDENT",
+                            FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " "
+                                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                            String.format("DG%07d", i), PROGRAMS[random.nextInt(PROGRAMS.length)],
+                            random.nextInt(100) < 97, createdAt, createdAt);
+                }
+                users.flush();
+                return users.getInserted();
+            }
+        });
+    }
+
+    /**
+     * Inserta un rango de publicaciones y después sus reacciones y comentarios
+     */
+    private long insertPosts(Plan plan, int from, int to) {
+        return withConnection(connection -> {
+            SplittableRandom random = random(POST, from);
+            long rows = 0;
+            try (MultiRowInserter posts = inserter(connection, "posts", "id", "author_id", "content", "post_type",
+                    "priority", "is_pinned", "is_alert", "is_approved", "like_count", "dislike_count",
+                    "comment_count", "created_at", "updated_at")) {
+                for (int i = from; i < to; i++) {
+                    LocalDateTime createdAt = toDateTime(plan.postTimes[i]);
+                    String postType = POST_TYPES[random.nextInt(POST_TYPES.length)];
+                    posts.add(id(POST, i, 0), plan.activeUserId(random), text(random, 8 + random.nextInt(80)),
+                            postType, PRIORITIES[random.nextInt(PRIORITIES.length)], random.nextInt(500) == 0,
+                            postType.equals("ALERT"), true, plan.likes[i], plan.reactions[i] - plan.likes[i],
+                            plan.comments[i], createdAt, createdAt);
+                }
+                posts.flush();
+                rows += posts.getInserted();
+            }
+
+            // Llave primaria (user_id, post_id): sin columna id
+            try (MultiRowInserter reactions = inserter(connection, "reactions", "user_id", "post_id", "type", "created_at")) {
+                Set<Integer> reactors = new HashSet<>();
+                for (int i = from; i < to; i++) {
+                    reactors.clear();
+                    byte[] postId = id(POST, i, 0);
+                    for (int r = 0; r < plan.reactions[i]; r++) {
+                        int user = plan.distinctActiveUser(random, reactors);
+                        String type = r < plan.likes[i] ? "LIKE" : "DISLIKE";
+                        LocalDateTime createdAt = toDateTime(plan.clock.after(plan.postTimes[i], random));
+                        reactions.add(id(USER, user, 0), postId, type, createdAt);
+                    }
+                }
+                reactions.flush();
+                rows += reactions.getInserted();
+            }
+
+            try (MultiRowInserter comments = inserter(connection, "comments", "id", "post_id", "author_id",
+                    "content", "is_approved", "created_at", "updated_at")) {
+                for (int i = from; i < to; i++) {
+                    byte[] postId = id(POST, i, 0);
+                    for (int c = 0; c < plan.comments[i]; c++) {
+                        LocalDateTime createdAt = toDateTime(plan.clock.after(plan.postTimes[i], random));
+                        comments.add(id(COMMENT, i, c), postId, plan.activeUserId(random),
+                                text(random, 3 + random.nextInt(30)), true, createdAt, createdAt);
+                    }
+                }
+                comments.flush();
+                rows += comments.getInserted();
+            }
+            return rows;
+        });
+    }
+
+    private long insertRecommendations(Plan plan, int from, int to) {
+        return withConnection(connection -> {
+            SplittableRandom random = random(RECOMMENDATION, from);
+            try (MultiRowInserter recommendations = inserter(connection, "student_teachers", "id", "student_id",
+                    "teacher_name", "subject", "semester", "year", "reference", "rating", "is_active", "created_at")) {
+                for (int i = from; i < to; i++) {
+                    int teacher = plan.recommendationTeachers[i];
+                    int rating = random.nextInt(10) < 6 ? 4 + random.nextInt(2) : 1 + random.nextInt(3);
+                    recommendations.add(id(RECOMMENDATION, i, 0), id(USER, plan.recommendationUsers[i], 0),
+                            teacherName(teacher), SUBJECTS[teacher % SUBJECTS.length],
+                            String.valueOf(plan.recommendationSemesters[i]), 2020 + random.nextInt(6), text(random, 10 + random.nextInt(50)), rating, true,
+                            toDateTime(plan.clock.sample(random)));
+                }
+                recommendations.flush();
+                return recommendations.getInserted();
+            }
+        });
+    }
+
+    // ==================== PLAN ====================
+
+    /**
+     * Reparto previo de reacciones y comentarios por publicación, fechas de publicación,
+     * y estudiante, profesor y semestre de cada recomendación
+     */
+    private final class Plan {
+
+        final BurstyTimestamps clock;
+        final ZipfDistribution userActivity;
+        final int userStride;
+        final long[] postTimes;
+        final int[] reactions;
+        final int[] likes;
+        final int[] comments;
+        final long totalReactions;
+        final long totalComments;
+        final int[] recommendationUsers;
+        final int[] recommendationTeachers;
+        final byte[] recommendationSemesters;
+
+        Plan() {
+            SplittableRandom random = new SplittableRandom(properties.getSeed());
+            int users = properties.getUsers();
+            int posts = properties.getPosts();
+            clock = new BurstyTimestamps(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), properties.getDays(), random);
+            userActivity = new ZipfDistribution(users, properties.getUserSkew());
+            userStride = coprimeStride(users);
+
+            postTimes = new long[posts];
+            for (int i = 0; i < posts; i++) {
+                postTimes[i] = clock.sample(random);
+            }
+            // La popularidad no depende del orden de creación: rango = permutación del índice
+            ZipfDistribution popularity = new ZipfDistribution(posts, properties.getPostSkew());
+            int postStride = coprimeStride(posts);
+            double[] weights = new double[posts];
+            for (int i = 0; i < posts; i++) {
+                weights[i] = popularity.probability((int) ((long) i * postStride % posts));
+            }
+            reactions = allocate(weights, properties.getReactions(), Math.max(1, users / 2), random);
+            comments = allocate(weights, properties.getComments(), 50_000, random);
+            likes = new int[posts];
+            long reactionSum = 0;
+            long commentSum = 0;
+            for (int i = 0; i < posts; i++) {
+                likes[i] = (int) Math.round(reactions[i] * (0.75 + random.nextDouble() * 0.2));
+                reactionSum += reactions[i];
+                commentSum += comments[i];
+            }
+            totalReactions = reactionSum;
+            totalComments = commentSum;
+
+            // Sin repetir la llave única (student_id, teacher_name, subject, semester); la
+            // materia depende del profesor. Con unique_checks = 0 MariaDB solo reporta el
+            // duplicado al confirmar la carga, así que se descarta aquí volviendo a sortear
+            int recommendations = properties.getRecommendations();
+            if (recommendations > (long) users * TEACHERS * 2) {
+                throw new IllegalStateException("Más recomendaciones que combinaciones de estudiante, profesor y semestre");
+            }
+            ZipfDistribution teachers = new ZipfDistribution(TEACHERS, 1.0);
+            recommendationUsers = new int[recommendations];
+            recommendationTeachers = new int[recommendations];
+            recommendationSemesters = new byte[recommendations];
+            Set<Long> keys = new HashSet<>(recommendations * 2);
+            for (int i = 0; i < recommendations; i++) {
+                int user;
+                int teacher;
+                int semester;
+                do {
+                    user = userIndex(userActivity.sample(random));
+                    teacher = teachers.sample(random);
+                    semester = 1 + random.nextInt(2);
+                } while (!keys.add(((long) user * TEACHERS + teacher) * 2 + semester - 1));
+                recommendationUsers[i] = user;
+                recommendationTeachers[i] = teacher;
+                recommendationSemesters[i] = (byte) semester;
+            }
+        }
+
+        byte[] activeUserId(SplittableRandom random) {
+            return id(USER, userIndex(userActivity.sample(random)), 0);
+        }
+
+        /**
+         * Usuario distinto de los ya elegidos para la publicación; si el sesgo hace
+         * que se repitan demasiado, se elige uno al azar uniforme
+         */
+        int distinctActiveUser(SplittableRandom random, Set<Integer> chosen) {
+            for (int attempt = 0; attempt < 20; attempt++) {
+                int user = userIndex(userActivity.sample(random));
+                if (chosen.add(user)) {
+                    return user;
+                }
+            }
+            int user = random.nextInt(userActivity.size());
+            while (!chosen.add(user)) {
+                user = (user + 1) % userActivity.size();
+            }
+            return user;
+        }
+
+        /** Los usuarios más activos no son los primeros creados */
+        private int userIndex(int rank) {
+            return (int) ((long) rank * userStride % userActivity.size());
+        }
+    }
+
+    /**
+     * Reparte un total según los pesos con un máximo por elemento; lo que excede el
+     * máximo se redistribuye entre el resto (llenado por niveles)
+     */
+    private static int[] allocate(double[] weights, long total, int max, SplittableRandom random) {
+        int n = weights.length;
+        double[] counts = new double[n];
+        boolean[] capped = new boolean[n];
+        double remainingTotal = total;
+        double remainingWeight = 1.0;
+        boolean changed = true;
+        while (changed && remainingTotal > 0 && remainingWeight > 0) {
+            changed = false;
+            for (int i = 0; i < n; i++) {
+                if (!capped[i] && remainingTotal * weights[i] / remainingWeight >= max) {
+                    capped[i] = true;
+                    counts[i] = max;
+                    remainingTotal -= max;
+                    remainingWeight -= weights[i];
+                    changed = true;
+                }
+            }
+        }
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            double expected = capped[i] ? counts[i] : Math.max(0, remainingTotal) * weights[i] / remainingWeight;
+            int whole = (int) expected;
+            result[i] = whole + (random.nextDouble() < expected - whole ? 1 : 0);
+        }
+        return result;
+    }
+
+    private static int coprimeStride(int n) {
+        int stride = 7919;
+        while (n > 1 && gcd(stride, n) != 1) {
+            stride += 2;
+        }
+        return stride;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private interface RangeTask {
+        long run() throws Exception;
+    }
+
+    private interface RangeBody {
+        long run(int from, int to) throws Exception;
+    }
+
+    private static List<RangeTask> tasks(int total, int perTask, RangeBody body) {
+        List<RangeTask> tasks = new ArrayList<>();
+        for (int from = 0; from < total; from += perTask) {
+            int start = from;
+            int end = Math.min(from + perTask, total);
+            tasks.add(() -> body.run(start, end));
+        }
+        return tasks;
+    }
+
+    /**
+     * Ejecuta con una conexión propia en autocommit; en MySQL se desactivan para la
+     * sesión las comprobaciones de llaves foráneas y unicidad (el generador ya
+     * garantiza ambas) para que los índices se actualicen sin lecturas extra
+     */
+    private long withConnection(ConnectionCallback<Long> work) {
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean mysql = isMySql(connection);
+            if (mysql) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SET SESSION foreign_key_checks = 0, unique_checks = 0");
+                }
+            }
+            try {
+                return work.doInConnection(connection);
+            } finally {
+                if (mysql) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SET SESSION foreign_key_checks = 1, unique_checks = 1");
+                    }
+                }
+            }
+        });
+        return rows != null ? rows : 0;
+    }
+
+    private MultiRowInserter inserter(Connection connection, String table, String... columns) {
+        return new MultiRowInserter(connection, table, columns, properties.getRowsPerStatement());
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName().toLowerCase();
+        return product.contains("mysql") || product.contains("mariadb");
+    }
+
+    private SplittableRandom random(int table, int from) {
+        return new SplittableRandom(properties.getSeed() * 31 + table * 1_000_003L + from);
+    }
+
+    /**
+     * IDs deterministas con formato UUID (prefijo de tabla, índice y ordinal) en los
+     * 16 bytes de las columnas BINARY(16)
+     */
+    private static byte[] id(int table, long index, long ordinal) {
+        return Ids.toBytes(new UUID(((long) table << 56) | index, ordinal));
+    }
+
+    private static String email(int index) {
+        return "usuario" + index + EMAIL_DOMAIN;
+    }
+
+    private static String teacherName(int teacher) {
+        return "Prof. " + FIRST_NAMES[teacher % FIRST_NAMES.length] + " "
+                + LAST_NAMES[(teacher / FIRST_NAMES.length) % LAST_NAMES.length] + " "
+                + LAST_NAMES[(teacher / (FIRST_NAMES.length * LAST_NAMES.length) + teacher) % LAST_NAMES.length];
+    }
+
+    private static String text(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
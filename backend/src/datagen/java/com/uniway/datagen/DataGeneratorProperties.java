@@ -0,0 +1,86 @@
+package com.uniway.datagen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * DataGeneratorProperties - Volúmenes y distribución de los datos sintéticos (prefijo "datagen")
+ *
+ * Solo se carga con el perfil "datagen". Los valores por defecto están en
+ * application-datagen.yml.
+ */
+@Configuration
+@Profile("datagen")
+@ConfigurationProperties(prefix = "datagen")
+public class DataGeneratorProperties {
+
+    /** Semilla: la misma semilla y los mismos volúmenes generan los mismos datos */
+    private long seed = 2025;
+
+    private int users = 100_000;
+    private int posts = 1_000_000;
+    private long reactions = 20_000_000;
+    private long comments = 5_000_000;
+    private int recommendations = 200_000;
+
+    /** Exponente Zipf de la popularidad de las publicaciones (reacciones y comentarios) */
+    private double postSkew = 1.1;
+
+    /** Exponente Zipf de la actividad de los usuarios (quién publica, reacciona y comenta) */
+    private double userSkew = 1.0;
+
+    /** Días hacia atrás que cubren las fechas de creación */
+    private int days = 365;
+
+    /** Filas por sentencia INSERT multi-fila */
+    private int rowsPerStatement = 1000;
+
+    /** Publicaciones por tarea; cada tarea inserta sus publicaciones, reacciones y comentarios */
+    private int postsPerTask = 20_000;
+
+    /** Hilos de inserción; 0 usa el número de procesadores disponibles */
+    private int threads = 0;
+
+    /** Contraseña de todos los usuarios generados */
+    private String password = "Datagen-2025*";
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public int getUsers() { return users; }
+    public void setUsers(int users) { this.users = users; }
+
+    public int getPosts() { return posts; }
+    public void setPosts(int posts) { this.posts = posts; }
+
+    public long getReactions() { return reactions; }
+    public void setReactions(long reactions) { this.reactions = reactions; }
+
+    public long getComments() { return comments; }
+    public void setComments(long comments) { this.comments = comments; }
+
+    public int getRecommendations() { return recommendations; }
+    public void setRecommendations(int recommendations) { this.recommendations = recommendations; }
+
+    public double getPostSkew() { return postSkew; }
+    public void setPostSkew(double postSkew) { this.postSkew = postSkew; }
+
+    public double getUserSkew() { return userSkew; }
+    public void setUserSkew(double userSkew) { this.userSkew = userSkew; }
+
+    public int getDays() { return days; }
+    public void setDays(int days) { this.days = days; }
+
+    public int getRowsPerStatement() { return rowsPerStatement; }
+    public void setRowsPerStatement(int rowsPerStatement) { this.rowsPerStatement = rowsPerStatement; }
+
+    public int getPostsPerTask() { return postsPerTask; }
+    public void setPostsPerTask(int postsPerTask) { this.postsPerTask = postsPerTask; }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+}
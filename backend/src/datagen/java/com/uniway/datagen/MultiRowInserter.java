@@ -0,0 +1,97 @@
+package com.uniway.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * MultiRowInserter - INSERT de varias filas por sentencia
+ *
+ * Acumula filas y las envía como INSERT INTO t (...) VALUES (...), (...), ... con
+ * rowsPerStatement filas por sentencia: una ida y vuelta al servidor y una sola
+ * actualización de índices por bloque, en lugar de una por fila. La sentencia
+ * completa se prepara una vez y se reutiliza; el último bloque parcial usa una
+ * sentencia propia. No es thread-safe: cada tarea usa su propio inserter y conexión.
+ */
+final class MultiRowInserter implements AutoCloseable {
+
+    private final Connection connection;
+    private final String prefix;
+    private final String rowPlaceholders;
+    private final int columns;
+    private final int rowsPerStatement;
+    private final Object[] values;
+    private PreparedStatement fullStatement;
+    private int rows;
+    private long inserted;
+
+    MultiRowInserter(Connection connection, String table, String[] columnNames, int rowsPerStatement) {
+        this.connection = connection;
+        this.columns = columnNames.length;
+        this.rowsPerStatement = rowsPerStatement;
+        this.prefix = "INSERT INTO " + table + " (" + String.join(", ", columnNames) + ") VALUES ";
+        this.rowPlaceholders = "(" + "?, ".repeat(columns - 1) + "?)";
+        this.values = new Object[columns * rowsPerStatement];
+    }
+
+    /**
+     * Agrega una fila; se envía el bloque al completarse
+     * @param row Valores en el orden de las columnas
+     */
+    void add(Object... row) throws SQLException {
+        System.arraycopy(row, 0, values, rows * columns, columns);
+        if (++rows == rowsPerStatement) {
+            if (fullStatement == null) {
+                fullStatement = connection.prepareStatement(sql(rowsPerStatement));
+            }
+            execute(fullStatement, rows);
+        }
+    }
+
+    long getInserted() {
+        return inserted;
+    }
+
+    /**
+     * Envía el bloque parcial pendiente
+     */
+    void flush() throws SQLException {
+        if (rows > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(sql(rows))) {
+                execute(statement, rows);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            if (fullStatement != null) {
+                fullStatement.close();
+            }
+        }
+    }
+
+    private void execute(PreparedStatement statement, int count) throws SQLException {
+        for (int i = 0; i < count * columns; i++) {
+            statement.setObject(i + 1, values[i]);
+        }
+        statement.executeUpdate();
+        inserted += count;
+        rows = 0;
+    }
+
+    private String sql(int count) {
+        StringBuilder sql = new StringBuilder(prefix.length() + count * (rowPlaceholders.length() + 2));
+        sql.append(prefix);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(rowPlaceholders);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.uniway.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * ZipfDistribution - Distribución de Zipf sobre los rangos 0..n-1
+ *
+ * El rango k tiene peso 1/(k+1)^s: con s ≈ 1 unos pocos elementos concentran la
+ * mayor parte de la actividad, como pasa con las publicaciones populares o los
+ * usuarios más activos. Se precalcula la función acumulada, así que muestrear es una
+ * búsqueda binaria.
+ */
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("La distribución necesita al menos un elemento");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * Fracción del total que corresponde al rango k
+     */
+    double probability(int k) {
+        return k == 0 ? cumulative[0] : cumulative[k] - cumulative[k - 1];
+    }
+
+    /**
+     * Rango aleatorio según la distribución
+     */
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    int size() {
+        return cumulative.length;
+    }
+}
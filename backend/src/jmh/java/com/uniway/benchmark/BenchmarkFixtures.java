@@ -0,0 +1,139 @@
+package com.uniway.benchmark;
+
+import com.uniway.entity.Post;
+import com.uniway.entity.PostPriority;
+import com.uniway.entity.PostType;
+import com.uniway.entity.StudentTeacher;
+import com.uniway.entity.User;
+import com.uniway.entity.UserRole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * BenchmarkFixtures - Datos de prueba y repositorios falsos para los benchmarks
+ *
+ * Los datos se generan con semilla fija para que cada ejecución mida lo mismo.
+ * Los repositorios se reemplazan por proxies que responden al instante (Optional
+ * vacío, 0, null): los benchmarks miden el costo en CPU de los servicios, no la
+ * base de datos.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] NAMES = {
+        "María José Pérez", "Juan Camilo Gómez", "Ana Sofía Rodríguez", "Andrés Felipe Martínez",
+        "Laura Valentina López", "Santiago Hernández", "Daniela Ramírez", "Carlos Andrés Torres"
+    };
+
+    private static final String[] SUBJECTS = {
+        "Cálculo Diferencial", "Programación Orientada a Objetos", "Bases de Datos", "Física Mecánica",
+        "Estructuras de Datos", "Ingeniería de Software", "Álgebra Lineal", "Redes de Computadores"
+    };
+
+    private BenchmarkFixtures() {}
+
+    static User user(int index) {
+        return new User(UUID.nameUUIDFromBytes(("user-" + index).getBytes()).toString(),
+                "usuario" + index + "@uniway.edu.co", null,
+                index % 10 == 0 ? UserRole.ADMINISTRATION : UserRole.STUDENT,
+                NAMES[index % NAMES.length]);
+    }
+
+    /**
+     * Publicaciones con contenido de 80 a 800 caracteres y autores repetidos
+     */
+    static List<Post> posts(int count) {
+        Random random = new Random(42);
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            authors.add(user(i));
+        }
+        PostType[] types = PostType.values();
+        PostPriority[] priorities = PostPriority.values();
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 8, 0);
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Post post = new Post(UUID.randomUUID().toString(), authors.get(random.nextInt(authors.size())),
+                    text(random, 80 + random.nextInt(720)), types[random.nextInt(types.length)]);
+            post.setPriority(priorities[random.nextInt(priorities.length)]);
+            post.setIsPinned(random.nextInt(20) == 0);
+            post.setIsAlert(random.nextInt(10) == 0);
+            post.setIsApproved(true);
+            post.setLikeCount(random.nextInt(200));
+            post.setDislikeCount(random.nextInt(20));
+            post.setCommentCount(random.nextInt(40));
+            post.setCreatedAt(now.minusMinutes(i * 17L));
+            post.setUpdatedAt(now.minusMinutes(i * 17L));
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    /**
+     * Recomendaciones de profesores con referencia de 40 a 400 caracteres
+     */
+    static List<StudentTeacher> recommendations(int count) {
+        Random random = new Random(7);
+        List<StudentTeacher> recommendations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StudentTeacher recommendation = new StudentTeacher(UUID.randomUUID().toString(), user(random.nextInt(200)),
+                    "Profesor " + NAMES[random.nextInt(NAMES.length)], SUBJECTS[random.nextInt(SUBJECTS.length)],
+                    (random.nextBoolean() ? "1" : "2"), 2020 + random.nextInt(6), text(random, 40 + random.nextInt(360)));
+            recommendation.setRating(1 + random.nextInt(5));
+            ReflectionTestUtils.setField(recommendation, "createdAt", LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(i));
+            recommendations.add(recommendation);
+        }
+        return recommendations;
+    }
+
+    /**
+     * Implementación vacía de un repositorio: Optional.empty() para Optional, 0 para
+     * números, false para booleanos y null para el resto
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stubRepository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            if (returnType == Optional.class) {
+                return Optional.empty();
+            }
+            if (returnType == long.class || returnType == Long.class) {
+                return 0L;
+            }
+            if (returnType == int.class || returnType == Integer.class) {
+                return 0;
+            }
+            if (returnType == boolean.class || returnType == Boolean.class) {
+                return false;
+            }
+            return null;
+        });
+    }
+
+    private static String text(Random random, int length) {
+        String words = "la universidad clase examen proyecto semestre grupo laboratorio tarea "
+                + "biblioteca horario profesor parcial nota entrega reunión convocatoria evento ";
+        StringBuilder builder = new StringBuilder(length + 16);
+        while (builder.length() < length) {
+            int start = random.nextInt(words.length() - 12);
+            int space = words.indexOf(' ', start);
+            int end = words.indexOf(' ', space + 1);
+            builder.append(words, space + 1, end + 1);
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package com.uniway.benchmark;
+
+import com.uniway.dto.PostDto;
+import com.uniway.dto.TeacherRecommendationDto;
+import com.uniway.entity.Post;
+import com.uniway.entity.StudentTeacher;
+import com.uniway.repository.ReactionRepository;
+import com.uniway.repository.TeacherRecommendationReactionRepository;
+import com.uniway.service.PostService;
+import com.uniway.service.TeacherRecommendationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DtoConversionBenchmark - Conversión de entidades a DTO de una página completa
+ *
+ * Mide PostService.convertToDto y TeacherRecommendationService.convertToDto con y sin
+ * usuario actual (con usuario se consulta la reacción). Los repositorios responden al
+ * instante, así que el resultado es el piso de CPU de cada conversión; el costo real
+ * de las consultas se ve en hibernate.request.statements (ver MetricsConfig).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoConversionBenchmark {
+
+    @Param({"20", "200"})
+    private int size;
+
+    private PostService postService;
+    private TeacherRecommendationService recommendationService;
+    private List<Post> posts;
+    private List<StudentTeacher> recommendations;
+    private String currentUserId;
+
+    @Setup
+    public void setup() {
+        postService = new PostService();
+        ReflectionTestUtils.setField(postService, "reactionRepository",
+                BenchmarkFixtures.stubRepository(ReactionRepository.class));
+        recommendationService = new TeacherRecommendationService();
+        ReflectionTestUtils.setField(recommendationService, "reactionRepository",
+                BenchmarkFixtures.stubRepository(TeacherRecommendationReactionRepository.class));
+        posts = BenchmarkFixtures.posts(size);
+        recommendations = BenchmarkFixtures.recommendations(size);
+        currentUserId = BenchmarkFixtures.user(1).getId();
+    }
+
+    @Benchmark
+    public List<PostDto> postsAnonymous() {
+        List<PostDto> result = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            result.add(postService.convertToDto(post));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<PostDto> postsWithCurrentUser() {
+        List<PostDto> result = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            result.add(postService.convertToDto(post, currentUserId));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<TeacherRecommendationDto> recommendationsWithCurrentUser() {
+        List<TeacherRecommendationDto> result = new ArrayList<>(recommendations.size());
+        for (StudentTeacher recommendation : recommendations) {
+            result.add(recommendationService.convertToDto(recommendation, currentUserId));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,75 @@
+package com.uniway.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uniway.dto.PostDto;
+import com.uniway.dto.TeacherRecommendationDto;
+import com.uniway.entity.Post;
+import com.uniway.entity.StudentTeacher;
+import com.uniway.repository.ReactionRepository;
+import com.uniway.repository.TeacherRecommendationReactionRepository;
+import com.uniway.service.PostService;
+import com.uniway.service.TeacherRecommendationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonSerializationBenchmark - Serialización con Jackson de las listas que devuelven
+ * GET /posts y los endpoints de recomendaciones
+ *
+ * El ObjectMapper se configura como el de Spring Boot (módulos de java.time, fechas ISO).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<PostDto> posts;
+    private List<TeacherRecommendationDto> recommendations;
+
+    @Setup
+    public void setup() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+
+        PostService postService = new PostService();
+        ReflectionTestUtils.setField(postService, "reactionRepository",
+                BenchmarkFixtures.stubRepository(ReactionRepository.class));
+        posts = new ArrayList<>();
+        for (Post post : BenchmarkFixtures.posts(size)) {
+            posts.add(postService.convertToDto(post));
+        }
+
+        TeacherRecommendationService recommendationService = new TeacherRecommendationService();
+        ReflectionTestUtils.setField(recommendationService, "reactionRepository",
+                BenchmarkFixtures.stubRepository(TeacherRecommendationReactionRepository.class));
+        recommendations = new ArrayList<>();
+        for (StudentTeacher recommendation : BenchmarkFixtures.recommendations(size)) {
+            recommendations.add(recommendationService.convertToDto(recommendation, null));
+        }
+    }
+
+    @Benchmark
+    public byte[] posts() throws Exception {
+        return writer.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public byte[] recommendations() throws Exception {
+        return writer.writeValueAsBytes(recommendations);
+    }
+}
@@ -0,0 +1,59 @@
+package com.uniway.benchmark;
+
+import com.uniway.entity.User;
+import com.uniway.security.AuthenticatedUser;
+import com.uniway.service.JwtService;
+import com.uniway.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtBenchmark - Emisión y validación de tokens JWT (HS256)
+ *
+ * parseAuthenticatedUser es lo que hace JwtAuthenticationFilter en cada petición
+ * autenticada: verifica la firma, consulta las revocaciones (aquí en memoria y sin
+ * entradas) y arma el principal. extractAllClaims mide solo la firma y los claims.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "mySecretKey123456789012345678901234567890");
+        ReflectionTestUtils.setField(jwtService, "expiration", 86_400_000L);
+        TokenRevocationService tokenRevocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(tokenRevocationService, "accessTokenTtlMs", 86_400_000L);
+        ReflectionTestUtils.setField(jwtService, "tokenRevocationService", tokenRevocationService);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        user = BenchmarkFixtures.user(3);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public AuthenticatedUser parseAuthenticatedUser() {
+        return jwtService.parseAuthenticatedUser(token);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtService.extractAllClaims(token);
+    }
+}
@@ -0,0 +1,173 @@
+package com.uniway.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoggingBenchmark - Costo de las trazas de depuración en el camino de las peticiones
+ *
+ * Compara, escribiendo a archivos reales:
+ * - systemOutPrintln: la concatenación + System.out.println que se usaba antes
+ * - syncAppender: log.debug con un appender que formatea y escribe en el mismo hilo
+ * - asyncAppender: log.debug con el AsyncAppender de logback-spring.xml (misma cola,
+ *   umbral de descarte y neverBlock), que solo encola el evento
+ * Y como referencia sin E/S: el log.debug con el nivel desactivado (perfil prod), la
+ * concatenación sola y el armado del evento sin appender.
+ *
+ * En asyncAppender, cuando el hilo de escritura no da abasto la cola pasa del umbral y
+ * los eventos se descartan: mide lo que paga el hilo de la petición, no el rendimiento
+ * del archivo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    /** Mismo formato que CONSOLE_LOG_PATTERN en logback-spring.xml (%wEx es de Spring Boot) */
+    private static final String PATTERN =
+        "%d{yyyy-MM-dd HH:mm:ss.SSS} %5level [%15.15thread] %-40.40logger{39} : %msg%n%ex";
+
+    private static final Logger disabled = LoggerFactory.getLogger("benchmark.disabled");
+    private static final Logger enabled = LoggerFactory.getLogger("benchmark.enabled");
+    private static final Logger sync = LoggerFactory.getLogger("benchmark.sync");
+    private static final Logger async = LoggerFactory.getLogger("benchmark.async");
+
+    private String postId;
+    private String userId;
+
+    private Path logDir;
+    private PrintStream originalOut;
+    private PrintStream systemOut;
+
+    @Setup
+    public void setup() throws IOException {
+        ch.qos.logback.classic.Logger disabledLogger = (ch.qos.logback.classic.Logger) disabled;
+        disabledLogger.setLevel(Level.INFO);
+        ch.qos.logback.classic.Logger enabledLogger = (ch.qos.logback.classic.Logger) enabled;
+        enabledLogger.setLevel(Level.DEBUG);
+        enabledLogger.setAdditive(false);
+        enabledLogger.detachAndStopAllAppenders();
+        postId = BenchmarkFixtures.user(1).getId();
+        userId = BenchmarkFixtures.user(2).getId();
+
+        logDir = Files.createTempDirectory("logging-benchmark");
+        LoggerContext context = enabledLogger.getLoggerContext();
+
+        // System.out como la consola: PrintStream con autoflush en cada println
+        originalOut = System.out;
+        systemOut = new PrintStream(open("system-out.log"), true, StandardCharsets.UTF_8);
+        System.setOut(systemOut);
+
+        attach(sync, fileAppender(context, "SYNC", "sync.log"));
+
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setName("ASYNC");
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setDiscardingThreshold(1638);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.setIncludeCallerData(false);
+        asyncAppender.addAppender(fileAppender(context, "ASYNC_FILE", "async.log"));
+        asyncAppender.start();
+        attach(async, asyncAppender);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        systemOut.close();
+        ((ch.qos.logback.classic.Logger) sync).detachAndStopAllAppenders();
+        ((ch.qos.logback.classic.Logger) async).detachAndStopAllAppenders();
+        try (var files = Files.list(logDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(logDir);
+    }
+
+    @Benchmark
+    public void debugDisabledParameterized() {
+        disabled.debug("Like post - Post ID: {}, User ID: {}", postId, userId);
+    }
+
+    @Benchmark
+    public String stringConcatenation() {
+        // Lo que costaba construir el mensaje de System.out aunque nadie lo leyera
+        return "Post ID: " + postId + ", User ID: " + userId;
+    }
+
+    @Benchmark
+    public void debugEnabledParameterized() {
+        enabled.debug("Like post - Post ID: {}, User ID: {}", postId, userId);
+    }
+
+    @Benchmark
+    public void systemOutPrintln() {
+        System.out.println("Like post - Post ID: " + postId + ", User ID: " + userId);
+    }
+
+    @Benchmark
+    public void syncAppender() {
+        sync.debug("Like post - Post ID: {}, User ID: {}", postId, userId);
+    }
+
+    @Benchmark
+    public void asyncAppender() {
+        async.debug("Like post - Post ID: {}, User ID: {}", postId, userId);
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private OutputStream open(String fileName) throws IOException {
+        return new BufferedOutputStream(new FileOutputStream(logDir.resolve(fileName).toFile()));
+    }
+
+    /** Appender de archivo con el formato de la consola y flush en cada evento, como ConsoleAppender */
+    private OutputStreamAppender<ILoggingEvent> fileAppender(LoggerContext context, String name, String fileName)
+            throws IOException {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(true);
+        appender.setOutputStream(open(fileName));
+        appender.start();
+        return appender;
+    }
+
+    private static void attach(Logger logger, Appender<ILoggingEvent> appender) {
+        ch.qos.logback.classic.Logger logbackLogger = (ch.qos.logback.classic.Logger) logger;
+        logbackLogger.setLevel(Level.DEBUG);
+        logbackLogger.setAdditive(false);
+        logbackLogger.detachAndStopAllAppenders();
+        logbackLogger.addAppender(appender);
+    }
+}
@@ -0,0 +1,383 @@
+package com.uniway.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uniway.UniWayApplication;
+import com.uniway.entity.Comment;
+import com.uniway.entity.Post;
+import com.uniway.entity.PostType;
+import com.uniway.entity.Reaction;
+import com.uniway.entity.ReactionId;
+import com.uniway.entity.ReactionType;
+import com.uniway.entity.User;
+import com.uniway.entity.UserRole;
+import com.uniway.id.Ids;
+import com.uniway.repository.ReactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * InsertBenchmark - Throughput de inserción de publicaciones, comentarios y reacciones
+ *
+ * Inserta las mismas filas con cada combinación de:
+ * - ids aleatorios (UUID v4, como antes) u ordenados por tiempo (UUIDv7, Ids.newId())
+ * - sin lotes JDBC (batch 1) o con lotes (batch-size)
+ * y reporta filas/s y sentencias preparadas por tabla. Entre combinaciones se
+ * borran las filas insertadas, así que todas parten del mismo tamaño de tabla; al
+ * terminar se borran también los usuarios sembrados (emails insercion*@uniway.edu.co).
+ *
+ * Por defecto usa H2 en memoria (mide sobre todo el efecto de los lotes JDBC);
+ * el efecto del orden de los ids sobre el índice clustered solo se ve en InnoDB:
+ *   mvn -P loadtest verify -Dloadtest.main=com.uniway.loadtest.InsertBenchmark \
+ *       -Dloadtest.args="rows=200000 url=jdbc:mysql://localhost:3306/uniway_bench?rewriteBatchedStatements=true username=root password=..."
+ *
+ * Antes se hace una pasada de calentamiento que no se reporta.
+ *
+ * Después mide el toggle de reacciones (una transacción por toggle, como un request)
+ * con la misma secuencia de (usuario, publicación, tipo) en dos variantes:
+ * - lectura+escritura: busca la reacción y luego la borra, cambia o crea (flujo anterior)
+ * - llave natural: DELETE por (user_id, post_id, tipo) y, si no borró nada, un upsert
+ * En MySQL reporta además el tamaño de la tabla reactions (datos e índices).
+ *
+ * Opciones (clave=valor): rows (20000), transaction-size (1000), batch-size (50),
+ * users (1000), toggles (20000), url, username, password, output (target/loadtest)
+ */
+public final class InsertBenchmark {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final String EMAIL_PATTERN = "insercion%@uniway.edu.co";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Statistics statistics;
+    private final int transactionSize;
+    private final ReactionRepository reactionRepository;
+    private List<String> lastPostIds = List.of();
+
+    private InsertBenchmark(ConfigurableApplicationContext context, int transactionSize) {
+        this.entityManager = context.getBean(EntityManager.class);
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        this.transactionSize = transactionSize;
+        this.reactionRepository = context.getBean(ReactionRepository.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rows = Integer.parseInt(options.getOrDefault("rows", "20000"));
+        int transactionSize = Integer.parseInt(options.getOrDefault("transaction-size", "1000"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch-size", "50"));
+        int userCount = Integer.parseInt(options.getOrDefault("users", "1000"));
+        int toggles = Integer.parseInt(options.getOrDefault("toggles", "20000"));
+        String url = options.getOrDefault("url",
+                "jdbc:h2:mem:uniway_inserts;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE,USER;DB_CLOSE_DELAY=-1");
+        boolean h2 = url.startsWith("jdbc:h2:");
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + options.getOrDefault("username", h2 ? "sa" : "root"),
+                "--spring.datasource.password=" + options.getOrDefault("password", ""),
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--email-outbox.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.uniway=WARN"));
+        if (h2) {
+            // Las migraciones son SQL de MySQL: en H2 el esquema lo crea Hibernate
+            appArgs.add("--spring.flyway.enabled=false");
+            appArgs.add("--spring.jpa.hibernate.ddl-auto=create");
+            appArgs.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            appArgs.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UniWayApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(appArgs.toArray(new String[0]));
+        try {
+            InsertBenchmark benchmark = new InsertBenchmark(context, transactionSize);
+            List<String> userIds = benchmark.seedUsers(userCount);
+            System.out.printf("Inserción: %d filas por tabla, transacciones de %d, %s%n", rows, transactionSize, h2 ? "H2" : url);
+
+            // Calentamiento del JIT y del pool (no se reporta): sin él, la primera combinación sale penalizada
+            benchmark.run("calentamiento", true, batchSize, rows, userIds);
+
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (boolean timeOrdered : new boolean[] {false, true}) {
+                for (int batch : new int[] {1, batchSize}) {
+                    benchmark.clear();
+                    String label = (timeOrdered ? "uuidv7" : "uuidv4") + " batch=" + batch;
+                    results.addAll(benchmark.run(label, timeOrdered, batch, rows, userIds));
+                }
+            }
+            results.addAll(benchmark.runToggles(toggles, userIds, benchmark.lastPostIds));
+            if (!h2) {
+                results.add(benchmark.reactionsTableSize());
+            }
+            benchmark.clear();
+            benchmark.deleteUsers();
+
+            Path directory = Paths.get(options.getOrDefault("output", "target/loadtest"));
+            Files.createDirectories(directory);
+            Path file = directory.resolve("inserts-" + LocalDateTime.now().format(FILE_STAMP) + ".json");
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("database", h2 ? "h2" : url);
+            root.put("rows", rows);
+            root.put("transactionSize", transactionSize);
+            root.put("results", results);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), root);
+            System.out.println("Reporte: " + file.toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    // ==================== MEDICIÓN ====================
+
+    private List<Map<String, Object>> run(String label, boolean timeOrdered, int batch, int rows, List<String> userIds) {
+        IntFunction<String> ids = timeOrdered ? i -> Ids.newId() : i -> UUID.randomUUID().toString();
+        List<String> postIds = new ArrayList<>(rows);
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        results.add(measure(label, "posts", rows, batch, i -> {
+            String id = ids.apply(i);
+            postIds.add(id);
+            return new Post(id, reference(User.class, userIds.get(i % userIds.size())),
+                    "Publicación " + i + " " + "contenido ".repeat(1 + i % 20), PostType.GENERAL);
+        }));
+        results.add(measure(label, "comments", rows, batch, i -> new Comment(ids.apply(i),
+                reference(Post.class, postIds.get(i % postIds.size())),
+                reference(User.class, userIds.get((i * 7) % userIds.size())),
+                "Comentario " + i + " " + "texto ".repeat(1 + i % 10))));
+        // Pares (usuario, publicación) distintos: publicación i % rows, usuario i / rows
+        results.add(measure(label, "reactions", rows, batch, i -> new Reaction(
+                reference(User.class, userIds.get((i / postIds.size()) % userIds.size())),
+                reference(Post.class, postIds.get(i % postIds.size())),
+                i % 5 == 0 ? ReactionType.DISLIKE : ReactionType.LIKE)));
+        lastPostIds = postIds;
+        return results;
+    }
+
+    // ==================== TOGGLE DE REACCIONES ====================
+
+    /**
+     * Mide las dos variantes del toggle con la misma secuencia de operaciones,
+     * partiendo ambas de las reacciones que dejó la última combinación
+     */
+    private List<Map<String, Object>> runToggles(int toggles, List<String> userIds, List<String> postIds) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        Map<ReactionId, ReactionType> initial = snapshotReactions();
+        results.add(measureToggles("lectura+escritura", toggles, userIds, postIds, this::toggleReadWrite));
+        restoreReactions(initial);
+        results.add(measureToggles("llave natural", toggles, userIds, postIds, this::toggleNaturalKey));
+        return results;
+    }
+
+    private Map<String, Object> measureToggles(String label, int toggles, List<String> userIds, List<String> postIds,
+            ToggleStrategy strategy) {
+        // Misma semilla en ambas variantes: la misma secuencia de toggles
+        Random random = new Random(42);
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long started = System.nanoTime();
+        for (int i = 0; i < toggles; i++) {
+            String userId = userIds.get(random.nextInt(userIds.size()));
+            String postId = postIds.get(random.nextInt(Math.min(postIds.size(), 500)));
+            ReactionType type = random.nextInt(4) == 0 ? ReactionType.DISLIKE : ReactionType.LIKE;
+            transactionTemplate.executeWithoutResult(status -> strategy.toggle(userId, postId, type));
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("configuration", "toggle " + label);
+        result.put("table", "reactions");
+        result.put("togglesPerSecond", Math.round(toggles / seconds));
+        result.put("seconds", Math.round(seconds * 1000) / 1000.0);
+        result.put("statementsPerToggle", Math.round(statements * 100.0 / toggles) / 100.0);
+        System.out.printf("toggle %-15s %-10s %,10d toggles/s %8.2f s %6.2f sentencias/toggle%n",
+                label, "reactions", Math.round(toggles / seconds), seconds, (double) statements / toggles);
+        return result;
+    }
+
+    /** Flujo anterior: leer la reacción y decidir en Java */
+    private void toggleReadWrite(String userId, String postId, ReactionType type) {
+        Optional<Reaction> existing = reactionRepository.findByUserIdAndPostId(userId, postId);
+        if (existing.isEmpty()) {
+            entityManager.persist(new Reaction(reference(User.class, userId), reference(Post.class, postId), type));
+        } else if (existing.get().getType() == type) {
+            entityManager.remove(existing.get());
+        } else {
+            existing.get().setType(type);
+        }
+    }
+
+    /** Flujo actual (PostService): DELETE por llave natural o upsert */
+    private void toggleNaturalKey(String userId, String postId, ReactionType type) {
+        if (reactionRepository.deleteByUserIdAndPostIdAndType(userId, postId, type) == 0) {
+            reactionRepository.upsert(Ids.toBytes(userId), Ids.toBytes(postId), type, LocalDateTime.now());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ToggleStrategy {
+        void toggle(String userId, String postId, ReactionType type);
+    }
+
+    private Map<ReactionId, ReactionType> snapshotReactions() {
+        Map<ReactionId, ReactionType> reactions = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("SELECT r.user.id, r.post.id, r.type FROM Reaction r WHERE r.user.email LIKE :pattern", Object[].class)
+                .setParameter("pattern", EMAIL_PATTERN)
+                .getResultStream()
+                .forEach(row -> reactions.put(new ReactionId((String) row[0], (String) row[1]), (ReactionType) row[2])));
+        return reactions;
+    }
+
+    private void restoreReactions(Map<ReactionId, ReactionType> reactions) {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("DELETE FROM Reaction r WHERE r.user.id IN "
+                        + "(SELECT u.id FROM User u WHERE u.email LIKE :pattern)")
+                .setParameter("pattern", EMAIL_PATTERN).executeUpdate());
+        List<Map.Entry<ReactionId, ReactionType>> entries = new ArrayList<>(reactions.entrySet());
+        for (int from = 0; from < entries.size(); from += transactionSize) {
+            List<Map.Entry<ReactionId, ReactionType>> chunk = entries.subList(from, Math.min(from + transactionSize, entries.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Map.Entry<ReactionId, ReactionType> entry : chunk) {
+                    entityManager.persist(new Reaction(reference(User.class, entry.getKey().getUserId()),
+                            reference(Post.class, entry.getKey().getPostId()), entry.getValue()));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    /**
+     * Tamaño de la tabla reactions en InnoDB (estadísticas aproximadas de MySQL)
+     */
+    private Map<String, Object> reactionsTableSize() {
+        Object[] row = (Object[]) entityManager.createNativeQuery(
+                "SELECT table_rows, data_length, index_length FROM information_schema.tables "
+                        + "WHERE table_schema = DATABASE() AND table_name = 'reactions'")
+                .getSingleResult();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("configuration", "tamaño");
+        result.put("table", "reactions");
+        result.put("rows", ((Number) row[0]).longValue());
+        result.put("dataBytes", ((Number) row[1]).longValue());
+        result.put("indexBytes", ((Number) row[2]).longValue());
+        System.out.printf("tamaño reactions: ~%,d filas, datos %,d bytes, índices %,d bytes%n",
+                ((Number) row[0]).longValue(), ((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+        return result;
+    }
+
+    /**
+     * Persiste rows entidades en transacciones de transactionSize con el tamaño de lote indicado
+     */
+    private Map<String, Object> measure(String label, String table, int rows, int batch, IntFunction<Object> factory) {
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long started = System.nanoTime();
+        for (int from = 0; from < rows; from += transactionSize) {
+            int start = from;
+            int end = Math.min(from + transactionSize, rows);
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batch);
+                for (int i = start; i < end; i++) {
+                    entityManager.persist(factory.apply(i));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("configuration", label);
+        result.put("table", table);
+        result.put("rowsPerSecond", Math.round(rows / seconds));
+        result.put("seconds", Math.round(seconds * 1000) / 1000.0);
+        result.put("statements", statements);
+        System.out.printf("%-22s %-10s %,10d filas/s %8.2f s %,9d sentencias%n",
+                label, table, Math.round(rows / seconds), seconds, statements);
+        return result;
+    }
+
+    // ==================== DATOS ====================
+
+    private List<String> seedUsers(int count) {
+        List<String> userIds = new ArrayList<>(count);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                User user = new User(Ids.newId(), "insercion" + i + "@uniway.edu.co", "sin-contraseña",
+                        UserRole.STUDENT, "Usuario de Inserción " + i);
+                user.setStudentId(String.format("IB%06d", i));
+                entityManager.persist(user);
+                userIds.add(user.getId());
+            }
+        });
+        return userIds;
+    }
+
+    /**
+     * Borra las publicaciones de los usuarios sembrados con sus comentarios y
+     * reacciones (solo filas del benchmark, también contra una base con datos)
+     */
+    private void clear() {
+        transactionTemplate.executeWithoutResult(status -> {
+            String posts = "(SELECT p.id FROM Post p WHERE p.author.email LIKE :pattern)";
+            entityManager.createQuery("DELETE FROM Reaction r WHERE r.post.id IN " + posts)
+                    .setParameter("pattern", EMAIL_PATTERN).executeUpdate();
+            entityManager.createQuery("DELETE FROM Comment c WHERE c.post.id IN " + posts)
+                    .setParameter("pattern", EMAIL_PATTERN).executeUpdate();
+            entityManager.createQuery("DELETE FROM Post p WHERE p.author.id IN "
+                    + "(SELECT u.id FROM User u WHERE u.email LIKE :pattern)")
+                    .setParameter("pattern", EMAIL_PATTERN).executeUpdate();
+        });
+    }
+
+    private void deleteUsers() {
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("DELETE FROM User u WHERE u.email LIKE :pattern")
+                .setParameter("pattern", EMAIL_PATTERN).executeUpdate());
+    }
+
+    private <T> T reference(Class<T> type, String id) {
+        return entityManager.getReference(type, id);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int equals = option.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (use clave=valor): " + arg);
+            }
+            values.put(option.substring(0, equals), option.substring(equals + 1));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,101 @@
+package com.uniway.loadtest;
+
+import com.uniway.UniWayApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * LoadTest - Prueba de carga HTTP reproducible sin MySQL compartido
+ *
+ * Inicia la aplicación completa en un puerto aleatorio contra H2 en memoria en modo
+ * MySQL, carga datos sintéticos (SeedData), ejecuta cada escenario con calentamiento
+ * (WorkloadRunner) y escribe el reporte JSON (LoadTestReport).
+ *
+ * Se ejecuta con: mvn -P loadtest verify -Dloadtest.args="clave=valor ..."
+ * (opciones en LoadTestOptions). Los límites de tasa se desactivan para medir los
+ * endpoints y no el rate limiter.
+ *
+ * Termina con código 1 (y falla el build) si algún endpoint excedió su presupuesto de
+ * sentencias SQL (query-budget), salvo con enforce-budgets=false.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        // Como argumentos de línea de comandos para que tengan prioridad sobre application.yml
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UniWayApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:uniway_loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE,USER;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.flyway.enabled=false",
+                "--rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.uniway=WARN",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + options.secondLevelCache,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + options.secondLevelCache);
+        ExecutorService clientExecutor = Executors.newCachedThreadPool();
+        boolean failed = false;
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://localhost:" + port);
+
+            System.out.println("Prueba de carga: " + options);
+            long seedStarted = System.currentTimeMillis();
+            SeedData seed = SeedData.create(context, options);
+            System.out.printf("Datos: %d usuarios, %d publicaciones, %d comentarios, %d recomendaciones (%d ms)%n",
+                    seed.userIds.size(), seed.postIds.size(), seed.comments, seed.recommendations,
+                    System.currentTimeMillis() - seedStarted);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(clientExecutor)
+                    .build();
+            WorkloadRunner runner = new WorkloadRunner(client, base, seed, options);
+            LoadTestReport report = new LoadTestReport(options, seed);
+            for (Scenario scenario : options.scenarios) {
+                LoadTestReport.ScenarioResult result = runner.run(scenario);
+                report.add(result);
+                System.out.println(result);
+            }
+            QueryBudgetCheck queryBudgets = QueryBudgetCheck.collect(context);
+            report.setQueryBudgets(queryBudgets);
+            System.out.println("Sentencias SQL por endpoint:");
+            queryBudgets.results().forEach(System.out::println);
+            Path file = report.write();
+            System.out.println("Reporte: " + file.toAbsolutePath());
+
+            List<QueryBudgetCheck.HandlerResult> violations = queryBudgets.violations();
+            if (!violations.isEmpty()) {
+                System.out.println("Presupuesto de consultas excedido:");
+                violations.forEach(System.out::println);
+                if (options.enforceBudgets) {
+                    failed = true;
+                }
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+            context.close();
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.uniway.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LoadTestOptions - Parámetros de la prueba de carga, como argumentos clave=valor
+ *
+ * Ejemplo: mode=open rate=300 duration=60 scenarios=posts,like
+ *
+ * - mode:           closed (N clientes que esperan cada respuesta) u open (tasa fija de llegadas)
+ * - concurrency:    clientes simultáneos en modo closed
+ * - rate:           peticiones por segundo en modo open
+ * - max-in-flight:  peticiones pendientes máximas en modo open; las que exceden se cuentan como descartadas
+ * - warmup:         segundos de calentamiento por escenario (no se miden)
+ * - duration:       segundos medidos por escenario
+ * - scenarios:      escenarios a ejecutar, uno tras otro (ver Scenario)
+ * - users, posts, comments-per-post, recommendations: volumen de datos sintéticos
+ * - output:         directorio del reporte JSON
+ * - second-level-cache: false para desactivar la caché de segundo nivel y de consultas
+ *                   de Hibernate (comparar la carga de base de datos con y sin caché)
+ * - enforce-budgets: true (por defecto) para terminar con error si algún endpoint
+ *                   excedió su presupuesto de consultas (query-budget en application.yml)
+ */
+final class LoadTestOptions {
+
+    final String mode;
+    final int concurrency;
+    final int rate;
+    final int maxInFlight;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final List<Scenario> scenarios;
+    final int users;
+    final int posts;
+    final int commentsPerPost;
+    final int recommendations;
+    final String output;
+    final boolean enforceBudgets;
+    final boolean secondLevelCache;
+
+    private LoadTestOptions(Map<String, String> values) {
+        mode = values.getOrDefault("mode", "closed");
+        if (!mode.equals("closed") && !mode.equals("open")) {
+            throw new IllegalArgumentException("mode debe ser closed u open");
+        }
+        concurrency = intValue(values, "concurrency", 16);
+        rate = intValue(values, "rate", 200);
+        maxInFlight = intValue(values, "max-in-flight", 1000);
+        warmupSeconds = intValue(values, "warmup", 10);
+        durationSeconds = intValue(values, "duration", 30);
+        users = intValue(values, "users", 500);
+        posts = intValue(values, "posts", 2000);
+        commentsPerPost = intValue(values, "comments-per-post", 5);
+        recommendations = intValue(values, "recommendations", 1000);
+        output = values.getOrDefault("output", "target/loadtest");
+        enforceBudgets = Boolean.parseBoolean(values.getOrDefault("enforce-budgets", "true"));
+        secondLevelCache = Boolean.parseBoolean(values.getOrDefault("second-level-cache", "true"));
+        List<Scenario> selected = new ArrayList<>();
+        for (String name : values.getOrDefault("scenarios", "posts,like,comments,recommendations,recommendation-like,subjects,login").split(",")) {
+            selected.add(Scenario.byName(name.trim()));
+        }
+        scenarios = selected;
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int equals = option.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (use clave=valor): " + arg);
+            }
+            values.put(option.substring(0, equals), option.substring(equals + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    boolean isOpenLoop() {
+        return mode.equals("open");
+    }
+
+    @Override
+    public String toString() {
+        return "mode=" + mode + (isOpenLoop() ? " rate=" + rate + "/s max-in-flight=" + maxInFlight
+                : " concurrency=" + concurrency)
+                + " second-level-cache=" + secondLevelCache
+                + " warmup=" + warmupSeconds + "s duration=" + durationSeconds + "s scenarios="
+                + Arrays.toString(scenarios.toArray());
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " debe ser un número: " + value);
+        }
+    }
+}
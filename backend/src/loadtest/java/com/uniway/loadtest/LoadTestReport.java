@@ -0,0 +1,147 @@
+package com.uniway.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LoadTestReport - Resultado de la prueba de carga en JSON
+ *
+ * Un archivo por ejecución con la configuración, el volumen de datos y, por
+ * escenario, throughput y latencias p50/p90/p99/p99.9/máx en milisegundos; además,
+ * las sentencias SQL por endpoint frente a su presupuesto (QueryBudgetCheck).
+ */
+final class LoadTestReport {
+
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final LoadTestOptions options;
+    private final SeedData seed;
+    private final List<ScenarioResult> results = new ArrayList<>();
+    private QueryBudgetCheck queryBudgets;
+
+    LoadTestReport(LoadTestOptions options, SeedData seed) {
+        this.options = options;
+        this.seed = seed;
+    }
+
+    void add(ScenarioResult result) {
+        results.add(result);
+    }
+
+    void setQueryBudgets(QueryBudgetCheck queryBudgets) {
+        this.queryBudgets = queryBudgets;
+    }
+
+    /**
+     * Escribe el reporte en el directorio de salida
+     * @return Ruta del archivo escrito
+     */
+    Path write() throws IOException {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("startedAt", startedAt.toString());
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("mode", options.mode);
+        if (options.isOpenLoop()) {
+            config.put("ratePerSecond", options.rate);
+            config.put("maxInFlight", options.maxInFlight);
+        } else {
+            config.put("concurrency", options.concurrency);
+        }
+        config.put("secondLevelCache", options.secondLevelCache);
+        config.put("warmupSeconds", options.warmupSeconds);
+        config.put("durationSeconds", options.durationSeconds);
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        config.put("javaVersion", System.getProperty("java.version"));
+        root.put("config", config);
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("users", seed.userIds.size());
+        data.put("posts", seed.postIds.size());
+        data.put("comments", seed.comments);
+        data.put("recommendations", seed.recommendations);
+        root.put("data", data);
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        for (ScenarioResult result : results) {
+            scenarios.add(result.toMap());
+        }
+        root.put("scenarios", scenarios);
+        if (queryBudgets != null) {
+            root.put("queryBudgets", queryBudgets.toMaps());
+        }
+
+        Path directory = Paths.get(options.output);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("loadtest-" + FILE_STAMP.format(startedAt) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), root);
+        return file;
+    }
+
+    /**
+     * Medición de un escenario
+     */
+    static final class ScenarioResult {
+        final String scenario;
+        final Histogram histogram;
+        final long errors;
+        final long dropped;
+        final long elapsedNanos;
+
+        ScenarioResult(String scenario, Histogram histogram, long errors, long dropped, long elapsedNanos) {
+            this.scenario = scenario;
+            this.histogram = histogram;
+            this.errors = errors;
+            this.dropped = dropped;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double throughput() {
+            return histogram.getTotalCount() / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("scenario", scenario);
+            map.put("requests", histogram.getTotalCount());
+            map.put("errors", errors);
+            map.put("dropped", dropped);
+            map.put("throughputPerSecond", round(throughput()));
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("mean", millis(histogram.getMean()));
+            latency.put("p50", millis(histogram.getValueAtPercentile(50)));
+            latency.put("p90", millis(histogram.getValueAtPercentile(90)));
+            latency.put("p99", millis(histogram.getValueAtPercentile(99)));
+            latency.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+            latency.put("max", millis(histogram.getMaxValue()));
+            map.put("latencyMs", latency);
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s %8d req %7.1f req/s  p50 %8.2f ms  p99 %8.2f ms  p99.9 %8.2f ms  errores %d  descartadas %d",
+                    scenario, histogram.getTotalCount(), throughput(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), errors, dropped);
+        }
+
+        private static double millis(double micros) {
+            return round(micros / 1000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000.0) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.uniway.loadtest;
+
+import com.uniway.config.QueryBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * QueryBudgetCheck - Sentencias SQL por endpoint frente a su presupuesto
+ *
+ * Lee de la aplicación bajo prueba las métricas que registra RequestStatisticsFilter
+ * (hibernate.request.statements y hibernate.request.budget.exceeded) y los
+ * presupuestos de QueryBudgetProperties. Un endpoint que hizo más consultas que su
+ * presupuesto en alguna petición es una regresión (típicamente un N+1 nuevo).
+ */
+final class QueryBudgetCheck {
+
+    private final Map<String, HandlerResult> results = new TreeMap<>();
+
+    private QueryBudgetCheck() {}
+
+    static QueryBudgetCheck collect(ApplicationContext context) {
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        QueryBudgetProperties budgets = context.getBean(QueryBudgetProperties.class);
+        QueryBudgetCheck check = new QueryBudgetCheck();
+        for (DistributionSummary summary : registry.find("hibernate.request.statements").summaries()) {
+            String handler = summary.getId().getTag("handler");
+            if (handler == null || summary.count() == 0) {
+                continue;
+            }
+            Counter exceeded = registry.find("hibernate.request.budget.exceeded").tag("handler", handler).counter();
+            check.results.put(handler, new HandlerResult(handler, summary.count(), summary.mean(), summary.max(),
+                    budgets.budgetFor(handler), exceeded == null ? 0 : (long) exceeded.count()));
+        }
+        return check;
+    }
+
+    Collection<HandlerResult> results() {
+        return results.values();
+    }
+
+    /**
+     * Endpoints que excedieron su presupuesto en al menos una petición
+     */
+    List<HandlerResult> violations() {
+        List<HandlerResult> violations = new ArrayList<>();
+        for (HandlerResult result : results.values()) {
+            if (result.exceeded > 0) {
+                violations.add(result);
+            }
+        }
+        return violations;
+    }
+
+    List<Map<String, Object>> toMaps() {
+        List<Map<String, Object>> maps = new ArrayList<>();
+        for (HandlerResult result : results.values()) {
+            maps.add(result.toMap());
+        }
+        return maps;
+    }
+
+    /**
+     * Sentencias de un endpoint durante la prueba
+     */
+    static final class HandlerResult {
+        final String handler;
+        final long requests;
+        final double meanStatements;
+        final double maxStatements;
+        final int budget;
+        final long exceeded;
+
+        HandlerResult(String handler, long requests, double meanStatements, double maxStatements,
+                      int budget, long exceeded) {
+            this.handler = handler;
+            this.requests = requests;
+            this.meanStatements = meanStatements;
+            this.maxStatements = maxStatements;
+            this.budget = budget;
+            this.exceeded = exceeded;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("handler", handler);
+            map.put("requests", requests);
+            map.put("meanStatements", Math.round(meanStatements * 100.0) / 100.0);
+            map.put("maxStatements", (long) maxStatements);
+            map.put("budget", budget > 0 ? budget : null);
+            map.put("exceeded", exceeded);
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-56s %8d req  media %6.2f  máx %4d  presupuesto %4s  excedido %d",
+                    handler, requests, meanStatements, (long) maxStatements,
+                    budget > 0 ? String.valueOf(budget) : "-", exceeded);
+        }
+    }
+}
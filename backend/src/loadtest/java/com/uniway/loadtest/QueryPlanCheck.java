@@ -0,0 +1,120 @@
+package com.uniway.loadtest;
+
+import com.uniway.UniWayApplication;
+import com.uniway.repository.RepositoryQueryPlans;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * QueryPlanCheck - EXPLAIN de cada consulta de los repositorios
+ *
+ * Arranca la aplicación sin servidor web y revisa el plan de cada método de
+ * com.uniway.repository con RepositoryQueryPlans. Falla (código de salida 1) si alguna
+ * sentencia recorre una tabla completa o no se pudo revisar.
+ *
+ * Por defecto usa H2 en memoria con el esquema de las entidades (@Table(indexes)).
+ * Para revisar los índices reales de las migraciones, contra MySQL con datos
+ * representativos (con tablas casi vacías el optimizador puede preferir recorrerlas):
+ *   mvn -P loadtest verify -Dloadtest.main=com.uniway.loadtest.QueryPlanCheck \
+ *       -Dloadtest.args="url=jdbc:mysql://localhost:3306/uniway_db username=root password=..."
+ * MigrationQueryPlanTest (src/test) hace la misma revisión en cada build sobre una
+ * base MySQL recién migrada con Flyway.
+ *
+ * Opciones (clave=valor): url, username, password
+ */
+public final class QueryPlanCheck {
+
+    private QueryPlanCheck() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url",
+                "jdbc:h2:mem:uniway_plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE,USER;DB_CLOSE_DELAY=-1");
+        boolean h2 = url.startsWith("jdbc:h2:");
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + options.getOrDefault("username", h2 ? "sa" : "root"),
+                "--spring.datasource.password=" + options.getOrDefault("password", ""),
+                // Sin caché: cada consulta tiene que llegar a la base para capturar su SQL
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                "--email-outbox.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.uniway=WARN"));
+        if (h2) {
+            // Las migraciones son SQL de MySQL: en H2 el esquema lo crea Hibernate
+            appArgs.add("--spring.flyway.enabled=false");
+            appArgs.add("--spring.jpa.hibernate.ddl-auto=create");
+            appArgs.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            appArgs.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UniWayApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(RepositoryQueryPlans.recordingDataSource()))
+                .run(appArgs.toArray(new String[0]));
+        boolean failed;
+        try {
+            failed = report(new RepositoryQueryPlans(context));
+        } finally {
+            context.close();
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    // ==================== EJECUCIÓN ====================
+
+    /**
+     * @return true si alguna consulta recorre una tabla completa o no se pudo revisar
+     */
+    private static boolean report(RepositoryQueryPlans plans) {
+        List<RepositoryQueryPlans.Result> results = plans.explainAll();
+        System.out.printf("Planes de consulta: %d métodos de repositorio, %s%n",
+                results.stream().map(RepositoryQueryPlans.Result::method).distinct().count(),
+                plans.isH2() ? "H2" : "MySQL");
+        int scans = 0;
+        int errors = 0;
+        for (RepositoryQueryPlans.Result result : results) {
+            switch (result.status()) {
+                case RECORRIDO -> scans++;
+                case ERROR -> errors++;
+                default -> { }
+            }
+            if (result.status() == RepositoryQueryPlans.Status.SIN_SQL) {
+                System.out.printf("  %-9s %s%n", result.status().getLabel(), result.method());
+                continue;
+            }
+            System.out.printf("  %-9s %-60s %s%s%n", result.status().getLabel(), result.method(), result.summary(),
+                    result.status() == RepositoryQueryPlans.Status.PERMITIDO
+                            ? " (" + RepositoryQueryPlans.ALLOWED_SCANS.get(result.method()) + ")" : "");
+            if (result.status() == RepositoryQueryPlans.Status.RECORRIDO) {
+                System.out.println("            " + result.sql());
+            }
+        }
+        System.out.printf("Recorridos completos: %d, errores: %d%n", scans, errors);
+        return scans > 0 || errors > 0;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int equals = option.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (use clave=valor): " + arg);
+            }
+            values.put(option.substring(0, equals), option.substring(equals + 1));
+        }
+        return values;
+    }
+}
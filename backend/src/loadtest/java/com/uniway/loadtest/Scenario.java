@@ -0,0 +1,130 @@
+package com.uniway.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Scenario - Endpoints medidos por la prueba de carga
+ *
+ * Cada petición elige al azar un usuario (con su JWT) y, si aplica, una publicación
+ * de los datos sintéticos.
+ */
+enum Scenario {
+
+    /** GET /posts: listado del muro */
+    POSTS("posts") {
+        @Override
+        HttpRequest request(URI base, SeedData seed) {
+            int user = pick(seed.userIds.size());
+            return get(base.resolve("/posts"), seed.tokens.get(user));
+        }
+    },
+
+    /** POST /posts/{id}/like: alterna el like del usuario */
+    LIKE("like") {
+        @Override
+        HttpRequest request(URI base, SeedData seed) {
+            int user = pick(seed.userIds.size());
+            String postId = seed.postIds.get(pick(seed.postIds.size()));
+            return post(base.resolve("/posts/" + postId + "/like"), seed.tokens.get(user),
+                    "{\"userId\":\"" + seed.userIds.get(user) + "\"}");
+        }
+    },
+
+    /** GET /comments/post/{id}: comentarios de una publicación */
+    COMMENTS("comments") {
+        @Override
+        HttpRequest request(URI base, SeedData seed) {
+            int user = pick(seed.userIds.size());
+            String postId = seed.postIds.get(pick(seed.postIds.size()));
+            return get(base.resolve("/comments/post/" + postId), seed.tokens.get(user));
+        }
+    },
+
+    /** GET /teacher-recommendations?userId=: recomendaciones con reacciones del usuario */
+    RECOMMENDATIONS("recommendations") {
+        @Override
+        HttpRequest request(URI base, SeedData seed) {
+            int user = pick(seed.userIds.size());
+            return get(base.resolve("/teacher-recommendations?userId=" + seed.userIds.get(user)), seed.tokens.get(user));
+        }
+    },
+
+    /** POST /teacher-recommendations/{id}/like: alterna el like a una recomendación */
+    RECOMMENDATION_LIKE("recommendation-like") {
+        @Override
+        HttpRequest request(URI base, SeedData seed) {
+            int user = pick(seed.userIds.size());
+            String recommendationId = seed.recommendationIds.get(pick(seed.recommendationIds.size()));
+            return post(base.resolve("/teacher-recommendations/" + recommendationId + "/like"), seed.tokens.get(user),
+                    "{\"userId\":\"" + seed.userIds.get(user) + "\"}");
+        }
+    },
+
+    /** GET /teacher-recommendations/subjects: lista de referencia (caché de consultas) */
+    SUBJECTS("subjects") {
+        @Override
+        HttpRequest request(URI base, SeedData seed) {
+            int user = pick(seed.userIds.size());
+            return get(base.resolve("/teacher-recommendations/subjects"), seed.tokens.get(user));
+        }
+    },
+
+    /** POST /auth/login: dominado por la verificación BCrypt */
+    LOGIN("login") {
+        @Override
+        HttpRequest request(URI base, SeedData seed) {
+            String email = seed.emails.get(pick(seed.emails.size()));
+            return post(base.resolve("/auth/login"), null,
+                    "{\"email\":\"" + email + "\",\"password\":\"" + SeedData.PASSWORD + "\"}");
+        }
+    };
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String label;
+
+    Scenario(String label) {
+        this.label = label;
+    }
+
+    abstract HttpRequest request(URI base, SeedData seed);
+
+    static Scenario byName(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.label.equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Escenario desconocido: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    private static int pick(int size) {
+        return ThreadLocalRandom.current().nextInt(size);
+    }
+
+    private static HttpRequest get(URI uri, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static HttpRequest post(URI uri, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
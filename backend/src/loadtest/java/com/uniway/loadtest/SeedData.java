@@ -0,0 +1,133 @@
+package com.uniway.loadtest;
+
+import com.uniway.entity.Comment;
+import com.uniway.entity.Post;
+import com.uniway.entity.PostPriority;
+import com.uniway.entity.PostType;
+import com.uniway.entity.StudentTeacher;
+import com.uniway.entity.User;
+import com.uniway.entity.UserRole;
+import com.uniway.id.Ids;
+import com.uniway.repository.CommentRepository;
+import com.uniway.repository.PostRepository;
+import com.uniway.repository.StudentTeacherRepository;
+import com.uniway.repository.UserRepository;
+import com.uniway.service.JwtService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SeedData - Datos sintéticos para la prueba de carga
+ *
+ * Inserta usuarios, publicaciones, comentarios y recomendaciones a través de los
+ * repositorios de la aplicación ya iniciada, con semilla fija. Todos los usuarios
+ * comparten la contraseña PASSWORD (se calcula un solo hash BCrypt) y cada uno
+ * recibe un JWT firmado directamente con JwtService.
+ */
+final class SeedData {
+
+    static final String PASSWORD = "LoadTest-2025*";
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String[] PROGRAMS = {
+        "Ingeniería de Sistemas", "Administración de Empresas", "Medicina", "Derecho", "Psicología"
+    };
+
+    private static final String[] SUBJECTS = {
+        "Cálculo Diferencial", "Bases de Datos", "Física Mecánica", "Estructuras de Datos", "Álgebra Lineal"
+    };
+
+    final List<String> userIds = new ArrayList<>();
+    final List<String> emails = new ArrayList<>();
+    final List<String> tokens = new ArrayList<>();
+    final List<String> postIds = new ArrayList<>();
+    final List<String> recommendationIds = new ArrayList<>();
+    int comments;
+    int recommendations;
+
+    private SeedData() {}
+
+    static SeedData create(ApplicationContext context, LoadTestOptions options) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        PostRepository postRepository = context.getBean(PostRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        StudentTeacherRepository studentTeacherRepository = context.getBean(StudentTeacherRepository.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        Random random = new Random(2025);
+        SeedData seed = new SeedData();
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < options.users; i++) {
+            User user = new User(Ids.newId(), "carga" + i + "@uniway.edu.co", passwordHash,
+                    i % 50 == 0 ? UserRole.ADMINISTRATION : UserRole.STUDENT, "Usuario de Carga " + i);
+            user.setProgram(PROGRAMS[i % PROGRAMS.length]);
+            user.setStudentId(String.format("LT%06d", i));
+            users.add(user);
+        }
+        saveInBatches(userRepository, users);
+        for (User user : users) {
+            seed.userIds.add(user.getId());
+            seed.emails.add(user.getEmail());
+            seed.tokens.add(jwtService.generateToken(user));
+        }
+
+        PostType[] types = PostType.values();
+        PostPriority[] priorities = PostPriority.values();
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < options.posts; i++) {
+            Post post = new Post(Ids.newId(), users.get(random.nextInt(users.size())),
+                    "Publicación de carga " + i + ": " + "contenido ".repeat(5 + random.nextInt(60)),
+                    types[random.nextInt(types.length)]);
+            post.setPriority(priorities[random.nextInt(priorities.length)]);
+            post.setIsApproved(true);
+            post.setCommentCount(options.commentsPerPost);
+            posts.add(post);
+        }
+        saveInBatches(postRepository, posts);
+        posts.forEach(post -> seed.postIds.add(post.getId()));
+
+        List<Comment> comments = new ArrayList<>();
+        for (Post post : posts) {
+            for (int i = 0; i < options.commentsPerPost; i++) {
+                comments.add(new Comment(Ids.newId(), post, users.get(random.nextInt(users.size())),
+                        "Comentario " + i + " " + "texto ".repeat(3 + random.nextInt(20))));
+            }
+            if (comments.size() >= BATCH_SIZE) {
+                commentRepository.saveAll(comments);
+                seed.comments += comments.size();
+                comments.clear();
+            }
+        }
+        commentRepository.saveAll(comments);
+        seed.comments += comments.size();
+
+        List<StudentTeacher> recommendations = new ArrayList<>();
+        for (int i = 0; i < options.recommendations; i++) {
+            StudentTeacher recommendation = new StudentTeacher(Ids.newId(),
+                    users.get(random.nextInt(users.size())), "Profesor " + random.nextInt(200),
+                    SUBJECTS[random.nextInt(SUBJECTS.length)], random.nextBoolean() ? "1" : "2",
+                    2020 + random.nextInt(6), "Referencia " + "buena clase ".repeat(2 + random.nextInt(10)));
+            recommendation.setRating(1 + random.nextInt(5));
+            recommendations.add(recommendation);
+        }
+        saveInBatches(studentTeacherRepository, recommendations);
+        recommendations.forEach(recommendation -> seed.recommendationIds.add(recommendation.getId()));
+        seed.recommendations = recommendations.size();
+        return seed;
+    }
+
+    private static <T> void saveInBatches(JpaRepository<T, String> repository,
+                                          List<T> entities) {
+        for (int from = 0; from < entities.size(); from += BATCH_SIZE) {
+            repository.saveAll(entities.subList(from, Math.min(from + BATCH_SIZE, entities.size())));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.uniway.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * WorkloadRunner - Ejecuta un escenario en lazo cerrado o abierto y mide la latencia
+ *
+ * - Lazo cerrado: "concurrency" clientes envían una petición, esperan la respuesta y
+ *   envían la siguiente. Mide la capacidad máxima, pero oculta las colas: si el
+ *   servidor se frena, los clientes también.
+ * - Lazo abierto: las peticiones salen a una tasa fija sin esperar respuestas, y la
+ *   latencia se mide desde el instante en que la petición debía salir, no desde que
+ *   salió (corrección de omisión coordinada). Es lo que ve un usuario real cuando el
+ *   servidor está saturado.
+ *
+ * Las latencias se registran en microsegundos en un Recorder de HdrHistogram. Las
+ * respuestas con estado distinto de 2xx y los errores de red cuentan como errores.
+ */
+final class WorkloadRunner {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final HttpClient client;
+    private final URI base;
+    private final SeedData seed;
+    private final LoadTestOptions options;
+
+    WorkloadRunner(HttpClient client, URI base, SeedData seed, LoadTestOptions options) {
+        this.client = client;
+        this.base = base;
+        this.seed = seed;
+        this.options = options;
+    }
+
+    /**
+     * Calienta y luego mide un escenario
+     */
+    LoadTestReport.ScenarioResult run(Scenario scenario) throws InterruptedException {
+        if (options.warmupSeconds > 0) {
+            execute(scenario, options.warmupSeconds);
+        }
+        Measurement measurement = execute(scenario, options.durationSeconds);
+        return new LoadTestReport.ScenarioResult(scenario.toString(), measurement.histogram,
+                measurement.errors.get(), measurement.dropped.get(), measurement.elapsedNanos);
+    }
+
+    private Measurement execute(Scenario scenario, int seconds) throws InterruptedException {
+        Measurement measurement = new Measurement();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long started = System.nanoTime();
+        if (options.isOpenLoop()) {
+            openLoop(scenario, deadline, measurement);
+        } else {
+            closedLoop(scenario, deadline, measurement);
+        }
+        measurement.elapsedNanos = System.nanoTime() - started;
+        measurement.histogram = measurement.recorder.getIntervalHistogram();
+        return measurement;
+    }
+
+    private void closedLoop(Scenario scenario, long deadline, Measurement measurement) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        try {
+            List<CompletableFuture<Void>> clients = new ArrayList<>();
+            for (int i = 0; i < options.concurrency; i++) {
+                clients.add(CompletableFuture.runAsync(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(scenario.request(base, seed),
+                                    HttpResponse.BodyHandlers.discarding());
+                            measurement.record(start, response.statusCode());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception e) {
+                            measurement.record(start, -1);
+                        }
+                    }
+                }, workers));
+            }
+            CompletableFuture.allOf(clients.toArray(new CompletableFuture[0])).join();
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private void openLoop(Scenario scenario, long deadline, Measurement measurement) throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, options.rate);
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        long intended = System.nanoTime();
+        while (intended < deadline) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                measurement.dropped.incrementAndGet();
+            } else {
+                long scheduled = intended;
+                client.sendAsync(scenario.request(base, seed), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            measurement.record(scheduled, error == null ? response.statusCode() : -1);
+                            inFlight.release();
+                        });
+            }
+            intended += intervalNanos;
+        }
+        // Esperar las respuestas pendientes antes de cerrar la medición
+        if (inFlight.tryAcquire(options.maxInFlight, 60, TimeUnit.SECONDS)) {
+            inFlight.release(options.maxInFlight);
+        }
+    }
+
+    private static final class Measurement {
+        final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        Histogram histogram;
+        long elapsedNanos;
+
+        void record(long startNanos, int status) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+            recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (status < 200 || status >= 300) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+}
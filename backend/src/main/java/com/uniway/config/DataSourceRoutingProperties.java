@@ -0,0 +1,84 @@
+package com.uniway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSourceRoutingProperties - Réplicas de lectura (prefijo "datasource-routing")
+ *
+ * Con enabled=true las transacciones @Transactional(readOnly = true) se envían a las
+ * réplicas (ver ReplicaRoutingDataSource) y el resto a la base principal definida en
+ * spring.datasource.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "datasource-routing")
+public class DataSourceRoutingProperties {
+
+    /** Activa el enrutamiento; desactivado se usa solo spring.datasource */
+    private boolean enabled = false;
+
+    /**
+     * Tras escribir, las lecturas del mismo usuario van a la principal durante este tiempo
+     * (como mínimo max-lag-seconds)
+     */
+    private long readYourWritesMs = 10_000;
+
+    /** Retraso de replicación máximo tolerado; una réplica más atrasada deja de recibir lecturas */
+    private int maxLagSeconds = 10;
+
+    /** Intervalo de la comprobación de salud y retraso de las réplicas */
+    private long healthCheckIntervalMs = 5_000;
+
+    /**
+     * Consulta del retraso en segundos, ejecutada en cada réplica. Se lee la columna
+     * Seconds_Behind_Source si existe (SHOW REPLICA STATUS de MySQL) o la primera.
+     * Obligatoria si hay réplicas: el arranque falla si está vacía
+     */
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    /** Réplicas de lectura */
+    private List<Replica> replicas = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getReadYourWritesMs() { return readYourWritesMs; }
+    public void setReadYourWritesMs(long readYourWritesMs) { this.readYourWritesMs = readYourWritesMs; }
+
+    public int getMaxLagSeconds() { return maxLagSeconds; }
+    public void setMaxLagSeconds(int maxLagSeconds) { this.maxLagSeconds = maxLagSeconds; }
+
+    public long getHealthCheckIntervalMs() { return healthCheckIntervalMs; }
+    public void setHealthCheckIntervalMs(long healthCheckIntervalMs) { this.healthCheckIntervalMs = healthCheckIntervalMs; }
+
+    public String getLagQuery() { return lagQuery; }
+    public void setLagQuery(String lagQuery) { this.lagQuery = lagQuery; }
+
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) { this.replicas = replicas; }
+
+    /**
+     * Réplica: URL JDBC y credenciales (por defecto las de spring.datasource)
+     */
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+    }
+}
@@ -0,0 +1,69 @@
+package com.uniway.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.typesafe.config.ConfigFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Set;
+
+/**
+ * HibernateCacheConfig - Caché de segundo nivel y de consultas de Hibernate
+ *
+ * Las regiones (tamaño máximo y expiración) se declaran en hibernate-cache.conf y
+ * las entidades o consultas las eligen con @Cache(region = ...) o la sugerencia
+ * HINT_CACHE_REGION. El CacheManager de JCache se crea aquí y se entrega a Hibernate,
+ * para poder registrar las métricas de Caffeine de cada región.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final String CACHE_CONFIG_RESOURCE = "hibernate-cache.conf";
+
+    private static final String CACHE_CONFIG = "classpath:" + CACHE_CONFIG_RESOURCE;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(
+                CaffeineCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create(CACHE_CONFIG), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Métricas cache.gets, cache.evictions y cache.size por región declarada
+     * (las regiones de consultas se crean en su primer uso; aquí se crean todas)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindCacheMetrics() {
+        CacheManager cacheManager = hibernateCacheManager();
+        Set<String> regions = ConfigFactory.parseResources(CACHE_CONFIG_RESOURCE)
+                .getConfig("caffeine.jcache").root().keySet();
+        for (String name : regions) {
+            if (name.equals("default")) {
+                continue;
+            }
+            Cache<Object, Object> cache = cacheManager.getCache(name);
+            CaffeineCacheMetrics.monitor(meterRegistry,
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class), name);
+        }
+    }
+}
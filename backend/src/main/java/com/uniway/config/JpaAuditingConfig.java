@@ -0,0 +1,28 @@
+package com.uniway.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * JpaAuditingConfig - Auditoría automática (@CreatedDate, @LastModifiedDate)
+ *
+ * Las columnas created_at/updated_at son TIMESTAMP sin fracciones de segundo, así que
+ * las fechas se truncan al segundo al asignarlas: la entidad en memoria (y en la caché
+ * de segundo nivel) queda igual a la que se vuelve a leer de la base, y el ETag del
+ * perfil no cambia entre el PUT y el siguiente GET.
+ */
+@Configuration
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
+public class JpaAuditingConfig {
+
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+}
@@ -0,0 +1,76 @@
+package com.uniway.config;
+
+import com.uniway.metrics.HibernateRequestStatistics;
+import com.uniway.metrics.RequestStatisticsFilter;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * MetricsConfig - Métricas propias además de las que Actuator registra solo
+ *
+ * Actuator ya publica http.server.requests, spring.data.repository.invocations
+ * (un timer por repositorio y método), el pool de HikariCP, JVM/GC y, con
+ * hibernate-micrometer, las estadísticas globales de Hibernate. Aquí se agrega:
+ * - la etiqueta "handler" (Controlador.método) en http.server.requests
+ * - sentencias SQL, entidades cargadas y flushes por petición, con presupuesto
+ *   de sentencias por controlador (QueryBudgetProperties), incluidas las que se
+ *   ejecutan en otros hilos en nombre de la petición (requestStatisticsTaskDecorator)
+ *
+ * Todo se expone en /actuator/prometheus (solo con token de administración, ver
+ * SecurityConfig).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public ServerRequestObservationConvention handlerObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsHibernateCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                HibernateRequestStatistics.SessionListener.class.getName());
+    }
+
+    /**
+     * Propaga los contadores de la petición a las tareas que envía. Spring Boot lo
+     * aplica a applicationTaskExecutor (continuaciones de login/registro y respuestas
+     * asíncronas de MVC); PasswordHashingService lo aplica a su pool de BCrypt.
+     */
+    @Bean
+    public TaskDecorator requestStatisticsTaskDecorator() {
+        return HibernateRequestStatistics::propagate;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestStatisticsFilter> requestStatisticsFilter(MeterRegistry meterRegistry,
+                                                                                   QueryBudgetProperties queryBudgets) {
+        FilterRegistrationBean<RequestStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new RequestStatisticsFilter(meterRegistry, queryBudgets));
+        // Antes de la cadena de seguridad (-100), después del filtro de observación HTTP
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        String name = RequestStatisticsFilter.handlerName(context.getCarrier());
+        return KeyValue.of("handler", name != null ? name : "none");
+    }
+}
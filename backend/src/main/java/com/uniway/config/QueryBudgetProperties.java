@@ -0,0 +1,51 @@
+package com.uniway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * QueryBudgetProperties - Máximo de sentencias SQL por petición (prefijo "query-budget")
+ *
+ * RequestStatisticsFilter compara las sentencias de cada petición con el presupuesto
+ * de su controlador; si lo excede registra un WARN y la métrica
+ * hibernate.request.budget.exceeded. La prueba de carga (perfil Maven "loadtest")
+ * falla si algún endpoint lo excedió, de modo que un N+1 nuevo se detecta antes de
+ * llegar a producción.
+ *
+ * Cada controlador debe tener su presupuesto en "handlers" (QueryBudgetTest lo exige);
+ * defaultMax es solo una red de seguridad para los que aún no lo tienen.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "query-budget")
+public class QueryBudgetProperties {
+
+    /** Activa o desactiva la comprobación */
+    private boolean enabled = true;
+
+    /** Presupuesto de los controladores que no tienen uno propio; 0 = sin límite */
+    private int defaultMax = 10;
+
+    /** Presupuesto por controlador, con clave "Controlador.método" */
+    private Map<String, Integer> handlers = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getDefaultMax() { return defaultMax; }
+    public void setDefaultMax(int defaultMax) { this.defaultMax = defaultMax; }
+
+    public Map<String, Integer> getHandlers() { return handlers; }
+    public void setHandlers(Map<String, Integer> handlers) { this.handlers = handlers; }
+
+    /**
+     * Presupuesto de un controlador
+     * @param handler Nombre "Controlador.método"
+     * @return Máximo de sentencias, 0 si no tiene límite
+     */
+    public int budgetFor(String handler) {
+        return handlers.getOrDefault(handler, defaultMax);
+    }
+}
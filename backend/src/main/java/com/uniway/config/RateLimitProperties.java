@@ -0,0 +1,87 @@
+package com.uniway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * RateLimitProperties - Configuración de los límites de tasa por ruta (prefijo "rate-limit")
+ *
+ * Cada ruta define un límite por IP (aplicado en RateLimitFilter antes de leer el
+ * cuerpo) y, opcionalmente, un límite por email (aplicado en el controlador antes de
+ * cualquier consulta a base de datos o cálculo de BCrypt).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    /** Activa o desactiva la limitación de tasa */
+    private boolean enabled = true;
+
+    /** Máximo de buckets en memoria; al llenarse las claves nuevas comparten un bucket por ruta */
+    private int maxKeys = 100_000;
+
+    /** Intervalo de purga de buckets inactivos */
+    private long sweepIntervalMs = 60_000;
+
+    /** Usar la primera IP de X-Forwarded-For (solo detrás de un proxy confiable) */
+    private boolean trustForwardedFor = false;
+
+    /** Rutas limitadas, por nombre */
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+
+    public long getSweepIntervalMs() { return sweepIntervalMs; }
+    public void setSweepIntervalMs(long sweepIntervalMs) { this.sweepIntervalMs = sweepIntervalMs; }
+
+    public boolean isTrustForwardedFor() { return trustForwardedFor; }
+    public void setTrustForwardedFor(boolean trustForwardedFor) { this.trustForwardedFor = trustForwardedFor; }
+
+    public Map<String, Route> getRoutes() { return routes; }
+    public void setRoutes(Map<String, Route> routes) { this.routes = routes; }
+
+    /**
+     * Ruta limitada: path exacto del endpoint y sus límites
+     */
+    public static class Route {
+        private String path;
+        private Limit perIp;
+        private Limit perEmail;
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public Limit getPerIp() { return perIp; }
+        public void setPerIp(Limit perIp) { this.perIp = perIp; }
+
+        public Limit getPerEmail() { return perEmail; }
+        public void setPerEmail(Limit perEmail) { this.perEmail = perEmail; }
+    }
+
+    /**
+     * Límite: "limit" solicitudes por "period", admitiendo ráfagas de hasta "burst"
+     */
+    public static class Limit {
+        private int limit;
+        private Duration period = Duration.ofMinutes(1);
+        private Integer burst;
+
+        public int getLimit() { return limit; }
+        public void setLimit(int limit) { this.limit = limit; }
+
+        public Duration getPeriod() { return period; }
+        public void setPeriod(Duration period) { this.period = period; }
+
+        /** Tamaño de ráfaga; por defecto igual al límite */
+        public int getBurst() { return burst != null ? burst : limit; }
+        public void setBurst(Integer burst) { this.burst = burst; }
+    }
+}
@@ -0,0 +1,19 @@
+package com.uniway.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * SchedulingConfig - Tareas programadas (@Scheduled): worker de correos, purgas,
+ * reconstrucción de índices en memoria...
+ *
+ * Activas por defecto. El perfil de pruebas las desactiva (scheduling.enabled=false)
+ * para que ninguna consulta en segundo plano se mezcle con las de las peticiones
+ * que se miden; las pruebas llaman a los métodos programados directamente.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -1,34 +1,61 @@
 package com.uniway.config;
 
+import com.uniway.security.JwtAuthenticationFilter;
+import com.uniway.security.RateLimitFilter;
+import com.uniway.security.RateLimiter;
+import com.uniway.service.JwtService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtService jwtService,
+                                           RateLimiter rateLimiter, RateLimitProperties rateLimitProperties) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // El filtro JWT se crea aquí (no como @Component) para que solo se ejecute dentro de la cadena de seguridad
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
+            // El límite por IP se evalúa antes que cualquier otro trabajo (JWT, cuerpo, BD o BCrypt)
+            .addFilterBefore(new RateLimitFilter(rateLimiter, rateLimitProperties.isTrustForwardedFor()), JwtAuthenticationFilter.class)
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/posts/**").permitAll()    // Permitir todos los endpoints de posts
                 .requestMatchers("/users/**").permitAll()    // Permitir todos los endpoints de usuarios
                 .requestMatchers("/swagger-ui/**", "/api-docs/**").permitAll()
+                // Actuator: health es público; métricas y Prometheus solo para administración
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMINISTRATION")
                 .anyRequest().permitAll()  // Temporalmente permitir todo para desarrollo
-            );
+            )
+            // Sin token: 401 (por defecto sería 403, igual que un usuario sin el rol)
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
         return http.build();
     }
     
+    /**
+     * Codificador BCrypt con costo configurable (password-hashing.bcrypt-strength).
+     * Los hashes con otro costo se recalculan de forma transparente en el login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -0,0 +1,101 @@
+package com.uniway.controller;
+
+import com.uniway.security.AuthenticatedUser;
+import com.uniway.service.CurrentUserService;
+import com.uniway.service.EmailService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AnnouncementController - Anuncios por email a los estudiantes de un programa
+ *
+ * Solo los usuarios con rol de administración pueden enviar anuncios. El endpoint
+ * responde en cuanto los correos quedan encolados; el envío real es asíncrono.
+ */
+@RestController
+@RequestMapping("/announcements")
+@Tag(name = "Anuncios", description = "Envío masivo de anuncios por email")
+@CrossOrigin(origins = "*")
+public class AnnouncementController {
+
+    /** Longitud máxima del texto de un anuncio */
+    private static final int MAX_MESSAGE_LENGTH = 10000;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    /**
+     * Encola un anuncio para todos los usuarios activos de un programa
+     *
+     * @param request Programa, título y mensaje del anuncio
+     * @return Número de correos encolados
+     */
+    @PostMapping("/email")
+    @Operation(summary = "Enviar un anuncio por email a los usuarios activos de un programa (solo admin)")
+    public ResponseEntity<?> sendProgramAnnouncement(@RequestBody AnnouncementRequest request) {
+        try {
+            boolean isAdmin = currentUserService.getAuthenticatedUser()
+                .map(AuthenticatedUser::isAdmin)
+                .orElse(false);
+            if (!isAdmin) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Solo administración puede enviar anuncios");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+
+            if (isBlank(request.getProgram()) || isBlank(request.getTitle()) || isBlank(request.getMessage())) {
+                throw new RuntimeException("Programa, título y mensaje son obligatorios");
+            }
+            if (request.getMessage().length() > MAX_MESSAGE_LENGTH) {
+                throw new RuntimeException("El mensaje no puede superar " + MAX_MESSAGE_LENGTH + " caracteres");
+            }
+
+            int queued = emailService.sendProgramAnnouncement(
+                request.getProgram().trim(), request.getTitle().trim(), request.getMessage());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Anuncio encolado exitosamente");
+            response.put("program", request.getProgram().trim());
+            response.put("recipients", queued);
+            return ResponseEntity.accepted().body(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    // ==================== CLASES DE REQUEST ====================
+
+    /**
+     * Clase para requests de anuncios
+     */
+    public static class AnnouncementRequest {
+        private String program;
+        private String title;
+        private String message;
+
+        public String getProgram() { return program; }
+        public void setProgram(String program) { this.program = program; }
+
+        public String getTitle() { return title; }
+        public void setTitle(String title) { this.title = title; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
@@ -3,18 +3,31 @@ package com.uniway.controller;
 import com.uniway.dto.UserDto;
 import com.uniway.entity.User;
 import com.uniway.entity.UserRole;
+import com.uniway.security.AuthenticatedUser;
+import com.uniway.security.RateLimitExceededException;
+import com.uniway.security.RateLimiter;
 import com.uniway.service.AuthService;
+import com.uniway.service.CurrentUserService;
+import com.uniway.service.JwtService;
+import com.uniway.service.RefreshTokenService;
+import com.uniway.service.ServiceOverloadedException;
+import com.uniway.service.TokenRevocationService;
 import com.uniway.service.UserService;
 import com.uniway.service.EmailService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -31,10 +44,27 @@ public class AuthController {
     @Autowired
     private EmailService emailService;
     
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private JwtService jwtService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private RateLimiter rateLimiter;
+    
     @PostMapping("/register")
     @Operation(summary = "Iniciar proceso de registro - Enviar código de verificación")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
         try {
+            rateLimiter.checkEmail("register", request.getEmail());
+            
             // Validar que el email sea institucional
             if (!request.getEmail().endsWith("@pascualbravo.edu.co")) {
                 Map<String, String> error = new HashMap<>();
@@ -66,59 +96,114 @@ public class AuthController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+            return errorResponse(e);
         }
     }
     
     @PostMapping("/complete-registration")
     @Operation(summary = "Completar registro después de verificar email")
-    public ResponseEntity<?> completeRegistration(@Valid @RequestBody CompleteRegistrationRequest request) {
+    public CompletableFuture<ResponseEntity<?>> completeRegistration(@Valid @RequestBody CompleteRegistrationRequest request) {
         try {
             // Verificar el código de verificación
             
             
-            // Crear el usuario
-            User user = authService.register(
+            // Crear el usuario (el hash de la contraseña se calcula fuera del hilo del request)
+            return authService.register(
                 request.getEmail(),
                 request.getPassword(),
                 request.getRole(),
                 request.getFullName(),
                 request.getStudentId(),
                 request.getProgram()
-            );
+            ).<ResponseEntity<?>>thenApply(user -> {
+                UserDto userDto = userService.convertToDto(user);
+                String token = authService.generateToken(user);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("user", userDto);
+                response.put("token", token);
+                response.put("refreshToken", refreshTokenService.issue(user.getId()));
+                response.put("expiresIn", jwtService.getExpirationMs() / 1000);
+                response.put("message", "Usuario registrado exitosamente");
+                response.put("emailVerified", true);
+                
+                return ResponseEntity.ok(response);
+            }).exceptionally(this::errorResponse);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(errorResponse(e));
+        }
+    }
+    
+    @PostMapping("/login")
+    @Operation(summary = "Iniciar sesión")
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        try {
+            rateLimiter.checkEmail("login", request.getEmail());
             
-            UserDto userDto = userService.convertToDto(user);
-            String token = authService.generateToken(user);
+            return authService.authenticate(request.getEmail(), request.getPassword()).<ResponseEntity<?>>thenApply(user -> {
+                UserDto userDto = userService.convertToDto(user);
+                String token = authService.generateToken(user);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("user", userDto);
+                response.put("token", token);
+                response.put("refreshToken", refreshTokenService.issue(user.getId()));
+                response.put("expiresIn", jwtService.getExpirationMs() / 1000);
+                response.put("message", "Inicio de sesión exitoso");
+                
+                return ResponseEntity.ok(response);
+            }).exceptionally(this::errorResponse);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(errorResponse(e));
+        }
+    }
+    
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar la sesión con un refresh token (rota el token y devuelve el perfil)")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
             
+            User user = userService.findById(rotation.getUserId())
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            if (!user.getIsActive()) {
+                refreshTokenService.revokeAllForUser(user.getId());
+                throw new RuntimeException("Usuario inactivo");
+            }
+            
+            // Se devuelve también el perfil para que la app resuelva su arranque en frío con un solo request
             Map<String, Object> response = new HashMap<>();
-            response.put("user", userDto);
-            response.put("token", token);
-            response.put("message", "Usuario registrado exitosamente");
-            response.put("emailVerified", true);
+            response.put("user", userService.convertToDto(user));
+            response.put("token", authService.generateToken(user));
+            response.put("refreshToken", rotation.getRefreshToken());
+            response.put("expiresIn", jwtService.getExpirationMs() / 1000);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
         }
     }
     
-    @PostMapping("/login")
-    @Operation(summary = "Iniciar sesión")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión (dispositivo actual o todos los dispositivos)")
+    public ResponseEntity<?> logout(@RequestBody(required = false) LogoutRequest request) {
         try {
-            User user = authService.authenticate(request.getEmail(), request.getPassword());
-            UserDto userDto = userService.convertToDto(user);
-            String token = authService.generateToken(user);
+            String refreshToken = request != null ? request.getRefreshToken() : null;
+            boolean allDevices = request != null && Boolean.TRUE.equals(request.getAllDevices());
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("user", userDto);
-            response.put("token", token);
-            response.put("message", "Inicio de sesión exitoso");
+            Optional<AuthenticatedUser> authenticated = currentUserService.getAuthenticatedUser();
+            authenticated.ifPresent(user -> tokenRevocationService.revokeToken(user.getTokenId(), user.getTokenExpiresAt()));
+            
+            String ownerId = refreshTokenService.revoke(refreshToken);
+            String userId = authenticated.map(AuthenticatedUser::getId).orElse(ownerId);
+            if (allDevices && userId != null) {
+                refreshTokenService.revokeAllForUser(userId);
+            }
             
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Sesión cerrada exitosamente");
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -131,6 +216,8 @@ public class AuthController {
     @Operation(summary = "Enviar código para recuperar contraseña")
     public ResponseEntity<?> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request) {
         try {
+            rateLimiter.checkEmail("forgot-password", request.getEmail());
+            
             // Validar que el email sea institucional
             if (!request.getEmail().endsWith("@pascualbravo.edu.co")) {
                 Map<String, String> error = new HashMap<>();
@@ -162,44 +249,68 @@ public class AuthController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+            return errorResponse(e);
         }
     }
     
     @PostMapping("/reset-password")
     @Operation(summary = "Restablecer contraseña con código")
-    public ResponseEntity<?> resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
+    public CompletableFuture<ResponseEntity<?>> resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
         try {
+            rateLimiter.checkEmail("reset-password", request.getEmail());
+            
             // Verificar el código de verificación
             if (!emailService.verifyCode(request.getEmail(), request.getCode())) {
                 Map<String, String> error = new HashMap<>();
                 error.put("error", "Código de verificación inválido o expirado");
-                return ResponseEntity.badRequest().body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
             }
             
             // Buscar el usuario
             User user = userService.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
             
-            // Actualizar la contraseña
-            authService.updatePassword(user, request.getNewPassword());
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Contraseña restablecida exitosamente");
-            response.put("success", true);
-            
-            return ResponseEntity.ok(response);
+            // Actualizar la contraseña y cerrar todas las sesiones abiertas
+            return authService.updatePassword(user, request.getNewPassword()).<ResponseEntity<?>>thenApply(updated -> {
+                refreshTokenService.revokeAllForUser(updated.getId());
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("message", "Contraseña restablecida exitosamente");
+                response.put("success", true);
+                
+                return ResponseEntity.ok(response);
+            }).exceptionally(this::errorResponse);
         } catch (Exception e) {
-            Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return ResponseEntity.badRequest().body(error);
+            return CompletableFuture.completedFuture(errorResponse(e));
         }
     }
     
     // ==================== MÉTODOS DE UTILIDAD ====================
     
+    /**
+     * Construye la respuesta de error de los endpoints de autenticación
+     * Límite de tasa superado: 429; pool de hashing saturado: 503 (ambos con Retry-After);
+     * cualquier otro error: 400.
+     * @param e Excepción (posiblemente envuelta en CompletionException)
+     * @return Respuesta de error
+     */
+    private ResponseEntity<?> errorResponse(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        Map<String, String> error = new HashMap<>();
+        error.put("error", cause.getMessage());
+        if (cause instanceof RateLimitExceededException limited) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(limited.getRetryAfterSeconds()))
+                .body(error);
+        }
+        if (cause instanceof ServiceOverloadedException overloaded) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(overloaded.getRetryAfterSeconds()))
+                .body(error);
+        }
+        return ResponseEntity.badRequest().body(error);
+    }
+    
     /**
      * Verifica si la aplicación está en modo desarrollo
      * @return true si está en modo desarrollo
@@ -282,6 +393,24 @@ public class AuthController {
         public void setPassword(String password) { this.password = password; }
     }
     
+    public static class RefreshRequest {
+        private String refreshToken;
+        
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    }
+    
+    public static class LogoutRequest {
+        private String refreshToken;
+        private Boolean allDevices;
+        
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+        
+        public Boolean getAllDevices() { return allDevices; }
+        public void setAllDevices(Boolean allDevices) { this.allDevices = allDevices; }
+    }
+    
     public static class ForgotPasswordRequest {
         private String email;
         
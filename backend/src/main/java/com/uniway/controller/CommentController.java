@@ -2,10 +2,16 @@ package com.uniway.controller;
 
 import com.uniway.dto.CommentDto;
 import com.uniway.entity.Comment;
+import com.uniway.security.AuthenticatedUser;
+import com.uniway.security.UnauthenticatedException;
 import com.uniway.service.CommentService;
+import com.uniway.service.CurrentUserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +25,8 @@ import java.util.Map;
 @Tag(name = "Comments", description = "Endpoints para gestión de comentarios")
 @CrossOrigin(origins = "*")
 public class CommentController {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentController.class);
     
     @Autowired
     private CommentService commentService;
@@ -26,25 +34,26 @@ public class CommentController {
     @Autowired
     private com.uniway.service.PostService postService;
     
+    @Autowired
+    private CurrentUserService currentUserService;
+    
     @GetMapping("/post/{postId}")
     @Operation(summary = "Obtener comentarios de una publicación")
     public ResponseEntity<?> getCommentsByPostId(@PathVariable String postId) {
         try {
-            System.out.println("=== DEBUG: Obteniendo comentarios del post " + postId + " ===");
+            log.debug("Obteniendo comentarios del post {}", postId);
             
             List<Comment> comments = commentService.getCommentsByPostId(postId);
             List<CommentDto> commentDtos = comments.stream()
                 .map(commentService::convertToDto)
                 .collect(java.util.stream.Collectors.toList());
             
-            System.out.println("Comentarios convertidos: " + commentDtos.size());
+            log.debug("Comentarios convertidos: {}", commentDtos.size());
             
             return ResponseEntity.ok(commentDtos);
             
         } catch (Exception e) {
-            System.err.println("=== ERROR: Obteniendo comentarios ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error obteniendo comentarios", e);
             
             Map<String, String> error = new HashMap<>();
             error.put("error", "Error al obtener comentarios: " + e.getMessage());
@@ -57,14 +66,14 @@ public class CommentController {
     @Transactional
     public ResponseEntity<?> createComment(@RequestBody CreateCommentRequest request) {
         try {
-            System.out.println("=== DEBUG: Creando comentario ===");
-            System.out.println("Post ID: " + request.getPostId());
-            System.out.println("Author ID: " + request.getAuthorId());
-            System.out.println("Content: " + request.getContent());
+            log.debug("Creando comentario - Post ID: {}, Author ID: {}", request.getPostId(), request.getAuthorId());
+            
+            // El autor es el usuario del token; authorId solo se usa sin token en el perfil dev
+            String authorId = currentUserService.resolve(request.getAuthorId()).getId();
             
             Comment comment = commentService.createComment(
                 request.getPostId(),
-                request.getAuthorId(),
+                authorId,
                 request.getContent()
             );
             
@@ -76,10 +85,10 @@ public class CommentController {
             
             return ResponseEntity.ok(response);
             
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: Creando comentario ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error creando comentario: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -92,13 +101,10 @@ public class CommentController {
     @Transactional
     public ResponseEntity<?> createCommentDev(@RequestBody CreateCommentRequestDev request) {
         try {
-            System.out.println("=== DEBUG: Creando comentario (desarrollo) ===");
-            System.out.println("Post ID: " + request.getPostId());
-            System.out.println("Author Email: " + request.getAuthorEmail());
-            System.out.println("Content: " + request.getContent());
+            log.debug("Creando comentario (desarrollo) - Post ID: {}, Author Email: {}", request.getPostId(), request.getAuthorEmail());
             
-            // Buscar usuario por email (modo desarrollo)
-            String userId = getUserIdByEmail(request.getAuthorEmail());
+            // Buscar usuario por email (solo perfil dev; con token se usa el del token)
+            String userId = currentUserService.resolve(() -> getUserIdByEmail(request.getAuthorEmail())).getId();
             
             Comment comment = commentService.createComment(
                 request.getPostId(),
@@ -114,10 +120,10 @@ public class CommentController {
             
             return ResponseEntity.ok(response);
             
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: Creando comentario (desarrollo) ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error creando comentario (desarrollo): {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -133,12 +139,10 @@ public class CommentController {
         @RequestBody UpdateCommentRequest request
     ) {
         try {
-            System.out.println("=== DEBUG: Actualizando comentario ===");
-            System.out.println("Comment ID: " + id);
-            System.out.println("Content: " + request.getContent());
-            System.out.println("User ID: " + request.getUserId());
+            log.debug("Actualizando comentario - Comment ID: {}, User ID: {}", id, request.getUserId());
             
-            Comment comment = commentService.updateComment(id, request.getContent(), request.getUserId());
+            AuthenticatedUser user = currentUserService.resolve(request.getUserId());
+            Comment comment = commentService.updateComment(id, request.getContent(), user);
             CommentDto commentDto = commentService.convertToDto(comment);
             
             Map<String, Object> response = new HashMap<>();
@@ -147,10 +151,10 @@ public class CommentController {
             
             return ResponseEntity.ok(response);
             
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: Actualizando comentario ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error actualizando comentario: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -163,25 +167,23 @@ public class CommentController {
     @Transactional
     public ResponseEntity<?> deleteComment(
         @PathVariable String id,
-        @RequestParam String userId
+        @RequestParam(required = false) String userId
     ) {
         try {
-            System.out.println("=== DEBUG: CommentController.deleteComment ===");
-            System.out.println("Comment ID: " + id);
-            System.out.println("User ID: " + userId);
+            log.debug("CommentController.deleteComment - Comment ID: {}, User ID: {}", id, userId);
             
-            commentService.deleteComment(id, userId);
+            commentService.deleteComment(id, currentUserService.resolve(userId));
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "Comentario eliminado exitosamente");
             
-            System.out.println("Respuesta enviada: " + response);
+            log.debug("Respuesta enviada: {}", response);
             return ResponseEntity.ok(response);
             
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: CommentController.deleteComment ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error eliminando comentario: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -233,6 +235,15 @@ public class CommentController {
         return postService.getUserIdByEmail(email);
     }
     
+    /**
+     * Respuesta 401 cuando la operación necesita un usuario y no hay token válido
+     */
+    private static ResponseEntity<Map<String, String>> unauthorized(UnauthenticatedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+    
     // Clases internas para requests
     public static class CreateCommentRequest {
         private String postId;
@@ -4,11 +4,17 @@ import com.uniway.dto.PostDto;
 import com.uniway.entity.Post;
 import com.uniway.entity.PostPriority;
 import com.uniway.entity.PostType;
+import com.uniway.security.AuthenticatedUser;
+import com.uniway.security.UnauthenticatedException;
+import com.uniway.service.CurrentUserService;
 import com.uniway.service.PostService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -21,15 +27,20 @@ import java.util.Map;
 @Tag(name = "Posts", description = "Endpoints para gestión de publicaciones del foro")
 @CrossOrigin(origins = "*")
 public class PostController {
+
+    private static final Logger log = LoggerFactory.getLogger(PostController.class);
     
     @Autowired
     private PostService postService;
     
+    @Autowired
+    private CurrentUserService currentUserService;
+    
     @GetMapping("/simple")
     @Operation(summary = "Obtener posts - versión simple")
     public ResponseEntity<?> getPostsSimple() {
         try {
-            System.out.println("=== DEBUG: Obteniendo posts (simple) ===");
+            log.debug("Obteniendo posts (simple)");
             
             // Crear posts de ejemplo sin base de datos
             java.util.List<Map<String, Object>> mockPosts = new java.util.ArrayList<>();
@@ -42,13 +53,11 @@ public class PostController {
             post1.put("createdAt", java.time.LocalDateTime.now().toString());
             mockPosts.add(post1);
             
-            System.out.println("Posts mock creados: " + mockPosts.size());
+            log.debug("Posts mock creados: {}", mockPosts.size());
             return ResponseEntity.ok(mockPosts);
             
         } catch (Exception e) {
-            System.err.println("=== ERROR: Posts simple ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error obteniendo posts (simple)", e);
             
             Map<String, String> error = new HashMap<>();
             error.put("error", "Error en posts simple: " + e.getMessage());
@@ -65,29 +74,27 @@ public class PostController {
             Pageable pageable) {
         
         try {
-            System.out.println("=== DEBUG: Obteniendo posts ===");
-            System.out.println("Parámetros - postType: " + postType + ", priority: " + priority + ", isPinned: " + isPinned);
+            log.debug("Obteniendo posts - Parámetros - postType: {}, priority: {}, isPinned: {}", postType, priority, isPinned);
             
             java.util.List<Post> posts = postService.getAllPostsSimple();
-            System.out.println("Posts encontrados: " + posts.size());
+            log.debug("Posts encontrados: {}", posts.size());
             
             if (posts.isEmpty()) {
-                System.out.println("No hay posts, devolviendo lista vacía");
+                log.debug("No hay posts, devolviendo lista vacía");
                 return ResponseEntity.ok(new java.util.ArrayList<>());
             }
             
-            java.util.List<PostDto> postDtos = posts.stream()
-                .map(postService::convertToDto)
-                .collect(java.util.stream.Collectors.toList());
+            String currentUserId = currentUserService.getAuthenticatedUser()
+                .map(AuthenticatedUser::getId)
+                .orElse(null);
+            java.util.List<PostDto> postDtos = postService.convertToDtos(posts, currentUserId);
                 
-            System.out.println("PostDtos convertidos: " + postDtos.size());
+            log.debug("PostDtos convertidos: {}", postDtos.size());
             
             return ResponseEntity.ok(postDtos);
             
         } catch (Exception e) {
-            System.err.println("=== ERROR: Obteniendo posts ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error obteniendo posts", e);
             
             Map<String, String> error = new HashMap<>();
             error.put("error", "Error al obtener posts: " + e.getMessage());
@@ -122,15 +129,11 @@ public class PostController {
     public ResponseEntity<?> createPostDev(
             @RequestBody CreatePostRequestDev request) {
         try {
-            System.out.println("=== DEBUG: Creando post (desarrollo) ===");
-            System.out.println("Content: " + request.getContent());
-            System.out.println("PostType: " + request.getPostType());
-            System.out.println("Priority: " + request.getPriority());
-            System.out.println("AuthorEmail: " + request.getAuthorEmail());
+            log.debug("Creando post (desarrollo) - PostType: {}, Priority: {}, AuthorEmail: {}", request.getPostType(), request.getPriority(), request.getAuthorEmail());
             
-            // Buscar usuario por email
-            String userId = postService.getUserIdByEmail(request.getAuthorEmail());
-            System.out.println("Usuario encontrado: " + userId);
+            // Buscar usuario por email (solo perfil dev; con token se usa el del token)
+            String userId = currentUserService.resolve(() -> postService.getUserIdByEmail(request.getAuthorEmail())).getId();
+            log.debug("Usuario resuelto: {}", userId);
             
             Post post = postService.createPost(
                 userId,
@@ -139,7 +142,7 @@ public class PostController {
                 PostPriority.valueOf(request.getPriority())
             );
             
-            System.out.println("Post creado con ID: " + post.getId());
+            log.debug("Post creado con ID: {}", post.getId());
             
             PostDto postDto = postService.convertToDto(post);
             
@@ -148,10 +151,10 @@ public class PostController {
             response.put("message", "Publicación creada exitosamente");
             
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: Creando post (desarrollo) ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error creando post (desarrollo): {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -173,13 +176,13 @@ public class PostController {
     @Operation(summary = "Verificar estado de la base de datos")
     public ResponseEntity<?> healthCheck() {
         try {
-            System.out.println("=== DEBUG: Health Check ===");
+            log.debug("Health Check");
             
             long totalPosts = postService.countAllPosts();
-            System.out.println("Total posts: " + totalPosts);
+            log.debug("Total posts: {}", totalPosts);
             
             long totalUsers = postService.countAllUsers();
-            System.out.println("Total users: " + totalUsers);
+            log.debug("Total users: {}", totalUsers);
             
             Map<String, Object> health = new HashMap<>();
             health.put("status", "OK");
@@ -187,13 +190,11 @@ public class PostController {
             health.put("totalUsers", totalUsers);
             health.put("timestamp", java.time.LocalDateTime.now().toString());
             
-            System.out.println("Health check exitoso");
+            log.debug("Health check exitoso");
             return ResponseEntity.ok(health);
             
         } catch (Exception e) {
-            System.err.println("=== ERROR: Health Check ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error en health check", e);
             
             Map<String, String> error = new HashMap<>();
             error.put("status", "ERROR");
@@ -219,11 +220,10 @@ public class PostController {
     @Transactional
     public ResponseEntity<?> likePost(@PathVariable String id, @RequestBody LikeRequest request) {
         try {
-            System.out.println("=== DEBUG: Like post ===");
-            System.out.println("Post ID: " + id);
-            System.out.println("User ID: " + request.getUserId());
+            log.debug("Like post - Post ID: {}, User ID: {}", id, request.getUserId());
             
-            Post updatedPost = postService.toggleLike(id, request.getUserId());
+            AuthenticatedUser user = currentUserService.resolve(request.getUserId());
+            Post updatedPost = postService.toggleLike(id, user);
             PostDto postDto = postService.convertToDto(updatedPost);
             
             Map<String, Object> response = new HashMap<>();
@@ -231,9 +231,10 @@ public class PostController {
             response.put("message", "Like actualizado correctamente");
             
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("Error en like: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error en like: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -246,11 +247,10 @@ public class PostController {
     @Transactional
     public ResponseEntity<?> dislikePost(@PathVariable String id, @RequestBody LikeRequest request) {
         try {
-            System.out.println("=== DEBUG: Dislike post ===");
-            System.out.println("Post ID: " + id);
-            System.out.println("User ID: " + request.getUserId());
+            log.debug("Dislike post - Post ID: {}, User ID: {}", id, request.getUserId());
             
-            Post updatedPost = postService.toggleDislike(id, request.getUserId());
+            AuthenticatedUser user = currentUserService.resolve(request.getUserId());
+            Post updatedPost = postService.toggleDislike(id, user);
             PostDto postDto = postService.convertToDto(updatedPost);
             
             Map<String, Object> response = new HashMap<>();
@@ -258,9 +258,10 @@ public class PostController {
             response.put("message", "Dislike actualizado correctamente");
             
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("Error en dislike: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error en dislike: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -272,16 +273,11 @@ public class PostController {
     @Operation(summary = "Crear nueva publicación")
     public ResponseEntity<?> createPost(@RequestBody CreatePostRequest request) {
         try {
-            System.out.println("=== DEBUG: Creando post ===");
-            System.out.println("Content: " + request.getContent());
-            System.out.println("PostType (string): " + request.getPostType());
-            System.out.println("PostType (enum): " + request.getPostTypeEnum());
-            System.out.println("Priority (string): " + request.getPriority());
-            System.out.println("Priority (enum): " + request.getPriorityEnum());
+            log.debug("Creando post - PostType (string): {}, PostType (enum): {}, Priority (string): {}, Priority (enum): {}", request.getPostType(), request.getPostTypeEnum(), request.getPriority(), request.getPriorityEnum());
             
-            // Usar usuario por defecto para desarrollo
-            String userId = postService.getDefaultUserId();
-            System.out.println("Usando usuario por defecto para desarrollo: " + userId);
+            // Usar el usuario del token; sin token, usuario por defecto (solo perfil dev)
+            String userId = currentUserService.resolve(postService::getDefaultUserId).getId();
+            log.debug("Creando post con usuario: {}", userId);
             
             Post post = postService.createPost(
                 userId,
@@ -290,7 +286,7 @@ public class PostController {
                 request.getPriorityEnum()
             );
             
-            System.out.println("Post creado con ID: " + post.getId());
+            log.debug("Post creado con ID: {}", post.getId());
             
             PostDto postDto = postService.convertToDto(post);
             
@@ -298,13 +294,13 @@ public class PostController {
             response.put("post", postDto);
             response.put("message", "Publicación creada exitosamente");
             
-            System.out.println("=== DEBUG: Post creado exitosamente ===");
+            log.debug("Post creado exitosamente");
             
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: Creando post ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error creando post: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -318,16 +314,14 @@ public class PostController {
             @PathVariable String id, 
             @RequestBody UpdatePostRequest request) {
         try {
-            System.out.println("=== DEBUG: Actualizando post ===");
-            System.out.println("Post ID: " + id);
-            System.out.println("New Content: " + request.getContent());
-            System.out.println("User ID: " + request.getUserId());
+            log.debug("Actualizando post - Post ID: {}, User ID: {}", id, request.getUserId());
             
+            AuthenticatedUser user = currentUserService.resolve(request.getUserId());
             Post updatedPost = postService.updatePost(
                 id, 
                 request.getContent(), 
                 request.getPostType(),
-                request.getUserId()
+                user
             );
             
             PostDto postDto = postService.convertToDto(updatedPost);
@@ -337,10 +331,10 @@ public class PostController {
             response.put("message", "Publicación actualizada exitosamente");
             
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: Actualizando post ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error actualizando post: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -354,19 +348,16 @@ public class PostController {
             @PathVariable String id, 
             @RequestBody UpdatePostRequestDev request) {
         try {
-            System.out.println("=== DEBUG: Actualizando post (desarrollo) ===");
-            System.out.println("Post ID: " + id);
-            System.out.println("New Content: " + request.getContent());
-            System.out.println("User Email: " + request.getUserEmail());
+            log.debug("Actualizando post (desarrollo) - Post ID: {}, User Email: {}", id, request.getUserEmail());
             
-            // Buscar usuario por email
-            String userId = postService.getUserIdByEmail(request.getUserEmail());
+            // Buscar usuario por email (solo perfil dev; con token se usa el del token)
+            AuthenticatedUser user = currentUserService.resolve(() -> postService.getUserIdByEmail(request.getUserEmail()));
             
             Post updatedPost = postService.updatePost(
                 id, 
                 request.getContent(), 
                 request.getPostType(),
-                userId
+                user
             );
             
             PostDto postDto = postService.convertToDto(updatedPost);
@@ -376,10 +367,10 @@ public class PostController {
             response.put("message", "Publicación actualizada exitosamente");
             
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: Actualizando post (desarrollo) ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error actualizando post (desarrollo): {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -391,23 +382,21 @@ public class PostController {
     @Operation(summary = "Eliminar publicación")
     public ResponseEntity<?> deletePost(
             @PathVariable String id,
-            @RequestParam String userId) {
+            @RequestParam(required = false) String userId) {
         try {
-            System.out.println("=== DEBUG: Eliminando post ===");
-            System.out.println("Post ID: " + id);
-            System.out.println("User ID: " + userId);
+            log.debug("Eliminando post - Post ID: {}, User ID: {}", id, userId);
             
-            postService.deletePost(id, userId);
+            postService.deletePost(id, currentUserService.resolve(userId));
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "Publicación eliminada exitosamente");
             response.put("postId", id);
             
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: Eliminando post ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error eliminando post: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -421,24 +410,20 @@ public class PostController {
             @PathVariable String id,
             @RequestParam String userEmail) {
         try {
-            System.out.println("=== DEBUG: Eliminando post (desarrollo) ===");
-            System.out.println("Post ID: " + id);
-            System.out.println("User Email: " + userEmail);
+            log.debug("Eliminando post (desarrollo) - Post ID: {}, User Email: {}", id, userEmail);
             
-            // Buscar usuario por email
-            String userId = postService.getUserIdByEmail(userEmail);
-            
-            postService.deletePost(id, userId);
+            // Buscar usuario por email (solo perfil dev; con token se usa el del token)
+            postService.deletePost(id, currentUserService.resolve(() -> postService.getUserIdByEmail(userEmail)));
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "Publicación eliminada exitosamente");
             response.put("postId", id);
             
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
-            System.err.println("=== ERROR: Eliminando post (desarrollo) ===");
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error eliminando post (desarrollo): {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -446,6 +431,15 @@ public class PostController {
         }
     }
     
+    /**
+     * Respuesta 401 cuando la operación necesita un usuario y no hay token válido
+     */
+    private static ResponseEntity<Map<String, String>> unauthorized(UnauthenticatedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+    
     // Clases internas para requests
     public static class CreatePostRequest {
         private String content;
@@ -2,10 +2,13 @@ package com.uniway.controller;
 
 import com.uniway.dto.TeacherRecommendationDto;
 import com.uniway.entity.StudentTeacher;
+import com.uniway.security.UnauthenticatedException;
+import com.uniway.service.CurrentUserService;
 import com.uniway.service.TeacherRecommendationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -29,13 +32,16 @@ public class StudentTeacherCompatibilityController {
     @Autowired
     private TeacherRecommendationService recommendationService;
 
+    @Autowired
+    private CurrentUserService currentUserService;
+
     @PostMapping
     @Operation(summary = "Agregar profesor (crear recomendación)")
     public ResponseEntity<?> addTeacherToStudent(@RequestBody AddTeacherRequest request) {
         try {
             // Usar el nuevo sistema de recomendaciones
             StudentTeacher recommendation = recommendationService.createRecommendation(
-                request.studentId,
+                currentUserService.resolve(request.studentId),
                 extractTeacherNameFromEmail(request.teacherEmail),
                 request.subject,
                 request.semester,
@@ -51,6 +57,8 @@ public class StudentTeacherCompatibilityController {
             result.put("message", "Profesor agregado exitosamente");
 
             return ResponseEntity.ok(result);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -78,12 +86,14 @@ public class StudentTeacherCompatibilityController {
     @Operation(summary = "Remover profesor (eliminar recomendación)")
     public ResponseEntity<?> removeTeacherFromStudent(@RequestBody RemoveTeacherRequest request) {
         try {
-            recommendationService.deleteRecommendation(request.recommendationId, request.studentId);
+            recommendationService.deleteRecommendation(request.recommendationId, currentUserService.resolve(request.studentId));
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Profesor removido exitosamente");
 
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -108,6 +118,15 @@ public class StudentTeacherCompatibilityController {
     }
 
     // Métodos de utilidad
+    /**
+     * Respuesta 401 cuando la operación necesita un usuario y no hay token válido
+     */
+    private static ResponseEntity<Map<String, String>> unauthorized(UnauthenticatedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+
     private String extractTeacherNameFromEmail(String email) {
         // Extraer nombre del email: maria.gonzalez@pascualbravo.edu.co -> María González
         String localPart = email.split("@")[0];
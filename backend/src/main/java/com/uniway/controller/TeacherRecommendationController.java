@@ -1,12 +1,17 @@
 package com.uniway.controller;
 
 import com.uniway.dto.RecommendationStatsResponse;
+import com.uniway.dto.RelatedTeacherDto;
 import com.uniway.dto.TeacherRecommendationDto;
 import com.uniway.entity.StudentTeacher;
+import com.uniway.security.AuthenticatedUser;
+import com.uniway.security.UnauthenticatedException;
+import com.uniway.service.CurrentUserService;
 import com.uniway.service.TeacherRecommendationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,6 +28,9 @@ public class TeacherRecommendationController {
     @Autowired
     private TeacherRecommendationService recommendationService;
 
+    @Autowired
+    private CurrentUserService currentUserService;
+
     @GetMapping
     @Operation(summary = "Obtener todas las recomendaciones con reacciones")
     public ResponseEntity<List<TeacherRecommendationDto>> getAllRecommendations(
@@ -44,8 +52,10 @@ public class TeacherRecommendationController {
     @Operation(summary = "Crear nueva recomendación de profesor")
     public ResponseEntity<?> createRecommendation(@RequestBody CreateRecommendationRequest request) {
         try {
+            // El autor es el usuario del token; studentId solo se acepta sin token en el perfil dev
+            AuthenticatedUser student = currentUserService.resolve(request.studentId);
             StudentTeacher recommendation = recommendationService.createRecommendation(
-                request.studentId,
+                student,
                 request.teacherName,
                 request.subject,
                 request.semester,
@@ -53,13 +63,15 @@ public class TeacherRecommendationController {
                 request.reference
             );
 
-            TeacherRecommendationDto dto = recommendationService.convertToDto(recommendation, request.studentId);
+            TeacherRecommendationDto dto = recommendationService.convertToDto(recommendation, student.getId());
 
             Map<String, Object> response = new HashMap<>();
             response.put("recommendation", dto);
             response.put("message", "Recomendación creada exitosamente");
 
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -71,8 +83,10 @@ public class TeacherRecommendationController {
     @Operation(summary = "Crear nueva recomendación de profesor con calificación")
     public ResponseEntity<?> createRecommendationWithRating(@RequestBody CreateRecommendationWithRatingRequest request) {
         try {
+            // El autor es el usuario del token; studentId solo se acepta sin token en el perfil dev
+            AuthenticatedUser student = currentUserService.resolve(request.studentId);
             StudentTeacher recommendation = recommendationService.createRecommendationWithRating(
-                request.studentId,
+                student,
                 request.teacherName,
                 request.subject,
                 request.semester,
@@ -81,13 +95,15 @@ public class TeacherRecommendationController {
                 request.rating
             );
 
-            TeacherRecommendationDto dto = recommendationService.convertToDto(recommendation, request.studentId);
+            TeacherRecommendationDto dto = recommendationService.convertToDto(recommendation, student.getId());
 
             Map<String, Object> response = new HashMap<>();
             response.put("recommendation", dto);
             response.put("message", "Recomendación con calificación creada exitosamente");
 
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -101,13 +117,15 @@ public class TeacherRecommendationController {
             @PathVariable String recommendationId,
             @RequestBody ReactionRequest request) {
         try {
-            TeacherRecommendationDto updatedRecommendation = recommendationService.toggleLike(recommendationId, request.userId);
+            TeacherRecommendationDto updatedRecommendation = recommendationService.toggleLike(recommendationId, currentUserService.resolve(request.userId));
 
             Map<String, Object> response = new HashMap<>();
             response.put("recommendation", updatedRecommendation);
             response.put("message", "Like actualizado correctamente");
 
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -121,13 +139,15 @@ public class TeacherRecommendationController {
             @PathVariable String recommendationId,
             @RequestBody ReactionRequest request) {
         try {
-            TeacherRecommendationDto updatedRecommendation = recommendationService.toggleDislike(recommendationId, request.userId);
+            TeacherRecommendationDto updatedRecommendation = recommendationService.toggleDislike(recommendationId, currentUserService.resolve(request.userId));
 
             Map<String, Object> response = new HashMap<>();
             response.put("recommendation", updatedRecommendation);
             response.put("message", "Dislike actualizado correctamente");
 
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -139,15 +159,17 @@ public class TeacherRecommendationController {
     @Operation(summary = "Eliminar recomendación")
     public ResponseEntity<?> deleteRecommendation(
             @PathVariable String recommendationId,
-            @RequestParam String userId) {
+            @RequestParam(required = false) String userId) {
         try {
-            recommendationService.deleteRecommendation(recommendationId, userId);
+            recommendationService.deleteRecommendation(recommendationId, currentUserService.resolve(userId));
 
             Map<String, String> response = new HashMap<>();
             response.put("message", "Recomendación eliminada exitosamente");
             response.put("recommendationId", recommendationId);
 
             return ResponseEntity.ok(response);
+        } catch (UnauthenticatedException e) {
+            return unauthorized(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -166,6 +188,21 @@ public class TeacherRecommendationController {
         }
     }
 
+    @GetMapping("/{recommendationId}/related")
+    @Operation(summary = "Obtener profesores que los mismos estudiantes también recomendaron")
+    public ResponseEntity<?> getRelatedTeachers(
+            @PathVariable String recommendationId,
+            @RequestParam(defaultValue = "5") int limit) {
+        try {
+            List<RelatedTeacherDto> related = recommendationService.getRelatedTeachers(recommendationId, limit);
+            return ResponseEntity.ok(related);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
     @GetMapping("/subjects")
     @Operation(summary = "Obtener todas las materias con recomendaciones")
     public ResponseEntity<List<String>> getSubjectsWithRecommendations() {
@@ -173,6 +210,15 @@ public class TeacherRecommendationController {
         return ResponseEntity.ok(subjects);
     }
 
+    /**
+     * Respuesta 401 cuando la operación necesita un usuario y no hay token válido
+     */
+    private static ResponseEntity<Map<String, String>> unauthorized(UnauthenticatedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+
     // Request/Response classes
     public static class CreateRecommendationRequest {
         public String studentId;
@@ -1,29 +1,78 @@
 package com.uniway.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uniway.dto.CursorPage;
 import com.uniway.dto.UserDto;
 import com.uniway.entity.User;
+import com.uniway.entity.UserRole;
+import com.uniway.security.AuthenticatedUser;
+import com.uniway.service.AvatarService;
+import com.uniway.service.CurrentUserService;
+import com.uniway.service.UserSearchIndex;
 import com.uniway.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HexFormat;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/users")
 @Tag(name = "Usuarios", description = "Endpoints para gestión de usuarios")
 @CrossOrigin(origins = "*")
 public class UserController {
+
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
     
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private CurrentUserService currentUserService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private AvatarService avatarService;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    /** Tamaño máximo de página del listado */
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    /** Máximo de resultados de la búsqueda */
+    private static final int MAX_SEARCH_RESULTS = 50;
+    
+    /** Usuarios leídos por consulta durante la exportación */
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    
+    private static final String NDJSON = "application/x-ndjson";
+    
+    /** Prefijo de las URLs de fotos de perfil (AvatarController) */
+    private static final String AVATAR_PATH = "/avatars/";
+    
     @GetMapping("/{id}")
     @Operation(summary = "Obtener usuario por ID")
     public ResponseEntity<UserDto> getUserById(@PathVariable String id) {
@@ -35,61 +84,75 @@ public class UserController {
         return ResponseEntity.notFound().build();
     }
     
+    /**
+     * Perfil del usuario autenticado (sujeto del JWT), con una sola búsqueda por clave
+     * primaria. Soporta GET condicional: si el cliente envía If-None-Match con el ETag
+     * vigente se responde 304 sin cuerpo.
+     */
     @GetMapping("/profile")
     @Operation(summary = "Obtener perfil del usuario actual")
-    public ResponseEntity<UserDto> getCurrentUserProfile(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getCurrentUserProfile(WebRequest webRequest) {
         try {
-            // Obtener el primer usuario disponible (modo desarrollo)
-            List<User> users = userService.findAllUsers();
-            if (!users.isEmpty()) {
-                User user = users.get(0); // Usar el primer usuario
-                UserDto userDto = userService.convertToDto(user);
-                return ResponseEntity.ok(userDto);
+            Optional<AuthenticatedUser> principal = currentUserService.getAuthenticatedUser();
+            if (principal.isEmpty()) {
+                return unauthorized();
             }
-            return ResponseEntity.notFound().build();
+            
+            Optional<User> userOpt = userService.findById(principal.get().getId());
+            if (userOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            
+            UserDto userDto = userService.convertToDto(userOpt.get());
+            String etag = profileEtag(userDto);
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 Not Modified ya escrito por Spring
+            }
+            return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(userDto);
         } catch (Exception e) {
-            System.err.println("Error obteniendo perfil: " + e.getMessage());
+            log.warn("Error obteniendo perfil: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
     
     @PutMapping("/profile")
     @Operation(summary = "Actualizar perfil del usuario")
-    public ResponseEntity<?> updateUserProfile(
-            @RequestHeader("Authorization") String token,
-            @RequestBody UpdateProfileRequest request) {
+    public ResponseEntity<?> updateUserProfile(@RequestBody UpdateProfileRequest request) {
         try {
-            System.out.println("=== DEBUG: Actualizando perfil ===");
-            System.out.println("FullName: " + request.getFullName());
-            System.out.println("Phone: " + request.getPhone());
-            System.out.println("Address: " + request.getAddress());
-            System.out.println("Program: " + request.getProgram());
-            
-            // Obtener el primer usuario disponible (modo desarrollo)
-            List<User> users = userService.findAllUsers();
-            if (users.isEmpty()) {
+            log.debug("Actualizando perfil - FullName: {}, Phone: {}, Address: {}, Program: {}", request.getFullName(), request.getPhone(), request.getAddress(), request.getProgram());
+            
+            Optional<AuthenticatedUser> principal = currentUserService.getAuthenticatedUser();
+            if (principal.isEmpty()) {
+                return unauthorized();
+            }
+            
+            Optional<User> userOpt = userService.findById(principal.get().getId());
+            if (userOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
             
-            User user = users.get(0); // Usar el primer usuario
-            System.out.println("Usuario encontrado: " + user.getFullName() + " (" + user.getId() + ")");
+            User user = userOpt.get();
+            log.debug("Usuario encontrado: {} ({})", user.getFullName(), user.getId());
             
-            // Actualizar campos si se proporcionan
             if (request.getFullName() != null) {
                 user.setFullName(request.getFullName());
-                System.out.println("Actualizando nombre: " + request.getFullName());
+                log.debug("Actualizando nombre: {}", request.getFullName());
             }
             if (request.getPhone() != null) {
                 user.setPhone(request.getPhone());
-                System.out.println("Actualizando teléfono: " + request.getPhone());
+                log.debug("Actualizando teléfono: {}", request.getPhone());
             }
             if (request.getAddress() != null) {
                 user.setAddress(request.getAddress());
-                System.out.println("Actualizando dirección: " + request.getAddress());
+                log.debug("Actualizando dirección: {}", request.getAddress());
             }
             if (request.getProgram() != null) {
                 user.setProgram(request.getProgram());
-                System.out.println("Actualizando programa: " + request.getProgram());
+                log.debug("Actualizando programa: {}", request.getProgram());
             }
             
             User updatedUser = userService.updateUser(user);
@@ -99,7 +162,7 @@ public class UserController {
             response.put("user", userDto);
             response.put("message", "Perfil actualizado exitosamente");
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(profileEtag(userDto)).body(response);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -107,14 +170,197 @@ public class UserController {
         }
     }
     
+    /**
+     * Sube la foto de perfil del usuario autenticado (JPEG o PNG)
+     * 
+     * La URL resultante cambia con el contenido, así que puede cachearse indefinidamente.
+     * Las miniaturas se generan en segundo plano; mientras tanto sus URLs redirigen al original.
+     */
+    @PostMapping(value = "/profile/avatar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Subir foto de perfil")
+    public ResponseEntity<?> uploadAvatar(@RequestParam("file") MultipartFile file) {
+        try {
+            Optional<AuthenticatedUser> principal = currentUserService.getAuthenticatedUser();
+            if (principal.isEmpty()) {
+                return unauthorized();
+            }
+            
+            Optional<User> userOpt = userService.findById(principal.get().getId());
+            if (userOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            
+            String fileName = avatarService.store(file);
+            User user = userOpt.get();
+            user.setProfileImageUrl(AVATAR_PATH + fileName);
+            User updatedUser = userService.updateUser(user);
+            
+            Map<String, String> thumbnails = new HashMap<>();
+            for (Integer size : avatarService.getThumbnailSizes()) {
+                thumbnails.put(String.valueOf(size), AVATAR_PATH + avatarService.thumbnailName(fileName, size));
+            }
+            
+            UserDto userDto = userService.convertToDto(updatedUser);
+            Map<String, Object> response = new HashMap<>();
+            response.put("user", userDto);
+            response.put("profileImageUrl", updatedUser.getProfileImageUrl());
+            response.put("thumbnails", thumbnails);
+            response.put("message", "Foto de perfil actualizada exitosamente");
+            
+            return ResponseEntity.ok().eTag(profileEtag(userDto)).body(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Búsqueda de usuarios por nombre, email o número de estudiante (completo o parcial,
+     * sin distinguir mayúsculas ni tildes), resuelta en memoria por UserSearchIndex
+     * 
+     * @param q Texto a buscar; varias palabras deben coincidir todas
+     * @param limit Máximo de resultados (1..50, por defecto 20)
+     * @return Usuarios encontrados
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Buscar usuarios por nombre, email o número de estudiante (solo admin)")
+    public ResponseEntity<?> searchUsers(@RequestParam String q,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        try {
+            ResponseEntity<?> denied = requireAdmin("Solo administración puede buscar usuarios");
+            if (denied != null) {
+                return denied;
+            }
+            
+            int maxResults = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+            return ResponseEntity.ok(userSearchIndex.search(q, maxResults));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Listado de usuarios paginado por cursor, con filtros opcionales
+     * 
+     * @param role Rol (opcional)
+     * @param program Programa (opcional)
+     * @param active Estado activo/inactivo (opcional)
+     * @param cursor nextCursor de la página anterior (opcional)
+     * @param limit Tamaño de página (1..200, por defecto 50)
+     * @return Página de usuarios y cursor de la siguiente
+     */
     @GetMapping
-    @Operation(summary = "Obtener todos los usuarios (solo admin)")
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<User> users = userService.findAllUsers();
-        List<UserDto> userDtos = users.stream()
-            .map(userService::convertToDto)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(userDtos);
+    @Operation(summary = "Obtener usuarios paginados por cursor (solo admin)")
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) String program,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            ResponseEntity<?> denied = requireAdmin("Solo administración puede listar usuarios");
+            if (denied != null) {
+                return denied;
+            }
+            
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(userService.findUserPage(role, program, active, cursor, pageSize));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Exportación completa en NDJSON (un usuario JSON por línea)
+     * 
+     * Recorre el listado por cursor en bloques de EXPORT_CHUNK_SIZE y escribe cada
+     * bloque antes de leer el siguiente: la memoria usada es constante sin importar
+     * el número de usuarios y no se mantiene una conexión abierta durante la descarga.
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "Exportar usuarios en NDJSON (solo admin)")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) UserRole role,
+            @RequestParam(required = false) String program,
+            @RequestParam(required = false) Boolean active) {
+        ResponseEntity<Map<String, String>> denied = requireAdmin("Solo administración puede exportar usuarios");
+        if (denied != null) {
+            // El tipo de retorno debe seguir siendo StreamingResponseBody: el error se escribe como JSON
+            Map<String, String> error = denied.getBody();
+            return ResponseEntity.status(denied.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, error));
+        }
+        
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("\n");
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                String cursor = null;
+                boolean empty = true;
+                do {
+                    CursorPage<UserDto> page = userService.findUserPage(role, program, active, cursor, EXPORT_CHUNK_SIZE);
+                    for (UserDto user : page.getItems()) {
+                        writer.writeValue(generator, user); // el separador "\n" va antes de cada valor salvo el primero
+                        empty = false;
+                    }
+                    generator.flush();
+                    cursor = page.getNextCursor();
+                } while (cursor != null);
+                if (!empty) {
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+            .body(body);
+    }
+    
+    /**
+     * ETag débil del perfil: hash SHA-256 del UserDto serializado, igual en el PUT que en
+     * el GET siguiente mientras el perfil no cambie (las fechas de auditoría se guardan
+     * al segundo, ver JpaAuditingConfig)
+     */
+    private String profileEtag(UserDto userDto) throws IOException {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(userDto));
+            return "W/\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+    
+    /**
+     * Exige un usuario autenticado con rol de administración
+     * @param message Mensaje de error si el usuario no es admin
+     * @return 401 sin token, 403 si no es admin, o null si puede continuar
+     */
+    private ResponseEntity<Map<String, String>> requireAdmin(String message) {
+        Optional<AuthenticatedUser> principal = currentUserService.getAuthenticatedUser();
+        if (principal.isEmpty()) {
+            return unauthorized();
+        }
+        if (!principal.get().isAdmin()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", message);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+        }
+        return null;
+    }
+    
+    private static ResponseEntity<Map<String, String>> unauthorized() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Usuario no autenticado");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
     }
     
     // Clases internas para requests
@@ -1,9 +1,15 @@
 package com.uniway.controller;
 
+import com.uniway.security.RateLimitExceededException;
+import com.uniway.security.RateLimiter;
 import com.uniway.service.EmailService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,10 +32,15 @@ import java.util.Map;
 @Tag(name = "Verificación", description = "Endpoints para verificación de correos electrónicos")
 @CrossOrigin(origins = "*")
 public class VerificationController {
+
+    private static final Logger log = LoggerFactory.getLogger(VerificationController.class);
     
     @Autowired
     private EmailService emailService;
     
+    @Autowired
+    private RateLimiter rateLimiter;
+    
     /**
      * Envía un código de verificación al email especificado
      * 
@@ -40,8 +51,7 @@ public class VerificationController {
     @Operation(summary = "Enviar código de verificación por email")
     public ResponseEntity<?> sendVerificationCode(@RequestBody SendCodeRequest request) {
         try {
-            System.out.println("=== DEBUG: Enviando código de verificación ===");
-            System.out.println("Email: " + request.getEmail());
+            log.debug("Enviando código de verificación - Email: {}", request.getEmail());
             
             // Validar formato de email institucional
             if (!request.getEmail().endsWith("@pascualbravo.edu.co")) {
@@ -50,6 +60,8 @@ public class VerificationController {
                 return ResponseEntity.badRequest().body(error);
             }
             
+            rateLimiter.checkEmail("verification-send", request.getEmail());
+            
             String code = emailService.sendVerificationCode(request.getEmail());
             
             Map<String, Object> response = new HashMap<>();
@@ -65,9 +77,10 @@ public class VerificationController {
             
             return ResponseEntity.ok(response);
             
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
-            System.err.println("Error enviando código: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error enviando código: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -85,8 +98,9 @@ public class VerificationController {
     @Operation(summary = "Verificar código de verificación")
     public ResponseEntity<?> verifyCode(@RequestBody VerifyCodeRequest request) {
         try {
-            System.out.println("=== DEBUG: Verificando código ===");
-            System.out.println("Email: " + request.getEmail() + ", Código: " + request.getCode());
+            log.debug("Verificando código - Email: {}, Código: {}", request.getEmail(), request.getCode());
+            
+            rateLimiter.checkEmail("verification-verify", request.getEmail());
             
             boolean isValid = emailService.verifyCode(request.getEmail(), request.getCode());
             
@@ -103,9 +117,10 @@ public class VerificationController {
                 return ResponseEntity.badRequest().body(response);
             }
             
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
-            System.err.println("Error verificando código: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error verificando código: {}", e.getMessage());
             
             Map<String, Object> error = new HashMap<>();
             error.put("valid", false);
@@ -124,12 +139,11 @@ public class VerificationController {
     @Operation(summary = "Reenviar código de verificación")
     public ResponseEntity<?> resendVerificationCode(@RequestBody SendCodeRequest request) {
         try {
-            System.out.println("=== DEBUG: Reenviando código ===");
-            System.out.println("Email: " + request.getEmail());
+            log.debug("Reenviando código - Email: {}", request.getEmail());
             
-            // Limpiar códigos expirados antes de generar uno nuevo
-            emailService.cleanupExpiredCodes();
+            rateLimiter.checkEmail("verification-resend", request.getEmail());
             
+            // Los códigos expirados los purga VerificationCodeStore en segundo plano
             String code = emailService.sendVerificationCode(request.getEmail());
             
             Map<String, Object> response = new HashMap<>();
@@ -144,8 +158,10 @@ public class VerificationController {
             
             return ResponseEntity.ok(response);
             
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
-            System.err.println("Error reenviando código: " + e.getMessage());
+            log.warn("Error reenviando código: {}", e.getMessage());
             
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -155,6 +171,19 @@ public class VerificationController {
     
     // ==================== MÉTODOS DE UTILIDAD ====================
     
+    /**
+     * Respuesta 429 con Retry-After cuando se supera el límite por email
+     * @param e Excepción del limitador
+     * @return Respuesta de error
+     */
+    private ResponseEntity<?> tooManyRequests(RateLimitExceededException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(error);
+    }
+    
     /**
      * Verifica si la aplicación está en modo desarrollo
      * @return true si está en modo desarrollo
@@ -0,0 +1,228 @@
+package com.uniway.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uniway.security.AuthenticatedUser;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReplicaRoutingDataSource - Envía las transacciones de solo lectura a las réplicas
+ *
+ * La conexión se elige al pedirla (por eso debe envolverse en
+ * LazyConnectionDataSourceProxy, que la pide en la primera sentencia, cuando la
+ * transacción ya está marcada como readOnly):
+ * - transacción de lectura-escritura o sin transacción: principal
+ * - readOnly de un usuario que escribió hace poco: principal, para que vea sus propios
+ *   cambios aunque la réplica vaya atrasada. La ventana es read-your-writes-ms, pero
+ *   nunca menor que max-lag-seconds: una réplica puede ir hasta ese retraso y seguir
+ *   recibiendo lecturas, así que una ventana más corta devolvería datos anteriores a
+ *   la escritura
+ * - resto de readOnly: réplicas sanas en turno rotativo; si no hay ninguna, principal
+ *
+ * Una réplica deja de recibir lecturas si no responde o si su retraso supera
+ * max-lag-seconds (ver checkReplicas), y vuelve cuando se recupera. Por eso la
+ * consulta de retraso es obligatoria cuando hay réplicas.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final Cache<String, Boolean> recentWriters;
+    private final Duration readYourWritesWindow;
+    private final int maxLagSeconds;
+    private final String lagQuery;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> routedCounters = new ConcurrentHashMap<>();
+
+    /**
+     * @param primary Pool de la base principal
+     * @param replicas Pools de las réplicas, en orden de configuración
+     * @param readYourWrites Ventana de lectura en la principal tras una escritura del usuario
+     *                       (se amplía hasta maxLagSeconds si es menor)
+     * @param maxLagSeconds Retraso máximo tolerado
+     * @param lagQuery Consulta del retraso; obligatoria si hay réplicas
+     * @param meterRegistry Registro de métricas
+     * @throws IllegalStateException Si hay réplicas y no hay consulta de retraso
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration readYourWrites,
+                                    int maxLagSeconds, String lagQuery, MeterRegistry meterRegistry) {
+        if (!replicas.isEmpty() && (lagQuery == null || lagQuery.isBlank())) {
+            throw new IllegalStateException("datasource-routing.lag-query es obligatoria con réplicas configuradas: "
+                    + "sin ella no se detecta una réplica atrasada");
+        }
+        Duration maxLag = Duration.ofSeconds(maxLagSeconds);
+        this.readYourWritesWindow = readYourWrites.compareTo(maxLag) < 0 ? maxLag : readYourWrites;
+        if (!readYourWritesWindow.equals(readYourWrites)) {
+            log.info("read-your-writes-ms ({} ms) es menor que max-lag-seconds; se usa {} s",
+                    readYourWrites.toMillis(), maxLagSeconds);
+        }
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.meterRegistry = meterRegistry;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.name, replica.dataSource);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 si la réplica recibe lecturas")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String target = route();
+        routedCounters.computeIfAbsent(target, name -> Counter.builder("datasource.routing.connections")
+                .description("Conexiones entregadas por destino")
+                .tag("target", name)
+                .register(meterRegistry)).increment();
+        return target;
+    }
+
+    /**
+     * Tiempo que las lecturas de un usuario van a la principal después de que escribe
+     * @return max(read-your-writes-ms, max-lag-seconds)
+     */
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    /**
+     * Comprueba cada réplica: conexión válida y retraso dentro del máximo
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            String reason = null;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                Long lag = readLag(connection);
+                healthy = lag != null && lag <= maxLagSeconds;
+                if (!healthy) {
+                    reason = lag == null ? "replicación detenida" : "retraso de " + lag + " s";
+                }
+            } catch (Exception e) {
+                healthy = false;
+                reason = e.getMessage();
+            }
+            if (!replica.checked || healthy != replica.healthy) {
+                if (healthy) {
+                    log.info("Réplica {} disponible para lecturas", replica.name);
+                } else {
+                    log.warn("Réplica {} fuera de servicio: {}", replica.name, reason);
+                }
+                replica.healthy = healthy;
+                replica.checked = true;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private String route() {
+        String userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(userId, Boolean.TRUE);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private Long readLag(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                // Sin estado de replicación: no es una réplica configurada
+                return null;
+            }
+            ResultSetMetaData meta = rs.getMetaData();
+            int column = 1;
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                if ("Seconds_Behind_Source".equalsIgnoreCase(meta.getColumnLabel(i))) {
+                    column = i;
+                    break;
+                }
+            }
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        volatile boolean healthy;
+        volatile boolean checked;
+
+        Replica(HikariDataSource dataSource) {
+            this.name = dataSource.getPoolName();
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.uniway.dto;
+
+import java.util.List;
+
+/**
+ * CursorPage - Página de resultados con paginación por cursor (keyset)
+ *
+ * nextCursor es opaco para el cliente: se envía tal cual en el parámetro "cursor"
+ * para obtener la página siguiente. Es null cuando no hay más resultados.
+ */
+public final class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean isHasMore() { return nextCursor != null; }
+}
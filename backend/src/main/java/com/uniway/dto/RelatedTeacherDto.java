@@ -0,0 +1,28 @@
+package com.uniway.dto;
+
+/**
+ * RelatedTeacherDto - DTO para la función "Estudiantes también recomendaron"
+ * 
+ * Representa un profesor relacionado con otro a partir de los estudiantes que
+ * calificaron bien a ambos (co-ocurrencia en student_teachers).
+ */
+public class RelatedTeacherDto {
+    
+    private String teacherName;
+    private int sharedStudents;
+    
+    // Constructores
+    public RelatedTeacherDto() {}
+    
+    public RelatedTeacherDto(String teacherName, int sharedStudents) {
+        this.teacherName = teacherName;
+        this.sharedStudents = sharedStudents;
+    }
+    
+    // Getters y Setters
+    public String getTeacherName() { return teacherName; }
+    public void setTeacherName(String teacherName) { this.teacherName = teacherName; }
+    
+    public int getSharedStudents() { return sharedStudents; }
+    public void setSharedStudents(int sharedStudents) { this.sharedStudents = sharedStudents; }
+}
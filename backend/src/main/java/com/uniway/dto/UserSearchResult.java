@@ -0,0 +1,57 @@
+package com.uniway.dto;
+
+import com.uniway.entity.UserRole;
+
+/**
+ * UserSearchResult - Resultado inmutable de la búsqueda de usuarios
+ *
+ * Se guarda tal cual en el índice de búsqueda, de modo que responder una consulta
+ * no requiere acceso a la base de datos.
+ */
+public final class UserSearchResult {
+
+    private final String id;
+    private final String email;
+    private final UserRole role;
+    private final String fullName;
+    private final String studentId;
+    private final String program;
+    private final String profileImageUrl;
+    private final boolean active;
+
+    public UserSearchResult(String id, String email, UserRole role, String fullName, String studentId,
+                            String program, String profileImageUrl, boolean active) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.fullName = fullName;
+        this.studentId = studentId;
+        this.program = program;
+        this.profileImageUrl = profileImageUrl;
+        this.active = active;
+    }
+
+    /**
+     * Construye el resultado a partir del DTO de usuario
+     */
+    public static UserSearchResult from(UserDto user) {
+        return new UserSearchResult(user.getId(), user.getEmail(), user.getRole(), user.getFullName(),
+            user.getStudentId(), user.getProgram(), user.getProfileImageUrl(), Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    public String getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    public UserRole getRole() { return role; }
+
+    public String getFullName() { return fullName; }
+
+    public String getStudentId() { return studentId; }
+
+    public String getProgram() { return program; }
+
+    public String getProfileImageUrl() { return profileImageUrl; }
+
+    public boolean isActive() { return active; }
+}
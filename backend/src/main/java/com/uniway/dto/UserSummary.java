@@ -0,0 +1,58 @@
+package com.uniway.dto;
+
+import com.uniway.entity.User;
+import com.uniway.entity.UserRole;
+
+/**
+ * UserSummary - Vista inmutable y compacta de un usuario para la caché de usuarios
+ *
+ * Contiene solo lo que los servicios necesitan para validar existencia, estado y
+ * permisos. Al ser inmutable puede compartirse entre hilos sin riesgo, a diferencia
+ * de la entidad JPA.
+ */
+public final class UserSummary {
+
+    private final String id;
+    private final String email;
+    private final UserRole role;
+    private final String fullName;
+    private final boolean active;
+
+    public UserSummary(String id, String email, UserRole role, String fullName, boolean active) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.fullName = fullName;
+        this.active = active;
+    }
+
+    /**
+     * Construye el resumen a partir de la entidad
+     * @param user Entidad de usuario
+     * @return Resumen inmutable
+     */
+    public static UserSummary from(User user) {
+        return new UserSummary(
+            user.getId(),
+            user.getEmail(),
+            user.getRole(),
+            user.getFullName(),
+            Boolean.TRUE.equals(user.getIsActive())
+        );
+    }
+
+    public String getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    public UserRole getRole() { return role; }
+
+    public String getFullName() { return fullName; }
+
+    public boolean isActive() { return active; }
+
+    /** Indica si el usuario tiene rol de administración */
+    public boolean isAdmin() {
+        return role == UserRole.ADMINISTRATION;
+    }
+}
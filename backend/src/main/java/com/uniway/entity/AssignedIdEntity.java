@@ -0,0 +1,32 @@
+package com.uniway.entity;
+
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * AssignedIdEntity - Base de las entidades cuyo id se asigna en la aplicación (Ids.newId())
+ *
+ * Sin esto, Spring Data considera "existente" toda entidad con id y save() hace
+ * merge: un SELECT por fila antes de cada INSERT, que además corta los lotes JDBC.
+ * Una entidad es nueva hasta que se persiste o se carga de la base.
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity implements Persistable<String> {
+
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+}
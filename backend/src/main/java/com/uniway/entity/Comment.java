@@ -1,8 +1,10 @@
 package com.uniway.entity;
 
+import com.uniway.id.BinaryUuidType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -26,15 +28,20 @@ import java.time.LocalDateTime;
  * - ManyToOne con User (el autor del comentario)
  */
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comments_post_approved_created", columnList = "post_id, is_approved, created_at"),
+    @Index(name = "idx_comments_author_created", columnList = "author_id, created_at"),
+    @Index(name = "idx_comments_approved_created", columnList = "is_approved, created_at")
+})
 @EntityListeners(AuditingEntityListener.class) // Habilita auditoría automática
-public class Comment {
+public class Comment extends AssignedIdEntity {
     
     // ==================== CAMPOS PRINCIPALES ====================
     
-    /** Identificador único del comentario (UUID de 36 caracteres) */
+    /** Identificador único del comentario (UUIDv7 ordenado por tiempo, BINARY(16)) */
     @Id
-    @Column(length = 36)
+    @Type(BinaryUuidType.class)
+    @Column(length = 16)
     private String id;
     
     /** Referencia al post al que pertenece este comentario (carga lazy) */
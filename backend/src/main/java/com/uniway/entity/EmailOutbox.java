@@ -0,0 +1,157 @@
+package com.uniway.entity;
+
+import com.uniway.id.BinaryUuidType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Type;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad EmailOutbox - Correo pendiente de envío (patrón outbox)
+ *
+ * Los servicios registran el correo en la misma transacción que el cambio de negocio
+ * (por ejemplo, el código de verificación) y responden de inmediato. El worker
+ * EmailOutboxWorker reclama lotes de filas pendientes, los envía por SMTP y
+ * reprograma los fallos con backoff exponencial.
+ *
+ * Estados:
+ * - PENDING: listo para enviarse a partir de next_attempt_at
+ * - SENDING: reclamado por un worker hasta locked_until (si el worker cae, se reclama de nuevo)
+ * - SENT: enviado
+ * - FAILED: se agotaron los reintentos
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_next", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_locked_by", columnList = "locked_by")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class EmailOutbox extends AssignedIdEntity {
+
+    // ==================== CAMPOS PRINCIPALES ====================
+
+    /** Identificador único del correo */
+    @Id
+    @Type(BinaryUuidType.class)
+    @Column(length = 16)
+    private String id;
+
+    /** Destinatario */
+    @Column(nullable = false)
+    private String recipient;
+
+    /** Asunto */
+    @Column(nullable = false)
+    private String subject;
+
+    /** Cuerpo del mensaje en texto plano */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    /** Cuerpo HTML opcional (se envía como multipart/alternative junto al texto) */
+    @Column(name = "body_html", columnDefinition = "TEXT")
+    private String bodyHtml;
+
+    // ==================== ESTADO DE ENVÍO ====================
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    /** Intentos fallidos realizados */
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /** Momento a partir del cual puede (re)intentarse el envío */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /** Reclamo del worker que está enviando el correo */
+    @Column(name = "locked_by", length = 36)
+    private String lockedBy;
+
+    /** Vencimiento del reclamo */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    /** Último error de envío */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /** Fecha y hora de envío */
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    // ==================== AUDITORÍA ====================
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // ==================== CONSTRUCTORES ====================
+
+    /** Constructor por defecto requerido por JPA */
+    public EmailOutbox() {}
+
+    /**
+     * Constructor para encolar un correo
+     * @param id Identificador único
+     * @param recipient Destinatario
+     * @param subject Asunto
+     * @param body Cuerpo del mensaje en texto plano
+     * @param bodyHtml Cuerpo HTML (puede ser null)
+     */
+    public EmailOutbox(String id, String recipient, String subject, String body, String bodyHtml) {
+        this.id = id;
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.bodyHtml = bodyHtml;
+        this.status = EmailOutboxStatus.PENDING;
+        this.attempts = 0;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+
+    // ==================== GETTERS Y SETTERS ====================
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getBody() { return body; }
+    public void setBody(String body) { this.body = body; }
+
+    public String getBodyHtml() { return bodyHtml; }
+    public void setBodyHtml(String bodyHtml) { this.bodyHtml = bodyHtml; }
+
+    public EmailOutboxStatus getStatus() { return status; }
+    public void setStatus(EmailOutboxStatus status) { this.status = status; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getLockedBy() { return lockedBy; }
+    public void setLockedBy(String lockedBy) { this.lockedBy = lockedBy; }
+
+    public LocalDateTime getLockedUntil() { return lockedUntil; }
+    public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil = lockedUntil; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,8 @@
+package com.uniway.entity;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
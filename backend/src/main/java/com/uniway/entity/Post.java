@@ -1,7 +1,9 @@
 package com.uniway.entity;
 
+import com.uniway.id.BinaryUuidType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -33,12 +35,20 @@ import java.util.List;
  * - OneToMany con Reaction (reacciones al post)
  */
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_approved_created", columnList = "is_approved, created_at"),
+    @Index(name = "idx_posts_approved_pinned_created", columnList = "is_approved, is_pinned, created_at"),
+    @Index(name = "idx_posts_author_approved_created", columnList = "author_id, is_approved, created_at"),
+    @Index(name = "idx_posts_type_approved_created", columnList = "post_type, is_approved, created_at"),
+    @Index(name = "idx_posts_priority_approved_created", columnList = "priority, is_approved, created_at"),
+    @Index(name = "idx_posts_alert_approved_created", columnList = "is_alert, is_approved, created_at")
+})
 @EntityListeners(AuditingEntityListener.class) // Habilita auditoría automática
-public class Post {
+public class Post extends AssignedIdEntity {
     
     @Id
-    @Column(length = 36)
+    @Type(BinaryUuidType.class)
+    @Column(length = 16)
     private String id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
  * puede dar solo una reacción por post (like o dislike).
  * 
  * Características del sistema:
- * - Un usuario solo puede tener una reacción por post (restricción única)
+ * - Un usuario solo puede tener una reacción por post: la llave primaria es
+ *   (user_id, post_id), sin id propio (ver ReactionId)
  * - Si el usuario ya dio like y presiona like nuevamente, se elimina la reacción
  * - Si el usuario tenía like y presiona dislike, cambia a dislike
  * - Los contadores se actualizan automáticamente en la tabla posts
@@ -27,24 +28,25 @@ import java.time.LocalDateTime;
  * - ManyToOne con Post (post al que se reacciona)
  */
 @Entity
-@Table(name = "reactions", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "post_id"})) // Un usuario solo puede reaccionar una vez por post
+@Table(name = "reactions",
+       indexes = @Index(name = "idx_reactions_post_type", columnList = "post_id, type"))
 @EntityListeners(AuditingEntityListener.class) // Habilita auditoría automática
 public class Reaction {
     
     // ==================== CAMPOS PRINCIPALES ====================
     
-    /** Identificador único de la reacción (UUID de 36 caracteres) */
-    @Id
-    @Column(length = 36)
-    private String id;
+    /** Llave (user_id, post_id): un usuario solo puede reaccionar una vez por post */
+    @EmbeddedId
+    private ReactionId id;
     
-    /** Referencia al usuario que hace la reacción (carga lazy) */
+    /** Referencia al usuario que hace la reacción (carga lazy, parte de la llave) */
+    @MapsId("userId")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
-    /** Referencia al post al que se reacciona (carga lazy) */
+    /** Referencia al post al que se reacciona (carga lazy, parte de la llave) */
+    @MapsId("postId")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
@@ -68,21 +70,19 @@ public class Reaction {
     
     /** 
      * Constructor con campos principales para crear una reacción
-     * @param id Identificador único de la reacción
      * @param user Usuario que hace la reacción
      * @param post Post al que se reacciona
      * @param type Tipo de reacción (LIKE o DISLIKE)
      */
-    public Reaction(String id, User user, Post post, ReactionType type) {
-        this.id = id;
+    public Reaction(User user, Post post, ReactionType type) {
+        this.id = new ReactionId(user.getId(), post.getId());
         this.user = user;
         this.post = post;
         this.type = type;
     }
     
     // Getters y Setters
-    public String getId() { return id; }
-    public void setId(String id) { this.id = id; }
+    public ReactionId getId() { return id; }
     
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
@@ -0,0 +1,50 @@
+package com.uniway.entity;
+
+import com.uniway.id.BinaryUuidType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import org.hibernate.annotations.Type;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * ReactionId - Llave primaria compuesta de Reaction: (user_id, post_id)
+ *
+ * Las columnas llevan el mismo tipo BINARY(16) que los ids de User y Post; Reaction
+ * las comparte con sus relaciones mediante @MapsId.
+ */
+@Embeddable
+public class ReactionId implements Serializable {
+
+    @Type(BinaryUuidType.class)
+    @Column(name = "user_id", length = 16)
+    private String userId;
+
+    @Type(BinaryUuidType.class)
+    @Column(name = "post_id", length = 16)
+    private String postId;
+
+    /** Constructor por defecto requerido por JPA */
+    public ReactionId() {}
+
+    public ReactionId(String userId, String postId) {
+        this.userId = userId;
+        this.postId = postId;
+    }
+
+    public String getUserId() { return userId; }
+    public String getPostId() { return postId; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReactionId other)) return false;
+        return Objects.equals(userId, other.userId) && Objects.equals(postId, other.postId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, postId);
+    }
+}
@@ -0,0 +1,128 @@
+package com.uniway.entity;
+
+import com.uniway.id.BinaryUuidType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Type;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad RefreshToken - Representa un token de renovación de sesión
+ *
+ * Solo se almacena el hash SHA-256 del token (32 bytes), nunca el valor en claro.
+ * Cada renovación revoca el token usado y emite uno nuevo dentro de la misma
+ * familia; si se presenta un token ya revocado se asume robo y se revoca la
+ * familia completa.
+ *
+ * Características:
+ * - Fila compacta: hash binario, ids de usuario y familia, expiración y estado
+ * - Rotación en cada uso (un solo uso por token)
+ * - Detección de reutilización por familia
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
+    @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+    @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class RefreshToken extends AssignedIdEntity {
+
+    // ==================== CAMPOS PRINCIPALES ====================
+
+    /** Identificador único del token */
+    @Id
+    @Type(BinaryUuidType.class)
+    @Column(length = 16)
+    private String id;
+
+    /** Hash SHA-256 del token entregado al cliente */
+    @Column(name = "token_hash", nullable = false, unique = true, columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
+
+    /** Usuario dueño de la sesión */
+    @Type(BinaryUuidType.class)
+    @Column(name = "user_id", nullable = false, length = 16)
+    private String userId;
+
+    /** Familia de rotación (todos los tokens derivados del mismo inicio de sesión) */
+    @Type(BinaryUuidType.class)
+    @Column(name = "family_id", nullable = false, length = 16)
+    private String familyId;
+
+    /** Fecha y hora de expiración del token */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** Indica si el token ya fue usado (rotado) o revocado */
+    @Column(name = "is_revoked", nullable = false)
+    private Boolean isRevoked = false;
+
+    // ==================== AUDITORÍA ====================
+
+    /** Fecha y hora de emisión del token */
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // ==================== CONSTRUCTORES ====================
+
+    /** Constructor por defecto requerido por JPA */
+    public RefreshToken() {}
+
+    /**
+     * Constructor para emitir un token de renovación
+     * @param id Identificador único
+     * @param tokenHash Hash SHA-256 del token
+     * @param userId ID del usuario
+     * @param familyId ID de la familia de rotación
+     * @param expiresAt Fecha de expiración
+     */
+    public RefreshToken(String id, byte[] tokenHash, String userId, String familyId, LocalDateTime expiresAt) {
+        this.id = id;
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.familyId = familyId;
+        this.expiresAt = expiresAt;
+        this.isRevoked = false;
+    }
+
+    // ==================== GETTERS Y SETTERS ====================
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public byte[] getTokenHash() { return tokenHash; }
+    public void setTokenHash(byte[] tokenHash) { this.tokenHash = tokenHash; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getFamilyId() { return familyId; }
+    public void setFamilyId(String familyId) { this.familyId = familyId; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public Boolean getIsRevoked() {
+        return isRevoked != null ? isRevoked : false;
+    }
+    public void setIsRevoked(Boolean isRevoked) {
+        this.isRevoked = isRevoked != null ? isRevoked : false;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    // ==================== MÉTODOS DE UTILIDAD ====================
+
+    /**
+     * Verifica si el token ha expirado
+     * @return true si el token ha expirado
+     */
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiresAt);
+    }
+}
@@ -1,6 +1,10 @@
 package com.uniway.entity;
 
+import com.uniway.id.BinaryUuidType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -11,14 +15,27 @@ import java.time.LocalDateTime;
  * 
  * Esta clase mapea la tabla 'student_teachers' que almacena qué profesores
  * tiene cada estudiante y en qué materias.
+ * 
+ * Se guarda en la caché de segundo nivel (región "student-teachers", ver hibernate-cache.conf).
  */
 @Entity
-@Table(name = "student_teachers")
+@Table(name = "student_teachers", indexes = {
+    @Index(name = "idx_student_teachers_student_active", columnList = "student_id, is_active"),
+    @Index(name = "idx_student_teachers_active", columnList = "is_active, created_at"),
+    @Index(name = "idx_student_teachers_active_subject", columnList = "is_active, subject"),
+    @Index(name = "idx_student_teachers_active_teacher", columnList = "is_active, teacher_name"),
+    @Index(name = "idx_student_teachers_subject", columnList = "subject, is_active"),
+    @Index(name = "idx_teacher_name_subject", columnList = "teacher_name, subject"),
+    @Index(name = "idx_rating_active", columnList = "rating, is_active")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "student-teachers")
 @EntityListeners(AuditingEntityListener.class)
-public class StudentTeacher {
+public class StudentTeacher extends AssignedIdEntity {
 
     @Id
-    @Column(length = 36)
+    @Type(BinaryUuidType.class)
+    @Column(length = 16)
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,24 +16,27 @@ import java.time.LocalDateTime;
  * sistema de reacciones de los posts del foro.
  * 
  * Características:
- * - Un usuario solo puede tener una reacción por recomendación (UNIQUE constraint)
+ * - Un usuario solo puede tener una reacción por recomendación: la llave primaria
+ *   es (user_id, recommendation_id), sin id propio (ver TeacherRecommendationReactionId)
  * - Puede cambiar su reacción de LIKE a DISLIKE y viceversa
  * - Puede eliminar su reacción (toggle off)
  * - Auditoría automática de fechas de creación y modificación
  */
 @Entity
-@Table(name = "teacher_recommendation_reactions")
+@Table(name = "teacher_recommendation_reactions",
+       indexes = @Index(name = "idx_trr_recommendation_type", columnList = "recommendation_id, reaction_type"))
 @EntityListeners(AuditingEntityListener.class)
 public class TeacherRecommendationReaction {
 
-    @Id
-    @Column(length = 36)
-    private String id;
+    @EmbeddedId
+    private TeacherRecommendationReactionId id;
 
+    @MapsId("recommendationId")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "recommendation_id", nullable = false)
     private StudentTeacher recommendation;
 
+    @MapsId("userId")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -53,16 +56,15 @@ public class TeacherRecommendationReaction {
     // Constructores
     public TeacherRecommendationReaction() {}
 
-    public TeacherRecommendationReaction(String id, StudentTeacher recommendation, User user, ReactionType reactionType) {
-        this.id = id;
+    public TeacherRecommendationReaction(StudentTeacher recommendation, User user, ReactionType reactionType) {
+        this.id = new TeacherRecommendationReactionId(user.getId(), recommendation.getId());
         this.recommendation = recommendation;
         this.user = user;
         this.reactionType = reactionType;
     }
 
     // Getters y Setters
-    public String getId() { return id; }
-    public void setId(String id) { this.id = id; }
+    public TeacherRecommendationReactionId getId() { return id; }
 
     public StudentTeacher getRecommendation() { return recommendation; }
     public void setRecommendation(StudentTeacher recommendation) { this.recommendation = recommendation; }
@@ -0,0 +1,48 @@
+package com.uniway.entity;
+
+import com.uniway.id.BinaryUuidType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import org.hibernate.annotations.Type;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * TeacherRecommendationReactionId - Llave primaria compuesta de
+ * TeacherRecommendationReaction: (user_id, recommendation_id)
+ */
+@Embeddable
+public class TeacherRecommendationReactionId implements Serializable {
+
+    @Type(BinaryUuidType.class)
+    @Column(name = "user_id", length = 16)
+    private String userId;
+
+    @Type(BinaryUuidType.class)
+    @Column(name = "recommendation_id", length = 16)
+    private String recommendationId;
+
+    /** Constructor por defecto requerido por JPA */
+    public TeacherRecommendationReactionId() {}
+
+    public TeacherRecommendationReactionId(String userId, String recommendationId) {
+        this.userId = userId;
+        this.recommendationId = recommendationId;
+    }
+
+    public String getUserId() { return userId; }
+    public String getRecommendationId() { return recommendationId; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TeacherRecommendationReactionId other)) return false;
+        return Objects.equals(userId, other.userId) && Objects.equals(recommendationId, other.recommendationId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, recommendationId);
+    }
+}
@@ -1,6 +1,10 @@
 package com.uniway.entity;
 
+import com.uniway.id.BinaryUuidType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Type;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -22,17 +26,26 @@ import java.util.List;
  * - OneToMany con Post (un usuario puede tener muchos posts)
  * - OneToMany con Comment (un usuario puede tener muchos comentarios)
  * - OneToMany con Reaction (un usuario puede tener muchas reacciones)
+ * 
+ * Se guarda en la caché de segundo nivel (región "users", ver hibernate-cache.conf).
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_users_program_active", columnList = "program, is_active"),
+    @Index(name = "idx_users_role_active", columnList = "role, is_active")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @EntityListeners(AuditingEntityListener.class) // Habilita auditoría automática (createdAt, updatedAt)
-public class User {
+public class User extends AssignedIdEntity {
     
     // ==================== CAMPOS PRINCIPALES ====================
     
-    /** Identificador único del usuario (UUID de 36 caracteres) */
+    /** Identificador único del usuario (UUIDv7 ordenado por tiempo, BINARY(16)) */
     @Id
-    @Column(length = 36)
+    @Type(BinaryUuidType.class)
+    @Column(length = 16)
     private String id;
     
     /** Email institucional del usuario - usado para login y debe ser único */
@@ -1,6 +1,8 @@
 package com.uniway.entity;
 
+import com.uniway.id.BinaryUuidType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Type;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -20,15 +22,20 @@ import java.time.LocalDateTime;
  * - Asociados a un email específico
  */
 @Entity
-@Table(name = "verification_codes")
+@Table(name = "verification_codes", indexes = {
+    @Index(name = "idx_verification_codes_email_expires", columnList = "email, expires_at"),
+    @Index(name = "idx_verification_codes_expires", columnList = "expires_at"),
+    @Index(name = "idx_verification_codes_email_created", columnList = "email, created_at")
+})
 @EntityListeners(AuditingEntityListener.class)
-public class VerificationCode {
+public class VerificationCode extends AssignedIdEntity {
     
     // ==================== CAMPOS PRINCIPALES ====================
     
     /** Identificador único del código de verificación */
     @Id
-    @Column(length = 36)
+    @Type(BinaryUuidType.class)
+    @Column(length = 16)
     private String id;
     
     /** Email al que se envió el código de verificación */
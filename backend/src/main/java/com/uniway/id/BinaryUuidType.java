@@ -0,0 +1,98 @@
+package com.uniway.id;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+
+/**
+ * BinaryUuidType - Mapeo de ids String a columnas BINARY(16)
+ *
+ * En Java los ids siguen siendo texto con formato UUID (DTOs, JWT, URLs y
+ * repositorios no cambian); en la base ocupan 16 bytes en lugar de 36 caracteres
+ * utf8mb4, tanto en la llave primaria como en cada índice secundario que la repite.
+ *
+ * Uso: @Id @Type(BinaryUuidType.class) @Column(length = 16)
+ */
+public class BinaryUuidType implements UserType<String> {
+
+    /** Ninguna fila BINARY(16) es igual a un valor de 0 bytes */
+    private static final byte[] NO_MATCH = new byte[0];
+
+    @Override
+    public int getSqlType() {
+        return Types.BINARY;
+    }
+
+    @Override
+    public Class<String> returnedClass() {
+        return String.class;
+    }
+
+    @Override
+    public boolean equals(String x, String y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(String x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public String nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        byte[] bytes = rs.getBytes(position);
+        return bytes == null ? null : Ids.fromBytes(bytes);
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, String value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.BINARY);
+            return;
+        }
+        byte[] bytes;
+        try {
+            bytes = Ids.toBytes(value);
+        } catch (IllegalArgumentException e) {
+            // Id mal formado (por ejemplo, de la URL): no coincide con ninguna fila,
+            // igual que con varchar(36), en lugar de fallar dentro de la transacción
+            bytes = NO_MATCH;
+        }
+        st.setBytes(index, bytes);
+    }
+
+    @Override
+    public String deepCopy(String value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(String value) {
+        return value;
+    }
+
+    @Override
+    public String assemble(Serializable cached, Object owner) {
+        return (String) cached;
+    }
+
+    @Override
+    public long getDefaultSqlLength(Dialect dialect, JdbcType jdbcType) {
+        return 16;
+    }
+}
@@ -0,0 +1,108 @@
+package com.uniway.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids - Generador de identificadores ordenados por tiempo (UUIDv7, RFC 9562)
+ *
+ * Estructura de los 128 bits:
+ * - 48 bits: milisegundos desde epoch
+ * - 4 bits: versión (7)
+ * - 12 bits: secuencia dentro del milisegundo (monótona en esta JVM)
+ * - 2 bits: variante
+ * - 62 bits: aleatorios
+ *
+ * Los ids nuevos son crecientes, así que cada inserción cae al final del índice
+ * clustered de InnoDB en lugar de en una página al azar. Se siguen exponiendo como
+ * texto con el formato UUID de siempre; en la base se guardan como BINARY(16)
+ * (ver BinaryUuidType).
+ *
+ * Si en un mismo milisegundo se agotan las 4096 secuencias, el reloj lógico avanza
+ * un milisegundo: el orden se conserva a costa de un desfase mínimo.
+ */
+public final class Ids {
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final int LENGTH = 36;
+
+    /** (milisegundos << 12) | secuencia del último id emitido */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private Ids() {}
+
+    /**
+     * Genera un id nuevo
+     * @return UUIDv7 en texto (36 caracteres, minúsculas)
+     */
+    public static String newId() {
+        return newUuid().toString();
+    }
+
+    /**
+     * Genera un UUIDv7
+     */
+    public static UUID newUuid() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long state = LAST.updateAndGet(last -> Math.max(last + 1, now));
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+
+        long mostSignificant = (millis << 16) | 0x7000L | sequence;
+        long leastSignificant = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Convierte un id en texto a sus 16 bytes
+     * @param id UUID en texto (36 caracteres)
+     * @return 16 bytes en orden big-endian
+     * @throws IllegalArgumentException si el texto no es un UUID
+     */
+    public static byte[] toBytes(String id) {
+        if (id == null || id.length() != LENGTH) {
+            throw new IllegalArgumentException("ID inválido: " + id);
+        }
+        return toBytes(UUID.fromString(id));
+    }
+
+    /**
+     * Convierte un UUID a sus 16 bytes
+     */
+    public static byte[] toBytes(UUID uuid) {
+        byte[] bytes = new byte[16];
+        putLong(bytes, 0, uuid.getMostSignificantBits());
+        putLong(bytes, 8, uuid.getLeastSignificantBits());
+        return bytes;
+    }
+
+    /**
+     * Convierte 16 bytes leídos de la base al id en texto
+     * @throws IllegalArgumentException si no son 16 bytes
+     */
+    public static String fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != 16) {
+            throw new IllegalArgumentException("ID binario inválido");
+        }
+        return new UUID(getLong(bytes, 0), getLong(bytes, 8)).toString();
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
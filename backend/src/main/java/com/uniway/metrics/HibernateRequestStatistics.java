@@ -0,0 +1,144 @@
+package com.uniway.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HibernateRequestStatistics - Contadores de Hibernate del request en curso
+ *
+ * Las estadísticas de Hibernate (hibernate.generate_statistics) son globales, así que
+ * no sirven para saber cuántas consultas hace una petición concreta. Aquí se cuentan
+ * por petición: RequestStatisticsFilter crea el contador al entrar la petición y lo lee
+ * al terminar, y los listeners de Hibernate lo incrementan mientras tanto.
+ *
+ * El contador viaja con el trabajo de la petición: propagate() lo instala en el hilo
+ * que ejecuta una tarea enviada desde la petición (pool de BCrypt, continuaciones en
+ * applicationTaskExecutor, respuestas asíncronas de MVC), así que las consultas que
+ * terminan en otro hilo también se cuentan.
+ *
+ * Fuera de una petición (tareas programadas, workers) no hay contador y los eventos
+ * se ignoran.
+ */
+@Component
+public class HibernateRequestStatistics {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void registerLoadListener() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, new LoadListener());
+    }
+
+    /**
+     * Asocia los contadores de un request al hilo actual
+     * @param counts Contadores del request (se leen al terminar)
+     */
+    public static void begin(Counts counts) {
+        CURRENT.set(counts);
+    }
+
+    /**
+     * Termina el conteo del hilo actual
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Envuelve una tarea para que cuente en el request que la envió
+     * (se usa como TaskDecorator de los pools que ejecutan trabajo de las peticiones)
+     * @param task Tarea enviada desde el hilo actual
+     * @return Tarea que instala los contadores del request mientras se ejecuta
+     */
+    public static Runnable propagate(Runnable task) {
+        Counts counts = CURRENT.get();
+        if (counts == null) {
+            return task;
+        }
+        return () -> {
+            Counts previous = CURRENT.get();
+            CURRENT.set(counts);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Contadores de un request; pueden incrementarse desde varios hilos
+     */
+    public static final class Counts {
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicInteger entityLoads = new AtomicInteger();
+        private final AtomicInteger flushes = new AtomicInteger();
+
+        public int getStatements() { return statements.get(); }
+
+        public int getEntityLoads() { return entityLoads.get(); }
+
+        public int getFlushes() { return flushes.get(); }
+    }
+
+    /**
+     * Listener de sesión (hibernate.session.events.auto): Hibernate crea una instancia
+     * por sesión con el constructor sin argumentos
+     */
+    public static class SessionListener extends BaseSessionEventListener {
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                counts.statements.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                counts.statements.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void flushEnd(int numberOfEntities, int numberOfCollections) {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                counts.flushes.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class LoadListener implements PostLoadEventListener {
+
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            Counts counts = CURRENT.get();
+            if (counts != null) {
+                counts.entityLoads.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.uniway.metrics;
+
+import com.uniway.config.QueryBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * RequestStatisticsFilter - Registra por petición las sentencias SQL, entidades
+ * cargadas y flushes de Hibernate
+ *
+ * Publica tres distribuciones etiquetadas con el método del controlador
+ * (hibernate.request.statements, hibernate.request.entity.loads,
+ * hibernate.request.flushes), de modo que un endpoint lento se puede atribuir a la
+ * base de datos comparando su latencia con la cantidad de consultas que ejecuta.
+ *
+ * Si la petición excede el presupuesto de sentencias de su controlador
+ * (QueryBudgetProperties) se registra un WARN y hibernate.request.budget.exceeded.
+ *
+ * Va antes de la cadena de seguridad para incluir las consultas del filtro JWT.
+ * Las consultas hechas en otros hilos en nombre de la petición (login y registro
+ * después del hash, exportación NDJSON) se cuentan gracias a
+ * HibernateRequestStatistics.propagate(). En las peticiones asíncronas el contador
+ * se guarda en un atributo del request y se registra en el último despacho, cuando
+ * la respuesta ya está completa.
+ */
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestStatisticsFilter.class);
+
+    private static final String COUNTS_ATTRIBUTE = RequestStatisticsFilter.class.getName() + ".counts";
+
+    private final MeterRegistry meterRegistry;
+    private final QueryBudgetProperties budgets;
+
+    public RequestStatisticsFilter(MeterRegistry meterRegistry, QueryBudgetProperties budgets) {
+        this.meterRegistry = meterRegistry;
+        this.budgets = budgets;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HibernateRequestStatistics.Counts counts = (HibernateRequestStatistics.Counts) request.getAttribute(COUNTS_ATTRIBUTE);
+        if (counts == null) {
+            counts = new HibernateRequestStatistics.Counts();
+            request.setAttribute(COUNTS_ATTRIBUTE, counts);
+        }
+        HibernateRequestStatistics.begin(counts);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            HibernateRequestStatistics.end();
+            // Con una respuesta asíncrona pendiente se registra en el despacho final
+            String handler = isAsyncStarted(request) ? null : handlerName(request);
+            if (handler != null) {
+                Tags tags = Tags.of("handler", handler);
+                record("hibernate.request.statements", "Sentencias SQL ejecutadas por petición", tags, counts.getStatements());
+                record("hibernate.request.entity.loads", "Entidades cargadas por petición", tags, counts.getEntityLoads());
+                record("hibernate.request.flushes", "Flushes de sesión por petición", tags, counts.getFlushes());
+                checkBudget(handler, counts.getStatements(), tags);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    /**
+     * Nombre corto del método del controlador que atendió la petición
+     * (p. ej. "PostController.getAllPosts"), o null si no hubo controlador
+     */
+    public static String handlerName(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return null;
+    }
+
+    private void checkBudget(String handler, int statements, Tags tags) {
+        if (!budgets.isEnabled()) {
+            return;
+        }
+        int budget = budgets.budgetFor(handler);
+        if (budget > 0 && statements > budget) {
+            log.warn("Presupuesto de consultas excedido en {}: {} sentencias (máximo {})", handler, statements, budget);
+            Counter.builder("hibernate.request.budget.exceeded")
+                    .description("Peticiones que excedieron el presupuesto de sentencias SQL")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private void record(String name, String description, Tags tags, int value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(500.0)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
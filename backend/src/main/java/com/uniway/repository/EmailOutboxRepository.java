@@ -0,0 +1,85 @@
+package com.uniway.repository;
+
+import com.uniway.entity.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * EmailOutboxRepository - Repositorio de la cola de correos salientes
+ *
+ * El reclamo de lotes es portable y seguro entre varias instancias: se seleccionan
+ * candidatos, se reclaman con un UPDATE condicional que registra el dueño y luego se
+ * leen solo las filas que quedaron a nombre de ese dueño.
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, String> {
+
+    /**
+     * IDs de correos listos para enviarse: pendientes con reintento vencido o
+     * reclamados por un worker cuyo reclamo ya expiró
+     * @param now Fecha y hora actual
+     * @param pageable Tamaño del lote
+     * @return IDs candidatos, más antiguos primero
+     */
+    // El IN redundante permite leer por rango de idx_email_outbox_status_next (el OR solo no usa índice)
+    @Query("SELECT e.id FROM EmailOutbox e " +
+           "WHERE e.status IN (com.uniway.entity.EmailOutboxStatus.PENDING, com.uniway.entity.EmailOutboxStatus.SENDING) " +
+           "AND ((e.status = com.uniway.entity.EmailOutboxStatus.PENDING AND e.nextAttemptAt <= :now) " +
+           "OR (e.status = com.uniway.entity.EmailOutboxStatus.SENDING AND e.lockedUntil < :now)) " +
+           "ORDER BY e.nextAttemptAt")
+    List<String> findReadyIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Reclama los candidatos que sigan disponibles
+     * @param ids IDs candidatos
+     * @param owner Identificador del reclamo
+     * @param now Fecha y hora actual
+     * @param lockedUntil Vencimiento del reclamo
+     * @return Número de filas reclamadas
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.uniway.entity.EmailOutboxStatus.SENDING, " +
+           "e.lockedBy = :owner, e.lockedUntil = :lockedUntil " +
+           "WHERE e.id IN :ids AND (e.status = com.uniway.entity.EmailOutboxStatus.PENDING " +
+           "OR (e.status = com.uniway.entity.EmailOutboxStatus.SENDING AND e.lockedUntil < :now))")
+    int claim(@Param("ids") Collection<String> ids, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * Correos reclamados por un dueño
+     * @param owner Identificador del reclamo
+     * @return Correos en estado SENDING de ese reclamo
+     */
+    @Query("SELECT e FROM EmailOutbox e WHERE e.lockedBy = :owner AND e.status = com.uniway.entity.EmailOutboxStatus.SENDING")
+    List<EmailOutbox> findClaimedBy(@Param("owner") String owner);
+
+    /**
+     * Marca como enviados los correos de un lote
+     * @param ids IDs enviados
+     * @param owner Identificador del reclamo (evita pisar un reclamo posterior)
+     * @param now Fecha y hora de envío
+     * @return Número de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = com.uniway.entity.EmailOutboxStatus.SENT, e.sentAt = :now, " +
+           "e.lockedBy = null, e.lockedUntil = null, e.lastError = null " +
+           "WHERE e.id IN :ids AND e.lockedBy = :owner")
+    int markSent(@Param("ids") Collection<String> ids, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * Elimina correos enviados antes de una fecha
+     * @param before Fecha límite
+     * @return Número de filas eliminadas
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = com.uniway.entity.EmailOutboxStatus.SENT AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -4,6 +4,7 @@ import com.uniway.entity.Post;
 import com.uniway.entity.PostType;
 import com.uniway.entity.PostPriority;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -34,6 +35,19 @@ import java.util.Optional;
 @Repository
 public interface PostRepository extends JpaRepository<Post, String> {
     
+    /**
+     * Suma los deltas a los contadores de reacciones en una sola sentencia atómica,
+     * sin leer el post ni contar la tabla reactions. Limpia el contexto de persistencia
+     * para que ningún Post cargado antes se guarde encima con contadores viejos.
+     * @param id ID del post
+     * @param likeDelta Cambio en like_count (-1, 0 o 1)
+     * @param dislikeDelta Cambio en dislike_count (-1, 0 o 1)
+     * @return Número de posts actualizados (0 si no existe)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + :likeDelta, p.dislikeCount = p.dislikeCount + :dislikeDelta WHERE p.id = :id")
+    int addReactionCounts(@Param("id") String id, @Param("likeDelta") int likeDelta, @Param("dislikeDelta") int dislikeDelta);
+    
     /** 
      * Obtiene todos los posts aprobados ordenados por prioridad y fecha
      * Los posts fijados (isPinned=true) aparecen primero, luego por fecha descendente
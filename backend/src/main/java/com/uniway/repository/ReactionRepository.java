@@ -1,12 +1,18 @@
 package com.uniway.repository;
 
 import com.uniway.entity.Reaction;
+import com.uniway.entity.ReactionId;
 import com.uniway.entity.ReactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -21,11 +27,12 @@ import java.util.Optional;
  * - Obtener todas las reacciones de un tipo específico
  * - Eliminar reacciones para implementar el toggle
  * 
- * La restricción única (user_id, post_id) en la base de datos garantiza que
- * un usuario solo pueda tener una reacción por post.
+ * La llave primaria (user_id, post_id) garantiza que un usuario solo pueda tener
+ * una reacción por post; el toggle opera directamente sobre esa llave (un DELETE
+ * o un upsert), sin leer la reacción antes.
  */
 @Repository
-public interface ReactionRepository extends JpaRepository<Reaction, String> {
+public interface ReactionRepository extends JpaRepository<Reaction, ReactionId> {
     
     /** 
      * Busca la reacción existente de un usuario específico a un post específico
@@ -57,11 +64,43 @@ public interface ReactionRepository extends JpaRepository<Reaction, String> {
     @Query("SELECT r FROM Reaction r WHERE r.post.id = :postId AND r.type = :type")
     java.util.List<Reaction> findByPostIdAndType(@Param("postId") String postId, @Param("type") ReactionType type);
     
+    /**
+     * Reacciones de un usuario a un conjunto de posts, en una sola consulta
+     * Usado al convertir listas de posts para no consultar post por post
+     * @param userId ID del usuario
+     * @param postIds IDs de los posts
+     * @return Filas {postId, tipo de reacción}
+     */
+    @Query("SELECT r.post.id, r.type FROM Reaction r WHERE r.user.id = :userId AND r.post.id IN :postIds")
+    java.util.List<Object[]> findTypesByUserIdAndPostIdIn(@Param("userId") String userId,
+                                                         @Param("postIds") java.util.Collection<String> postIds);
+    
     /** 
-     * Elimina la reacción de un usuario específico a un post específico
+     * Elimina la reacción de un usuario a un post si es del tipo indicado
      * Usado cuando el usuario hace toggle para quitar su reacción
      * @param userId ID del usuario
      * @param postId ID del post
+     * @param type Tipo de reacción a quitar
+     * @return 1 si se eliminó, 0 si no había reacción de ese tipo
+     */
+    @Modifying
+    @Query("DELETE FROM Reaction r WHERE r.user.id = :userId AND r.post.id = :postId AND r.type = :type")
+    int deleteByUserIdAndPostIdAndType(@Param("userId") String userId, @Param("postId") String postId,
+                                       @Param("type") ReactionType type);
+    
+    /**
+     * Crea la reacción o cambia su tipo si ya existía, en una sola sentencia
+     * (INSERT ... ON DUPLICATE KEY UPDATE sobre la llave primaria)
+     * @param userId ID del usuario en bytes (Ids.toBytes)
+     * @param postId ID del post en bytes (Ids.toBytes)
+     * @param type Tipo de reacción (se guarda su nombre, como @Enumerated STRING)
+     * @param now Fecha de creación si la reacción es nueva
+     * @return Filas afectadas según MySQL (1 insertada, 2 actualizada)
      */
-    void deleteByUserIdAndPostId(String userId, String postId);
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "reactions"))
+    @Query(value = "INSERT INTO reactions (user_id, post_id, type, created_at) VALUES (:userId, :postId, :#{#type.name()}, :now) " +
+                   "ON DUPLICATE KEY UPDATE type = VALUES(type)", nativeQuery = true)
+    int upsert(@Param("userId") byte[] userId, @Param("postId") byte[] postId,
+               @Param("type") ReactionType type, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.uniway.repository;
+
+import com.uniway.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * RefreshTokenRepository - Repositorio para los tokens de renovación de sesión
+ *
+ * Los tokens se buscan siempre por su hash; el valor en claro nunca llega a la
+ * base de datos.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Busca un token por su hash SHA-256
+     * @param tokenHash Hash del token presentado por el cliente
+     * @return Optional con el token si existe
+     */
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
+
+    /**
+     * Marca un token como usado solo si seguía activo
+     * @param id ID del token
+     * @return 1 si esta llamada lo marcó, 0 si ya estaba usado o revocado
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.id = :id AND rt.isRevoked = false")
+    int markUsed(@Param("id") String id);
+
+    /**
+     * Revoca todos los tokens de una familia de rotación
+     * @param familyId ID de la familia
+     * @return Número de tokens revocados
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.familyId = :familyId AND rt.isRevoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * Revoca todos los tokens activos de un usuario (cierre de sesión global)
+     * @param userId ID del usuario
+     * @return Número de tokens revocados
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.userId = :userId AND rt.isRevoked = false")
+    int revokeAllByUserId(@Param("userId") String userId);
+
+    /**
+     * Elimina tokens expirados
+     * @param now Fecha y hora actual
+     * @return Número de tokens eliminados
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
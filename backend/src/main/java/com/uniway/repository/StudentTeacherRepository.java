@@ -1,8 +1,11 @@
 package com.uniway.repository;
 
 import com.uniway.entity.StudentTeacher;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -31,6 +34,10 @@ public interface StudentTeacherRepository extends JpaRepository<StudentTeacher,
         @Param("semester") String semester
     );
     
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-lists")
+    })
     @Query("SELECT DISTINCT st.subject FROM StudentTeacher st WHERE st.isActive = true ORDER BY st.subject")
     List<String> findAllActiveSubjects();
 
@@ -39,13 +46,13 @@ public interface StudentTeacherRepository extends JpaRepository<StudentTeacher,
     /**
      * Encuentra recomendaciones activas ordenadas por fecha de creación
      */
-    @Query("SELECT st FROM StudentTeacher st WHERE st.isActive = true ORDER BY st.createdAt DESC")
+    @Query("SELECT st FROM StudentTeacher st JOIN FETCH st.student WHERE st.isActive = true ORDER BY st.createdAt DESC")
     List<StudentTeacher> findByActiveTrueOrderByCreatedAtDesc();
     
     /**
      * Encuentra recomendaciones activas por materia
      */
-    @Query("SELECT st FROM StudentTeacher st WHERE st.subject = :subject AND st.isActive = true")
+    @Query("SELECT st FROM StudentTeacher st JOIN FETCH st.student WHERE st.subject = :subject AND st.isActive = true")
     List<StudentTeacher> findBySubjectAndActiveTrue(@Param("subject") String subject);
     
     /**
@@ -63,12 +70,28 @@ public interface StudentTeacherRepository extends JpaRepository<StudentTeacher,
     /**
      * Obtiene todas las materias distintas que tienen recomendaciones activas
      */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-lists")
+    })
     @Query("SELECT DISTINCT st.subject FROM StudentTeacher st WHERE st.isActive = true ORDER BY st.subject")
     List<String> findDistinctSubjectsByActiveTrue();
     
     /**
      * Obtiene todos los nombres de profesores distintos que tienen recomendaciones activas
      */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-lists")
+    })
     @Query("SELECT DISTINCT st.teacherName FROM StudentTeacher st WHERE st.isActive = true ORDER BY st.teacherName")
     List<String> findDistinctTeacherNames();
+
+    /**
+     * Obtiene los pares (estudiante, profesor) de recomendaciones activas con calificación
+     * mínima, ordenados por estudiante. Solo proyecta las dos columnas necesarias para
+     * construir la matriz de co-ocurrencia sin hidratar entidades.
+     */
+    @Query("SELECT st.student.id, st.teacherName FROM StudentTeacher st WHERE st.isActive = true AND st.rating >= :minRating ORDER BY st.student.id")
+    List<Object[]> findHighlyRatedStudentTeacherPairs(@Param("minRating") Integer minRating);
 }
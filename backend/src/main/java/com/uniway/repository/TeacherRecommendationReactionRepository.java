@@ -2,13 +2,18 @@ package com.uniway.repository;
 
 import com.uniway.entity.ReactionType;
 import com.uniway.entity.TeacherRecommendationReaction;
+import com.uniway.entity.TeacherRecommendationReactionId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -17,9 +22,10 @@ import java.util.Optional;
  * 
  * Proporciona métodos para gestionar likes y dislikes en recomendaciones de profesores,
  * similar al sistema de reacciones de posts pero específico para recomendaciones.
+ * La llave primaria es (user_id, recommendation_id).
  */
 @Repository
-public interface TeacherRecommendationReactionRepository extends JpaRepository<TeacherRecommendationReaction, String> {
+public interface TeacherRecommendationReactionRepository extends JpaRepository<TeacherRecommendationReaction, TeacherRecommendationReactionId> {
 
     /**
      * Busca una reacción específica de un usuario a una recomendación
@@ -47,6 +53,26 @@ public interface TeacherRecommendationReactionRepository extends JpaRepository<T
     @Query("SELECT COUNT(trr) FROM TeacherRecommendationReaction trr WHERE trr.recommendation.id = :recommendationId")
     long countByRecommendationId(@Param("recommendationId") String recommendationId);
 
+    /**
+     * Cuenta las reacciones por tipo de un conjunto de recomendaciones en una sola consulta
+     * @param recommendationIds IDs de las recomendaciones
+     * @return Filas {recommendationId, tipo de reacción, cantidad}
+     */
+    @Query("SELECT trr.recommendation.id, trr.reactionType, COUNT(trr) FROM TeacherRecommendationReaction trr " +
+           "WHERE trr.recommendation.id IN :recommendationIds GROUP BY trr.recommendation.id, trr.reactionType")
+    java.util.List<Object[]> countByRecommendationIdInGroupByType(@Param("recommendationIds") java.util.Collection<String> recommendationIds);
+
+    /**
+     * Reacciones de un usuario a un conjunto de recomendaciones
+     * @param userId ID del usuario
+     * @param recommendationIds IDs de las recomendaciones
+     * @return Filas {recommendationId, tipo de reacción}
+     */
+    @Query("SELECT trr.recommendation.id, trr.reactionType FROM TeacherRecommendationReaction trr " +
+           "WHERE trr.user.id = :userId AND trr.recommendation.id IN :recommendationIds")
+    java.util.List<Object[]> findTypesByUserIdAndRecommendationIdIn(@Param("userId") String userId,
+                                                                   @Param("recommendationIds") java.util.Collection<String> recommendationIds);
+
     /**
      * Cuenta las reacciones recibidas por todas las recomendaciones de un usuario
      * @param studentId ID del estudiante (autor de las recomendaciones)
@@ -56,6 +82,38 @@ public interface TeacherRecommendationReactionRepository extends JpaRepository<T
     @Query("SELECT COUNT(trr) FROM TeacherRecommendationReaction trr WHERE trr.recommendation.student.id = :studentId AND trr.reactionType = :reactionType")
     long countReactionsReceivedByStudent(@Param("studentId") String studentId, @Param("reactionType") ReactionType reactionType);
 
+    /**
+     * Elimina la reacción de un usuario a una recomendación si es del tipo indicado
+     * @param userId ID del usuario
+     * @param recommendationId ID de la recomendación
+     * @param reactionType Tipo de reacción a quitar
+     * @return 1 si se eliminó, 0 si no había reacción de ese tipo
+     */
+    @Modifying
+    @Query("DELETE FROM TeacherRecommendationReaction trr WHERE trr.user.id = :userId " +
+           "AND trr.recommendation.id = :recommendationId AND trr.reactionType = :reactionType")
+    int deleteByUserIdAndRecommendationIdAndReactionType(@Param("userId") String userId,
+                                                         @Param("recommendationId") String recommendationId,
+                                                         @Param("reactionType") ReactionType reactionType);
+
+    /**
+     * Crea la reacción o cambia su tipo si ya existía, en una sola sentencia
+     * (INSERT ... ON DUPLICATE KEY UPDATE sobre la llave primaria)
+     * @param userId ID del usuario en bytes (Ids.toBytes)
+     * @param recommendationId ID de la recomendación en bytes (Ids.toBytes)
+     * @param reactionType Tipo de reacción (se guarda su nombre, como @Enumerated STRING)
+     * @param now Fecha de creación o de modificación
+     * @return Filas afectadas según MySQL (1 insertada, 2 actualizada)
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "teacher_recommendation_reactions"))
+    @Query(value = "INSERT INTO teacher_recommendation_reactions (user_id, recommendation_id, reaction_type, created_at, updated_at) " +
+                   "VALUES (:userId, :recommendationId, :#{#reactionType.name()}, :now, :now) " +
+                   "ON DUPLICATE KEY UPDATE reaction_type = VALUES(reaction_type), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int upsert(@Param("userId") byte[] userId, @Param("recommendationId") byte[] recommendationId,
+               @Param("reactionType") ReactionType reactionType, @Param("now") LocalDateTime now);
+
     /**
      * Elimina todas las reacciones de una recomendación específica
      * @param recommendationId ID de la recomendación
@@ -24,6 +24,41 @@ public interface UserRepository extends JpaRepository<User, String> {
     
     @Query("SELECT u FROM User u WHERE u.role = :role AND u.isActive = true")
     java.util.List<User> findActiveUsersByRole(@Param("role") com.uniway.entity.UserRole role);
+    
+    // Solo los emails (sin cargar entidades) de los usuarios activos de un programa
+    @Query("SELECT u.email FROM User u WHERE u.program = :program AND u.isActive = true")
+    java.util.List<String> findActiveEmailsByProgram(@Param("program") String program);
+    
+    // Email guardado en la base de datos (sin cargar la entidad), para invalidar la caché
+    // por el email anterior cuando un usuario cambia de email
+    @Query("SELECT u.email FROM User u WHERE u.id = :id")
+    Optional<String> findEmailById(@Param("id") String id);
+    
+    // Listado paginado por cursor (keyset), proyectado directamente a UserDto:
+    // orden (createdAt DESC, id DESC) y filtros opcionales (null = sin filtro)
+    @Query("SELECT new com.uniway.dto.UserDto(u.id, u.email, u.role, u.fullName, u.studentId, u.program, " +
+           "u.profileImageUrl, u.phone, u.address, u.isActive, u.createdAt, u.updatedAt) FROM User u " +
+           "WHERE (:role IS NULL OR u.role = :role) AND (:program IS NULL OR u.program = :program) " +
+           "AND (:active IS NULL OR u.isActive = :active) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    java.util.List<com.uniway.dto.UserDto> findUserPage(@Param("role") com.uniway.entity.UserRole role,
+                                                        @Param("program") String program,
+                                                        @Param("active") Boolean active,
+                                                        org.springframework.data.domain.Pageable pageable);
+    
+    @Query("SELECT new com.uniway.dto.UserDto(u.id, u.email, u.role, u.fullName, u.studentId, u.program, " +
+           "u.profileImageUrl, u.phone, u.address, u.isActive, u.createdAt, u.updatedAt) FROM User u " +
+           "WHERE (:role IS NULL OR u.role = :role) AND (:program IS NULL OR u.program = :program) " +
+           "AND (:active IS NULL OR u.isActive = :active) " +
+           "AND u.createdAt <= :afterCreatedAt " + // redundante: rango sobre idx_users_created_id
+           "AND (u.createdAt < :afterCreatedAt OR (u.createdAt = :afterCreatedAt AND u.id < :afterId)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    java.util.List<com.uniway.dto.UserDto> findUserPageAfter(@Param("role") com.uniway.entity.UserRole role,
+                                                             @Param("program") String program,
+                                                             @Param("active") Boolean active,
+                                                             @Param("afterCreatedAt") java.time.LocalDateTime afterCreatedAt,
+                                                             @Param("afterId") String afterId,
+                                                             org.springframework.data.domain.Pageable pageable);
 }
 
 
@@ -1,10 +1,15 @@
 package com.uniway.repository;
 
 import com.uniway.entity.VerificationCode;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,7 +24,7 @@ import java.util.Optional;
  * Funcionalidades:
  * - Buscar códigos por email y código
  * - Verificar validez de códigos (no expirados, no usados)
- * - Limpiar códigos expirados automáticamente
+ * - Limpiar códigos expirados automáticamente (en bloques acotados)
  * - Obtener códigos activos por email
  */
 @Repository
@@ -51,14 +56,6 @@ public interface VerificationCodeRepository extends JpaRepository<VerificationCo
     @Query("SELECT vc FROM VerificationCode vc WHERE vc.email = :email ORDER BY vc.createdAt DESC")
     List<VerificationCode> findByEmailOrderByCreatedAtDesc(@Param("email") String email);
     
-    /**
-     * Busca códigos expirados para limpieza automática
-     * @param now Fecha y hora actual
-     * @return Lista de códigos expirados
-     */
-    @Query("SELECT vc FROM VerificationCode vc WHERE vc.expiresAt < :now")
-    List<VerificationCode> findExpiredCodes(@Param("now") LocalDateTime now);
-    
     /**
      * Cuenta códigos válidos para un email (para limitar intentos)
      * @param email Email del usuario
@@ -69,9 +66,29 @@ public interface VerificationCodeRepository extends JpaRepository<VerificationCo
     long countValidCodesByEmail(@Param("email") String email, @Param("now") LocalDateTime now);
     
     /**
-     * Elimina códigos expirados (para limpieza automática)
+     * Marca un código como usado solo si es válido (no usado y no expirado)
+     * @param email Email del usuario
+     * @param code Código ingresado
+     * @param now Fecha y hora actual
+     * @return 1 si el código se consumió, 0 en otro caso
+     */
+    @Modifying
+    @Query("UPDATE VerificationCode vc SET vc.isUsed = true WHERE vc.email = :email AND vc.code = :code AND vc.isUsed = false AND vc.expiresAt > :now")
+    int markUsedIfValid(@Param("email") String email, @Param("code") String code, @Param("now") LocalDateTime now);
+    
+    /**
+     * Elimina un bloque acotado de códigos expirados (para limpieza automática)
+     * 
+     * Cada llamada es una sentencia corta en su propia transacción, de modo que
+     * la purga no mantiene bloqueos sobre la tabla completa. El espacio de consulta
+     * limita la invalidación de la caché de segundo nivel a verification_codes.
      * @param now Fecha y hora actual
+     * @param limit Máximo de filas a eliminar
+     * @return Número de códigos eliminados
      */
-    @Query("DELETE FROM VerificationCode vc WHERE vc.expiresAt < :now")
-    void deleteExpiredCodes(@Param("now") LocalDateTime now);
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "verification_codes"))
+    @Query(value = "DELETE FROM verification_codes WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
\ No newline at end of file
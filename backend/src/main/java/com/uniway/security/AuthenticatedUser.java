@@ -0,0 +1,49 @@
+package com.uniway.security;
+
+import com.uniway.entity.UserRole;
+
+/**
+ * AuthenticatedUser - Principal del usuario autenticado
+ * 
+ * Se construye directamente a partir de los claims del JWT (id, rol y nombre),
+ * de modo que identificar al usuario en cada request no requiere consultar la
+ * base de datos.
+ */
+public class AuthenticatedUser {
+    
+    private final String id;
+    private final UserRole role;
+    private final String fullName;
+    private final String tokenId;
+    private final long tokenExpiresAt;
+    
+    public AuthenticatedUser(String id, UserRole role, String fullName, String tokenId, long tokenExpiresAt) {
+        this.id = id;
+        this.role = role;
+        this.fullName = fullName;
+        this.tokenId = tokenId;
+        this.tokenExpiresAt = tokenExpiresAt;
+    }
+    
+    public String getId() { return id; }
+    
+    public UserRole getRole() { return role; }
+    
+    public String getFullName() { return fullName; }
+    
+    /** Identificador (jti) del access token con el que se autenticó el request */
+    public String getTokenId() { return tokenId; }
+    
+    /** Expiración (epoch ms) del access token con el que se autenticó el request */
+    public long getTokenExpiresAt() { return tokenExpiresAt; }
+    
+    /** Indica si el usuario tiene rol de administración */
+    public boolean isAdmin() {
+        return role == UserRole.ADMINISTRATION;
+    }
+    
+    @Override
+    public String toString() {
+        return id;
+    }
+}
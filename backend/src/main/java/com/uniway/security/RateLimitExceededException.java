@@ -0,0 +1,21 @@
+package com.uniway.security;
+
+/**
+ * RateLimitExceededException - Se lanza cuando un cliente supera el límite de una ruta
+ *
+ * Los controladores la traducen a 429 (Too Many Requests) con el header Retry-After.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /** Segundos sugeridos antes de reintentar */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
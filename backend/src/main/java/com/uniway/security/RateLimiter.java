@@ -0,0 +1,191 @@
+package com.uniway.security;
+
+import com.uniway.config.RateLimitProperties;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RateLimiter - Limitación de tasa en memoria, sin bloqueos, por IP y por email
+ *
+ * Cada bucket es un único AtomicLong con el "theoretical arrival time" del algoritmo
+ * GCRA (equivalente a un token bucket): admitir una solicitud es leer el valor,
+ * calcular el siguiente y hacer compareAndSet, sin locks ni timers por clave.
+ *
+ * El mapa de buckets está acotado:
+ * - Un bucket cuyo TAT ya pasó está lleno y equivale a uno nuevo, así que la purga
+ *   periódica lo elimina sin perder información (expiración exacta por inactividad)
+ * - Si se alcanza max-keys, las claves nuevas de una ruta comparten un bucket de
+ *   desbordamiento hasta la siguiente purga, de modo que un ataque con muchas IPs
+ *   no agota la memoria ni el tiempo de CPU de los requests
+ */
+@Component
+public class RateLimiter {
+
+    /** Dimensión de límite por dirección IP */
+    public static final String PER_IP = "ip";
+
+    /** Dimensión de límite por email */
+    public static final String PER_EMAIL = "email";
+
+    private static final String OVERFLOW_KEY = "*";
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    /** Origen de tiempo para que los TAT sean siempre positivos */
+    private final long startNanos = System.nanoTime();
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    /** Límites compilados por "ruta|dimensión" */
+    private final Map<String, CompiledLimit> limits = new HashMap<>();
+
+    /** Nombre de ruta por path exacto */
+    private final Map<String, String> routesByPath = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        properties.getRoutes().forEach((name, route) -> {
+            if (route.getPath() != null) {
+                routesByPath.put(route.getPath(), name);
+            }
+            if (route.getPerIp() != null) {
+                limits.put(name + '|' + PER_IP, new CompiledLimit(route.getPerIp()));
+            }
+            if (route.getPerEmail() != null) {
+                limits.put(name + '|' + PER_EMAIL, new CompiledLimit(route.getPerEmail()));
+            }
+        });
+    }
+
+    /**
+     * Obtiene el nombre de la ruta limitada para un path
+     * @param path Path del request (sin context path)
+     * @return Nombre de la ruta, o null si el path no está limitado
+     */
+    public String routeForPath(String path) {
+        return properties.isEnabled() ? routesByPath.get(path) : null;
+    }
+
+    /**
+     * Intenta consumir una solicitud del bucket de una clave
+     * @param route Nombre de la ruta
+     * @param dimension PER_IP o PER_EMAIL
+     * @param key IP o email
+     * @return 0 si se admite; en otro caso, milisegundos hasta poder reintentar
+     */
+    public long tryAcquire(String route, String dimension, String key) {
+        if (!properties.isEnabled() || key == null) {
+            return 0L;
+        }
+        CompiledLimit limit = limits.get(route + '|' + dimension);
+        if (limit == null) {
+            return 0L;
+        }
+
+        AtomicLong tat = bucketFor(route + '|' + dimension + '|' + key, route + '|' + dimension + '|' + OVERFLOW_KEY);
+        long now = System.nanoTime() - startNanos;
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + limit.emissionIntervalNanos;
+            long allowAt = next - limit.emissionIntervalNanos - limit.delayToleranceNanos;
+            if (allowAt > now) {
+                return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(allowAt - now));
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Aplica el límite por email de una ruta
+     * @param route Nombre de la ruta
+     * @param email Email del request (se normaliza a minúsculas)
+     * @throws RateLimitExceededException si se superó el límite
+     */
+    public void checkEmail(String route, String email) {
+        if (email == null) {
+            return;
+        }
+        long waitMs = tryAcquire(route, PER_EMAIL, email.trim().toLowerCase(Locale.ROOT));
+        if (waitMs > 0) {
+            throw new RateLimitExceededException(
+                "Demasiadas solicitudes para este correo. Intenta de nuevo más tarde.",
+                toRetryAfterSeconds(waitMs));
+        }
+    }
+
+    /**
+     * Convierte una espera en milisegundos al valor del header Retry-After
+     * @param waitMs Espera en milisegundos
+     * @return Segundos, redondeados hacia arriba
+     */
+    public static long toRetryAfterSeconds(long waitMs) {
+        return (waitMs + 999) / 1000;
+    }
+
+    /** Número de buckets en memoria */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Elimina los buckets inactivos (TAT vencido = bucket lleno)
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime() - startNanos;
+            buckets.values().removeIf(tat -> tat.get() <= now);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private AtomicLong bucketFor(String key, String overflowKey) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxKeys()) {
+            // Sin purgar aquí: recorrer max-keys buckets en el hilo del request es justo
+            // lo que busca un ataque con claves nuevas. La purga es solo la programada.
+            return buckets.computeIfAbsent(overflowKey, k -> new AtomicLong());
+        }
+        AtomicLong created = new AtomicLong();
+        AtomicLong existing = buckets.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * Parámetros GCRA: intervalo de emisión T = period / limit y tolerancia τ = T * (burst - 1)
+     */
+    private static final class CompiledLimit {
+        final long emissionIntervalNanos;
+        final long delayToleranceNanos;
+
+        CompiledLimit(RateLimitProperties.Limit limit) {
+            int perPeriod = Math.max(1, limit.getLimit());
+            this.emissionIntervalNanos = limit.getPeriod().toNanos() / perPeriod;
+            this.delayToleranceNanos = emissionIntervalNanos * Math.max(0, limit.getBurst() - 1);
+        }
+    }
+}
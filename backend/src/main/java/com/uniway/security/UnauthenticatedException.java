@@ -0,0 +1,13 @@
+package com.uniway.security;
+
+/**
+ * UnauthenticatedException - El request necesita un usuario y no trae un token válido
+ *
+ * Los controladores la traducen a 401 (Unauthorized).
+ */
+public class UnauthenticatedException extends RuntimeException {
+
+    public UnauthenticatedException() {
+        super("Usuario no autenticado");
+    }
+}
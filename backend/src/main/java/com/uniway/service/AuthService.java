@@ -2,13 +2,23 @@ package com.uniway.service;
 
 import com.uniway.entity.User;
 import com.uniway.entity.UserRole;
+import com.uniway.id.Ids;
 import com.uniway.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+/**
+ * AuthService - Registro, login y cambio de contraseña
+ * 
+ * Solo el hash corre en el pool acotado de PasswordHashingService. Lo que sigue
+ * (guardar o buscar el usuario, firmar el JWT, crear el refresh token en
+ * AuthController) continúa en el pool de la aplicación (spring.task.execution):
+ * la latencia de la base no ocupa capacidad de hashing ni provoca rechazos 503.
+ */
 @Service
 public class AuthService {
     
@@ -16,12 +26,24 @@ public class AuthService {
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     
     @Autowired
     private JwtService jwtService;
     
-    public User register(String email, String password, UserRole role, String fullName, String studentId, String program) {
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    /** Pool de la aplicación (applicationTaskExecutor de Spring Boot) */
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor requestExecutor;
+    
+    /**
+     * Registra un usuario. Las validaciones se hacen en el hilo del request y el hash
+     * de la contraseña en el pool dedicado de PasswordHashingService.
+     */
+    public CompletableFuture<User> register(String email, String password, UserRole role, String fullName, String studentId, String program) {
         // Verificar si el usuario ya existe
         if (userRepository.findByEmail(email).isPresent()) {
             throw new RuntimeException("El correo electrónico ya está registrado");
@@ -34,44 +56,59 @@ public class AuthService {
             }
         }
         
-        // Crear nuevo usuario
-        User user = new User();
-        user.setId(UUID.randomUUID().toString());
-        user.setEmail(email);
-        user.setPasswordHash(passwordEncoder.encode(password));
-        user.setRole(role);
-        user.setFullName(fullName);
-        user.setStudentId(studentId);
-        user.setProgram(program);
-        user.setIsActive(true);
-        
-        return userRepository.save(user);
+        return passwordHashingService.encode(password).thenApplyAsync(passwordHash -> {
+            // Crear nuevo usuario
+            User user = new User();
+            user.setId(Ids.newId());
+            user.setEmail(email);
+            user.setPasswordHash(passwordHash);
+            user.setRole(role);
+            user.setFullName(fullName);
+            user.setStudentId(studentId);
+            user.setProgram(program);
+            user.setIsActive(true);
+            
+            User saved = userRepository.save(user);
+            userSearchIndex.index(saved);
+            return saved;
+        }, requestExecutor);
     }
     
-    public User authenticate(String email, String password) {
+    /**
+     * Autentica un usuario. Si el hash almacenado usa un costo distinto al configurado,
+     * se guarda el hash recalculado (rehash transparente).
+     */
+    public CompletableFuture<User> authenticate(String email, String password) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("Credenciales inválidas"));
         
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
-            throw new RuntimeException("Credenciales inválidas");
-        }
-        
-        if (!user.getIsActive()) {
-            throw new RuntimeException("Usuario inactivo");
-        }
-        
-        return user;
+        return passwordHashingService.verify(password, user.getPasswordHash()).thenApplyAsync(verification -> {
+            if (!verification.matches()) {
+                throw new RuntimeException("Credenciales inválidas");
+            }
+            
+            if (!user.getIsActive()) {
+                throw new RuntimeException("Usuario inactivo");
+            }
+            
+            if (verification.getUpgradedHash() != null) {
+                user.setPasswordHash(verification.getUpgradedHash());
+                return userRepository.save(user);
+            }
+            return user;
+        }, requestExecutor);
     }
     
     public String generateToken(User user) {
         return jwtService.generateToken(user);
     }
     
-    public void updatePassword(User user, String newPassword) {
+    public CompletableFuture<User> updatePassword(User user, String newPassword) {
         // Encriptar la nueva contraseña
-        String encryptedPassword = passwordEncoder.encode(newPassword);
-        user.setPasswordHash(encryptedPassword);
-        userRepository.save(user);
+        return passwordHashingService.encode(newPassword).thenApplyAsync(encryptedPassword -> {
+            user.setPasswordHash(encryptedPassword);
+            return userRepository.save(user);
+        }, requestExecutor);
     }
 }
 
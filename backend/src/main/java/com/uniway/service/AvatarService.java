@@ -0,0 +1,278 @@
+package com.uniway.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * AvatarService - Almacenamiento de fotos de perfil en el sistema de archivos local
+ *
+ * Los originales se guardan con nombre direccionado por contenido (SHA-256 del
+ * archivo), de modo que cada URL es inmutable: una foto nueva produce una URL nueva
+ * y los clientes pueden cachear sin revalidar.
+ *
+ * Las miniaturas cuadradas (avatars.thumbnail-sizes) se generan en un pool acotado
+ * en segundo plano; mientras no existan, se sirve el original.
+ *
+ * Estructura: {storage-dir}/{hash}.{jpg|png} y {storage-dir}/{hash}_{tamaño}.jpg
+ */
+@Service
+public class AvatarService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvatarService.class);
+
+    /** Nombres válidos de archivo: evita recorrer rutas fuera del directorio */
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})(?:_(\\d{2,4}))?\\.(jpg|png)");
+
+    @Value("${avatars.storage-dir:./data/avatars}")
+    private String storageDir;
+
+    @Value("${avatars.max-dimension:4096}")
+    private int maxDimension;
+
+    @Value("${avatars.thumbnail-sizes:64,256}")
+    private List<Integer> thumbnailSizes;
+
+    @Value("${avatars.thumbnail-workers:2}")
+    private int thumbnailWorkers;
+
+    @Value("${avatars.thumbnail-queue-capacity:100}")
+    private int thumbnailQueueCapacity;
+
+    private Path root;
+
+    private ThreadPoolExecutor thumbnailExecutor;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(storageDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        AtomicInteger counter = new AtomicInteger();
+        thumbnailExecutor = new ThreadPoolExecutor(
+            thumbnailWorkers, thumbnailWorkers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(thumbnailQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "avatar-thumbnail-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        thumbnailExecutor.shutdown();
+    }
+
+    /**
+     * Guarda una foto de perfil y programa la generación de sus miniaturas
+     * @param file Archivo subido (JPEG o PNG)
+     * @return Nombre del archivo original guardado ({hash}.{ext})
+     * @throws RuntimeException si el archivo no es una imagen válida o es demasiado grande
+     */
+    public String store(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Debe enviar una imagen");
+        }
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(root, "upload-", ".tmp");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String extension = validateImage(temp);
+            String name = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+
+            Path target = root.resolve(name);
+            if (Files.exists(target)) {
+                Files.delete(temp);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            temp = null;
+            scheduleThumbnails(name, target);
+            return name;
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error guardando la imagen: " + e.getMessage());
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // El archivo temporal se limpia en el próximo reinicio
+                }
+            }
+        }
+    }
+
+    /**
+     * Resuelve un archivo servible a partir de su nombre
+     * @param fileName Nombre solicitado ({hash}.{ext} o {hash}_{tamaño}.jpg)
+     * @return Ruta del archivo, vacío si el nombre no es válido o no existe
+     */
+    public Optional<Path> resolve(String fileName) {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        Path path = root.resolve(fileName);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Nombre de la miniatura de un original para un tamaño configurado
+     * @param originalName Nombre del original
+     * @param size Lado de la miniatura en píxeles
+     * @return Nombre de la miniatura, o null si el tamaño no está configurado
+     */
+    public String thumbnailName(String originalName, int size) {
+        Matcher matcher = FILE_NAME.matcher(originalName);
+        if (!matcher.matches() || matcher.group(2) != null || !thumbnailSizes.contains(size)) {
+            return null;
+        }
+        return matcher.group(1) + "_" + size + ".jpg";
+    }
+
+    /**
+     * Original del que proviene una miniatura (para servirlo mientras se genera)
+     * @param thumbnailName Nombre de la miniatura ({hash}_{tamaño}.jpg)
+     * @return Nombre del original existente, vacío si no hay
+     */
+    public Optional<String> originalOf(String thumbnailName) {
+        Matcher matcher = FILE_NAME.matcher(thumbnailName);
+        if (!matcher.matches() || matcher.group(2) == null) {
+            return Optional.empty();
+        }
+        for (String extension : new String[] {"jpg", "png"}) {
+            String original = matcher.group(1) + "." + extension;
+            if (Files.isRegularFile(root.resolve(original))) {
+                return Optional.of(original);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Tamaños de miniatura configurados
+     */
+    public List<Integer> getThumbnailSizes() {
+        return thumbnailSizes;
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Comprueba formato y dimensiones leyendo solo la cabecera de la imagen
+     * (sin decodificar píxeles, para no exponer memoria a imágenes gigantes)
+     * @return Extensión según el formato real del contenido
+     */
+    private String validateImage(Path path) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new RuntimeException("Formato de imagen no soportado (use JPEG o PNG)");
+            }
+            ImageReader reader = readers.next();
+            try {
+                String format = reader.getFormatName().toLowerCase();
+                String extension = format.equals("jpeg") || format.equals("jpg") ? "jpg"
+                    : format.equals("png") ? "png" : null;
+                if (extension == null) {
+                    throw new RuntimeException("Formato de imagen no soportado (use JPEG o PNG)");
+                }
+                reader.setInput(input, true, true);
+                if (reader.getWidth(0) > maxDimension || reader.getHeight(0) > maxDimension) {
+                    throw new RuntimeException("La imagen no puede superar " + maxDimension + " píxeles por lado");
+                }
+                return extension;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void scheduleThumbnails(String name, Path original) {
+        try {
+            thumbnailExecutor.execute(() -> generateThumbnails(name, original));
+        } catch (RejectedExecutionException e) {
+            // Cola llena: se sirve el original hasta la próxima subida
+            log.warn("Cola de miniaturas llena, se omite {}", name);
+        }
+    }
+
+    private void generateThumbnails(String name, Path original) {
+        try {
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                return;
+            }
+            for (int size : thumbnailSizes) {
+                Path target = root.resolve(thumbnailName(name, size));
+                if (Files.exists(target)) {
+                    continue;
+                }
+                Path temp = Files.createTempFile(root, "thumb-", ".tmp");
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    ImageIO.write(squareThumbnail(source, size), "jpg", out);
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudieron generar las miniaturas de {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Recorte central cuadrado escalado al tamaño pedido (fondo blanco para PNG transparentes)
+     */
+    private static BufferedImage squareThumbnail(BufferedImage source, int size) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        BufferedImage thumbnail = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.drawImage(source, 0, 0, size, size, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+}
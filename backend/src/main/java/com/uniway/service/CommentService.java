@@ -1,22 +1,28 @@
 package com.uniway.service;
 
+import com.uniway.dto.UserSummary;
 import com.uniway.entity.Comment;
 import com.uniway.entity.Post;
 import com.uniway.entity.User;
+import com.uniway.id.Ids;
 import com.uniway.repository.CommentRepository;
 import com.uniway.repository.PostRepository;
 import com.uniway.repository.UserRepository;
+import com.uniway.security.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @Transactional
 public class CommentService {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentService.class);
     
     @Autowired
     private CommentRepository commentRepository;
@@ -27,20 +33,21 @@ public class CommentService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserCacheService userCacheService;
+    
+    @Transactional(readOnly = true)
     public List<Comment> getCommentsByPostId(String postId) {
-        System.out.println("=== DEBUG: getCommentsByPostId ===");
-        System.out.println("Post ID: " + postId);
+        log.debug("getCommentsByPostId - Post ID: {}", postId);
         
         List<Comment> comments = commentRepository.findApprovedCommentsByPostId(postId);
-        System.out.println("Comentarios encontrados: " + comments.size());
+        log.debug("Comentarios encontrados: {}", comments.size());
         
         return comments;
     }
     
     public Comment createComment(String postId, String authorId, String content) {
-        System.out.println("=== DEBUG: createComment ===");
-        System.out.println("Post ID: " + postId + ", Author ID: " + authorId);
-        System.out.println("Content: " + content);
+        log.debug("createComment - Post ID: {}, Author ID: {}", postId, authorId);
         
         // Verificar que el post existe
         Optional<Post> postOpt = postRepository.findByIdWithAuthor(postId);
@@ -48,25 +55,24 @@ public class CommentService {
             throw new RuntimeException("Post no encontrado con ID: " + postId);
         }
         
-        // Verificar que el usuario existe
-        Optional<User> userOpt = userRepository.findById(authorId);
-        if (!userOpt.isPresent()) {
+        // Verificar que el usuario existe (caché de usuarios) y enlazarlo por referencia, sin SELECT
+        if (!userCacheService.findById(authorId).isPresent()) {
             throw new RuntimeException("Usuario no encontrado con ID: " + authorId);
         }
         
         Post post = postOpt.get();
-        User author = userOpt.get();
+        User author = userRepository.getReferenceById(authorId);
         
         // Crear nuevo comentario
         Comment comment = new Comment();
-        comment.setId(UUID.randomUUID().toString());
+        comment.setId(Ids.newId());
         comment.setPost(post);
         comment.setAuthor(author);
         comment.setContent(content);
         comment.setIsApproved(true); // Auto-aprobar por ahora
         
         Comment savedComment = commentRepository.save(comment);
-        System.out.println("Comentario creado con ID: " + savedComment.getId());
+        log.debug("Comentario creado con ID: {}", savedComment.getId());
         
         // Actualizar contador de comentarios del post
         updatePostCommentCount(post);
@@ -74,10 +80,8 @@ public class CommentService {
         return savedComment;
     }
     
-    public Comment updateComment(String commentId, String content, String userId) {
-        System.out.println("=== DEBUG: updateComment ===");
-        System.out.println("Comment ID: " + commentId + ", User ID: " + userId);
-        System.out.println("New Content: " + content);
+    public Comment updateComment(String commentId, String content, AuthenticatedUser user) {
+        log.debug("updateComment - Comment ID: {}, User ID: {}", commentId, user.getId());
         
         Optional<Comment> commentOpt = commentRepository.findById(commentId);
         if (!commentOpt.isPresent()) {
@@ -86,23 +90,12 @@ public class CommentService {
         
         Comment comment = commentOpt.get();
         
-        // Obtener información del usuario para verificar permisos
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (!userOpt.isPresent()) {
-            throw new RuntimeException("Usuario no encontrado con ID: " + userId);
-        }
-        
-        User user = userOpt.get();
-        
         // Verificar permisos: el autor del comentario o un administrador pueden editarlo
-        boolean isAuthor = comment.getAuthor().getId().equals(userId);
-        boolean isAdmin = user.getRole().toString().equals("ADMINISTRATION");
+        boolean isAuthor = comment.getAuthor().getId().equals(user.getId());
+        boolean isAdmin = user.isAdmin();
         
-        System.out.println("Author ID: " + comment.getAuthor().getId());
-        System.out.println("User ID: " + userId);
-        System.out.println("Is Author: " + isAuthor);
-        System.out.println("User Role: " + user.getRole());
-        System.out.println("Is Admin: " + isAdmin);
+        log.debug("Permisos - Author ID: {}, User ID: {}, isAuthor: {}, role: {}, isAdmin: {}",
+                comment.getAuthor().getId(), user.getId(), isAuthor, user.getRole(), isAdmin);
         
         if (!isAuthor && !isAdmin) {
             throw new RuntimeException("No tienes permisos para editar este comentario");
@@ -111,14 +104,13 @@ public class CommentService {
         comment.setContent(content);
         Comment savedComment = commentRepository.save(comment);
         
-        System.out.println("Comentario actualizado exitosamente");
+        log.debug("Comentario actualizado exitosamente");
         
         return savedComment;
     }
     
-    public void deleteComment(String commentId, String userId) {
-        System.out.println("=== DEBUG: deleteComment ===");
-        System.out.println("Comment ID: " + commentId + ", User ID: " + userId);
+    public void deleteComment(String commentId, AuthenticatedUser user) {
+        log.debug("deleteComment - Comment ID: {}, User ID: {}", commentId, user.getId());
         
         Optional<Comment> commentOpt = commentRepository.findById(commentId);
         if (!commentOpt.isPresent()) {
@@ -127,23 +119,12 @@ public class CommentService {
         
         Comment comment = commentOpt.get();
         
-        // Obtener información del usuario para verificar permisos
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (!userOpt.isPresent()) {
-            throw new RuntimeException("Usuario no encontrado con ID: " + userId);
-        }
-        
-        User user = userOpt.get();
-        
         // Verificar permisos: el autor del comentario o un administrador pueden eliminarlo
-        boolean isAuthor = comment.getAuthor().getId().equals(userId);
-        boolean isAdmin = user.getRole().toString().equals("ADMINISTRATION");
+        boolean isAuthor = comment.getAuthor().getId().equals(user.getId());
+        boolean isAdmin = user.isAdmin();
         
-        System.out.println("Author ID: " + comment.getAuthor().getId());
-        System.out.println("User ID: " + userId);
-        System.out.println("Is Author: " + isAuthor);
-        System.out.println("User Role: " + user.getRole());
-        System.out.println("Is Admin: " + isAdmin);
+        log.debug("Permisos - Author ID: {}, User ID: {}, isAuthor: {}, role: {}, isAdmin: {}",
+                comment.getAuthor().getId(), user.getId(), isAuthor, user.getRole(), isAdmin);
         
         if (!isAuthor && !isAdmin) {
             throw new RuntimeException("No tienes permisos para eliminar este comentario");
@@ -152,7 +133,7 @@ public class CommentService {
         Post post = comment.getPost();
         commentRepository.deleteById(commentId);
         
-        System.out.println("Comentario eliminado exitosamente");
+        log.debug("Comentario eliminado exitosamente");
         
         // Actualizar contador de comentarios del post
         updatePostCommentCount(post);
@@ -175,6 +156,7 @@ public class CommentService {
         return savedComment;
     }
     
+    @Transactional(readOnly = true)
     public List<Comment> getPendingComments() {
         return commentRepository.findPendingComments();
     }
@@ -184,16 +166,18 @@ public class CommentService {
         post.setCommentCount((int) commentCount);
         postRepository.save(post);
         
-        System.out.println("Contador de comentarios actualizado para post " + post.getId() + ": " + commentCount);
+        log.debug("Contador de comentarios actualizado para post {}: {}", post.getId(), commentCount);
     }
     
+    @Transactional(readOnly = true)
     public com.uniway.dto.CommentDto convertToDto(Comment comment) {
         com.uniway.dto.CommentDto dto = new com.uniway.dto.CommentDto();
         dto.setId(comment.getId());
         dto.setPostId(comment.getPost().getId());
-        dto.setAuthorId(comment.getAuthor().getId());
-        dto.setAuthorName(comment.getAuthor().getFullName());
-        dto.setAuthorRole(comment.getAuthor().getRole().toString());
+        UserSummary author = userCacheService.summaryOf(comment.getAuthor());
+        dto.setAuthorId(author.getId());
+        dto.setAuthorName(author.getFullName());
+        dto.setAuthorRole(author.getRole().toString());
         dto.setContent(comment.getContent());
         dto.setIsApproved(comment.getIsApproved());
         dto.setCreatedAt(comment.getCreatedAt());
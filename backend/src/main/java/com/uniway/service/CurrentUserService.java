@@ -0,0 +1,89 @@
+package com.uniway.service;
+
+import com.uniway.dto.UserSummary;
+import com.uniway.security.AuthenticatedUser;
+import com.uniway.security.UnauthenticatedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * CurrentUserService - Resuelve el usuario que realiza el request
+ * 
+ * La única fuente es el principal construido por JwtAuthenticationFilter a partir
+ * del token (sin acceso a base de datos). Sin token, las operaciones que necesitan
+ * un usuario responden 401.
+ * 
+ * Solo con auth.user-id-fallback=true (perfil "dev", ver application-dev.yml) se
+ * acepta el userId enviado por el cliente sin token, para los endpoints /dev y las
+ * pruebas manuales; en cualquier otro perfil cualquiera podría actuar como otro usuario.
+ */
+@Service
+public class CurrentUserService {
+    
+    @Autowired
+    private UserCacheService userCacheService;
+    
+    @Value("${auth.user-id-fallback:false}")
+    private boolean userIdFallback;
+    
+    /**
+     * Obtiene el usuario autenticado por JWT, si existe
+     * @return Optional con el principal del request actual
+     */
+    public Optional<AuthenticatedUser> getAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Obtiene el usuario autenticado por JWT
+     * @return Principal del request actual
+     * @throws UnauthenticatedException si el request no trae un token válido
+     */
+    public AuthenticatedUser requireAuthenticatedUser() {
+        return getAuthenticatedUser().orElseThrow(UnauthenticatedException::new);
+    }
+    
+    /**
+     * Resuelve el usuario del request: el principal del token y, solo en desarrollo
+     * (auth.user-id-fallback), el userId enviado por el cliente
+     * 
+     * @param fallbackUserId ID enviado en el request; se ignora fuera de desarrollo
+     * @return Usuario que realiza la operación
+     * @throws UnauthenticatedException si no hay token (ni userId válido en desarrollo)
+     */
+    public AuthenticatedUser resolve(String fallbackUserId) {
+        return resolve(() -> fallbackUserId);
+    }
+    
+    /**
+     * Igual que {@link #resolve(String)}, pero el userId de desarrollo se calcula solo
+     * si se va a usar (por ejemplo, buscando al usuario por email)
+     */
+    public AuthenticatedUser resolve(Supplier<String> fallbackUserId) {
+        Optional<AuthenticatedUser> authenticated = getAuthenticatedUser();
+        if (authenticated.isPresent()) {
+            return authenticated.get();
+        }
+        if (!userIdFallback) {
+            throw new UnauthenticatedException();
+        }
+        
+        String userId = fallbackUserId.get();
+        if (userId == null || userId.isEmpty()) {
+            throw new UnauthenticatedException();
+        }
+        
+        UserSummary user = userCacheService.getRequired(userId);
+        return new AuthenticatedUser(user.getId(), user.getRole(), user.getFullName(), null, 0L);
+    }
+}
@@ -0,0 +1,165 @@
+package com.uniway.service;
+
+import com.uniway.entity.EmailOutbox;
+import com.uniway.entity.EmailOutboxStatus;
+import com.uniway.id.Ids;
+import com.uniway.repository.EmailOutboxRepository;
+import com.uniway.service.EmailTemplateService.RenderedEmail;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * EmailOutboxService - Operaciones transaccionales sobre la cola de correos salientes
+ *
+ * enqueue() participa en la transacción del llamador, de modo que el correo solo
+ * existe si el cambio de negocio se confirmó. El resto de operaciones las usa
+ * EmailOutboxWorker, cada una en su propia transacción corta (nunca se mantiene una
+ * conexión a la base de datos abierta durante la conversación SMTP).
+ */
+@Service
+@Transactional
+public class EmailOutboxService {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${email-outbox.insert-batch-size:500}")
+    private int insertBatchSize;
+
+    @Value("${email-outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email-outbox.base-backoff-seconds:30}")
+    private long baseBackoffSeconds;
+
+    @Value("${email-outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    /**
+     * Encola un correo para envío asíncrono
+     * @param recipient Destinatario
+     * @param email Correo ya renderizado
+     * @return Correo encolado
+     */
+    public EmailOutbox enqueue(String recipient, RenderedEmail email) {
+        return emailOutboxRepository.save(new EmailOutbox(
+            Ids.newId(), recipient, email.getSubject(), email.getText(), email.getHtml()));
+    }
+
+    /**
+     * Encola el mismo correo para muchos destinatarios con INSERT por lotes JDBC
+     * (sin cargar ni fusionar entidades en el contexto de persistencia)
+     * @param recipients Destinatarios
+     * @param email Correo ya renderizado (se renderiza una sola vez para todos)
+     * @return Número de correos encolados
+     */
+    public int enqueueAll(Collection<String> recipients, RenderedEmail email) {
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO email_outbox (id, recipient, subject, body, body_html, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?)",
+            recipients, insertBatchSize, (ps, recipient) -> {
+                ps.setBytes(1, Ids.toBytes(Ids.newUuid()));
+                ps.setString(2, recipient);
+                ps.setString(3, email.getSubject());
+                ps.setString(4, email.getText());
+                ps.setString(5, email.getHtml());
+                ps.setString(6, EmailOutboxStatus.PENDING.name());
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+            });
+        return recipients.size();
+    }
+
+    /**
+     * Reclama un lote de correos listos para enviarse
+     * @param owner Identificador único del reclamo
+     * @param batchSize Tamaño máximo del lote
+     * @param leaseSeconds Duración del reclamo
+     * @return Correos reclamados (vacío si no hay pendientes)
+     */
+    public List<EmailOutbox> claimBatch(String owner, int batchSize, long leaseSeconds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> ids = emailOutboxRepository.findReadyIds(now, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (emailOutboxRepository.claim(ids, owner, now, now.plusSeconds(leaseSeconds)) == 0) {
+            return Collections.emptyList();
+        }
+        return emailOutboxRepository.findClaimedBy(owner);
+    }
+
+    /**
+     * Marca como enviados los correos de un lote
+     * @param ids IDs enviados
+     * @param owner Identificador del reclamo
+     */
+    public void markSent(Collection<String> ids, String owner) {
+        if (!ids.isEmpty()) {
+            emailOutboxRepository.markSent(ids, owner, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Registra un fallo de envío y reprograma el correo con backoff exponencial y jitter,
+     * o lo marca como FAILED si se agotaron los intentos
+     * @param id ID del correo
+     * @param owner Identificador del reclamo
+     * @param error Descripción del error
+     */
+    public void markFailed(String id, String owner, String error) {
+        emailOutboxRepository.findById(id)
+            .filter(email -> owner.equals(email.getLockedBy()))
+            .ifPresent(email -> {
+                int attempts = email.getAttempts() + 1;
+                email.setAttempts(attempts);
+                email.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+                email.setLockedBy(null);
+                email.setLockedUntil(null);
+                if (attempts >= maxAttempts) {
+                    email.setStatus(EmailOutboxStatus.FAILED);
+                } else {
+                    email.setStatus(EmailOutboxStatus.PENDING);
+                    email.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+                }
+            });
+    }
+
+    /**
+     * Elimina los correos enviados antes de una fecha
+     * @param before Fecha límite
+     * @return Número de filas eliminadas
+     */
+    public int purgeSentBefore(LocalDateTime before) {
+        return emailOutboxRepository.deleteSentBefore(before);
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Backoff exponencial con jitter: base * 2^(intentos-1), acotado, ±20 %
+     */
+    private long backoffSeconds(int attempts) {
+        long backoff = Math.min(maxBackoffSeconds, baseBackoffSeconds << Math.min(attempts - 1, 20));
+        long jitter = backoff / 5;
+        return backoff + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0);
+    }
+}
@@ -0,0 +1,202 @@
+package com.uniway.service;
+
+import com.uniway.entity.EmailOutbox;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EmailOutboxWorker - Envía en segundo plano los correos de la tabla email_outbox
+ *
+ * Los correos con cuerpo HTML se envían como multipart/alternative (texto + HTML).
+ *
+ * En cada ciclo se reclaman lotes mientras haya workers libres; cada lote se envía
+ * con una sola llamada a JavaMailSender.send(...), que reutiliza una única conexión
+ * SMTP para todos sus mensajes. Los mensajes que fallan se reprograman con backoff
+ * exponencial; los demás se marcan como enviados.
+ *
+ * Ninguna transacción permanece abierta durante el envío: reclamar, marcar enviados y
+ * registrar fallos son operaciones cortas de EmailOutboxService.
+ */
+@Component
+public class EmailOutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxWorker.class);
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${email-outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${email-outbox.workers:2}")
+    private int workers;
+
+    @Value("${email-outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${email-outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${email-outbox.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${email-outbox.from:noreply@pascualbravo.edu.co}")
+    private String from;
+
+    private ExecutorService executor;
+
+    /** Workers libres; se reclama un lote solo si hay uno disponible */
+    private Semaphore idleWorkers;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        idleWorkers = new Semaphore(workers);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Reclama lotes pendientes y los reparte entre los workers libres
+     */
+    @Scheduled(fixedDelayString = "${email-outbox.poll-interval-ms:2000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        while (idleWorkers.tryAcquire()) {
+            List<EmailOutbox> batch;
+            String owner = UUID.randomUUID().toString();
+            try {
+                batch = emailOutboxService.claimBatch(owner, batchSize, leaseSeconds);
+            } catch (RuntimeException e) {
+                idleWorkers.release();
+                log.warn("No se pudo reclamar un lote de correos: {}", e.getMessage());
+                return;
+            }
+            if (batch.isEmpty()) {
+                idleWorkers.release();
+                return;
+            }
+            executor.execute(() -> {
+                try {
+                    sendBatch(batch, owner);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Elimina diariamente los correos enviados más antiguos que la retención
+     */
+    @Scheduled(cron = "${email-outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = emailOutboxService.purgeSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Correos enviados eliminados de la cola: {}", deleted);
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void sendBatch(List<EmailOutbox> batch, String owner) {
+        Map<String, String> failures = new HashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        Map<Object, String> idsByMessage = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                MimeMessage message = toMimeMessage(email);
+                messages.add(message);
+                idsByMessage.put(message, email.getId());
+            } catch (MessagingException e) {
+                failures.put(email.getId(), e.getMessage());
+            }
+        }
+
+        try {
+            if (!messages.isEmpty()) {
+                mailSender.send(messages.toArray(new MimeMessage[0]));
+            }
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, cause) -> {
+                String id = idsByMessage.get(message);
+                if (id != null) {
+                    failures.put(id, cause.getMessage());
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                idsByMessage.values().forEach(id -> failures.put(id, e.getMessage()));
+            }
+        } catch (RuntimeException e) {
+            idsByMessage.values().forEach(id -> failures.put(id, e.getMessage()));
+        }
+
+        List<String> sent = new ArrayList<>();
+        for (EmailOutbox email : batch) {
+            if (!failures.containsKey(email.getId())) {
+                sent.add(email.getId());
+            }
+        }
+        emailOutboxService.markSent(sent, owner);
+        failures.forEach((id, error) -> emailOutboxService.markFailed(id, owner, error));
+
+        if (!failures.isEmpty()) {
+            log.warn("Lote de correos con fallos: {} enviados, {} reprogramados", sent.size(), failures.size());
+        }
+    }
+
+    /**
+     * Construye el mensaje MIME: texto plano, o multipart/alternative si hay HTML
+     */
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        boolean html = email.getBodyHtml() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, html, StandardCharsets.UTF_8.name());
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setFrom(from);
+        if (html) {
+            helper.setText(email.getBody(), email.getBodyHtml());
+        } else {
+            helper.setText(email.getBody());
+        }
+        return message;
+    }
+}
@@ -1,18 +1,19 @@
 package com.uniway.service;
 
-import com.uniway.entity.VerificationCode;
-import com.uniway.repository.VerificationCodeRepository;
+import com.uniway.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Random;
-import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * EmailService - Servicio para envío de emails y gestión de códigos de verificación
@@ -22,28 +23,34 @@ import java.util.UUID;
  * 
  * Funcionalidades:
  * - Generación de códigos de verificación aleatorios
- * - Envío de emails con códigos de verificación
- * - Validación de códigos ingresados por usuarios
+ * - Envío de emails con códigos de verificación (encolados en email_outbox y enviados
+ *   en segundo plano por EmailOutboxWorker, sin esperar al servidor SMTP)
+ * - Cuerpos en texto y HTML a partir de plantillas precompiladas (EmailTemplateService)
+ * - Anuncios masivos a los usuarios activos de un programa
+ * - Validación de códigos ingresados por usuarios (VerificationCodeStore: en memoria
+ *   por defecto, o tabla verification_codes con verification-codes.store=jpa)
  * - Limpieza automática de códigos expirados
- * - Control de límites de envío para prevenir spam
+ * - Control de límites de envío para prevenir spam (RateLimiter, antes de llegar aquí)
  * 
  * Configuración de seguridad:
  * - Códigos de 6 dígitos numéricos
  * - Expiración automática en 10 minutos
- * - Máximo 3 códigos válidos por email
+ * - Máximo de solicitudes por email limitado en memoria (rate-limit.routes)
  * - Un solo uso por código
  */
 @Service
 @Transactional
 public class EmailService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
     
     // ==================== CONSTANTES DE CONFIGURACIÓN ====================
     
     /** Duración de validez de los códigos en minutos */
     private static final int CODE_EXPIRATION_MINUTES = 10;
     
-    /** Máximo número de códigos válidos por email */
-    private static final int MAX_CODES_PER_EMAIL = 3;
+    /** Tiempo de validez de los códigos */
+    private static final Duration CODE_TTL = Duration.ofMinutes(CODE_EXPIRATION_MINUTES);
     
     /** Longitud del código de verificación */
     private static final int CODE_LENGTH = 6;
@@ -51,10 +58,16 @@ public class EmailService {
     // ==================== DEPENDENCIAS ====================
     
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxService emailOutboxService;
+    
+    @Autowired
+    private VerificationCodeStore verificationCodeStore;
+    
+    @Autowired
+    private EmailTemplateService emailTemplateService;
     
     @Autowired
-    private VerificationCodeRepository verificationCodeRepository;
+    private UserRepository userRepository;
     
     // ==================== MÉTODOS PRINCIPALES ====================
     
@@ -63,64 +76,21 @@ public class EmailService {
      * 
      * @param email Email destinatario (debe ser @pascualbravo.edu.co)
      * @return Código generado (solo para testing, en producción no se devuelve)
-     * @throws RuntimeException si hay demasiados códigos activos o error de envío
+     * @throws RuntimeException si hay error guardando el código
      */
     public String sendVerificationCode(String email) {
-        System.out.println("=== DEBUG: Enviando código de verificación ===");
-        System.out.println("Email: " + email);
+        log.debug("Enviando código de verificación - Email: {}", email);
         
-        // Verificar límite de códigos activos
-        long activeCodesCount = verificationCodeRepository.countValidCodesByEmail(email, LocalDateTime.now());
-        if (activeCodesCount >= MAX_CODES_PER_EMAIL) {
-            throw new RuntimeException("Demasiados códigos de verificación activos. Espera 10 minutos antes de solicitar otro.");
-        }
+        // El límite de solicitudes por email lo aplica RateLimiter en el controlador,
+        // sin consultar la base de datos
         
-        // Generar código aleatorio de 6 dígitos
+        // Generar código aleatorio de 6 dígitos y guardarlo con su expiración
         String code = generateVerificationCode();
+        verificationCodeStore.save(email, code, CODE_TTL);
         
-        // Crear registro en base de datos
-        VerificationCode verificationCode = new VerificationCode(
-            UUID.randomUUID().toString(),
-            email, 
-            code, 
-            LocalDateTime.now().plusMinutes(CODE_EXPIRATION_MINUTES)
-        );
-        
-        // DEBUG COMPLETO
-        System.out.println("=== DEBUG COMPLETO DEL CÓDIGO ===");
-        System.out.println("Antes de guardar:");
-        System.out.println("  - ID: " + verificationCode.getId());
-        System.out.println("  - Email: " + verificationCode.getEmail());
-        System.out.println("  - Código: " + verificationCode.getCode());
-        System.out.println("  - isUsed: " + verificationCode.getIsUsed());
-        System.out.println("  - isUsed == null: " + (verificationCode.getIsUsed() == null));
-        System.out.println("  - Expira: " + verificationCode.getExpiresAt());
-        
-        verificationCodeRepository.save(verificationCode);
-        
-        // Verificar en base de datos
-        VerificationCode savedCode = verificationCodeRepository.findByEmailAndCode(email, code)
-            .orElseThrow(() -> new RuntimeException("Error guardando código"));
-        
-        System.out.println("Después de guardar (desde BD):");
-        System.out.println("  - isUsed: " + savedCode.getIsUsed());
-        System.out.println("  - isUsed == null: " + (savedCode.getIsUsed() == null));
-        
-        if (savedCode.getIsUsed()) {
-            System.out.println("❌❌❌ ALERTA: El código se guardó como USADO");
-        } else {
-            System.out.println("✅ Código guardado correctamente como NO USADO");
-        }
-        
-        // Enviar email
-        try {
-            sendVerificationEmail(email, code);
-            System.out.println("Email enviado exitosamente a: " + email);
-        } catch (Exception e) {
-            System.err.println("Error enviando email: " + e.getMessage());
-            // En desarrollo, no fallar si no se puede enviar email
-            System.out.println("MODO DESARROLLO: Código generado: " + code);
-        }
+        // Encolar email (se envía después del commit, en segundo plano)
+        sendVerificationEmail(email, code);
+        log.debug("Email encolado para: {}", email);
         
         return code; // Solo para testing, en producción no devolver el código
     }
@@ -130,40 +100,19 @@ public class EmailService {
      * 
      * @param email Email destinatario (debe ser @pascualbravo.edu.co)
      * @return Código generado (solo para testing, en producción no se devuelve)
-     * @throws RuntimeException si hay demasiados códigos activos o error de envío
      */
     public String sendPasswordResetCode(String email) {
-        System.out.println("=== DEBUG: Enviando código de recuperación de contraseña ===");
-        System.out.println("Email: " + email);
+        log.debug("Enviando código de recuperación de contraseña - Email: {}", email);
         
-        // Verificar límite de códigos activos
-        long activeCodesCount = verificationCodeRepository.countValidCodesByEmail(email, LocalDateTime.now());
-        if (activeCodesCount >= MAX_CODES_PER_EMAIL) {
-            throw new RuntimeException("Demasiados códigos de recuperación activos. Espera 10 minutos antes de solicitar otro.");
-        }
+        // El límite de solicitudes por email lo aplica RateLimiter en el controlador
         
-        // Generar código aleatorio de 6 dígitos
+        // Generar código aleatorio de 6 dígitos y guardarlo con su expiración
         String code = generateVerificationCode();
+        verificationCodeStore.save(email, code, CODE_TTL);
         
-        // Crear registro en base de datos
-        VerificationCode verificationCode = new VerificationCode(
-            UUID.randomUUID().toString(),
-            email, 
-            code, 
-            LocalDateTime.now().plusMinutes(CODE_EXPIRATION_MINUTES)
-        );
-        
-        verificationCodeRepository.save(verificationCode);
-        
-        // Enviar email
-        try {
-            sendPasswordResetEmail(email, code);
-            System.out.println("Email de recuperación enviado exitosamente a: " + email);
-        } catch (Exception e) {
-            System.err.println("Error enviando email de recuperación: " + e.getMessage());
-            // En desarrollo, no fallar si no se puede enviar email
-            System.out.println("MODO DESARROLLO: Código de recuperación generado: " + code);
-        }
+        // Encolar email (se envía después del commit, en segundo plano)
+        sendPasswordResetEmail(email, code);
+        log.debug("Email de recuperación encolado para: {}", email);
         
         return code; // Solo para testing, en producción no devolver el código
     }
@@ -171,64 +120,52 @@ public class EmailService {
     /**
      * Verifica un código de verificación ingresado por el usuario
      * 
+     * La comprobación y el marcado como usado son una sola operación atómica
+     * del almacén, así que un código no puede consumirse dos veces.
+     * 
      * @param email Email del usuario
      * @param inputCode Código ingresado por el usuario
      * @return true si el código es válido, false en caso contrario
      */
     public boolean verifyCode(String email, String inputCode) {
-        System.out.println("=== DEBUG: Verificando código ===");
-        System.out.println("Email: " + email + ", Código: " + inputCode);
-        
-        // Buscar código en la base de datos
-        Optional<VerificationCode> codeOpt = verificationCodeRepository.findByEmailAndCode(email, inputCode);
-        
-        if (!codeOpt.isPresent()) {
-            System.out.println("❌ Código no encontrado en la base de datos");
-            return false;
-        }
-        
-        VerificationCode verificationCode = codeOpt.get();
-        
-        // ⚠️ CORREGIR: Verificar manualmente en lugar de usar isValid()
-        System.out.println("DEBUG - Código encontrado:");
-        System.out.println("  - Usado: " + verificationCode.getIsUsed());
-        System.out.println("  - Expira: " + verificationCode.getExpiresAt());
-        System.out.println("  - Ahora: " + LocalDateTime.now());
-        System.out.println("  - Está expirado: " + verificationCode.getExpiresAt().isBefore(LocalDateTime.now()));
-        
-        // Verificación manual y explícita
-        if (verificationCode.getIsUsed()) {
-            System.out.println("❌ Código ya fue utilizado");
-            return false;
-        }
-        
-        if (verificationCode.getExpiresAt().isBefore(LocalDateTime.now())) {
-            System.out.println("❌ Código expirado");
-            return false;
-        }
-        
-        // Marcar código como usado
-        verificationCode.setIsUsed(true);
-        verificationCodeRepository.save(verificationCode);
-        
-        System.out.println("✅ Código verificado exitosamente");
-        return true;
+        boolean valid = verificationCodeStore.consume(email, inputCode);
+        log.debug("Verificación de código para {}: {}", email, valid ? "válido" : "inválido, usado o expirado");
+        return valid;
     }
     
     /**
-     * Limpia códigos expirados de la base de datos
-     * Este método puede ejecutarse periódicamente para mantener la BD limpia
+     * Limpia códigos expirados del almacén
+     * Este método puede ejecutarse periódicamente para mantener el almacén limpio
      */
     public void cleanupExpiredCodes() {
-        System.out.println("=== Limpiando códigos expirados ===");
-        
-        List<VerificationCode> expiredCodes = verificationCodeRepository.findExpiredCodes(LocalDateTime.now());
-        if (!expiredCodes.isEmpty()) {
-            verificationCodeRepository.deleteAll(expiredCodes);
-            System.out.println("Códigos expirados eliminados: " + expiredCodes.size());
-        } else {
-            System.out.println("No hay códigos expirados para eliminar");
-        }
+        int removed = verificationCodeStore.purgeExpired();
+        log.debug("Códigos expirados eliminados: {}", removed);
+    }
+    
+    /**
+     * Encola un anuncio para todos los usuarios activos de un programa
+     * 
+     * El anuncio se renderiza una sola vez y se inserta en la cola de correos por
+     * lotes; el envío real lo hace EmailOutboxWorker en segundo plano.
+     * 
+     * @param program Programa académico destinatario
+     * @param title Título del anuncio (también se usa como asunto)
+     * @param message Texto del anuncio; los párrafos se separan con líneas en blanco
+     * @return Número de correos encolados
+     */
+    public int sendProgramAnnouncement(String program, String title, String message) {
+        List<String> recipients = userRepository.findActiveEmailsByProgram(program);
+        
+        Map<String, Object> model = new HashMap<>();
+        model.put("title", title);
+        model.put("program", program);
+        model.put("paragraphs", Arrays.stream(message.trim().split("\\R\\s*\\R"))
+            .map(String::trim)
+            .filter(paragraph -> !paragraph.isEmpty())
+            .collect(Collectors.toList()));
+        
+        return emailOutboxService.enqueueAll(recipients,
+            emailTemplateService.render("announcement", "UniWay - " + title, model));
     }
     
     // ==================== MÉTODOS PRIVADOS ====================
@@ -244,72 +181,34 @@ public class EmailService {
     }
     
     /**
-     * Envía el email con el código de verificación
+     * Encola el email con el código de verificación
      * @param email Email destinatario
      * @param code Código de verificación
      */
     private void sendVerificationEmail(String email, String code) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(email);
-        message.setSubject("UniWay - Código de Verificación");
-        message.setText(buildEmailContent(code));
-        message.setFrom("noreply@pascualbravo.edu.co");
-        
-        mailSender.send(message);
+        emailOutboxService.enqueue(email, emailTemplateService.render(
+            "verification-code", "UniWay - Código de Verificación", codeModel(code)));
     }
     
     /**
-     * Envía el email con el código de recuperación de contraseña
+     * Encola el email con el código de recuperación de contraseña
      * @param email Email destinatario
      * @param code Código de recuperación
      */
     private void sendPasswordResetEmail(String email, String code) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(email);
-        message.setSubject("UniWay - Recuperación de Contraseña");
-        message.setText(buildPasswordResetEmailContent(code));
-        message.setFrom("noreply@pascualbravo.edu.co");
-        
-        mailSender.send(message);
+        emailOutboxService.enqueue(email, emailTemplateService.render(
+            "password-reset", "UniWay - Recuperación de Contraseña", codeModel(code)));
     }
     
     /**
-     * Construye el contenido del email de verificación
-     * @param code Código de verificación
-     * @return Contenido del email formateado
-     */
-    private String buildEmailContent(String code) {
-        return String.format(
-            "¡Bienvenido a UniWay!\n\n" +
-            "Tu código de verificación es: %s\n\n" +
-            "Este código expirará en %d minutos.\n\n" +
-            "Si no solicitaste este código, puedes ignorar este mensaje.\n\n" +
-            "Saludos,\n" +
-            "Equipo UniWay\n" +
-            "Institución Universitaria Pascual Bravo",
-            code,
-            CODE_EXPIRATION_MINUTES
-        );
-    }
-    
-    /**
-     * Construye el contenido del email de recuperación de contraseña
-     * @param code Código de recuperación
-     * @return Contenido del email formateado
+     * Valores de las plantillas de código (verificación y recuperación)
+     * @param code Código generado
+     * @return Modelo de la plantilla
      */
-    private String buildPasswordResetEmailContent(String code) {
-        return String.format(
-            "Recuperación de Contraseña - UniWay\n\n" +
-            "Recibimos una solicitud para restablecer tu contraseña.\n\n" +
-            "Tu código de recuperación es: %s\n\n" +
-            "Este código expirará en %d minutos.\n\n" +
-            "Si no solicitaste este cambio, puedes ignorar este mensaje y tu contraseña permanecerá sin cambios.\n\n" +
-            "Por tu seguridad, nunca compartas este código con nadie.\n\n" +
-            "Saludos,\n" +
-            "Equipo UniWay\n" +
-            "Institución Universitaria Pascual Bravo",
-            code,
-            CODE_EXPIRATION_MINUTES
-        );
+    private Map<String, Object> codeModel(String code) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("code", code);
+        model.put("expirationMinutes", CODE_EXPIRATION_MINUTES);
+        return model;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,173 @@
+package com.uniway.service;
+
+import com.samskivert.mustache.Mustache;
+import com.samskivert.mustache.Template;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * EmailTemplateService - Renderizado de emails a partir de plantillas Mustache
+ *
+ * Todas las plantillas de classpath:templates/email/ se compilan una sola vez al
+ * iniciar la aplicación; un error de sintaxis impide el arranque en lugar de
+ * aparecer al enviar el primer correo. Enviar un email solo ejecuta plantillas ya
+ * compiladas, escribiendo en un buffer reutilizado por hilo.
+ *
+ * Convenciones:
+ * - nombre.txt.mustache: versión en texto plano (obligatoria)
+ * - nombre.html.mustache: versión HTML (opcional, con escape HTML), que se inserta
+ *   en layout.html.mustache como {{{content}}}
+ */
+@Service
+public class EmailTemplateService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateService.class);
+
+    private static final String LOCATION = "classpath:templates/email/*.mustache";
+
+    private static final String LAYOUT = "layout.html";
+
+    /** Tamaño inicial del buffer por hilo */
+    private static final int INITIAL_BUFFER = 4 * 1024;
+
+    /** Buffers que crecen más que esto no se conservan entre renderizados */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<BufferWriter> BUFFERS =
+            ThreadLocal.withInitial(() -> new BufferWriter(INITIAL_BUFFER));
+
+    /** nombre sin extensión .mustache (por ejemplo "verification-code.html") -> plantilla */
+    private Map<String, Template> templates;
+
+    @PostConstruct
+    void init() throws IOException {
+        Mustache.Compiler htmlCompiler = Mustache.compiler().escapeHTML(true).defaultValue("");
+        Mustache.Compiler textCompiler = Mustache.compiler().escapeHTML(false).defaultValue("");
+
+        Map<String, Template> compiled = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            String name = resource.getFilename().replace(".mustache", "");
+            Mustache.Compiler compiler = name.endsWith(".html") ? htmlCompiler : textCompiler;
+            try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                compiled.put(name, compiler.compile(reader));
+            }
+        }
+        if (!compiled.containsKey(LAYOUT)) {
+            throw new IllegalStateException("Falta la plantilla de email " + LAYOUT + ".mustache");
+        }
+        templates = Map.copyOf(compiled);
+        log.info("Plantillas de email compiladas: {}", templates.keySet());
+    }
+
+    /**
+     * Renderiza un email en texto plano y, si existe la plantilla, en HTML
+     * @param name Nombre de la plantilla (sin .txt/.html)
+     * @param subject Asunto (disponible en el layout)
+     * @param model Valores de la plantilla
+     * @return Email renderizado
+     * @throws RuntimeException si no existe la plantilla de texto
+     */
+    public RenderedEmail render(String name, String subject, Map<String, ?> model) {
+        Template text = templates.get(name + ".txt");
+        if (text == null) {
+            throw new RuntimeException("Plantilla de email no encontrada: " + name);
+        }
+        String plain = execute(text, model);
+
+        Template html = templates.get(name + ".html");
+        String htmlBody = null;
+        if (html != null) {
+            Map<String, Object> layoutModel = new HashMap<>();
+            layoutModel.put("subject", subject);
+            layoutModel.put("content", execute(html, model));
+            htmlBody = execute(templates.get(LAYOUT), layoutModel);
+        }
+        return new RenderedEmail(subject, plain, htmlBody);
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static String execute(Template template, Object context) {
+        BufferWriter buffer = BUFFERS.get();
+        buffer.reset();
+        template.execute(context, buffer);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFERS.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Writer sobre un StringBuilder reutilizable (sin sincronización, a diferencia
+     * de StringWriter)
+     */
+    private static final class BufferWriter extends Writer {
+        private final StringBuilder buffer;
+
+        BufferWriter(int capacity) {
+            this.buffer = new StringBuilder(capacity);
+        }
+
+        void reset() { buffer.setLength(0); }
+
+        int capacity() { return buffer.capacity(); }
+
+        @Override
+        public void write(char[] chars, int offset, int length) { buffer.append(chars, offset, length); }
+
+        @Override
+        public void write(String str, int offset, int length) { buffer.append(str, offset, offset + length); }
+
+        @Override
+        public void write(int c) { buffer.append((char) c); }
+
+        @Override
+        public Writer append(CharSequence csq) { buffer.append(csq); return this; }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+
+        @Override
+        public String toString() { return buffer.toString(); }
+    }
+
+    /**
+     * Resultado del renderizado
+     */
+    public static class RenderedEmail {
+        private final String subject;
+        private final String text;
+        private final String html;
+
+        public RenderedEmail(String subject, String text, String html) {
+            this.subject = subject;
+            this.text = text;
+            this.html = html;
+        }
+
+        /** Asunto del correo */
+        public String getSubject() { return subject; }
+
+        /** Cuerpo en texto plano */
+        public String getText() { return text; }
+
+        /** Cuerpo HTML completo (con layout), o null si la plantilla no tiene versión HTML */
+        public String getHtml() { return html; }
+    }
+}
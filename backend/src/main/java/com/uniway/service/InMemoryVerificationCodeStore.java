@@ -0,0 +1,167 @@
+package com.uniway.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * InMemoryVerificationCodeStore - Códigos de verificación en memoria con expiración
+ *
+ * Cada email tiene una cola acotada (verification-codes.max-per-email) con sus
+ * códigos vigentes; al generar uno nuevo con la cola llena se descarta el más
+ * antiguo. Verificar es una búsqueda por email más un recorrido de, como máximo,
+ * esa cantidad fija de códigos, dentro de un compute() atómico del mapa.
+ *
+ * Los códigos expirados se descartan al acceder al email y una purga periódica
+ * elimina los emails sin códigos vigentes, de modo que el mapa no crece sin límite.
+ */
+@Component
+@ConditionalOnProperty(name = "verification-codes.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    private static final Entry[] EMPTY = new Entry[0];
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${verification-codes.max-per-email:3}")
+    private int maxPerEmail;
+
+    /** email normalizado -> códigos vigentes (arreglo inmutable, del más antiguo al más nuevo) */
+    private final ConcurrentHashMap<String, Entry[]> codesByEmail = new ConcurrentHashMap<>();
+
+    private Counter purgedCounter;
+
+    @PostConstruct
+    void init() {
+        if (maxPerEmail < 1) {
+            throw new IllegalStateException("verification-codes.max-per-email debe ser al menos 1: " + maxPerEmail);
+        }
+        purgedCounter = Counter.builder("verification_codes.purged")
+                .description("Códigos de verificación expirados eliminados")
+                .tag("store", "memory")
+                .register(meterRegistry);
+        Gauge.builder("verification_codes.emails", codesByEmail, ConcurrentHashMap::size)
+                .description("Emails con códigos de verificación en memoria")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(String email, String code, Duration ttl) {
+        Entry entry = new Entry(code, System.currentTimeMillis() + ttl.toMillis());
+        codesByEmail.compute(normalize(email), (key, current) -> {
+            Entry[] live = live(current, System.currentTimeMillis());
+            int keep = Math.min(live.length, maxPerEmail - 1);
+            Entry[] updated = Arrays.copyOfRange(live, live.length - keep, live.length + 1);
+            updated[keep] = entry;
+            return updated;
+        });
+    }
+
+    @Override
+    public boolean consume(String email, String code) {
+        if (email == null || code == null) {
+            return false;
+        }
+        byte[] candidate = code.getBytes(StandardCharsets.US_ASCII);
+        boolean[] consumed = new boolean[1];
+        codesByEmail.computeIfPresent(normalize(email), (key, current) -> {
+            Entry[] live = live(current, System.currentTimeMillis());
+            for (int i = 0; i < live.length; i++) {
+                if (MessageDigest.isEqual(live[i].code, candidate)) {
+                    consumed[0] = true;
+                    Entry[] remaining = new Entry[live.length - 1];
+                    System.arraycopy(live, 0, remaining, 0, i);
+                    System.arraycopy(live, i + 1, remaining, i, live.length - i - 1);
+                    live = remaining;
+                    break;
+                }
+            }
+            return live.length == 0 ? null : live;
+        });
+        return consumed[0];
+    }
+
+    @Override
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        AtomicInteger removed = new AtomicInteger();
+        codesByEmail.replaceAll((key, current) -> {
+            Entry[] live = live(current, now);
+            removed.addAndGet(current.length - live.length);
+            return live;
+        });
+        codesByEmail.values().removeIf(entries -> entries.length == 0);
+        purgedCounter.increment(removed.get());
+        return removed.get();
+    }
+
+    /**
+     * Purga periódica de códigos expirados
+     */
+    @Scheduled(fixedDelayString = "${verification-codes.purge-interval-ms:60000}")
+    public void scheduledPurge() {
+        purgeExpired();
+    }
+
+    /** Número de emails con códigos en memoria */
+    public int size() {
+        return codesByEmail.size();
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Filtra los códigos vigentes sin copiar si ninguno expiró
+     */
+    private static Entry[] live(Entry[] entries, long now) {
+        if (entries == null) {
+            return EMPTY;
+        }
+        int alive = 0;
+        for (Entry entry : entries) {
+            if (entry.expiresAt > now) {
+                alive++;
+            }
+        }
+        if (alive == entries.length) {
+            return entries;
+        }
+        Entry[] result = new Entry[alive];
+        int i = 0;
+        for (Entry entry : entries) {
+            if (entry.expiresAt > now) {
+                result[i++] = entry;
+            }
+        }
+        return result;
+    }
+
+    private static final class Entry {
+        final byte[] code;
+        final long expiresAt;
+
+        Entry(String code, long expiresAt) {
+            this.code = code.getBytes(StandardCharsets.US_ASCII);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.uniway.service;
+
+import com.uniway.entity.VerificationCode;
+import com.uniway.id.Ids;
+import com.uniway.repository.VerificationCodeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * JpaVerificationCodeStore - Códigos de verificación en la tabla verification_codes
+ *
+ * Opción para despliegues con varias instancias sin afinidad de sesión
+ * (verification-codes.store=jpa). La verificación es un único UPDATE condicional,
+ * de modo que un código no puede consumirse dos veces.
+ *
+ * La purga de expirados es un DELETE ... LIMIT repetido en bloques de
+ * verification-codes.purge-batch-size filas, cada uno en su propia transacción.
+ */
+@Component
+@ConditionalOnProperty(name = "verification-codes.store", havingValue = "jpa")
+@Transactional
+public class JpaVerificationCodeStore implements VerificationCodeStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaVerificationCodeStore.class);
+
+    @Autowired
+    private VerificationCodeRepository verificationCodeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${verification-codes.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    @Value("${verification-codes.purge-max-batches:100}")
+    private int purgeMaxBatches;
+
+    private Counter purgedCounter;
+
+    @PostConstruct
+    void init() {
+        purgedCounter = Counter.builder("verification_codes.purged")
+                .description("Códigos de verificación expirados eliminados")
+                .tag("store", "jpa")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void save(String email, String code, Duration ttl) {
+        verificationCodeRepository.save(new VerificationCode(
+            Ids.newId(),
+            email,
+            code,
+            LocalDateTime.now().plus(ttl)
+        ));
+    }
+
+    @Override
+    public boolean consume(String email, String code) {
+        return verificationCodeRepository.markUsedIfValid(email, code, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * Elimina los códigos expirados en bloques acotados, sin transacción envolvente,
+     * hasta vaciar la tabla de expirados o alcanzar purge-max-batches bloques
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < purgeMaxBatches; batch++) {
+            int deleted = verificationCodeRepository.deleteExpiredBatch(now, purgeBatchSize);
+            total += deleted;
+            if (deleted < purgeBatchSize) {
+                break;
+            }
+        }
+        purgedCounter.increment(total);
+        return total;
+    }
+
+    /**
+     * Purga periódica de códigos expirados
+     */
+    @Scheduled(fixedDelayString = "${verification-codes.purge-interval-ms:60000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledPurge() {
+        int deleted = purgeExpired();
+        if (deleted > 0) {
+            log.info("Códigos de verificación expirados eliminados: {}", deleted);
+        }
+    }
+}
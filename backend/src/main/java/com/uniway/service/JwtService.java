@@ -1,30 +1,54 @@
 package com.uniway.service;
 
 import com.uniway.entity.User;
+import com.uniway.entity.UserRole;
+import com.uniway.security.AuthenticatedUser;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
     
+    /** Claim con el instante de emisión en milisegundos (ver TokenRevocationService) */
+    private static final String ISSUED_AT_MS_CLAIM = "iatMs";
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    /** Llave HMAC construida una sola vez a partir del secreto */
+    private SecretKey signingKey;
+    
+    /** Parser inmutable y thread-safe, reutilizado en cada validación */
+    private JwtParser parser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
     public String generateToken(User user) {
@@ -35,15 +59,61 @@ public class JwtService {
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
+        // iat del estándar va en segundos; la revocación por usuario compara en milisegundos
+        claims.put(ISSUED_AT_MS_CLAIM, now);
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
+    /**
+     * Valida el token (firma, expiración y revocación) y construye el principal desde sus claims
+     * @param token JWT sin el prefijo "Bearer "
+     * @return Usuario autenticado (id, rol, nombre, jti y expiración)
+     * @throws io.jsonwebtoken.JwtException si el token es inválido, expiró o fue revocado
+     */
+    public AuthenticatedUser parseAuthenticatedUser(String token) {
+        Claims claims = extractAllClaims(token);
+        if (tokenRevocationService.isRevoked(claims.getId(), claims.getSubject(), issuedAtMs(claims))) {
+            throw new JwtException("Token revocado");
+        }
+        String role = claims.get("role", String.class);
+        return new AuthenticatedUser(
+                claims.getSubject(),
+                role != null ? UserRole.valueOf(role) : UserRole.STUDENT,
+                claims.get("fullName", String.class),
+                claims.getId(),
+                claims.getExpiration().getTime()
+        );
+    }
+    
+    /**
+     * Instante de emisión en milisegundos: el claim iatMs o, en tokens emitidos antes
+     * de agregarlo, el iat estándar (truncado al segundo)
+     */
+    private static long issuedAtMs(Claims claims) {
+        Number issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM, Number.class);
+        if (issuedAtMs != null) {
+            return issuedAtMs.longValue();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() : 0L;
+    }
+    
+    /**
+     * Tiempo de vida de los access tokens
+     * @return Duración en milisegundos
+     */
+    public long getExpirationMs() {
+        return expiration;
+    }
+    
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -57,12 +127,8 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
     
     private Boolean isTokenExpired(String token) {
@@ -74,13 +140,3 @@ public class JwtService {
         return (extractedUsername.equals(username) && !isTokenExpired(token));
     }
 }
-
-
-
-
-
-
-
-
-
-
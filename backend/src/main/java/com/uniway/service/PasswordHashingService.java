@@ -0,0 +1,158 @@
+package com.uniway.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordHashingService - Hashing de contraseñas (BCrypt) fuera de los hilos de Tomcat
+ *
+ * BCrypt es deliberadamente costoso; ejecutarlo en los hilos de request hace que una
+ * ráfaga de logins (inicio de semestre) ocupe todo el pool y bloquee lecturas baratas
+ * como el feed. Aquí se ejecuta en un pool dedicado de tamaño fijo con una cola
+ * acotada: cuando la cola se llena el trabajo se rechaza de inmediato con
+ * ServiceOverloadedException (503) en vez de acumular latencia.
+ *
+ * El costo de BCrypt es configurable (password-hashing.bcrypt-strength). Si el costo
+ * de un hash almacenado no coincide con el configurado, verify() devuelve un nuevo
+ * hash calculado en la misma tarea para que el login lo guarde de forma transparente.
+ */
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    /** Propaga el contexto de la petición (contadores de SQL) a los hilos del pool */
+    @Autowired
+    private TaskDecorator taskDecorator;
+
+    @Value("${password-hashing.bcrypt-strength:10}")
+    private int strength;
+
+    /** Hilos dedicados; 0 usa el número de procesadores disponibles */
+    @Value("${password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${password-hashing.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Calcula el hash de una contraseña en el pool dedicado
+     * @param rawPassword Contraseña en claro
+     * @return Hash BCrypt con el costo configurado
+     * @throws ServiceOverloadedException si la cola de hashing está llena
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Verifica una contraseña y, si el costo del hash almacenado quedó desactualizado,
+     * calcula el nuevo hash en la misma tarea
+     * @param rawPassword Contraseña en claro
+     * @param storedHash Hash almacenado
+     * @return Resultado de la verificación
+     * @throws ServiceOverloadedException si la cola de hashing está llena
+     */
+    public CompletableFuture<Verification> verify(String rawPassword, String storedHash) {
+        return submit(() -> {
+            if (!passwordEncoder.matches(rawPassword, storedHash)) {
+                return new Verification(false, null);
+            }
+            String upgradedHash = needsRehash(storedHash) ? passwordEncoder.encode(rawPassword) : null;
+            return new Verification(true, upgradedHash);
+        });
+    }
+
+    /**
+     * Indica si un hash BCrypt fue calculado con un costo distinto al configurado
+     * @param storedHash Hash con formato $2a$NN$...
+     * @return true si debe recalcularse
+     */
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null || storedHash.length() < 7 || storedHash.charAt(0) != '$' || storedHash.charAt(6) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(storedHash.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** Tareas en espera en la cola de hashing */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private <T> CompletableFuture<T> submit(java.util.function.Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, runnable -> executor.execute(taskDecorator.decorate(runnable)));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException(
+                    "El servicio de autenticación está saturado, intenta de nuevo en unos segundos",
+                    retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Resultado de verificar una contraseña
+     */
+    public static class Verification {
+        private final boolean matches;
+        private final String upgradedHash;
+
+        public Verification(boolean matches, String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+        }
+
+        /** Indica si la contraseña coincide */
+        public boolean matches() { return matches; }
+
+        /** Nuevo hash con el costo actual, o null si no hace falta recalcular */
+        public String getUpgradedHash() { return upgradedHash; }
+    }
+}
@@ -1,15 +1,18 @@
 package com.uniway.service;
 
+import com.uniway.dto.UserSummary;
 import com.uniway.entity.Post;
 import com.uniway.entity.PostType;
 import com.uniway.entity.PostPriority;
 import com.uniway.entity.User;
-import com.uniway.entity.Reaction;
 import com.uniway.entity.ReactionType;
+import com.uniway.id.Ids;
 import com.uniway.repository.PostRepository;
 import com.uniway.repository.UserRepository;
 import com.uniway.repository.ReactionRepository;
-import com.uniway.repository.CommentRepository;
+import com.uniway.security.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,7 +20,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * PostService - Servicio de lógica de negocio para la gestión de publicaciones del foro
@@ -31,7 +33,8 @@ import java.util.UUID;
  * - Conversión de entidades a DTOs para la API
  * 
  * Características importantes:
- * - Todas las operaciones son transaccionales (@Transactional)
+ * - Todas las operaciones son transaccionales (@Transactional); las consultas usan
+ *   readOnly = true (sin dirty checking y atendidas por una réplica si hay, ver DataSourceRoutingConfig)
  * - Maneja usuarios por defecto cuando no se encuentra el usuario especificado
  * - Implementa lógica de toggle para reacciones (like/dislike)
  * - Actualiza contadores automáticamente desde las tablas relacionadas
@@ -40,6 +43,11 @@ import java.util.UUID;
 @Service
 @Transactional // Todas las operaciones del servicio son transaccionales
 public class PostService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostService.class);
+
+    /** Máximo de IDs por cláusula IN al cargar reacciones en bloque */
+    private static final int IN_CHUNK_SIZE = 1000;
     
     // ==================== DEPENDENCIAS INYECTADAS ====================
     
@@ -51,26 +59,20 @@ public class PostService {
     @Autowired
     private UserRepository userRepository;
     
-    /** Repositorio para operaciones con reacciones (likes/dislikes) */
+    /** Caché de usuarios para comprobar autores sin consultar la base */
     @Autowired
-    private ReactionRepository reactionRepository;
+    private UserCacheService userCacheService;
     
+    /** Repositorio para operaciones con reacciones (likes/dislikes) */
     @Autowired
-    private CommentRepository commentRepository;
+    private ReactionRepository reactionRepository;
     
     public String getDefaultUserId() {
-        // Intentar obtener student-001 primero
-        Optional<User> student001 = userRepository.findById("student-001");
-        if (student001.isPresent()) {
-            System.out.println("Usando usuario student-001");
-            return "student-001";
-        }
-        
-        // Si no existe, buscar cualquier usuario estudiante
+        // Buscar cualquier usuario estudiante
         List<User> students = userRepository.findActiveUsersByRole(com.uniway.entity.UserRole.STUDENT);
         if (!students.isEmpty()) {
             String userId = students.get(0).getId();
-            System.out.println("Usando primer estudiante encontrado: " + userId);
+            log.debug("Usando primer estudiante encontrado: {}", userId);
             return userId;
         }
         
@@ -78,7 +80,7 @@ public class PostService {
         List<User> allUsers = userRepository.findAll();
         if (!allUsers.isEmpty()) {
             String userId = allUsers.get(0).getId();
-            System.out.println("Usando primer usuario encontrado: " + userId);
+            log.debug("Usando primer usuario encontrado: {}", userId);
             return userId;
         }
         
@@ -87,16 +89,16 @@ public class PostService {
     }
     
     public String getUserIdByEmail(String email) {
-        System.out.println("Buscando usuario por email: " + email);
+        log.debug("Buscando usuario por email: {}", email);
         
         Optional<User> userOpt = userRepository.findByEmail(email);
         if (userOpt.isPresent()) {
             String userId = userOpt.get().getId();
-            System.out.println("Usuario encontrado: " + userId + " (" + userOpt.get().getFullName() + ")");
+            log.debug("Usuario encontrado: {} ({})", userId, userOpt.get().getFullName());
             return userId;
         }
         
-        System.err.println("Usuario no encontrado por email: " + email);
+        log.warn("Usuario no encontrado por email: {}", email);
         
         // Fallback: usar usuario por defecto
         return getDefaultUserId();
@@ -105,7 +107,7 @@ public class PostService {
     public Post createPost(Post post) {
         // Generar ID único si no existe
         if (post.getId() == null || post.getId().isEmpty()) {
-            post.setId(UUID.randomUUID().toString());
+            post.setId(Ids.newId());
         }
         
         // Establecer valores por defecto
@@ -144,38 +146,47 @@ public class PostService {
         return postRepository.save(post);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Post> findById(String id) {
         return postRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public List<Post> findAllApprovedPosts() {
         return postRepository.findAllApprovedPostsOrderByPinnedAndDate();
     }
     
+    @Transactional(readOnly = true)
     public List<Post> findApprovedPostsByType(PostType type) {
         return postRepository.findApprovedPostsByType(type);
     }
     
+    @Transactional(readOnly = true)
     public List<Post> findApprovedPostsByPriority(PostPriority priority) {
         return postRepository.findApprovedPostsByPriority(priority);
     }
     
+    @Transactional(readOnly = true)
     public List<Post> findApprovedPostsByAuthor(String authorId) {
         return postRepository.findApprovedPostsByAuthor(authorId);
     }
     
+    @Transactional(readOnly = true)
     public List<Post> findAllAlertPosts() {
         return postRepository.findAllAlertPosts();
     }
     
+    @Transactional(readOnly = true)
     public List<Post> findAllPinnedPosts() {
         return postRepository.findAllPinnedPosts();
     }
     
+    @Transactional(readOnly = true)
     public List<Post> findPostsSince(LocalDateTime since) {
         return postRepository.findPostsSince(since);
     }
     
+    @Transactional(readOnly = true)
     public List<Post> findAllPendingPosts() {
         return postRepository.findAllPendingPosts();
     }
@@ -228,55 +239,58 @@ public class PostService {
         throw new RuntimeException("Post no encontrado con ID: " + id);
     }
     
+    @Transactional(readOnly = true)
     public long countApprovedPostsByAuthor(String authorId) {
         return postRepository.countApprovedPostsByAuthor(authorId);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Post> getPostById(String id) {
-        return postRepository.findById(id);
+        // Con el autor (JOIN FETCH): convertToDto se ejecuta fuera de esta sesión
+        return postRepository.findByIdWithAuthor(id);
     }
     
+    @Transactional(readOnly = true)
     public List<Post> getAllPosts(PostType type, PostPriority priority, Boolean isAlert, org.springframework.data.domain.Pageable pageable) {
         try {
-            System.out.println("=== DEBUG PostService.getAllPosts ===");
-            System.out.println("Parámetros - type: " + type + ", priority: " + priority + ", isAlert: " + isAlert);
+            log.debug("PostService.getAllPosts - Parámetros - type: {}, priority: {}, isAlert: {}", type, priority, isAlert);
             
             // Implementación simplificada - en producción usarías paginación
             if (type != null) {
-                System.out.println("Buscando posts por tipo: " + type);
+                log.debug("Buscando posts por tipo: {}", type);
                 return findApprovedPostsByType(type);
             }
             if (priority != null) {
-                System.out.println("Buscando posts por prioridad: " + priority);
+                log.debug("Buscando posts por prioridad: {}", priority);
                 return findApprovedPostsByPriority(priority);
             }
             if (isAlert != null && isAlert) {
-                System.out.println("Buscando posts de alerta");
+                log.debug("Buscando posts de alerta");
                 return findAllAlertPosts();
             }
             
-            System.out.println("Buscando todos los posts aprobados");
+            log.debug("Buscando todos los posts aprobados");
             return findAllApprovedPostsSafe();
             
         } catch (Exception e) {
-            System.err.println("Error en getAllPosts: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error en getAllPosts: {}", e.getMessage(), e);
             
             // Fallback: devolver lista vacía en lugar de lanzar excepción
             return new java.util.ArrayList<>();
         }
     }
     
+    @Transactional(readOnly = true)
     public List<Post> findAllApprovedPostsSafe() {
         try {
-            System.out.println("Intentando obtener posts con query personalizada...");
+            log.debug("Intentando obtener posts con query personalizada...");
             return postRepository.findAllApprovedPostsOrderByPinnedAndDate();
         } catch (Exception e) {
-            System.err.println("Error con query personalizada, intentando findAllWithAuthor: " + e.getMessage());
+            log.warn("Error con query personalizada, intentando findAllWithAuthor: {}", e.getMessage());
             try {
                 // Fallback: usar findAllWithAuthor y filtrar en Java
                 List<Post> allPosts = postRepository.findAllWithAuthor();
-                System.out.println("Posts totales en la base de datos: " + allPosts.size());
+                log.debug("Posts totales en la base de datos: {}", allPosts.size());
                 
                 return allPosts.stream()
                     .filter(post -> post.getIsApproved() != null && post.getIsApproved())
@@ -289,41 +303,31 @@ public class PostService {
                     })
                     .collect(java.util.stream.Collectors.toList());
             } catch (Exception e2) {
-                System.err.println("Error con findAllWithAuthor: " + e2.getMessage());
+                log.warn("Error con findAllWithAuthor: {}", e2.getMessage());
                 return new java.util.ArrayList<>();
             }
         }
     }
     
     public Post createPost(String authorId, String content, PostType postType, PostPriority priority) {
-        System.out.println("=== DEBUG PostService.createPost ===");
-        System.out.println("Buscando usuario con ID: " + authorId);
+        log.debug("PostService.createPost - Buscando usuario con ID: {}", authorId);
         
-        Optional<User> authorOpt = userRepository.findById(authorId);
+        // Verificar que el usuario existe (caché de usuarios) y enlazarlo por referencia, sin SELECT
+        Optional<UserSummary> authorOpt = userCacheService.findById(authorId);
         if (!authorOpt.isPresent()) {
-            System.err.println("Usuario no encontrado: " + authorId);
-            
-            // Mostrar usuarios disponibles para debugging
-            List<User> allUsers = userRepository.findAll();
-            System.err.println("Usuarios disponibles en la base de datos:");
-            for (User user : allUsers) {
-                System.err.println("- ID: " + user.getId() + ", Email: " + user.getEmail() + ", Nombre: " + user.getFullName());
-            }
-            
-            throw new RuntimeException("Usuario no encontrado con ID: " + authorId + ". Usuarios disponibles: " + allUsers.size());
+            log.warn("Usuario no encontrado: {}", authorId);
+            throw new RuntimeException("Usuario no encontrado con ID: " + authorId);
         }
-        
-        User author = authorOpt.get();
-        System.out.println("Usuario encontrado: " + author.getFullName() + " (" + author.getEmail() + ")");
+        log.debug("Usuario encontrado: {} ({})", authorOpt.get().getFullName(), authorOpt.get().getEmail());
         
         Post post = new Post();
-        post.setId(UUID.randomUUID().toString());
-        post.setAuthor(author);
+        post.setId(Ids.newId());
+        post.setAuthor(userRepository.getReferenceById(authorId));
         post.setContent(content);
         post.setPostType(postType != null ? postType : PostType.GENERAL);
         post.setPriority(priority != null ? priority : PostPriority.NORMAL);
         
-        System.out.println("Creando post con ID: " + post.getId());
+        log.debug("Creando post con ID: {}", post.getId());
         
         return createPost(post);
     }
@@ -338,14 +342,13 @@ public class PostService {
      * @param id ID del post a actualizar
      * @param content Nuevo contenido del post
      * @param postType Nuevo tipo de post (opcional)
-     * @param userId ID del usuario que intenta actualizar
+     * @param user Usuario autenticado que intenta actualizar
      * @return Post actualizado
      * @throws RuntimeException si no tiene permisos o el post no existe
      */
     @Transactional
-    public Post updatePost(String id, String content, String postType, String userId) {
-        System.out.println("=== DEBUG: updatePost ===");
-        System.out.println("Post ID: " + id + ", User ID: " + userId);
+    public Post updatePost(String id, String content, String postType, AuthenticatedUser user) {
+        log.debug("updatePost - Post ID: {}, User ID: {}", id, user.getId());
         
         // Buscar el post con su autor
         Optional<Post> postOpt = postRepository.findByIdWithAuthor(id);
@@ -353,14 +356,7 @@ public class PostService {
             throw new RuntimeException("Post no encontrado con ID: " + id);
         }
         
-        // Buscar el usuario que intenta actualizar
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (!userOpt.isPresent()) {
-            throw new RuntimeException("Usuario no encontrado con ID: " + userId);
-        }
-        
         Post post = postOpt.get();
-        User user = userOpt.get();
         
         // Verificar permisos
         boolean canEdit = canUserEditPost(post, user);
@@ -368,7 +364,7 @@ public class PostService {
             throw new RuntimeException("No tienes permisos para editar este post. Solo el autor o administradores pueden editarlo.");
         }
         
-        System.out.println("Usuario autorizado para editar el post");
+        log.debug("Usuario autorizado para editar el post");
         
         // Actualizar contenido
         post.setContent(content);
@@ -378,12 +374,12 @@ public class PostService {
             try {
                 post.setPostType(PostType.valueOf(postType.toUpperCase()));
             } catch (IllegalArgumentException e) {
-                System.err.println("Tipo de post inválido: " + postType + ", manteniendo el actual");
+                log.warn("Tipo de post inválido: {}, manteniendo el actual", postType);
             }
         }
         
         Post updatedPost = postRepository.save(post);
-        System.out.println("Post actualizado exitosamente");
+        log.debug("Post actualizado exitosamente");
         
         return updatedPost;
     }
@@ -396,13 +392,12 @@ public class PostService {
      * - Los usuarios con rol ADMINISTRATION pueden eliminar cualquier post
      * 
      * @param id ID del post a eliminar
-     * @param userId ID del usuario que intenta eliminar
+     * @param user Usuario autenticado que intenta eliminar
      * @throws RuntimeException si no tiene permisos o el post no existe
      */
     @Transactional
-    public void deletePost(String id, String userId) {
-        System.out.println("=== DEBUG: deletePost ===");
-        System.out.println("Post ID: " + id + ", User ID: " + userId);
+    public void deletePost(String id, AuthenticatedUser user) {
+        log.debug("deletePost - Post ID: {}, User ID: {}", id, user.getId());
         
         // Buscar el post con su autor
         Optional<Post> postOpt = postRepository.findByIdWithAuthor(id);
@@ -410,14 +405,7 @@ public class PostService {
             throw new RuntimeException("Post no encontrado con ID: " + id);
         }
         
-        // Buscar el usuario que intenta eliminar
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (!userOpt.isPresent()) {
-            throw new RuntimeException("Usuario no encontrado con ID: " + userId);
-        }
-        
         Post post = postOpt.get();
-        User user = userOpt.get();
         
         // Verificar permisos
         boolean canDelete = canUserDeletePost(post, user);
@@ -425,11 +413,11 @@ public class PostService {
             throw new RuntimeException("No tienes permisos para eliminar este post. Solo el autor o administradores pueden eliminarlo.");
         }
         
-        System.out.println("Usuario autorizado para eliminar el post");
+        log.debug("Usuario autorizado para eliminar el post");
         
         // Eliminar el post (las reacciones y comentarios se eliminan automáticamente por CASCADE)
         postRepository.deleteById(id);
-        System.out.println("Post eliminado exitosamente");
+        log.debug("Post eliminado exitosamente");
     }
     
     /**
@@ -439,20 +427,20 @@ public class PostService {
      * @param user Usuario que intenta editar
      * @return true si puede editar, false en caso contrario
      */
-    private boolean canUserEditPost(Post post, User user) {
+    private boolean canUserEditPost(Post post, AuthenticatedUser user) {
         // El autor siempre puede editar su propio post
         if (post.getAuthor().getId().equals(user.getId())) {
-            System.out.println("Usuario es el autor del post - permitido");
+            log.debug("Usuario es el autor del post - permitido");
             return true;
         }
         
         // Administradores pueden editar cualquier post
-        if (user.getRole() == com.uniway.entity.UserRole.ADMINISTRATION) {
-            System.out.println("Usuario es administrador - permitido");
+        if (user.isAdmin()) {
+            log.debug("Usuario es administrador - permitido");
             return true;
         }
         
-        System.out.println("Usuario no tiene permisos para editar");
+        log.debug("Usuario no tiene permisos para editar");
         return false;
     }
     
@@ -463,20 +451,20 @@ public class PostService {
      * @param user Usuario que intenta eliminar
      * @return true si puede eliminar, false en caso contrario
      */
-    private boolean canUserDeletePost(Post post, User user) {
+    private boolean canUserDeletePost(Post post, AuthenticatedUser user) {
         // El autor siempre puede eliminar su propio post
         if (post.getAuthor().getId().equals(user.getId())) {
-            System.out.println("Usuario es el autor del post - permitido");
+            log.debug("Usuario es el autor del post - permitido");
             return true;
         }
         
         // Administradores pueden eliminar cualquier post
-        if (user.getRole() == com.uniway.entity.UserRole.ADMINISTRATION) {
-            System.out.println("Usuario es administrador - permitido");
+        if (user.isAdmin()) {
+            log.debug("Usuario es administrador - permitido");
             return true;
         }
         
-        System.out.println("Usuario no tiene permisos para eliminar");
+        log.debug("Usuario no tiene permisos para eliminar");
         return false;
     }
     
@@ -488,18 +476,17 @@ public class PostService {
      * - Si el usuario ya tenía LIKE: elimina la reacción (toggle off)
      * - Si el usuario tenía DISLIKE: cambia a LIKE
      * 
-     * Después de cualquier cambio, actualiza automáticamente los contadores
-     * del post (like_count, dislike_count) basándose en la tabla reactions.
+     * Los contadores del post (like_count, dislike_count) se ajustan con un UPDATE
+     * atómico según las filas afectadas por el toggle, sin contar la tabla reactions.
      * 
      * @param postId ID del post al que se va a dar/quitar like
-     * @param userId ID del usuario que hace la acción
-     * @return Post actualizado con los nuevos contadores
-     * @throws RuntimeException si el post o usuario no existen
+     * @param user Usuario autenticado que hace la acción
+     * @return Post (ya fuera del contexto de persistencia) con los nuevos contadores
+     * @throws RuntimeException si el post no existe
      */
     @Transactional
-    public Post toggleLike(String postId, String userId) {
-        System.out.println("=== DEBUG: toggleLike ===");
-        System.out.println("Post ID: " + postId + ", User ID: " + userId);
+    public Post toggleLike(String postId, AuthenticatedUser user) {
+        log.debug("toggleLike - Post ID: {}, User ID: {}", postId, user.getId());
         
         // Verificar que el post existe y cargar su autor para evitar LazyInitializationException
         Optional<Post> postOpt = postRepository.findByIdWithAuthor(postId);
@@ -507,52 +494,14 @@ public class PostService {
             throw new RuntimeException("Post no encontrado con ID: " + postId);
         }
         
-        // Verificar que el usuario existe
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (!userOpt.isPresent()) {
-            throw new RuntimeException("Usuario no encontrado con ID: " + userId);
-        }
-        
         Post post = postOpt.get();
-        User user = userOpt.get();
-        
-        // Buscar si el usuario ya tiene una reacción para este post
-        Optional<Reaction> existingReaction = reactionRepository.findByUserIdAndPostId(userId, postId);
-        
-        if (existingReaction.isPresent()) {
-            Reaction reaction = existingReaction.get();
-            
-            if (reaction.getType() == ReactionType.LIKE) {
-                // Usuario ya dio like, remover el like
-                System.out.println("Removiendo like existente");
-                reactionRepository.delete(reaction);
-            } else {
-                // Usuario tenía dislike, cambiar a like
-                System.out.println("Cambiando dislike a like");
-                reaction.setType(ReactionType.LIKE);
-                reactionRepository.save(reaction);
-            }
-        } else {
-            // Usuario no ha reaccionado, crear nuevo like
-            System.out.println("Creando nuevo like");
-            Reaction newReaction = new Reaction();
-            newReaction.setId(UUID.randomUUID().toString());
-            newReaction.setUser(user);
-            newReaction.setPost(post);
-            newReaction.setType(ReactionType.LIKE);
-            reactionRepository.save(newReaction);
-        }
-        
-        // Actualizar contadores del post
-        updatePostCounters(post);
-        
-        return postRepository.save(post);
+        toggleReaction(post, user.getId(), ReactionType.LIKE);
+        return post;
     }
     
     @Transactional
-    public Post toggleDislike(String postId, String userId) {
-        System.out.println("=== DEBUG: toggleDislike ===");
-        System.out.println("Post ID: " + postId + ", User ID: " + userId);
+    public Post toggleDislike(String postId, AuthenticatedUser user) {
+        log.debug("toggleDislike - Post ID: {}, User ID: {}", postId, user.getId());
         
         // Verificar que el post existe
         Optional<Post> postOpt = postRepository.findByIdWithAuthor(postId);
@@ -560,59 +509,45 @@ public class PostService {
             throw new RuntimeException("Post no encontrado con ID: " + postId);
         }
         
-        // Verificar que el usuario existe
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (!userOpt.isPresent()) {
-            throw new RuntimeException("Usuario no encontrado con ID: " + userId);
-        }
-        
         Post post = postOpt.get();
-        User user = userOpt.get();
-        
-        // Buscar reacción existente del usuario para este post
-        Optional<Reaction> existingReaction = reactionRepository.findByUserIdAndPostId(userId, postId);
-        
-        if (existingReaction.isPresent()) {
-            Reaction reaction = existingReaction.get();
-            
-            if (reaction.getType() == ReactionType.DISLIKE) {
-                // Usuario ya dio dislike, remover el dislike
-                System.out.println("Removiendo dislike existente");
-                reactionRepository.delete(reaction);
-            } else {
-                // Usuario tenía like, cambiar a dislike
-                System.out.println("Cambiando like a dislike");
-                reaction.setType(ReactionType.DISLIKE);
-                reactionRepository.save(reaction);
-            }
-        } else {
-            // Usuario no ha reaccionado, crear nuevo dislike
-            System.out.println("Creando nuevo dislike");
-            Reaction newReaction = new Reaction();
-            newReaction.setId(UUID.randomUUID().toString());
-            newReaction.setUser(user);
-            newReaction.setPost(post);
-            newReaction.setType(ReactionType.DISLIKE);
-            reactionRepository.save(newReaction);
-        }
-        
-        // Actualizar contadores del post
-        updatePostCounters(post);
-        
-        return postRepository.save(post);
+        toggleReaction(post, user.getId(), ReactionType.DISLIKE);
+        return post;
     }
     
-    private void updatePostCounters(Post post) {
-        // Contar likes, dislikes y comentarios desde las tablas correspondientes
-        long likeCount = reactionRepository.countByPostIdAndType(post.getId(), ReactionType.LIKE);
-        long dislikeCount = reactionRepository.countByPostIdAndType(post.getId(), ReactionType.DISLIKE);
-        long commentCount = commentRepository.countApprovedCommentsByPostId(post.getId());
+    /**
+     * Toggle por llave natural (user_id, post_id), sin leer la reacción antes:
+     * - Si el usuario ya tenía esta reacción: un DELETE la quita (toggle off)
+     * - Si no tenía reacción o tenía la contraria: un upsert la crea o la cambia
+     * 
+     * Las filas afectadas dicen qué cambió (DELETE: 1 quitada; upsert: 1 insertada,
+     * 2 cambiada desde la contraria, 0 sin cambios) y con eso se suman los deltas
+     * a los contadores del post en una sola sentencia.
+     */
+    private void toggleReaction(Post post, String userId, ReactionType type) {
+        int delta;
+        int oppositeDelta;
+        if (reactionRepository.deleteByUserIdAndPostIdAndType(userId, post.getId(), type) > 0) {
+            log.debug("Reacción {} removida", type);
+            delta = -1;
+            oppositeDelta = 0;
+        } else {
+            int affected = reactionRepository.upsert(Ids.toBytes(userId), Ids.toBytes(post.getId()), type, LocalDateTime.now());
+            log.debug("Reacción {} creada o cambiada (filas afectadas: {})", type, affected);
+            delta = affected > 0 ? 1 : 0;
+            oppositeDelta = affected == 2 ? -1 : 0;
+        }
+        if (delta == 0 && oppositeDelta == 0) {
+            return;
+        }
         
-        post.setLikeCount((int) likeCount);
-        post.setDislikeCount((int) dislikeCount);
-        post.setCommentCount((int) commentCount);
+        int likeDelta = type == ReactionType.LIKE ? delta : oppositeDelta;
+        int dislikeDelta = type == ReactionType.LIKE ? oppositeDelta : delta;
+        postRepository.addReactionCounts(post.getId(), likeDelta, dislikeDelta);
         
-        System.out.println("Contadores actualizados - Likes: " + likeCount + ", Dislikes: " + dislikeCount + ", Comments: " + commentCount);
+        // El post quedó fuera del contexto (clearAutomatically): se ajusta solo para la respuesta
+        post.setLikeCount(post.getLikeCount() + likeDelta);
+        post.setDislikeCount(post.getDislikeCount() + dislikeDelta);
+        log.debug("Contadores actualizados - Likes: {}, Dislikes: {}", post.getLikeCount(), post.getDislikeCount());
     }
     
     public Post toggleSave(String postId, String userId) {
@@ -636,91 +571,99 @@ public class PostService {
         return postRepository.save(post);
     }
     
+    @Transactional(readOnly = true)
     public long countAllPosts() {
         try {
             return postRepository.count();
         } catch (Exception e) {
-            System.err.println("Error contando posts: " + e.getMessage());
+            log.warn("Error contando posts: {}", e.getMessage());
             return 0;
         }
     }
     
+    @Transactional(readOnly = true)
     public long countAllUsers() {
         try {
             return userRepository.count();
         } catch (Exception e) {
-            System.err.println("Error contando usuarios: " + e.getMessage());
+            log.warn("Error contando usuarios: {}", e.getMessage());
             return 0;
         }
     }
     
+    @Transactional(readOnly = true)
     public List<Post> getAllPostsSimple() {
         try {
-            System.out.println("=== DEBUG: getAllPostsSimple ===");
+            log.debug("getAllPostsSimple");
             
-            // Usar el método con JOIN FETCH para evitar LazyInitializationException
-            List<Post> allPosts = postRepository.findAllWithAuthor();
-            System.out.println("Total posts en DB: " + allPosts.size());
-            
-            if (allPosts.isEmpty()) {
-                System.out.println("No hay posts en la base de datos");
-                return new java.util.ArrayList<>();
-            }
-            
-            // Filtrar solo posts aprobados
-            List<Post> approvedPosts = allPosts.stream()
-                .filter(post -> post.getIsApproved() != null && post.getIsApproved())
-                .collect(java.util.stream.Collectors.toList());
-                
-            System.out.println("Posts aprobados: " + approvedPosts.size());
+            // Aprobados con el autor (JOIN FETCH), filtrados y ordenados en la base de datos
+            List<Post> approvedPosts = postRepository.findAllApprovedPostsOrderByPinnedAndDate();
+            log.debug("Posts aprobados: {}", approvedPosts.size());
             return approvedPosts;
             
         } catch (Exception e) {
-            System.err.println("Error en getAllPostsSimple: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error en getAllPostsSimple: {}", e.getMessage(), e);
             return new java.util.ArrayList<>();
         }
     }
     
+    @Transactional(readOnly = true)
     public com.uniway.dto.PostDto convertToDto(Post post) {
         return convertToDto(post, null);
     }
     
+    @Transactional(readOnly = true)
     public com.uniway.dto.PostDto convertToDto(Post post, String currentUserId) {
-        com.uniway.dto.PostDto dto = new com.uniway.dto.PostDto();
-        dto.setId(post.getId());
-        dto.setAuthorId(post.getAuthor().getId());
-        dto.setAuthorName(post.getAuthor().getFullName());
-        dto.setAuthorRole(post.getAuthor().getRole().toString());
-        dto.setContent(post.getContent());
-        dto.setPostType(post.getPostType());
-        dto.setPriority(post.getPriority());
-        dto.setIsPinned(post.getIsPinned());
-        dto.setIsAlert(post.getIsAlert());
-        dto.setIsApproved(post.getIsApproved());
-        dto.setCreatedAt(post.getCreatedAt());
-        dto.setUpdatedAt(post.getUpdatedAt());
-        dto.setLikeCount(post.getLikeCount() != null ? post.getLikeCount().longValue() : 0L);
-        dto.setDislikeCount(post.getDislikeCount() != null ? post.getDislikeCount().longValue() : 0L);
-        dto.setCommentCount(post.getCommentCount() != null ? post.getCommentCount().longValue() : 0L);
-        
-        // Verificar si el usuario actual ha reaccionado al post
+        return convertToDtos(List.of(post), currentUserId).get(0);
+    }
+    
+    /**
+     * Convierte una lista de posts a DTO consultando las reacciones del usuario actual
+     * en una sola consulta (por bloques de IN_CHUNK_SIZE posts) en lugar de una por post
+     * @param posts Posts con el autor ya cargado
+     * @param currentUserId Usuario actual, null si es anónimo
+     * @return DTOs en el mismo orden
+     */
+    @Transactional(readOnly = true)
+    public List<com.uniway.dto.PostDto> convertToDtos(List<Post> posts, String currentUserId) {
+        java.util.Map<String, ReactionType> userReactions = new java.util.HashMap<>();
         if (currentUserId != null) {
-            Optional<Reaction> userReaction = reactionRepository.findByUserIdAndPostId(currentUserId, post.getId());
-            if (userReaction.isPresent()) {
-                ReactionType reactionType = userReaction.get().getType();
-                dto.setIsLiked(reactionType == ReactionType.LIKE);
-                dto.setIsDisliked(reactionType == ReactionType.DISLIKE);
-            } else {
-                dto.setIsLiked(false);
-                dto.setIsDisliked(false);
+            for (int from = 0; from < posts.size(); from += IN_CHUNK_SIZE) {
+                List<String> ids = posts.subList(from, Math.min(from + IN_CHUNK_SIZE, posts.size())).stream()
+                    .map(Post::getId)
+                    .collect(java.util.stream.Collectors.toList());
+                for (Object[] row : reactionRepository.findTypesByUserIdAndPostIdIn(currentUserId, ids)) {
+                    userReactions.put((String) row[0], (ReactionType) row[1]);
+                }
             }
-        } else {
-            dto.setIsLiked(false);
-            dto.setIsDisliked(false);
         }
         
-
-        return dto;
+        List<com.uniway.dto.PostDto> dtos = new java.util.ArrayList<>(posts.size());
+        for (Post post : posts) {
+            com.uniway.dto.PostDto dto = new com.uniway.dto.PostDto();
+            dto.setId(post.getId());
+            UserSummary author = userCacheService.summaryOf(post.getAuthor());
+            dto.setAuthorId(author.getId());
+            dto.setAuthorName(author.getFullName());
+            dto.setAuthorRole(author.getRole().toString());
+            dto.setContent(post.getContent());
+            dto.setPostType(post.getPostType());
+            dto.setPriority(post.getPriority());
+            dto.setIsPinned(post.getIsPinned());
+            dto.setIsAlert(post.getIsAlert());
+            dto.setIsApproved(post.getIsApproved());
+            dto.setCreatedAt(post.getCreatedAt());
+            dto.setUpdatedAt(post.getUpdatedAt());
+            dto.setLikeCount(post.getLikeCount() != null ? post.getLikeCount().longValue() : 0L);
+            dto.setDislikeCount(post.getDislikeCount() != null ? post.getDislikeCount().longValue() : 0L);
+            dto.setCommentCount(post.getCommentCount() != null ? post.getCommentCount().longValue() : 0L);
+            
+            // Reacción del usuario actual (si la hay)
+            ReactionType reactionType = userReactions.get(post.getId());
+            dto.setIsLiked(reactionType == ReactionType.LIKE);
+            dto.setIsDisliked(reactionType == ReactionType.DISLIKE);
+            dtos.add(dto);
+        }
+        return dtos;
     }
 }
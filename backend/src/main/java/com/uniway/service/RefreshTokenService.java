@@ -0,0 +1,167 @@
+package com.uniway.service;
+
+import com.uniway.entity.RefreshToken;
+import com.uniway.id.Ids;
+import com.uniway.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * RefreshTokenService - Emisión y rotación de tokens de renovación de sesión
+ *
+ * Los refresh tokens son valores aleatorios de 256 bits; en la base de datos solo se
+ * guarda su hash SHA-256. Cada uso rota el token (el anterior queda revocado) y
+ * presentar un token ya usado revoca toda la familia junto con los access tokens
+ * vigentes del usuario, ya que indica que el token fue copiado.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Value("${jwt.refresh-expiration}")
+    private Long refreshExpiration;
+
+    /**
+     * Emite un refresh token para un nuevo inicio de sesión (nueva familia)
+     * @param userId ID del usuario
+     * @return Token en claro para entregar al cliente
+     */
+    public String issue(String userId) {
+        return issue(userId, Ids.newId());
+    }
+
+    /**
+     * Rota un refresh token: lo marca como usado y emite uno nuevo en la misma familia
+     * @param rawToken Token presentado por el cliente
+     * @return Resultado con el usuario dueño de la sesión y el nuevo token
+     * @throws RuntimeException si el token no existe, expiró o ya fue usado
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isEmpty()) {
+            throw new RuntimeException("Refresh token requerido");
+        }
+
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .orElseThrow(() -> new RuntimeException("Refresh token inválido"));
+
+        // El UPDATE condicional garantiza que solo una petición concurrente pueda rotar el token
+        if (current.getIsRevoked() || refreshTokenRepository.markUsed(current.getId()) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            tokenRevocationService.revokeAllForUser(current.getUserId());
+            throw new RuntimeException("Refresh token reutilizado, la sesión fue revocada");
+        }
+
+        if (current.isExpired()) {
+            throw new RuntimeException("Refresh token expirado");
+        }
+
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+
+    /**
+     * Revoca la familia de un refresh token (cierre de sesión en un dispositivo)
+     * @param rawToken Token presentado por el cliente
+     * @return ID del usuario dueño del token, o null si el token no existe
+     */
+    public String revoke(String rawToken) {
+        if (rawToken == null || rawToken.isEmpty()) {
+            return null;
+        }
+        return refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .map(token -> {
+                refreshTokenRepository.revokeFamily(token.getFamilyId());
+                return token.getUserId();
+            })
+            .orElse(null);
+    }
+
+    /**
+     * Revoca todas las sesiones de un usuario (refresh y access tokens)
+     * @param userId ID del usuario
+     */
+    public void revokeAllForUser(String userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+        tokenRevocationService.revokeAllForUser(userId);
+    }
+
+    /**
+     * Tiempo de vida de los refresh tokens
+     * @return Duración en milisegundos
+     */
+    public long getExpirationMs() {
+        return refreshExpiration;
+    }
+
+    /**
+     * Elimina periódicamente los tokens expirados para mantener la tabla compacta
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-ms:3600000}")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private String issue(String userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = ENCODER.encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken(
+            Ids.newId(),
+            hash(rawToken),
+            userId,
+            familyId,
+            LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000L)
+        );
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private static byte[] hash(String rawToken) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Resultado de una rotación: usuario dueño de la sesión y nuevo refresh token
+     */
+    public static class Rotation {
+        private final String userId;
+        private final String refreshToken;
+
+        public Rotation(String userId, String refreshToken) {
+            this.userId = userId;
+            this.refreshToken = refreshToken;
+        }
+
+        public String getUserId() { return userId; }
+
+        public String getRefreshToken() { return refreshToken; }
+    }
+}
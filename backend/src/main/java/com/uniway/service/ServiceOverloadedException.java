@@ -0,0 +1,22 @@
+package com.uniway.service;
+
+/**
+ * ServiceOverloadedException - Se lanza cuando un recurso acotado no admite más trabajo
+ *
+ * Los controladores la traducen a 503 (Service Unavailable) con el header
+ * Retry-After para que el cliente reintente más tarde en lugar de esperar en cola.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /** Segundos sugeridos antes de reintentar */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,248 @@
+package com.uniway.service;
+
+import com.uniway.dto.RelatedTeacherDto;
+import com.uniway.repository.StudentTeacherRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TeacherCooccurrenceService - Motor de "Estudiantes también recomendaron"
+ * 
+ * Precalcula en segundo plano una matriz de co-ocurrencia sobre los pares
+ * (estudiante, profesor) con calificación alta. Dos profesores co-ocurren cuando
+ * un mismo estudiante calificó bien a ambos.
+ * 
+ * Estructura en memoria:
+ * - Cada profesor recibe un índice entero (int) al reconstruir la matriz
+ * - Para cada profesor se guardan solo sus top-K vecinos como arreglos int[]
+ *   (índices y conteos), ordenados por número de estudiantes compartidos
+ * - La instantánea es inmutable y se reemplaza atómicamente en cada reconstrucción
+ * 
+ * Así cada consulta cuesta O(k) y nunca ejecuta joins en tiempo de request.
+ */
+@Service
+public class TeacherCooccurrenceService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TeacherCooccurrenceService.class);
+    
+    @Autowired
+    private StudentTeacherRepository studentTeacherRepository;
+    
+    /** Calificación mínima para considerar que un estudiante "recomienda" a un profesor */
+    @Value("${recommendations.related.min-rating:4}")
+    private int minRating;
+    
+    /** Número máximo de profesores relacionados que se guardan por profesor */
+    @Value("${recommendations.related.top-k:10}")
+    private int topK;
+    
+    /** Instantánea vigente de la matriz (se reemplaza completa en cada reconstrucción) */
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    
+    /**
+     * Obtiene los profesores relacionados con el profesor indicado
+     * @param teacherName Nombre del profesor de referencia
+     * @param limit Número máximo de resultados (acotado por top-k)
+     * @return Lista ordenada por estudiantes compartidos, vacía si no hay datos
+     */
+    public List<RelatedTeacherDto> getRelatedTeachers(String teacherName, int limit) {
+        Snapshot current = snapshot;
+        Integer teacher = current.teacherIndex.get(teacherName);
+        if (teacher == null) {
+            return Collections.emptyList();
+        }
+        
+        int[] neighbors = current.neighbors[teacher];
+        int[] counts = current.counts[teacher];
+        int size = Math.min(Math.max(limit, 0), neighbors.length);
+        
+        List<RelatedTeacherDto> related = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            related.add(new RelatedTeacherDto(current.teacherNames[neighbors[i]], counts[i]));
+        }
+        return related;
+    }
+    
+    /**
+     * Reconstruye la matriz de co-ocurrencia en segundo plano
+     * Se ejecuta al iniciar y luego periódicamente según recommendations.related.refresh-ms
+     */
+    @Scheduled(initialDelayString = "${recommendations.related.initial-delay-ms:5000}",
+               fixedDelayString = "${recommendations.related.refresh-ms:600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        List<Object[]> pairs = studentTeacherRepository.findHighlyRatedStudentTeacherPairs(minRating);
+        snapshot = buildSnapshot(pairs, topK);
+        log.info("Matriz de co-ocurrencia reconstruida: {} profesores, {} pares en {} ms",
+                snapshot.teacherNames.length, pairs.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    // ==================== CONSTRUCCIÓN DE LA MATRIZ ====================
+    
+    /**
+     * Construye la instantánea a partir de pares (studentId, teacherName) ordenados por estudiante
+     */
+    static Snapshot buildSnapshot(List<Object[]> pairs, int topK) {
+        // 1. Asignar índices enteros a profesores y agrupar profesores por estudiante
+        Map<String, Integer> teacherIndex = new HashMap<>();
+        List<String> teacherNames = new ArrayList<>();
+        List<int[]> studentTeachers = new ArrayList<>();
+        
+        String currentStudent = null;
+        int[] buffer = new int[16];
+        int bufferSize = 0;
+        for (Object[] pair : pairs) {
+            String studentId = (String) pair[0];
+            String teacherName = (String) pair[1];
+            
+            if (!studentId.equals(currentStudent)) {
+                if (bufferSize > 0) {
+                    studentTeachers.add(distinct(buffer, bufferSize));
+                }
+                currentStudent = studentId;
+                bufferSize = 0;
+            }
+            
+            Integer teacher = teacherIndex.get(teacherName);
+            if (teacher == null) {
+                teacher = teacherNames.size();
+                teacherIndex.put(teacherName, teacher);
+                teacherNames.add(teacherName);
+            }
+            if (bufferSize == buffer.length) {
+                buffer = Arrays.copyOf(buffer, bufferSize * 2);
+            }
+            buffer[bufferSize++] = teacher;
+        }
+        if (bufferSize > 0) {
+            studentTeachers.add(distinct(buffer, bufferSize));
+        }
+        
+        int teacherCount = teacherNames.size();
+        
+        // 2. Índice inverso profesor -> estudiantes (como posiciones en studentTeachers)
+        int[] studentsPerTeacher = new int[teacherCount];
+        for (int[] teachers : studentTeachers) {
+            for (int teacher : teachers) {
+                studentsPerTeacher[teacher]++;
+            }
+        }
+        int[][] teacherStudents = new int[teacherCount][];
+        for (int t = 0; t < teacherCount; t++) {
+            teacherStudents[t] = new int[studentsPerTeacher[t]];
+        }
+        int[] fill = new int[teacherCount];
+        for (int s = 0; s < studentTeachers.size(); s++) {
+            for (int teacher : studentTeachers.get(s)) {
+                teacherStudents[teacher][fill[teacher]++] = s;
+            }
+        }
+        
+        // 3. Acumulador disperso: por cada profesor se cuentan los vecinos en un arreglo
+        //    denso reutilizable y se recuerdan solo las posiciones tocadas
+        int[][] neighbors = new int[teacherCount][];
+        int[][] counts = new int[teacherCount][];
+        int[] accumulator = new int[teacherCount];
+        int[] touched = new int[teacherCount];
+        
+        for (int a = 0; a < teacherCount; a++) {
+            int touchedSize = 0;
+            for (int s : teacherStudents[a]) {
+                for (int b : studentTeachers.get(s)) {
+                    if (b == a) {
+                        continue;
+                    }
+                    if (accumulator[b]++ == 0) {
+                        touched[touchedSize++] = b;
+                    }
+                }
+            }
+            
+            int k = Math.min(topK, touchedSize);
+            int[] topNeighbors = new int[k];
+            int[] topCounts = new int[k];
+            selectTopK(touched, touchedSize, accumulator, topNeighbors, topCounts);
+            neighbors[a] = topNeighbors;
+            counts[a] = topCounts;
+            
+            for (int i = 0; i < touchedSize; i++) {
+                accumulator[touched[i]] = 0;
+            }
+        }
+        
+        return new Snapshot(teacherIndex, teacherNames.toArray(new String[0]), neighbors, counts);
+    }
+    
+    /**
+     * Selecciona los K vecinos con mayor conteo (inserción ordenada, K es pequeño)
+     */
+    private static void selectTopK(int[] candidates, int size, int[] accumulator, int[] topNeighbors, int[] topCounts) {
+        int k = topNeighbors.length;
+        if (k == 0) {
+            return;
+        }
+        int filled = 0;
+        for (int i = 0; i < size; i++) {
+            int candidate = candidates[i];
+            int count = accumulator[candidate];
+            if (filled == k && count <= topCounts[k - 1]) {
+                continue;
+            }
+            int pos = filled < k ? filled++ : k - 1;
+            while (pos > 0 && topCounts[pos - 1] < count) {
+                topCounts[pos] = topCounts[pos - 1];
+                topNeighbors[pos] = topNeighbors[pos - 1];
+                pos--;
+            }
+            topCounts[pos] = count;
+            topNeighbors[pos] = candidate;
+        }
+    }
+    
+    /**
+     * Elimina profesores repetidos de un estudiante (p.ej. mismo profesor en varias materias)
+     */
+    private static int[] distinct(int[] values, int size) {
+        int[] copy = Arrays.copyOf(values, size);
+        Arrays.sort(copy);
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || copy[i] != copy[i - 1]) {
+                copy[unique++] = copy[i];
+            }
+        }
+        return Arrays.copyOf(copy, unique);
+    }
+    
+    /**
+     * Instantánea inmutable de la matriz de co-ocurrencia
+     */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), new String[0], new int[0][], new int[0][]);
+        
+        final Map<String, Integer> teacherIndex;
+        final String[] teacherNames;
+        final int[][] neighbors;
+        final int[][] counts;
+        
+        Snapshot(Map<String, Integer> teacherIndex, String[] teacherNames, int[][] neighbors, int[][] counts) {
+            this.teacherIndex = teacherIndex;
+            this.teacherNames = teacherNames;
+            this.neighbors = neighbors;
+            this.counts = counts;
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package com.uniway.service;
 
 import com.uniway.dto.RecommendationStatsResponse;
+import com.uniway.dto.RelatedTeacherDto;
 import com.uniway.dto.TeacherRecommendationDto;
 import com.uniway.entity.*;
+import com.uniway.id.Ids;
 import com.uniway.repository.*;
+import com.uniway.security.AuthenticatedUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +29,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class TeacherRecommendationService {
 
+    /** Máximo de IDs por cláusula IN al cargar contadores y reacciones en bloque */
+    private static final int IN_CHUNK_SIZE = 1000;
+
     @Autowired
     private StudentTeacherRepository studentTeacherRepository;
 
@@ -34,9 +43,16 @@ public class TeacherRecommendationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private TeacherCooccurrenceService cooccurrenceService;
+
     /**
      * Obtiene todas las recomendaciones con sus reacciones
      */
+    @Transactional(readOnly = true)
     public List<TeacherRecommendationDto> getAllRecommendationsWithReactions(String currentUserId, String subjectFilter) {
         List<StudentTeacher> recommendations;
         
@@ -46,27 +62,26 @@ public class TeacherRecommendationService {
             recommendations = studentTeacherRepository.findByActiveTrueOrderByCreatedAtDesc();
         }
 
-        return recommendations.stream()
-                .map(rec -> convertToDto(rec, currentUserId))
-                .collect(Collectors.toList());
+        return convertToDtos(recommendations, currentUserId);
     }
 
     /**
      * Obtiene las recomendaciones de un usuario específico
      */
+    @Transactional(readOnly = true)
     public List<TeacherRecommendationDto> getUserRecommendations(String userId) {
         List<StudentTeacher> recommendations = studentTeacherRepository.findByStudentIdAndActiveTrue(userId);
         
-        return recommendations.stream()
-                .map(rec -> convertToDto(rec, userId))
-                .collect(Collectors.toList());
+        return convertToDtos(recommendations, userId);
     }
 
     /**
-     * Crea una nueva recomendación de profesor
+     * Crea una nueva recomendación de profesor a nombre del usuario autenticado
      */
-    public StudentTeacher createRecommendation(String studentId, String teacherName, String subject, 
+    public StudentTeacher createRecommendation(AuthenticatedUser author, String teacherName, String subject, 
                                              String semester, Integer year, String reference) {
+        String studentId = author.getId();
+
         // Buscar estudiante
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Estudiante no encontrado"));
@@ -84,7 +99,7 @@ public class TeacherRecommendationService {
 
         // Crear nueva recomendación directamente
         StudentTeacher recommendation = new StudentTeacher();
-        recommendation.setId(UUID.randomUUID().toString());
+        recommendation.setId(Ids.newId());
         recommendation.setStudent(student);
         recommendation.setTeacherName(teacherName);
         recommendation.setSubject(subject);
@@ -97,10 +112,12 @@ public class TeacherRecommendationService {
     }
 
     /**
-     * Crea una nueva recomendación de profesor con calificación
+     * Crea una nueva recomendación de profesor con calificación a nombre del usuario autenticado
      */
-    public StudentTeacher createRecommendationWithRating(String studentId, String teacherName, String subject, 
+    public StudentTeacher createRecommendationWithRating(AuthenticatedUser author, String teacherName, String subject, 
                                                        String semester, Integer year, String reference, Integer rating) {
+        String studentId = author.getId();
+
         // Validar rating
         if (rating == null || rating < 1 || rating > 5) {
             throw new RuntimeException("La calificación debe estar entre 1 y 5 estrellas");
@@ -123,7 +140,7 @@ public class TeacherRecommendationService {
 
         // Crear nueva recomendación con rating
         StudentTeacher recommendation = new StudentTeacher();
-        recommendation.setId(UUID.randomUUID().toString());
+        recommendation.setId(Ids.newId());
         recommendation.setStudent(student);
         recommendation.setTeacherName(teacherName);
         recommendation.setSubject(subject);
@@ -139,15 +156,15 @@ public class TeacherRecommendationService {
     /**
      * Toggle like en una recomendación
      */
-    public TeacherRecommendationDto toggleLike(String recommendationId, String userId) {
-        return toggleReaction(recommendationId, userId, ReactionType.LIKE);
+    public TeacherRecommendationDto toggleLike(String recommendationId, AuthenticatedUser user) {
+        return toggleReaction(recommendationId, user.getId(), ReactionType.LIKE);
     }
 
     /**
      * Toggle dislike en una recomendación
      */
-    public TeacherRecommendationDto toggleDislike(String recommendationId, String userId) {
-        return toggleReaction(recommendationId, userId, ReactionType.DISLIKE);
+    public TeacherRecommendationDto toggleDislike(String recommendationId, AuthenticatedUser user) {
+        return toggleReaction(recommendationId, user.getId(), ReactionType.DISLIKE);
     }
 
     /**
@@ -158,8 +175,8 @@ public class TeacherRecommendationService {
         StudentTeacher recommendation = studentTeacherRepository.findById(recommendationId)
                 .orElseThrow(() -> new RuntimeException("Recomendación no encontrada"));
 
-        // Verificar que el usuario existe
-        User user = userRepository.findById(userId)
+        // Verificar que el usuario existe (caché de usuarios, sin consulta por clave primaria)
+        userCacheService.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
         // Verificar que el usuario no esté reaccionando a su propia recomendación
@@ -167,29 +184,11 @@ public class TeacherRecommendationService {
             throw new RuntimeException("No puedes reaccionar a tus propias recomendaciones");
         }
 
-        // Buscar reacción existente
-        Optional<TeacherRecommendationReaction> existingReaction = 
-                reactionRepository.findByUserIdAndRecommendationId(userId, recommendationId);
-
-        if (existingReaction.isPresent()) {
-            TeacherRecommendationReaction reaction = existingReaction.get();
-            
-            if (reaction.getReactionType() == newReactionType) {
-                // Usuario ya tiene esta reacción, eliminarla (toggle off)
-                reactionRepository.delete(reaction);
-            } else {
-                // Usuario tiene reacción diferente, cambiarla
-                reaction.setReactionType(newReactionType);
-                reactionRepository.save(reaction);
-            }
-        } else {
-            // Usuario no ha reaccionado, crear nueva reacción
-            TeacherRecommendationReaction newReaction = new TeacherRecommendationReaction();
-            newReaction.setId(UUID.randomUUID().toString());
-            newReaction.setRecommendation(recommendation);
-            newReaction.setUser(user);
-            newReaction.setReactionType(newReactionType);
-            reactionRepository.save(newReaction);
+        // Toggle por llave natural (user_id, recommendation_id), sin leer la reacción antes:
+        // si ya tenía esta reacción un DELETE la quita; si no, un upsert la crea o la cambia
+        if (reactionRepository.deleteByUserIdAndRecommendationIdAndReactionType(userId, recommendationId, newReactionType) == 0) {
+            reactionRepository.upsert(Ids.toBytes(userId), Ids.toBytes(recommendation.getId()),
+                    newReactionType, LocalDateTime.now());
         }
 
         // Retornar la recomendación actualizada con nuevos contadores
@@ -200,18 +199,14 @@ public class TeacherRecommendationService {
      * Elimina una recomendación con validación de permisos
      * Solo el autor de la recomendación o un administrador pueden eliminarla
      */
-    public void deleteRecommendation(String recommendationId, String userId) {
+    public void deleteRecommendation(String recommendationId, AuthenticatedUser user) {
         // Buscar la recomendación
         StudentTeacher recommendation = studentTeacherRepository.findById(recommendationId)
                 .orElseThrow(() -> new RuntimeException("Recomendación no encontrada"));
         
-        // Buscar el usuario que intenta eliminar
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        
-        // Validar permisos: solo el autor o un administrador pueden eliminar
-        boolean isAuthor = recommendation.getStudent().getId().equals(userId);
-        boolean isAdmin = user.getRole() == UserRole.ADMINISTRATION;
+        // Validar permisos con el rol del token: solo el autor o un administrador pueden eliminar
+        boolean isAuthor = recommendation.getStudent().getId().equals(user.getId());
+        boolean isAdmin = user.isAdmin();
         
         if (!isAuthor && !isAdmin) {
             throw new RuntimeException("No tienes permisos para eliminar esta recomendación");
@@ -227,6 +222,7 @@ public class TeacherRecommendationService {
     /**
      * Obtiene estadísticas de recomendaciones para un usuario
      */
+    @Transactional(readOnly = true)
     public RecommendationStatsResponse getRecommendationStats(String userId) {
         // Contar recomendaciones del usuario
         int myRecommendationsCount = (int) studentTeacherRepository.countByStudentIdAndActiveTrue(userId);
@@ -251,58 +247,91 @@ public class TeacherRecommendationService {
     /**
      * Obtiene todas las materias que tienen recomendaciones
      */
+    @Transactional(readOnly = true)
     public List<String> getSubjectsWithRecommendations() {
         return studentTeacherRepository.findDistinctSubjectsByActiveTrue();
     }
 
+    /**
+     * Obtiene los profesores que los mismos estudiantes calificaron bien
+     * ("Estudiantes también recomendaron") a partir de una recomendación
+     */
+    @Transactional(readOnly = true)
+    public List<RelatedTeacherDto> getRelatedTeachers(String recommendationId, int limit) {
+        StudentTeacher recommendation = studentTeacherRepository.findById(recommendationId)
+                .orElseThrow(() -> new RuntimeException("Recomendación no encontrada"));
+
+        return cooccurrenceService.getRelatedTeachers(recommendation.getTeacherName(), limit);
+    }
+
     // Métodos eliminados: findOrCreateTeacher y generateEmailFromName
     // Sistema simplificado sin auto-creación de profesores
 
     /**
      * Convierte StudentTeacher a TeacherRecommendationDto con información completa
      */
+    @Transactional(readOnly = true)
     public TeacherRecommendationDto convertToDto(StudentTeacher recommendation, String currentUserId) {
-        TeacherRecommendationDto dto = new TeacherRecommendationDto();
-        
-        // Información básica
-        dto.setId(recommendation.getId());
-        dto.setStudentId(recommendation.getStudent().getId());
-        dto.setStudentName(recommendation.getStudent().getFullName());
-        dto.setTeacherName(recommendation.getTeacherName());
-        dto.setSubject(recommendation.getSubject());
-        dto.setSemester(recommendation.getSemester());
-        dto.setYear(recommendation.getYear());
-        dto.setReference(recommendation.getReference());
-        dto.setRating(recommendation.getRating());
-        dto.setIsActive(recommendation.getIsActive());
-        dto.setCreatedAt(recommendation.getCreatedAt());
-        
-        // Contadores de reacciones
-        dto.setLikeCount(reactionRepository.countByRecommendationIdAndReactionType(recommendation.getId(), ReactionType.LIKE));
-        dto.setDislikeCount(reactionRepository.countByRecommendationIdAndReactionType(recommendation.getId(), ReactionType.DISLIKE));
-        dto.setTotalReactions(reactionRepository.countByRecommendationId(recommendation.getId()));
-        
-        // Estado de reacción del usuario actual
-        if (currentUserId != null) {
-            Optional<TeacherRecommendationReaction> userReaction = 
-                    reactionRepository.findByUserIdAndRecommendationId(currentUserId, recommendation.getId());
-            
-            if (userReaction.isPresent()) {
-                ReactionType reactionType = userReaction.get().getReactionType();
-                dto.setIsLiked(reactionType == ReactionType.LIKE);
-                dto.setIsDisliked(reactionType == ReactionType.DISLIKE);
-                dto.setUserReaction(reactionType.toString());
-            } else {
-                dto.setIsLiked(false);
-                dto.setIsDisliked(false);
-                dto.setUserReaction(null);
+        return convertToDtos(List.of(recommendation), currentUserId).get(0);
+    }
+
+    /**
+     * Convierte una lista de recomendaciones a DTO
+     *
+     * Los contadores y la reacción del usuario actual se leen con dos consultas por
+     * bloque de IN_CHUNK_SIZE recomendaciones (agrupadas por tipo), en lugar de cuatro
+     * consultas por recomendación.
+     */
+    @Transactional(readOnly = true)
+    public List<TeacherRecommendationDto> convertToDtos(List<StudentTeacher> recommendations, String currentUserId) {
+        Map<String, long[]> counts = new HashMap<>();
+        Map<String, ReactionType> userReactions = new HashMap<>();
+        for (int from = 0; from < recommendations.size(); from += IN_CHUNK_SIZE) {
+            List<String> ids = recommendations.subList(from, Math.min(from + IN_CHUNK_SIZE, recommendations.size()))
+                    .stream()
+                    .map(StudentTeacher::getId)
+                    .collect(Collectors.toList());
+            for (Object[] row : reactionRepository.countByRecommendationIdInGroupByType(ids)) {
+                long[] likeDislike = counts.computeIfAbsent((String) row[0], id -> new long[2]);
+                likeDislike[row[1] == ReactionType.LIKE ? 0 : 1] += ((Number) row[2]).longValue();
+            }
+            if (currentUserId != null) {
+                for (Object[] row : reactionRepository.findTypesByUserIdAndRecommendationIdIn(currentUserId, ids)) {
+                    userReactions.put((String) row[0], (ReactionType) row[1]);
+                }
             }
-        } else {
-            dto.setIsLiked(false);
-            dto.setIsDisliked(false);
-            dto.setUserReaction(null);
         }
-        
-        return dto;
+
+        List<TeacherRecommendationDto> dtos = new ArrayList<>(recommendations.size());
+        for (StudentTeacher recommendation : recommendations) {
+            TeacherRecommendationDto dto = new TeacherRecommendationDto();
+
+            // Información básica
+            dto.setId(recommendation.getId());
+            dto.setStudentId(recommendation.getStudent().getId());
+            dto.setStudentName(recommendation.getStudent().getFullName());
+            dto.setTeacherName(recommendation.getTeacherName());
+            dto.setSubject(recommendation.getSubject());
+            dto.setSemester(recommendation.getSemester());
+            dto.setYear(recommendation.getYear());
+            dto.setReference(recommendation.getReference());
+            dto.setRating(recommendation.getRating());
+            dto.setIsActive(recommendation.getIsActive());
+            dto.setCreatedAt(recommendation.getCreatedAt());
+
+            // Contadores de reacciones
+            long[] likeDislike = counts.getOrDefault(recommendation.getId(), new long[2]);
+            dto.setLikeCount(likeDislike[0]);
+            dto.setDislikeCount(likeDislike[1]);
+            dto.setTotalReactions(likeDislike[0] + likeDislike[1]);
+
+            // Estado de reacción del usuario actual
+            ReactionType reactionType = userReactions.get(recommendation.getId());
+            dto.setIsLiked(reactionType == ReactionType.LIKE);
+            dto.setIsDisliked(reactionType == ReactionType.DISLIKE);
+            dto.setUserReaction(reactionType != null ? reactionType.toString() : null);
+            dtos.add(dto);
+        }
+        return dtos;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package com.uniway.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TokenRevocationService - Conjunto en memoria de access tokens revocados
+ *
+ * Los access tokens son de vida corta, por lo que basta con recordar una
+ * revocación durante el tiempo de vida máximo de un token. Cada entrada guarda su
+ * propio vencimiento y una tarea programada purga las vencidas, así el conjunto se
+ * mantiene acotado.
+ *
+ * La consulta se hace en cada request autenticado: son dos búsquedas en mapas
+ * concurrentes sin asignar objetos ni consultar la base de datos.
+ *
+ * Dos tipos de revocación:
+ * - Por token (jti): cierre de sesión del dispositivo actual
+ * - Por usuario: se rechazan todos los tokens emitidos hasta el instante de revocación
+ *   (cierre de sesión global, cambio de contraseña, reutilización de refresh token).
+ *   Se compara en milisegundos (claim iatMs): un login en el mismo segundo que la
+ *   revocación debe recibir un token válido
+ */
+@Service
+public class TokenRevocationService {
+
+    @Value("${jwt.expiration}")
+    private Long accessTokenTtlMs;
+
+    /** jti revocado -> instante (epoch ms) en el que el token expira de todas formas */
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    /** userId -> instante (epoch ms) hasta el cual se rechazan los tokens emitidos */
+    private final Map<String, Long> revokedUsersUntil = new ConcurrentHashMap<>();
+
+    /**
+     * Revoca un access token específico hasta su expiración
+     * @param jti Identificador del token
+     * @param expiresAtMs Expiración del token (epoch ms)
+     */
+    public void revokeToken(String jti, long expiresAtMs) {
+        if (jti != null && expiresAtMs > System.currentTimeMillis()) {
+            revokedTokens.put(jti, expiresAtMs);
+        }
+    }
+
+    /**
+     * Revoca todos los access tokens emitidos a un usuario hasta este momento
+     * @param userId ID del usuario
+     */
+    public void revokeAllForUser(String userId) {
+        revokedUsersUntil.put(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Indica si un access token fue revocado
+     * @param jti Identificador del token (puede ser null en tokens antiguos)
+     * @param userId Sujeto del token
+     * @param issuedAtMs Instante de emisión del token (epoch ms, claim iatMs)
+     * @return true si el token no debe aceptarse
+     */
+    public boolean isRevoked(String jti, String userId, long issuedAtMs) {
+        if (!revokedUsersUntil.isEmpty()) {
+            Long revokedUntil = revokedUsersUntil.get(userId);
+            if (revokedUntil != null && issuedAtMs <= revokedUntil) {
+                return true;
+            }
+        }
+        return jti != null && !revokedTokens.isEmpty() && revokedTokens.containsKey(jti);
+    }
+
+    /**
+     * Purga las revocaciones cuyos tokens ya expiraron por sí mismos
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation-sweep-ms:60000}")
+    public void purgeExpired() {
+        long nowMs = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= nowMs);
+        long oldestLiveIssuedAt = nowMs - accessTokenTtlMs;
+        revokedUsersUntil.values().removeIf(revokedUntil -> revokedUntil < oldestLiveIssuedAt);
+    }
+}
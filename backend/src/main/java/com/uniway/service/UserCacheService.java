@@ -0,0 +1,152 @@
+package com.uniway.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uniway.dto.UserSummary;
+import com.uniway.entity.User;
+import com.uniway.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * UserCacheService - Caché de lectura (read-through) de usuarios por id y por email
+ *
+ * Los servicios que solo necesitan comprobar existencia, estado o rol de un usuario
+ * consultan aquí en lugar de repetir userRepository.findById en cada escritura.
+ *
+ * Características:
+ * - Caffeine (política W-TinyLFU) acotada por tamaño y con expiración por escritura
+ * - Guarda UserSummary inmutables, nunca entidades JPA
+ * - Índice email -> id para resolver búsquedas por email sin duplicar entradas
+ * - Invalidación explícita desde UserService (también después del commit, para que
+ *   una lectura concurrente no vuelva a cachear el valor anterior)
+ * - Métricas de aciertos/fallos expuestas en Micrometer (cache.gets, cache.evictions...)
+ */
+@Service
+public class UserCacheService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${user-cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<String, UserSummary> usersById;
+
+    private Cache<String, String> idsByEmail;
+
+    @PostConstruct
+    void init() {
+        usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.byEmail");
+    }
+
+    /**
+     * Busca un usuario por id, consultando la base de datos solo si no está en caché
+     * @param id ID del usuario
+     * @return Optional con el resumen del usuario
+     */
+    public Optional<UserSummary> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(usersById.get(id, key ->
+                userRepository.findById(key).map(UserSummary::from).orElse(null)));
+    }
+
+    /**
+     * Busca un usuario por email, consultando la base de datos solo si no está en caché
+     * @param email Email del usuario (no distingue mayúsculas)
+     * @return Optional con el resumen del usuario
+     */
+    public Optional<UserSummary> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        String id = idsByEmail.get(email.toLowerCase(Locale.ROOT), key ->
+                userRepository.findByEmail(email).map(user -> {
+                    UserSummary summary = UserSummary.from(user);
+                    usersById.put(summary.getId(), summary);
+                    return summary.getId();
+                }).orElse(null));
+        return id != null ? findById(id) : Optional.empty();
+    }
+
+    /**
+     * Busca un usuario por id exigiendo que exista
+     * @param id ID del usuario
+     * @return Resumen del usuario
+     * @throws RuntimeException si el usuario no existe
+     */
+    public UserSummary getRequired(String id) {
+        return findById(id).orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + id));
+    }
+
+    /**
+     * Resumen de un usuario asociado a otra entidad: se toma de la entidad si ya está
+     * cargada, o de la caché si es una referencia sin inicializar (getReferenceById),
+     * para no disparar su carga perezosa
+     * @param user Usuario o referencia al usuario
+     * @return Resumen del usuario
+     * @throws RuntimeException si la referencia apunta a un usuario inexistente
+     */
+    public UserSummary summaryOf(User user) {
+        return Hibernate.isInitialized(user) ? UserSummary.from(user) : getRequired(user.getId());
+    }
+
+    /**
+     * Invalida las entradas de un usuario. Si hay una transacción activa se invalida
+     * de nuevo después del commit.
+     * @param id ID del usuario
+     * @param email Email del usuario (puede ser null)
+     */
+    public void invalidate(String id, String email) {
+        evict(id, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, email);
+                }
+            });
+        }
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private void evict(String id, String email) {
+        if (id != null) {
+            usersById.invalidate(id);
+        }
+        if (email != null) {
+            idsByEmail.invalidate(email.toLowerCase(Locale.ROOT));
+        }
+    }
+}
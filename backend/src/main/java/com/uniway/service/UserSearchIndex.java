@@ -0,0 +1,292 @@
+package com.uniway.service;
+
+import com.uniway.dto.UserDto;
+import com.uniway.dto.UserSearchResult;
+import com.uniway.entity.User;
+import com.uniway.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * UserSearchIndex - Índice en memoria para buscar usuarios por prefijo
+ *
+ * Cada usuario aporta varios términos normalizados (minúsculas, sin tildes): las
+ * palabras del nombre, el email completo, la parte local del email y el número de
+ * estudiante. Los términos se guardan ordenados como "término\0id" en un
+ * ConcurrentSkipListSet, así que buscar un prefijo es recorrer un rango contiguo del
+ * conjunto (O(log n + resultados)) en lugar de un LIKE '%q%' sobre la tabla.
+ *
+ * El índice se construye al iniciar, UserService/AuthService lo actualizan en cada
+ * alta, cambio o baja, y una reconstrucción periódica (user-search.rebuild-interval-ms)
+ * corrige cualquier desviación, por ejemplo cambios hechos desde otra instancia.
+ */
+@Service
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final char SEPARATOR = '\u0000';
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Usuarios leídos por consulta al reconstruir */
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user-search.min-query-length:2}")
+    private int minQueryLength;
+
+    @Value("${user-search.max-scan:10000}")
+    private int maxScan;
+
+    /** "término\0id", ordenado */
+    private final ConcurrentSkipListSet<String> terms = new ConcurrentSkipListSet<>();
+
+    /** id -> resultado y términos indexados (para quitarlos al actualizar o eliminar) */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("users.search.indexed", entries, Map::size)
+                .description("Usuarios en el índice de búsqueda")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Construye el índice al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reconstrucción periódica a partir de la tabla users
+     */
+    @Scheduled(initialDelayString = "${user-search.rebuild-interval-ms:1800000}",
+               fixedDelayString = "${user-search.rebuild-interval-ms:1800000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Recorre la tabla por cursor en bloques y actualiza el índice en el lugar: las
+     * búsquedas siguen funcionando mientras tanto y los usuarios que ya no existen
+     * se eliminan al final
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Set<String> stale = new HashSet<>(entries.keySet());
+        Pageable chunk = PageRequest.of(0, REBUILD_CHUNK_SIZE);
+        List<UserDto> page = userRepository.findUserPage(null, null, null, chunk);
+        while (!page.isEmpty()) {
+            for (UserDto user : page) {
+                put(UserSearchResult.from(user));
+                stale.remove(user.getId());
+            }
+            if (page.size() < REBUILD_CHUNK_SIZE) {
+                break;
+            }
+            UserDto last = page.get(page.size() - 1);
+            page = userRepository.findUserPageAfter(null, null, null, last.getCreatedAt(), last.getId(), chunk);
+        }
+        stale.forEach(this::removeNow);
+        log.info("Índice de búsqueda de usuarios: {} usuarios en {} ms",
+                entries.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Agrega o actualiza un usuario en el índice (después del commit si hay transacción)
+     * @param user Usuario guardado
+     */
+    public void index(User user) {
+        UserSearchResult snapshot = new UserSearchResult(user.getId(), user.getEmail(), user.getRole(),
+            user.getFullName(), user.getStudentId(), user.getProgram(), user.getProfileImageUrl(),
+            Boolean.TRUE.equals(user.getIsActive()));
+        afterCommit(() -> put(snapshot));
+    }
+
+    /**
+     * Elimina un usuario del índice (después del commit si hay transacción)
+     * @param id ID del usuario
+     */
+    public void remove(String id) {
+        afterCommit(() -> removeNow(id));
+    }
+
+    /**
+     * Busca usuarios cuyos términos empiecen por cada una de las palabras de la consulta
+     *
+     * La palabra más larga (la más selectiva) recorre su rango del índice y el resto se
+     * comprueba sobre los términos del candidato; el recorrido se limita a
+     * user-search.max-scan entradas.
+     *
+     * @param query Texto libre (nombre, email o número de estudiante, completo o parcial)
+     * @param limit Máximo de resultados
+     * @return Usuarios encontrados
+     * @throws RuntimeException si la consulta es demasiado corta
+     */
+    public List<UserSearchResult> search(String query, int limit) {
+        String[] words = query == null ? new String[0] : fold(query).trim().split("\\s+");
+        List<String> queryTerms = new ArrayList<>();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                queryTerms.add(word);
+            }
+        }
+        if (queryTerms.isEmpty() || String.join("", queryTerms).length() < minQueryLength) {
+            throw new RuntimeException("La búsqueda debe tener al menos " + minQueryLength + " caracteres");
+        }
+        queryTerms.sort((a, b) -> Integer.compare(b.length(), a.length()));
+        String driver = queryTerms.get(0);
+        List<String> others = queryTerms.subList(1, queryTerms.size());
+
+        Map<String, UserSearchResult> results = new LinkedHashMap<>();
+        Set<String> checked = new HashSet<>();
+        int scanned = 0;
+        for (String term : terms.subSet(driver, true, driver + Character.MAX_VALUE, false)) {
+            if (++scanned > maxScan || results.size() >= limit) {
+                break;
+            }
+            String id = term.substring(term.indexOf(SEPARATOR) + 1);
+            if (!checked.add(id)) {
+                continue;
+            }
+            Entry entry = entries.get(id);
+            if (entry != null && matchesAll(entry, others)) {
+                results.put(id, entry.result);
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void removeNow(String id) {
+        entries.computeIfPresent(id, (key, current) -> {
+            for (String term : current.terms) {
+                terms.remove(term + SEPARATOR + key);
+            }
+            return null;
+        });
+    }
+
+    private void put(UserSearchResult result) {
+        String[] newTerms = termsOf(result);
+        entries.compute(result.getId(), (id, current) -> {
+            if (current != null) {
+                for (String term : current.terms) {
+                    terms.remove(term + SEPARATOR + id);
+                }
+            }
+            for (String term : newTerms) {
+                terms.add(term + SEPARATOR + id);
+            }
+            return new Entry(result, newTerms);
+        });
+    }
+
+    private static boolean matchesAll(Entry entry, List<String> queryTerms) {
+        for (String queryTerm : queryTerms) {
+            boolean found = false;
+            for (String term : entry.terms) {
+                if (term.startsWith(queryTerm)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Términos indexados de un usuario, sin duplicados
+     */
+    private static String[] termsOf(UserSearchResult user) {
+        Set<String> result = new LinkedHashSet<>();
+        if (user.getFullName() != null) {
+            result.addAll(Arrays.asList(NAME_SEPARATORS.split(fold(user.getFullName()))));
+        }
+        if (user.getEmail() != null) {
+            String email = fold(user.getEmail());
+            result.add(email);
+            int at = email.indexOf('@');
+            if (at > 0) {
+                result.add(email.substring(0, at));
+            }
+        }
+        if (user.getStudentId() != null) {
+            result.add(fold(user.getStudentId()));
+        }
+        result.removeIf(String::isEmpty);
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * Minúsculas y sin tildes: "Pérez" -> "perez"
+     */
+    private static String fold(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        final UserSearchResult result;
+        final String[] terms;
+
+        Entry(UserSearchResult result, String[] terms) {
+            this.result = result;
+            this.terms = terms;
+        }
+    }
+}
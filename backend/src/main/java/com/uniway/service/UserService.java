@@ -1,16 +1,23 @@
 package com.uniway.service;
 
+import com.uniway.dto.CursorPage;
+import com.uniway.dto.UserDto;
 import com.uniway.entity.User;
 import com.uniway.entity.UserRole;
+import com.uniway.id.Ids;
 import com.uniway.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @Transactional
@@ -22,10 +29,16 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UserCacheService userCacheService;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
     public User createUser(User user) {
         // Generar ID único si no existe
         if (user.getId() == null || user.getId().isEmpty()) {
-            user.setId(UUID.randomUUID().toString());
+            user.setId(Ids.newId());
         }
         
         // Encriptar contraseña
@@ -42,7 +55,9 @@ public class UserService {
             user.setIsActive(true);
         }
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userSearchIndex.index(saved);
+        return saved;
     }
     
     public Optional<User> findById(String id) {
@@ -61,16 +76,35 @@ public class UserService {
         return userRepository.findActiveUserByEmail(email);
     }
     
+    @Transactional(readOnly = true)
     public List<User> findActiveUsersByRole(UserRole role) {
         return userRepository.findActiveUsersByRole(role);
     }
     
+    /**
+     * Guarda los cambios de un usuario e invalida sus entradas en caché. El email
+     * anterior se lee de la base de datos antes de guardar: si cambió, también se
+     * invalida para que no siga resolviendo a este usuario hasta que expire.
+     * @param user Usuario modificado
+     * @return Usuario guardado
+     */
     public User updateUser(User user) {
-        return userRepository.save(user);
+        String previousEmail = user.getId() != null
+                ? userRepository.findEmailById(user.getId()).orElse(null)
+                : null;
+        User saved = userRepository.save(user);
+        userCacheService.invalidate(saved.getId(), saved.getEmail());
+        if (previousEmail != null && !previousEmail.equalsIgnoreCase(saved.getEmail())) {
+            userCacheService.invalidate(saved.getId(), previousEmail);
+        }
+        userSearchIndex.index(saved);
+        return saved;
     }
     
     public void deleteUser(String id) {
+        userRepository.findById(id).ifPresent(user -> userCacheService.invalidate(user.getId(), user.getEmail()));
         userRepository.deleteById(id);
+        userSearchIndex.remove(id);
     }
     
     public boolean existsByEmail(String email) {
@@ -81,15 +115,50 @@ public class UserService {
         return userRepository.existsByStudentId(studentId);
     }
     
+    @Transactional(readOnly = true)
     public List<User> findAllUsers() {
         return userRepository.findAll();
     }
     
+    /**
+     * Página de usuarios ordenada por fecha de creación (más recientes primero),
+     * proyectada directamente a UserDto sin cargar entidades
+     * 
+     * @param role Filtro por rol (null = todos)
+     * @param program Filtro por programa (null = todos)
+     * @param active Filtro por estado (null = todos)
+     * @param cursor Cursor devuelto por la página anterior (null = primera página)
+     * @param limit Tamaño de página
+     * @return Página con el cursor de la siguiente
+     * @throws RuntimeException si el cursor no es válido
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> findUserPage(UserRole role, String program, Boolean active, String cursor, int limit) {
+        // Se pide un elemento extra para saber si hay página siguiente sin COUNT(*)
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<UserDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = userRepository.findUserPage(role, program, active, pageable);
+        } else {
+            UserCursor after = UserCursor.decode(cursor);
+            rows = userRepository.findUserPageAfter(role, program, active, after.createdAt, after.id, pageable);
+        }
+        
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<UserDto> items = rows.subList(0, limit);
+        UserDto last = items.get(limit - 1);
+        return new CursorPage<>(items, new UserCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+    
     public User deactivateUser(String id) {
         Optional<User> userOpt = userRepository.findById(id);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             user.setIsActive(false);
+            userCacheService.invalidate(user.getId(), user.getEmail());
+            userSearchIndex.index(user);
             return userRepository.save(user);
         }
         throw new RuntimeException("Usuario no encontrado con ID: " + id);
@@ -100,6 +169,8 @@ public class UserService {
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             user.setIsActive(true);
+            userCacheService.invalidate(user.getId(), user.getEmail());
+            userSearchIndex.index(user);
             return userRepository.save(user);
         }
         throw new RuntimeException("Usuario no encontrado con ID: " + id);
@@ -121,4 +192,33 @@ public class UserService {
             user.getUpdatedAt()
         );
     }
+    
+    /**
+     * Posición en el listado de usuarios: (createdAt, id) del último elemento entregado,
+     * codificada en Base64 URL-safe
+     */
+    private static final class UserCursor {
+        private final LocalDateTime createdAt;
+        private final String id;
+        
+        UserCursor(LocalDateTime createdAt, String id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+        
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static UserCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new UserCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Cursor inválido");
+            }
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package com.uniway.service;
+
+import java.time.Duration;
+
+/**
+ * VerificationCodeStore - Almacenamiento de códigos de verificación de email
+ *
+ * Implementaciones (propiedad "verification-codes.store"):
+ * - memory (por defecto): mapa en memoria con expiración, sin acceso a base de datos.
+ *   Los códigos viven en la instancia que los generó, así que con varias instancias
+ *   detrás de un balanceador se debe usar "jpa" o afinidad de sesión.
+ * - jpa: tabla verification_codes (comportamiento anterior)
+ */
+public interface VerificationCodeStore {
+
+    /**
+     * Guarda un código nuevo para un email
+     * @param email Email destinatario
+     * @param code Código generado
+     * @param ttl Tiempo de validez
+     */
+    void save(String email, String code, Duration ttl);
+
+    /**
+     * Verifica un código y lo marca como usado en una sola operación atómica
+     * @param email Email del usuario
+     * @param code Código ingresado
+     * @return true si el código existía, no estaba usado y no había expirado
+     */
+    boolean consume(String email, String code);
+
+    /**
+     * Elimina los códigos expirados
+     * @return Número de códigos eliminados
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,334 @@
+-- UniWay - Esquema inicial (versión 1)
+--
+-- Estructura de database/uniway_db.sql sin datos: tablas, índices, llaves
+-- foráneas, vistas, disparadores y procedimientos tal como estaban antes de las
+-- migraciones (ids varchar(36)).
+--
+-- En una base creada con database/uniway_db.sql este script NO se ejecuta:
+-- spring.flyway.baseline-on-migrate registra la versión 1 como aplicada y Flyway
+-- continúa desde V2. En una base vacía crea el esquema completo.
+
+-- --------------------------------------------------------
+-- Tablas
+-- --------------------------------------------------------
+
+CREATE TABLE `users` (
+  `id` varchar(36) NOT NULL,
+  `email` varchar(255) NOT NULL,
+  `password_hash` varchar(255) NOT NULL,
+  `role` enum('STUDENT','ADMINISTRATION') NOT NULL COMMENT 'Rol del usuario: STUDENT o ADMINISTRATION',
+  `full_name` varchar(255) NOT NULL,
+  `student_id` varchar(50) DEFAULT NULL,
+  `program` varchar(255) DEFAULT NULL,
+  `profile_image_url` varchar(500) DEFAULT NULL,
+  `phone` varchar(20) DEFAULT NULL,
+  `address` text DEFAULT NULL,
+  `is_active` tinyint(1) DEFAULT 1,
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  `updated_at` timestamp NOT NULL DEFAULT current_timestamp() ON UPDATE current_timestamp(),
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `email` (`email`),
+  UNIQUE KEY `student_id` (`student_id`),
+  KEY `idx_users_created_id` (`created_at`,`id`),
+  KEY `idx_users_program_active` (`program`,`is_active`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+CREATE TABLE `posts` (
+  `id` varchar(36) NOT NULL,
+  `author_id` varchar(36) NOT NULL,
+  `content` text NOT NULL,
+  `post_type` enum('GENERAL','NEWS','ALERT','ANNOUNCEMENT') DEFAULT 'GENERAL',
+  `priority` enum('LOW','NORMAL','HIGH','URGENT') DEFAULT 'NORMAL',
+  `is_pinned` tinyint(1) DEFAULT 0,
+  `is_alert` tinyint(1) DEFAULT 0,
+  `is_approved` tinyint(1) DEFAULT 1,
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  `updated_at` timestamp NOT NULL DEFAULT current_timestamp() ON UPDATE current_timestamp(),
+  `comment_count` int(11) DEFAULT 0,
+  `dislike_count` int(11) DEFAULT NULL,
+  `like_count` int(11) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_author_id` (`author_id`),
+  KEY `idx_post_type` (`post_type`),
+  KEY `idx_priority` (`priority`),
+  KEY `idx_created_at` (`created_at`),
+  KEY `idx_is_pinned` (`is_pinned`),
+  KEY `idx_posts_approved_created` (`is_approved`,`created_at`),
+  KEY `idx_posts_pinned_priority` (`is_pinned`,`priority`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+CREATE TABLE `comments` (
+  `id` varchar(36) NOT NULL,
+  `post_id` varchar(36) NOT NULL,
+  `author_id` varchar(36) NOT NULL,
+  `content` text NOT NULL,
+  `is_approved` tinyint(1) DEFAULT 1,
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  `updated_at` timestamp NOT NULL DEFAULT current_timestamp() ON UPDATE current_timestamp(),
+  PRIMARY KEY (`id`),
+  KEY `idx_post_id` (`post_id`),
+  KEY `idx_author_id` (`author_id`),
+  KEY `idx_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+CREATE TABLE `reactions` (
+  `id` varchar(36) NOT NULL,
+  `post_id` varchar(36) NOT NULL,
+  `user_id` varchar(36) NOT NULL,
+  `reaction_type` enum('LIKE','DISLIKE') NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  `type` enum('LIKE','DISLIKE') NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `unique_user_post_reaction` (`user_id`,`post_id`),
+  UNIQUE KEY `UKaeq6cssia730m2nihyav05ui1` (`user_id`,`post_id`),
+  KEY `idx_post_id` (`post_id`),
+  KEY `idx_user_id` (`user_id`),
+  KEY `idx_reactions_post_type` (`post_id`,`reaction_type`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+CREATE TABLE `moderation_logs` (
+  `id` varchar(36) NOT NULL,
+  `moderator_id` varchar(36) NOT NULL,
+  `target_type` enum('POST','COMMENT') NOT NULL,
+  `target_id` varchar(36) NOT NULL,
+  `action` enum('APPROVE','REJECT','DELETE','PIN','UNPIN') NOT NULL,
+  `reason` text DEFAULT NULL,
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  PRIMARY KEY (`id`),
+  KEY `idx_moderator_id` (`moderator_id`),
+  KEY `idx_target_type_id` (`target_type`,`target_id`),
+  KEY `idx_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+CREATE TABLE `student_teachers` (
+  `id` varchar(36) NOT NULL,
+  `student_id` varchar(36) NOT NULL,
+  `teacher_name` varchar(255) NOT NULL COMMENT 'Nombre completo del profesor',
+  `subject` varchar(255) NOT NULL,
+  `semester` varchar(50) DEFAULT NULL,
+  `year` int(11) DEFAULT NULL,
+  `reference` TEXT COMMENT 'Referencia y recomendación del estudiante sobre el profesor',
+  `rating` int(11) DEFAULT NULL COMMENT 'Calificación del profesor de 1 a 5 estrellas',
+  `is_active` tinyint(1) DEFAULT 1,
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  `updated_at` timestamp NOT NULL DEFAULT current_timestamp() ON UPDATE current_timestamp(),
+  PRIMARY KEY (`id`),
+  KEY `idx_student_id` (`student_id`),
+  KEY `idx_teacher_name` (`teacher_name`),
+  KEY `idx_subject` (`subject`),
+  KEY `idx_rating` (`rating`),
+  KEY `idx_is_active` (`is_active`),
+  KEY `idx_student_teachers_active` (`is_active`, `created_at`),
+  KEY `idx_student_teachers_subject` (`subject`, `is_active`),
+  KEY `idx_teacher_name_subject` (`teacher_name`, `subject`),
+  KEY `idx_rating_active` (`rating`, `is_active`),
+  UNIQUE KEY `uk_student_teacher_subject_semester` (`student_id`, `teacher_name`(50), `subject`(50), `semester`),
+  CONSTRAINT `chk_rating_range` CHECK (`rating` IS NULL OR (`rating` >= 1 AND `rating` <= 5))
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+CREATE TABLE `teacher_recommendation_reactions` (
+  `id` varchar(36) NOT NULL,
+  `recommendation_id` varchar(36) NOT NULL COMMENT 'ID de la recomendación (student_teacher)',
+  `user_id` varchar(36) NOT NULL COMMENT 'ID del usuario que reacciona',
+  `reaction_type` enum('LIKE','DISLIKE') NOT NULL COMMENT 'Tipo de reacción',
+  `created_at` timestamp NOT NULL DEFAULT current_timestamp(),
+  `updated_at` timestamp NOT NULL DEFAULT current_timestamp() ON UPDATE current_timestamp(),
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `unique_user_recommendation` (`user_id`, `recommendation_id`),
+  KEY `idx_recommendation_id` (`recommendation_id`),
+  KEY `idx_user_id` (`user_id`),
+  KEY `idx_reaction_type` (`reaction_type`),
+  KEY `idx_created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci
+COMMENT='Reacciones (likes/dislikes) a recomendaciones de profesores';
+
+CREATE TABLE `verification_codes` (
+  `id` varchar(36) NOT NULL,
+  `code` varchar(6) NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `email` varchar(255) NOT NULL,
+  `expires_at` datetime(6) NOT NULL,
+  `is_used` bit(1) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_verification_codes_email_expires` (`email`,`expires_at`),
+  KEY `idx_verification_codes_expires` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+CREATE TABLE `refresh_tokens` (
+  `id` varchar(36) NOT NULL,
+  `token_hash` binary(32) NOT NULL COMMENT 'SHA-256 del token entregado al cliente',
+  `user_id` varchar(36) NOT NULL,
+  `family_id` varchar(36) NOT NULL COMMENT 'Familia de rotación (un inicio de sesión)',
+  `expires_at` datetime(6) NOT NULL,
+  `is_revoked` bit(1) NOT NULL DEFAULT b'0',
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_refresh_tokens_token_hash` (`token_hash`),
+  KEY `idx_refresh_tokens_user_id` (`user_id`),
+  KEY `idx_refresh_tokens_family_id` (`family_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+CREATE TABLE `email_outbox` (
+  `id` varchar(36) NOT NULL,
+  `recipient` varchar(255) NOT NULL,
+  `subject` varchar(255) NOT NULL,
+  `body` text NOT NULL,
+  `body_html` text DEFAULT NULL,
+  `status` varchar(16) NOT NULL COMMENT 'PENDING, SENDING, SENT o FAILED',
+  `attempts` int(11) NOT NULL DEFAULT 0,
+  `next_attempt_at` datetime(6) NOT NULL,
+  `locked_by` varchar(36) DEFAULT NULL,
+  `locked_until` datetime(6) DEFAULT NULL,
+  `last_error` varchar(500) DEFAULT NULL,
+  `sent_at` datetime(6) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_email_outbox_status_next` (`status`,`next_attempt_at`),
+  KEY `idx_email_outbox_locked_by` (`locked_by`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- --------------------------------------------------------
+-- Llaves foráneas
+-- --------------------------------------------------------
+
+ALTER TABLE `comments`
+  ADD CONSTRAINT `comments_ibfk_1` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE,
+  ADD CONSTRAINT `comments_ibfk_2` FOREIGN KEY (`author_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `posts`
+  ADD CONSTRAINT `posts_ibfk_1` FOREIGN KEY (`author_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `reactions`
+  ADD CONSTRAINT `reactions_ibfk_1` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE,
+  ADD CONSTRAINT `reactions_ibfk_2` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `moderation_logs`
+  ADD CONSTRAINT `moderation_logs_ibfk_1` FOREIGN KEY (`moderator_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `student_teachers`
+  ADD CONSTRAINT `student_teachers_ibfk_1` FOREIGN KEY (`student_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `teacher_recommendation_reactions`
+  ADD CONSTRAINT `teacher_recommendation_reactions_ibfk_1` FOREIGN KEY (`recommendation_id`) REFERENCES `student_teachers` (`id`) ON DELETE CASCADE,
+  ADD CONSTRAINT `teacher_recommendation_reactions_ibfk_2` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+-- --------------------------------------------------------
+-- Vistas
+-- --------------------------------------------------------
+
+CREATE VIEW `post_with_author` AS
+SELECT
+    p.id, p.author_id, p.content, p.post_type, p.priority, p.is_pinned, p.is_alert,
+    p.is_approved, p.created_at, p.updated_at,
+    u.full_name AS author_name,
+    u.role AS author_role,
+    u.profile_image_url AS author_image,
+    COUNT(DISTINCT r.id) AS like_count,
+    COUNT(DISTINCT CASE WHEN r.reaction_type = 'DISLIKE' THEN r.id END) AS dislike_count,
+    COUNT(DISTINCT c.id) AS comment_count
+FROM posts p
+JOIN users u ON p.author_id = u.id
+LEFT JOIN reactions r ON p.id = r.post_id AND r.reaction_type = 'LIKE'
+LEFT JOIN comments c ON p.id = c.post_id AND c.is_approved = 1
+WHERE p.is_approved = 1
+GROUP BY p.id;
+
+CREATE VIEW `teacher_recommendations_with_reactions` AS
+SELECT
+    st.id, st.student_id, st.teacher_name, st.subject, st.semester, st.year,
+    st.reference, st.rating, st.is_active, st.created_at, st.updated_at,
+    u.full_name AS student_name,
+    u.email AS student_email,
+    u.role AS student_role,
+    COUNT(DISTINCT CASE WHEN trr.reaction_type = 'LIKE' THEN trr.id END) AS like_count,
+    COUNT(DISTINCT CASE WHEN trr.reaction_type = 'DISLIKE' THEN trr.id END) AS dislike_count,
+    COUNT(DISTINCT trr.id) AS total_reactions
+FROM student_teachers st
+JOIN users u ON st.student_id = u.id
+LEFT JOIN teacher_recommendation_reactions trr ON st.id = trr.recommendation_id
+WHERE st.is_active = TRUE
+GROUP BY st.id;
+
+-- --------------------------------------------------------
+-- Disparadores y procedimientos
+-- --------------------------------------------------------
+
+DELIMITER $$
+
+CREATE TRIGGER `update_post_comment_count` AFTER INSERT ON `comments` FOR EACH ROW
+BEGIN
+    UPDATE posts SET updated_at = CURRENT_TIMESTAMP WHERE id = NEW.post_id;
+END$$
+
+CREATE TRIGGER `update_post_like_count` AFTER INSERT ON `reactions` FOR EACH ROW
+BEGIN
+    UPDATE posts SET updated_at = CURRENT_TIMESTAMP WHERE id = NEW.post_id;
+END$$
+
+CREATE TRIGGER `update_recommendation_on_reaction_insert` AFTER INSERT ON `teacher_recommendation_reactions` FOR EACH ROW
+BEGIN
+    UPDATE student_teachers SET updated_at = CURRENT_TIMESTAMP WHERE id = NEW.recommendation_id;
+END$$
+
+CREATE TRIGGER `update_recommendation_on_reaction_delete` AFTER DELETE ON `teacher_recommendation_reactions` FOR EACH ROW
+BEGIN
+    UPDATE student_teachers SET updated_at = CURRENT_TIMESTAMP WHERE id = OLD.recommendation_id;
+END$$
+
+CREATE TRIGGER `update_recommendation_on_reaction_update` AFTER UPDATE ON `teacher_recommendation_reactions` FOR EACH ROW
+BEGIN
+    UPDATE student_teachers SET updated_at = CURRENT_TIMESTAMP WHERE id = NEW.recommendation_id;
+END$$
+
+CREATE PROCEDURE `GetPostComments` (IN `post_id_param` VARCHAR(36))
+BEGIN
+    SELECT c.*, u.full_name as author_name, u.role as author_role
+    FROM comments c
+    JOIN users u ON c.author_id = u.id
+    WHERE c.post_id = post_id_param AND c.is_approved = TRUE
+    ORDER BY c.created_at ASC;
+END$$
+
+CREATE PROCEDURE `GetPostsByType` (IN `post_type_param` VARCHAR(20))
+BEGIN
+    SELECT * FROM post_with_author
+    WHERE post_type = post_type_param
+    ORDER BY is_pinned DESC, created_at DESC;
+END$$
+
+CREATE PROCEDURE `GetUserPosts` (IN `user_id_param` VARCHAR(36))
+BEGIN
+    SELECT * FROM post_with_author
+    WHERE author_id = user_id_param
+    ORDER BY created_at DESC;
+END$$
+
+CREATE PROCEDURE `GetRecommendationsWithUserReactions` (IN `user_id_param` VARCHAR(36))
+BEGIN
+    SELECT tr.*, ur.reaction_type AS user_reaction
+    FROM teacher_recommendations_with_reactions tr
+    LEFT JOIN teacher_recommendation_reactions ur ON tr.id = ur.recommendation_id AND ur.user_id = user_id_param
+    ORDER BY tr.created_at DESC;
+END$$
+
+CREATE PROCEDURE `GetUserRecommendations` (IN `user_id_param` VARCHAR(36))
+BEGIN
+    SELECT * FROM teacher_recommendations_with_reactions
+    WHERE student_id = user_id_param
+    ORDER BY created_at DESC;
+END$$
+
+CREATE PROCEDURE `GetRecommendationStats` (IN `user_id_param` VARCHAR(36))
+BEGIN
+    SELECT
+        COUNT(DISTINCT st.id) AS my_recommendations_count,
+        SUM(CASE WHEN trr.reaction_type = 'LIKE' THEN 1 ELSE 0 END) AS my_total_likes_received,
+        SUM(CASE WHEN trr.reaction_type = 'DISLIKE' THEN 1 ELSE 0 END) AS my_total_dislikes_received,
+        (SELECT COUNT(*) FROM student_teachers WHERE is_active = TRUE) AS total_recommendations_count,
+        (SELECT COUNT(*) FROM teacher_recommendation_reactions) AS total_reactions_count
+    FROM student_teachers st
+    LEFT JOIN teacher_recommendation_reactions trr ON st.id = trr.recommendation_id
+    WHERE st.student_id = user_id_param AND st.is_active = TRUE;
+END$$
+
+DELIMITER ;
@@ -0,0 +1,247 @@
+-- UniWay - Migración de ids varchar(36) a BINARY(16) (versión 2)
+--
+-- Los ids pasan de UUID aleatorio en texto (36 caracteres utf8mb4) a 16 bytes.
+-- Los ids nuevos los genera la aplicación como UUIDv7 (ordenados por tiempo, ver
+-- com.uniway.id.Ids), así que las inserciones caen al final del índice clustered.
+-- Los ids existentes conservan su valor: UNHEX(REPLACE(id, '-', '')) es la
+-- conversión inversa de la que hace la aplicación al leerlos.
+--
+-- Flyway la aplica al arrancar la aplicación (spring.flyway); los servidores
+-- que atienden tráfico deben estar detenidos mientras corre.
+--
+-- Compatible con MySQL 8 y MariaDB 10.4+. Cada tabla se reescribe una vez por
+-- cambio de tipo: en tablas grandes conviene hacerlo en una ventana de mantenimiento.
+--
+-- Comprobación previa (debe devolver 0 filas; un id que no sea UUID haría fallar
+-- el UPDATE por NOT NULL):
+--   SELECT 'users', id FROM users WHERE id NOT REGEXP '^[0-9a-fA-F]{8}-([0-9a-fA-F]{4}-){3}[0-9a-fA-F]{12}$'
+--   UNION ALL SELECT 'posts', id FROM posts WHERE id NOT REGEXP '^[0-9a-fA-F]{8}-([0-9a-fA-F]{4}-){3}[0-9a-fA-F]{12}$';
+--   (igual para el resto de tablas de abajo)
+--
+-- Si Hibernate creó llaves foráneas con otro nombre (FK...), eliminarlas también:
+--   SELECT TABLE_NAME, CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS
+--   WHERE CONSTRAINT_SCHEMA = 'uniway_db';
+
+SET @OLD_FOREIGN_KEY_CHECKS = @@FOREIGN_KEY_CHECKS;
+SET FOREIGN_KEY_CHECKS = 0;
+
+-- --------------------------------------------------------
+-- 1. Llaves foráneas
+-- --------------------------------------------------------
+
+ALTER TABLE `comments`
+  DROP FOREIGN KEY `comments_ibfk_1`,
+  DROP FOREIGN KEY `comments_ibfk_2`;
+
+ALTER TABLE `posts`
+  DROP FOREIGN KEY `posts_ibfk_1`;
+
+ALTER TABLE `reactions`
+  DROP FOREIGN KEY `reactions_ibfk_1`,
+  DROP FOREIGN KEY `reactions_ibfk_2`;
+
+ALTER TABLE `moderation_logs`
+  DROP FOREIGN KEY `moderation_logs_ibfk_1`;
+
+ALTER TABLE `student_teachers`
+  DROP FOREIGN KEY `student_teachers_ibfk_1`;
+
+ALTER TABLE `teacher_recommendation_reactions`
+  DROP FOREIGN KEY `teacher_recommendation_reactions_ibfk_1`,
+  DROP FOREIGN KEY `teacher_recommendation_reactions_ibfk_2`;
+
+-- --------------------------------------------------------
+-- 2. Conversión: texto -> VARBINARY(36) -> 16 bytes -> BINARY(16)
+-- --------------------------------------------------------
+
+ALTER TABLE `users`
+  MODIFY `id` varbinary(36) NOT NULL;
+UPDATE `users` SET `id` = UNHEX(REPLACE(`id`, '-', ''));
+ALTER TABLE `users`
+  MODIFY `id` binary(16) NOT NULL;
+
+ALTER TABLE `posts`
+  MODIFY `id` varbinary(36) NOT NULL,
+  MODIFY `author_id` varbinary(36) NOT NULL;
+UPDATE `posts` SET
+  `id` = UNHEX(REPLACE(`id`, '-', '')),
+  `author_id` = UNHEX(REPLACE(`author_id`, '-', ''));
+ALTER TABLE `posts`
+  MODIFY `id` binary(16) NOT NULL,
+  MODIFY `author_id` binary(16) NOT NULL;
+
+ALTER TABLE `comments`
+  MODIFY `id` varbinary(36) NOT NULL,
+  MODIFY `post_id` varbinary(36) NOT NULL,
+  MODIFY `author_id` varbinary(36) NOT NULL;
+UPDATE `comments` SET
+  `id` = UNHEX(REPLACE(`id`, '-', '')),
+  `post_id` = UNHEX(REPLACE(`post_id`, '-', '')),
+  `author_id` = UNHEX(REPLACE(`author_id`, '-', ''));
+ALTER TABLE `comments`
+  MODIFY `id` binary(16) NOT NULL,
+  MODIFY `post_id` binary(16) NOT NULL,
+  MODIFY `author_id` binary(16) NOT NULL;
+
+ALTER TABLE `reactions`
+  MODIFY `id` varbinary(36) NOT NULL,
+  MODIFY `post_id` varbinary(36) NOT NULL,
+  MODIFY `user_id` varbinary(36) NOT NULL;
+UPDATE `reactions` SET
+  `id` = UNHEX(REPLACE(`id`, '-', '')),
+  `post_id` = UNHEX(REPLACE(`post_id`, '-', '')),
+  `user_id` = UNHEX(REPLACE(`user_id`, '-', ''));
+ALTER TABLE `reactions`
+  MODIFY `id` binary(16) NOT NULL,
+  MODIFY `post_id` binary(16) NOT NULL,
+  MODIFY `user_id` binary(16) NOT NULL;
+
+ALTER TABLE `moderation_logs`
+  MODIFY `id` varbinary(36) NOT NULL,
+  MODIFY `moderator_id` varbinary(36) NOT NULL,
+  MODIFY `target_id` varbinary(36) NOT NULL;
+UPDATE `moderation_logs` SET
+  `id` = UNHEX(REPLACE(`id`, '-', '')),
+  `moderator_id` = UNHEX(REPLACE(`moderator_id`, '-', '')),
+  `target_id` = UNHEX(REPLACE(`target_id`, '-', ''));
+ALTER TABLE `moderation_logs`
+  MODIFY `id` binary(16) NOT NULL,
+  MODIFY `moderator_id` binary(16) NOT NULL,
+  MODIFY `target_id` binary(16) NOT NULL;
+
+ALTER TABLE `student_teachers`
+  MODIFY `id` varbinary(36) NOT NULL,
+  MODIFY `student_id` varbinary(36) NOT NULL;
+UPDATE `student_teachers` SET
+  `id` = UNHEX(REPLACE(`id`, '-', '')),
+  `student_id` = UNHEX(REPLACE(`student_id`, '-', ''));
+ALTER TABLE `student_teachers`
+  MODIFY `id` binary(16) NOT NULL,
+  MODIFY `student_id` binary(16) NOT NULL;
+
+ALTER TABLE `teacher_recommendation_reactions`
+  MODIFY `id` varbinary(36) NOT NULL,
+  MODIFY `recommendation_id` varbinary(36) NOT NULL COMMENT 'ID de la recomendación (student_teacher)',
+  MODIFY `user_id` varbinary(36) NOT NULL COMMENT 'ID del usuario que reacciona';
+UPDATE `teacher_recommendation_reactions` SET
+  `id` = UNHEX(REPLACE(`id`, '-', '')),
+  `recommendation_id` = UNHEX(REPLACE(`recommendation_id`, '-', '')),
+  `user_id` = UNHEX(REPLACE(`user_id`, '-', ''));
+ALTER TABLE `teacher_recommendation_reactions`
+  MODIFY `id` binary(16) NOT NULL,
+  MODIFY `recommendation_id` binary(16) NOT NULL COMMENT 'ID de la recomendación (student_teacher)',
+  MODIFY `user_id` binary(16) NOT NULL COMMENT 'ID del usuario que reacciona';
+
+ALTER TABLE `verification_codes`
+  MODIFY `id` varbinary(36) NOT NULL;
+UPDATE `verification_codes` SET `id` = UNHEX(REPLACE(`id`, '-', ''));
+ALTER TABLE `verification_codes`
+  MODIFY `id` binary(16) NOT NULL;
+
+ALTER TABLE `refresh_tokens`
+  MODIFY `id` varbinary(36) NOT NULL,
+  MODIFY `user_id` varbinary(36) NOT NULL,
+  MODIFY `family_id` varbinary(36) NOT NULL;
+UPDATE `refresh_tokens` SET
+  `id` = UNHEX(REPLACE(`id`, '-', '')),
+  `user_id` = UNHEX(REPLACE(`user_id`, '-', '')),
+  `family_id` = UNHEX(REPLACE(`family_id`, '-', ''));
+ALTER TABLE `refresh_tokens`
+  MODIFY `id` binary(16) NOT NULL,
+  MODIFY `user_id` binary(16) NOT NULL,
+  MODIFY `family_id` binary(16) NOT NULL COMMENT 'Familia de rotación (un inicio de sesión)';
+
+ALTER TABLE `email_outbox`
+  MODIFY `id` varbinary(36) NOT NULL;
+UPDATE `email_outbox` SET `id` = UNHEX(REPLACE(`id`, '-', ''));
+ALTER TABLE `email_outbox`
+  MODIFY `id` binary(16) NOT NULL;
+
+-- --------------------------------------------------------
+-- 3. Llaves foráneas de nuevo
+-- --------------------------------------------------------
+
+ALTER TABLE `comments`
+  ADD CONSTRAINT `comments_ibfk_1` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE,
+  ADD CONSTRAINT `comments_ibfk_2` FOREIGN KEY (`author_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `posts`
+  ADD CONSTRAINT `posts_ibfk_1` FOREIGN KEY (`author_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `reactions`
+  ADD CONSTRAINT `reactions_ibfk_1` FOREIGN KEY (`post_id`) REFERENCES `posts` (`id`) ON DELETE CASCADE,
+  ADD CONSTRAINT `reactions_ibfk_2` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `moderation_logs`
+  ADD CONSTRAINT `moderation_logs_ibfk_1` FOREIGN KEY (`moderator_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `student_teachers`
+  ADD CONSTRAINT `student_teachers_ibfk_1` FOREIGN KEY (`student_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+ALTER TABLE `teacher_recommendation_reactions`
+  ADD CONSTRAINT `teacher_recommendation_reactions_ibfk_1` FOREIGN KEY (`recommendation_id`) REFERENCES `student_teachers` (`id`) ON DELETE CASCADE,
+  ADD CONSTRAINT `teacher_recommendation_reactions_ibfk_2` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`) ON DELETE CASCADE;
+
+SET FOREIGN_KEY_CHECKS = @OLD_FOREIGN_KEY_CHECKS;
+
+-- --------------------------------------------------------
+-- 4. Procedimientos: siguen recibiendo el id en texto y lo convierten
+--    (las vistas se adaptan solas al nuevo tipo de columna)
+-- --------------------------------------------------------
+
+DROP PROCEDURE IF EXISTS `GetPostComments`;
+DROP PROCEDURE IF EXISTS `GetUserPosts`;
+DROP PROCEDURE IF EXISTS `GetRecommendationsWithUserReactions`;
+DROP PROCEDURE IF EXISTS `GetUserRecommendations`;
+DROP PROCEDURE IF EXISTS `GetRecommendationStats`;
+
+DELIMITER $$
+
+CREATE PROCEDURE `GetPostComments` (IN `post_id_param` VARCHAR(36))
+BEGIN
+    SELECT c.*, u.full_name as author_name, u.role as author_role
+    FROM comments c
+    JOIN users u ON c.author_id = u.id
+    WHERE c.post_id = UNHEX(REPLACE(post_id_param, '-', '')) AND c.is_approved = TRUE
+    ORDER BY c.created_at ASC;
+END$$
+
+CREATE PROCEDURE `GetUserPosts` (IN `user_id_param` VARCHAR(36))
+BEGIN
+    SELECT * FROM post_with_author
+    WHERE author_id = UNHEX(REPLACE(user_id_param, '-', ''))
+    ORDER BY created_at DESC;
+END$$
+
+CREATE PROCEDURE `GetRecommendationsWithUserReactions` (IN `user_id_param` VARCHAR(36))
+BEGIN
+    SELECT
+        tr.*,
+        ur.reaction_type AS user_reaction
+    FROM teacher_recommendations_with_reactions tr
+    LEFT JOIN teacher_recommendation_reactions ur
+        ON tr.id = ur.recommendation_id AND ur.user_id = UNHEX(REPLACE(user_id_param, '-', ''))
+    ORDER BY tr.created_at DESC;
+END$$
+
+CREATE PROCEDURE `GetUserRecommendations` (IN `user_id_param` VARCHAR(36))
+BEGIN
+    SELECT * FROM teacher_recommendations_with_reactions
+    WHERE student_id = UNHEX(REPLACE(user_id_param, '-', ''))
+    ORDER BY created_at DESC;
+END$$
+
+CREATE PROCEDURE `GetRecommendationStats` (IN `user_id_param` VARCHAR(36))
+BEGIN
+    SELECT
+        COUNT(DISTINCT st.id) AS my_recommendations_count,
+        SUM(CASE WHEN trr.reaction_type = 'LIKE' THEN 1 ELSE 0 END) AS my_total_likes_received,
+        SUM(CASE WHEN trr.reaction_type = 'DISLIKE' THEN 1 ELSE 0 END) AS my_total_dislikes_received,
+        (SELECT COUNT(*) FROM student_teachers WHERE is_active = TRUE) AS total_recommendations_count,
+        (SELECT COUNT(*) FROM teacher_recommendation_reactions) AS total_reactions_count
+    FROM student_teachers st
+    LEFT JOIN teacher_recommendation_reactions trr ON st.id = trr.recommendation_id
+    WHERE st.student_id = UNHEX(REPLACE(user_id_param, '-', '')) AND st.is_active = TRUE;
+END$$
+
+DELIMITER ;
@@ -0,0 +1,128 @@
+-- UniWay - Índices para las consultas de los repositorios (versión 3)
+--
+-- Cada índice nuevo indica la consulta a la que sirve (Repositorio.método). El
+-- orden de columnas es: igualdades del WHERE y luego la columna del ORDER BY, así
+-- la consulta lee solo las filas que devuelve y ya ordenadas (sin filesort).
+--
+-- Se eliminan los índices que quedan cubiertos por el prefijo de uno compuesto y
+-- la llave única duplicada de reactions: cada índice sobrante es una escritura
+-- más en cada INSERT. Los índices nuevos se crean antes de eliminar los viejos
+-- porque las llaves foráneas necesitan siempre un índice sobre su columna.
+--
+-- Verificación: QueryPlanCheck (perfil loadtest) ejecuta EXPLAIN sobre la SQL de
+-- cada método de repositorio y falla si alguna recorre una tabla completa.
+
+-- --------------------------------------------------------
+-- comments
+-- --------------------------------------------------------
+
+ALTER TABLE `comments`
+  -- CommentRepository.findApprovedCommentsByPostId / countApprovedCommentsByPostId / findAllCommentsByPostId
+  ADD KEY `idx_comments_post_approved_created` (`post_id`, `is_approved`, `created_at`),
+  -- CommentRepository.findCommentsByAuthorId
+  ADD KEY `idx_comments_author_created` (`author_id`, `created_at`),
+  -- CommentRepository.findPendingComments
+  ADD KEY `idx_comments_approved_created` (`is_approved`, `created_at`);
+
+ALTER TABLE `comments`
+  DROP KEY `idx_post_id`,
+  DROP KEY `idx_author_id`;
+
+-- --------------------------------------------------------
+-- posts
+-- --------------------------------------------------------
+
+ALTER TABLE `posts`
+  -- PostRepository.findAllApprovedPostsOrderByPinnedAndDate / findAllPinnedPosts
+  ADD KEY `idx_posts_approved_pinned_created` (`is_approved`, `is_pinned`, `created_at`),
+  -- PostRepository.findApprovedPostsByAuthor / countApprovedPostsByAuthor
+  ADD KEY `idx_posts_author_approved_created` (`author_id`, `is_approved`, `created_at`),
+  -- PostRepository.findApprovedPostsByType
+  ADD KEY `idx_posts_type_approved_created` (`post_type`, `is_approved`, `created_at`),
+  -- PostRepository.findApprovedPostsByPriority
+  ADD KEY `idx_posts_priority_approved_created` (`priority`, `is_approved`, `created_at`),
+  -- PostRepository.findAllAlertPosts
+  ADD KEY `idx_posts_alert_approved_created` (`is_alert`, `is_approved`, `created_at`);
+  -- findPostsSince y findAllPendingPosts ya usan idx_posts_approved_created
+
+ALTER TABLE `posts`
+  DROP KEY `idx_author_id`,
+  DROP KEY `idx_post_type`,
+  DROP KEY `idx_priority`;
+
+-- --------------------------------------------------------
+-- reactions
+-- --------------------------------------------------------
+
+ALTER TABLE `reactions`
+  -- ReactionRepository.countByPostIdAndType / findByPostIdAndType: sobre la columna
+  -- type, la que usa la aplicación (el índice anterior era sobre reaction_type)
+  DROP KEY `idx_reactions_post_type`,
+  ADD KEY `idx_reactions_post_type` (`post_id`, `type`);
+  -- findByUserIdAndPostId / findTypesByUserIdAndPostIdIn: unique_user_post_reaction
+
+ALTER TABLE `reactions`
+  DROP KEY `UKaeq6cssia730m2nihyav05ui1`,
+  DROP KEY `idx_post_id`,
+  DROP KEY `idx_user_id`;
+
+-- --------------------------------------------------------
+-- student_teachers
+-- --------------------------------------------------------
+
+ALTER TABLE `student_teachers`
+  -- StudentTeacherRepository.findByStudentIdAndActiveTrue / countByStudentIdAndActiveTrue
+  ADD KEY `idx_student_teachers_student_active` (`student_id`, `is_active`),
+  -- StudentTeacherRepository.findAllActiveSubjects / findDistinctSubjectsByActiveTrue
+  ADD KEY `idx_student_teachers_active_subject` (`is_active`, `subject`),
+  -- StudentTeacherRepository.findDistinctTeacherNames
+  ADD KEY `idx_student_teachers_active_teacher` (`is_active`, `teacher_name`);
+  -- findByTeacherNameAndActiveTrue: idx_teacher_name_subject
+  -- findBySubjectAndActiveTrue: idx_student_teachers_subject
+  -- findByActiveTrueOrderByCreatedAtDesc / countByActiveTrue: idx_student_teachers_active
+  -- findHighlyRatedStudentTeacherPairs: idx_rating_active
+  -- findByStudentIdAndTeacherNameAndSubject(AndSemester): uk_student_teacher_subject_semester
+
+ALTER TABLE `student_teachers`
+  DROP KEY `idx_student_id`,
+  DROP KEY `idx_teacher_name`,
+  DROP KEY `idx_subject`,
+  DROP KEY `idx_rating`,
+  DROP KEY `idx_is_active`;
+
+-- --------------------------------------------------------
+-- teacher_recommendation_reactions
+-- --------------------------------------------------------
+
+ALTER TABLE `teacher_recommendation_reactions`
+  -- TeacherRecommendationReactionRepository.countByRecommendationIdAndReactionType /
+  -- countByRecommendationId / countByRecommendationIdInGroupByType /
+  -- countReactionsReceivedByStudent / deleteByRecommendationId
+  ADD KEY `idx_trr_recommendation_type` (`recommendation_id`, `reaction_type`);
+  -- findByUserIdAndRecommendationId / findTypesByUserIdAndRecommendationIdIn: unique_user_recommendation
+
+ALTER TABLE `teacher_recommendation_reactions`
+  DROP KEY `idx_recommendation_id`,
+  DROP KEY `idx_user_id`;
+
+-- --------------------------------------------------------
+-- users
+-- --------------------------------------------------------
+
+-- UserRepository.findActiveUsersByRole
+CREATE INDEX `idx_users_role_active` ON `users` (`role`, `is_active`);
+
+-- --------------------------------------------------------
+-- verification_codes
+-- --------------------------------------------------------
+
+-- VerificationCodeRepository.findValidCodesByEmail / findByEmailOrderByCreatedAtDesc
+-- (el resto filtra por email y usa idx_verification_codes_email_expires)
+CREATE INDEX `idx_verification_codes_email_created` ON `verification_codes` (`email`, `created_at`);
+
+-- --------------------------------------------------------
+-- refresh_tokens
+-- --------------------------------------------------------
+
+-- RefreshTokenRepository.deleteExpired
+CREATE INDEX `idx_refresh_tokens_expires` ON `refresh_tokens` (`expires_at`);
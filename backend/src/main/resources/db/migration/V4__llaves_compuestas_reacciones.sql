@@ -0,0 +1,81 @@
+-- UniWay - Llaves primarias compuestas en las tablas de reacciones (versión 4)
+--
+-- reactions es la tabla más grande: una fila por usuario y publicación. La llave
+-- natural (user_id, post_id) ya era única, así que pasa a ser la llave primaria y
+-- se eliminan la columna id (16 bytes por fila, repetidos en cada índice
+-- secundario de InnoDB) y la llave única que duplicaba la nueva primaria. El
+-- toggle de PostService queda como un DELETE o un INSERT ... ON DUPLICATE KEY
+-- UPDATE por llave natural, sin leer la fila antes.
+--
+-- Lo mismo para teacher_recommendation_reactions con (user_id, recommendation_id).
+--
+-- Las llaves foráneas siguen cubiertas: user_id por el prefijo de la llave
+-- primaria y post_id / recommendation_id por idx_reactions_post_type /
+-- idx_trr_recommendation_type (V3).
+
+-- --------------------------------------------------------
+-- reactions
+-- --------------------------------------------------------
+
+-- reaction_type es la columna del esquema original que la aplicación nunca
+-- escribió (usa type); era NOT NULL y bloquearía el upsert
+ALTER TABLE `reactions`
+  DROP PRIMARY KEY,
+  DROP COLUMN `id`,
+  DROP COLUMN `reaction_type`,
+  ADD PRIMARY KEY (`user_id`, `post_id`);
+
+ALTER TABLE `reactions`
+  DROP KEY `unique_user_post_reaction`;
+
+-- --------------------------------------------------------
+-- teacher_recommendation_reactions
+-- --------------------------------------------------------
+
+ALTER TABLE `teacher_recommendation_reactions`
+  DROP PRIMARY KEY,
+  DROP COLUMN `id`,
+  ADD PRIMARY KEY (`user_id`, `recommendation_id`);
+
+-- idx_reaction_type e idx_created_at no los usa ninguna consulta (ver QueryPlanCheck)
+ALTER TABLE `teacher_recommendation_reactions`
+  DROP KEY `unique_user_recommendation`,
+  DROP KEY `idx_reaction_type`,
+  DROP KEY `idx_created_at`;
+
+-- --------------------------------------------------------
+-- Vistas: contaban r.id / trr.id
+-- --------------------------------------------------------
+
+CREATE OR REPLACE VIEW `post_with_author` AS
+SELECT
+    p.id, p.author_id, p.content, p.post_type, p.priority, p.is_pinned, p.is_alert,
+    p.is_approved, p.created_at, p.updated_at,
+    u.full_name AS author_name,
+    u.role AS author_role,
+    u.profile_image_url AS author_image,
+    COUNT(DISTINCT CASE WHEN r.type = 'LIKE' THEN r.user_id END) AS like_count,
+    COUNT(DISTINCT CASE WHEN r.type = 'DISLIKE' THEN r.user_id END) AS dislike_count,
+    COUNT(DISTINCT c.id) AS comment_count
+FROM posts p
+JOIN users u ON p.author_id = u.id
+LEFT JOIN reactions r ON p.id = r.post_id
+LEFT JOIN comments c ON p.id = c.post_id AND c.is_approved = 1
+WHERE p.is_approved = 1
+GROUP BY p.id;
+
+CREATE OR REPLACE VIEW `teacher_recommendations_with_reactions` AS
+SELECT
+    st.id, st.student_id, st.teacher_name, st.subject, st.semester, st.year,
+    st.reference, st.rating, st.is_active, st.created_at, st.updated_at,
+    u.full_name AS student_name,
+    u.email AS student_email,
+    u.role AS student_role,
+    COUNT(DISTINCT CASE WHEN trr.reaction_type = 'LIKE' THEN trr.user_id END) AS like_count,
+    COUNT(DISTINCT CASE WHEN trr.reaction_type = 'DISLIKE' THEN trr.user_id END) AS dislike_count,
+    COUNT(DISTINCT trr.user_id) AS total_reactions
+FROM student_teachers st
+JOIN users u ON st.student_id = u.id
+LEFT JOIN teacher_recommendation_reactions trr ON st.id = trr.recommendation_id
+WHERE st.is_active = TRUE
+GROUP BY st.id;
@@ -0,0 +1,56 @@
+package com.uniway.config;
+
+import com.uniway.entity.User;
+import com.uniway.entity.UserRole;
+import com.uniway.id.Ids;
+import com.uniway.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Actuator: health público; metrics y prometheus solo para administración
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String bearer(UserRole role) {
+        User user = new User(Ids.newId(), role.name().toLowerCase() + "@pascualbravo.edu.co", null, role, "Usuario " + role);
+        return "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void metricsEndpointsRequireAdmin() throws Exception {
+        for (String path : new String[] {"/actuator/prometheus", "/actuator/metrics"}) {
+            mockMvc.perform(get(path))
+                .andExpect(status().isUnauthorized());
+            mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, bearer(UserRole.STUDENT)))
+                .andExpect(status().isForbidden());
+            mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, bearer(UserRole.ADMINISTRATION)))
+                .andExpect(status().isOk());
+        }
+    }
+}
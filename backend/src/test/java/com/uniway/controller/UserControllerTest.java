@@ -0,0 +1,104 @@
+package com.uniway.controller;
+
+import com.uniway.entity.User;
+import com.uniway.entity.UserRole;
+import com.uniway.id.Ids;
+import com.uniway.repository.UserRepository;
+import com.uniway.service.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoints de administración de usuarios: 401 sin token, 403 si no es admin.
+ * ETag del perfil estable entre el PUT y el GET siguiente.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String bearer(UserRole role) {
+        User user = new User(Ids.newId(), role.name().toLowerCase() + "@pascualbravo.edu.co", null, role, "Usuario " + role);
+        return "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Test
+    void listingRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/users"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/users").header(HttpHeaders.AUTHORIZATION, bearer(UserRole.STUDENT)))
+            .andExpect(status().isForbidden())
+            .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/users").header(HttpHeaders.AUTHORIZATION, bearer(UserRole.ADMINISTRATION)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items").isArray());
+    }
+
+    @Test
+    void exportRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/users/export"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/users/export").header(HttpHeaders.AUTHORIZATION, bearer(UserRole.STUDENT)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/users/export").header(HttpHeaders.AUTHORIZATION, bearer(UserRole.ADMINISTRATION)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void searchRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/users/search").param("q", "ana"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/users/search").param("q", "ana").header(HttpHeaders.AUTHORIZATION, bearer(UserRole.STUDENT)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/users/search").param("q", "ana").header(HttpHeaders.AUTHORIZATION, bearer(UserRole.ADMINISTRATION)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void profileEtagFromPutMatchesNextGet() throws Exception {
+        User user = new User(Ids.newId(), "etag@pascualbravo.edu.co", "$2a$10$hashDePruebaNoUsadoParaLogin", UserRole.STUDENT, "Usuario ETag");
+        userRepository.save(user);
+        String bearer = "Bearer " + jwtService.generateToken(user);
+
+        String etag = mockMvc.perform(put("/users/profile").header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"program\":\"Ingeniería de Software\"}"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        // Con la entidad aún en la caché de segundo nivel y releída de la base
+        mockMvc.perform(get("/users/profile").header(HttpHeaders.AUTHORIZATION, bearer)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        entityManagerFactory.getCache().evictAll();
+        mockMvc.perform(get("/users/profile").header(HttpHeaders.AUTHORIZATION, bearer)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,119 @@
+package com.uniway.datasource;
+
+import com.uniway.entity.UserRole;
+import com.uniway.security.AuthenticatedUser;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Enrutamiento principal/réplica: ventana read-your-writes y validación de lag-query
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @AfterEach
+    void cleanUp() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void replicasRequireLagQuery() {
+        for (String lagQuery : new String[] {"", "  ", null}) {
+            assertThatThrownBy(() -> routing(Duration.ofSeconds(5), 10, lagQuery, replica()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("lag-query");
+        }
+        // Sin réplicas todo va a la principal y no hace falta
+        routing(Duration.ofSeconds(5), 10, "", null).close();
+    }
+
+    @Test
+    void pinWindowIsNeverShorterThanMaxLag() {
+        dataSource = routing(Duration.ofSeconds(5), 10, "SELECT 0", replica());
+        assertThat(dataSource.getReadYourWritesWindow()).isEqualTo(Duration.ofSeconds(10));
+        dataSource.close();
+
+        dataSource = routing(Duration.ofSeconds(30), 10, "SELECT 0", replica());
+        assertThat(dataSource.getReadYourWritesWindow()).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void writerReadsFromPrimaryOthersFromReplica() {
+        dataSource = routing(Duration.ofSeconds(5), 10, "SELECT 0", replica());
+        dataSource.checkReplicas();
+
+        actAs("ana");
+        assertThat(readOnlyTarget()).isEqualTo("replica-1");
+
+        // Escritura confirmada de ana
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(readOnlyTarget()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        actAs("beto");
+        assertThat(readOnlyTarget()).isEqualTo("replica-1");
+    }
+
+    @Test
+    void laggingReplicaStopsReceivingReads() {
+        dataSource = routing(Duration.ofSeconds(5), 10, "SELECT 11", replica());
+        dataSource.checkReplicas();
+
+        actAs("ana");
+        assertThat(readOnlyTarget()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private static ReplicaRoutingDataSource routing(Duration readYourWrites, int maxLagSeconds, String lagQuery,
+                                                    HikariDataSource replica) {
+        return new ReplicaRoutingDataSource(new DriverManagerDataSource("jdbc:h2:mem:primary"),
+                replica == null ? List.of() : List.of(replica), readYourWrites, maxLagSeconds, lagQuery,
+                new SimpleMeterRegistry());
+    }
+
+    private static HikariDataSource replica() {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("replica-1");
+        replica.setJdbcUrl("jdbc:h2:mem:replica");
+        return replica;
+    }
+
+    private static void actAs(String userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, UserRole.STUDENT, userId, "jti-" + userId, Long.MAX_VALUE);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private Object readOnlyTarget() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return dataSource.determineCurrentLookupKey();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.uniway.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import com.uniway.config.QueryBudgetProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Presupuesto de consultas por endpoint (query-budget.handlers en application.yml)
+ *
+ * El DataSource se envuelve con datasource-proxy para contar las sentencias JDBC que
+ * llegan de verdad a la base de datos durante cada petición, sin importar el hilo que
+ * las ejecute (pool de BCrypt, continuaciones, respuestas asíncronas). Cada endpoint
+ * se recorre una vez por el camino feliz y se comprueba:
+ * - que las sentencias JDBC no exceden el presupuesto de su controlador;
+ * - que RequestStatisticsFilter registró las mismas sentencias que vio JDBC, es decir,
+ *   que la métrica no pierde las consultas hechas fuera del hilo del request.
+ *
+ * Las tareas programadas no corren en el perfil "test", así que todo lo que cuenta el
+ * proxy durante una petición pertenece a esa petición. Un endpoint nuevo debe tener
+ * presupuesto propio y agregarse al recorrido.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetTest {
+
+    private static final AtomicInteger JDBC_STATEMENTS = new AtomicInteger();
+
+    /**
+     * Endpoints que además escriben con JdbcTemplate (lote de la cola de correos): esas
+     * sentencias no pasan por Hibernate, así que la métrica solo puede quedarse corta
+     */
+    private static final Set<String> JDBC_TEMPLATE_HANDLERS = Set.of("AnnouncementController.sendProgramAnnouncement");
+
+    private static final String PASSWORD = "Secreta123";
+    private static final String PROGRAM = "Ingeniería de Software";
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                        // Un lote (executeBatch) cuenta como una sentencia, igual que en Hibernate
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name("query-budget")
+                                .afterQuery((execInfo, queries) -> JDBC_STATEMENTS.incrementAndGet())
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryBudgetProperties budgets;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    /** Máximo de sentencias JDBC observado por controlador */
+    private final Map<String, Integer> measured = new TreeMap<>();
+
+    private final List<String> violations = new ArrayList<>();
+
+    @Test
+    void everyHandlerHasItsOwnBudget() {
+        assertThat(budgets.getDefaultMax())
+            .as("query-budget.default-max debe ser finito")
+            .isPositive();
+        assertThat(budgets.getHandlers().keySet())
+            .as("controladores sin presupuesto en query-budget.handlers")
+            .containsAll(applicationHandlers());
+    }
+
+    @Test
+    void everyEndpointStaysWithinItsBudget() throws Exception {
+        // ==================== VERIFICACIÓN Y REGISTRO ====================
+        call(post("/verification/send-code").content(json(Map.of("email", "ana@pascualbravo.edu.co"))));
+        String resent = call(post("/verification/resend-code").content(json(Map.of("email", "ana@pascualbravo.edu.co"))));
+        call(post("/verification/verify-code").content(json(Map.of(
+            "email", "ana@pascualbravo.edu.co", "code", read(resent, "$.devCode")))));
+
+        String registered = call(post("/auth/register").content(json(registration("ana", "STUDENT", null))));
+        String ana = call(post("/auth/complete-registration").content(json(
+            registration("ana", "STUDENT", read(registered, "$.devCode")))));
+        String beto = call(post("/auth/complete-registration").content(json(registration("beto", "STUDENT", null))));
+        String admin = call(post("/auth/complete-registration").content(json(registration("dir", "ADMINISTRATION", null))));
+
+        String anaId = read(ana, "$.user.id");
+        String betoId = read(beto, "$.user.id");
+        String anaToken = read(ana, "$.token");
+        String adminToken = read(admin, "$.token");
+
+        // ==================== SESIÓN ====================
+        String session = call(post("/auth/login").content(json(Map.of(
+            "email", "ana@pascualbravo.edu.co", "password", PASSWORD))));
+        String refreshed = call(post("/auth/refresh").content(json(Map.of(
+            "refreshToken", read(session, "$.refreshToken")))));
+        String forgot = call(post("/auth/forgot-password").content(json(Map.of("email", "beto@pascualbravo.edu.co"))));
+        call(post("/auth/reset-password").content(json(Map.of(
+            "email", "beto@pascualbravo.edu.co", "code", read(forgot, "$.devCode"), "newPassword", PASSWORD + "!"))));
+        // El cambio de contraseña revoca las sesiones anteriores de beto
+        String betoToken = read(call(post("/auth/login").content(json(Map.of(
+            "email", "beto@pascualbravo.edu.co", "password", PASSWORD + "!")))), "$.token");
+
+        // ==================== USUARIOS ====================
+        call(as(anaToken, get("/users/{id}", betoId)));
+        call(as(anaToken, get("/users/profile")));
+        call(as(anaToken, put("/users/profile")).content(json(Map.of(
+            "fullName", "Ana María", "phone", "3001234567", "address", "Calle 1", "program", PROGRAM))));
+        String avatar = call(as(anaToken, multipart("/users/profile/avatar").file(
+            new MockMultipartFile("file", "ana.png", MediaType.IMAGE_PNG_VALUE, png()))));
+        String avatarUrl = read(avatar, "$.profileImageUrl");
+        call(get("/avatars/{fileName}", avatarUrl.substring(avatarUrl.lastIndexOf('/') + 1)));
+        call(as(adminToken, get("/users/search")).param("q", "ana"));
+        call(as(adminToken, get("/users")));
+        call(as(adminToken, get("/users/export")));
+
+        // ==================== PUBLICACIONES ====================
+        String post = read(call(as(anaToken, post("/posts")).content(json(Map.of(
+            "content", "Publicación de prueba", "postType", "GENERAL", "priority", "NORMAL")))), "$.post.id");
+        String devPost = read(call(as(anaToken, post("/posts/dev")).content(json(Map.of(
+            "content", "Publicación dev", "postType", "NEWS", "priority", "HIGH",
+            "authorEmail", "ana@pascualbravo.edu.co")))), "$.post.id");
+        call(as(betoToken, get("/posts")));
+        call(as(betoToken, get("/posts/simple")));
+        call(as(betoToken, get("/posts/{id}", post)));
+        String liked = call(as(betoToken, post("/posts/{id}/like", post)).content(json(Map.of("userId", betoId))));
+        assertThat(JsonPath.<Integer>read(liked, "$.post.likeCount")).isEqualTo(1);
+        String disliked = call(as(betoToken, post("/posts/{id}/dislike", post)).content(json(Map.of("userId", betoId))));
+        assertThat(JsonPath.<Integer>read(disliked, "$.post.likeCount")).isEqualTo(0);
+        assertThat(JsonPath.<Integer>read(disliked, "$.post.dislikeCount")).isEqualTo(1);
+        // Los contadores quedaron en la base (UPDATE atómico), no solo en la respuesta
+        String reread = call(as(betoToken, get("/posts/{id}", post)));
+        assertThat(JsonPath.<Integer>read(reread, "$.dislikeCount")).isEqualTo(1);
+        call(as(anaToken, put("/posts/{id}", post)).content(json(Map.of(
+            "content", "Publicación editada", "postType", "GENERAL", "userId", anaId))));
+        call(as(anaToken, put("/posts/{id}/dev", devPost)).content(json(Map.of(
+            "content", "Publicación dev editada", "postType", "NEWS", "userEmail", "ana@pascualbravo.edu.co"))));
+        call(get("/posts/hash/{password}", "clave"));
+        call(get("/posts/test"));
+        call(get("/posts/health"));
+
+        // ==================== COMENTARIOS ====================
+        String comment = read(call(as(betoToken, post("/comments")).content(json(Map.of(
+            "postId", post, "content", "Comentario de prueba", "authorId", betoId)))), "$.comment.id");
+        String devComment = read(call(as(betoToken, post("/comments/dev")).content(json(Map.of(
+            "postId", post, "content", "Comentario dev", "authorEmail", "beto@pascualbravo.edu.co")))), "$.comment.id");
+        call(as(anaToken, get("/comments/post/{postId}", post)));
+        call(as(betoToken, put("/comments/{id}", comment)).content(json(Map.of(
+            "content", "Comentario editado", "userId", betoId))));
+        call(as(adminToken, get("/comments/pending")));
+        call(as(adminToken, post("/comments/{id}/approve", devComment)));
+        call(as(betoToken, delete("/comments/{id}", comment)).param("userId", betoId));
+
+        call(as(anaToken, delete("/posts/{id}/dev", devPost)).param("userEmail", "ana@pascualbravo.edu.co"));
+        call(as(anaToken, delete("/posts/{id}", post)).param("userId", anaId));
+
+        // ==================== RECOMENDACIONES ====================
+        String recommendation = read(call(as(anaToken, post("/teacher-recommendations")).content(json(
+            recommendation(anaId, "Laura Gómez", "Cálculo")))), "$.recommendation.id");
+        Map<String, Object> rated = recommendation(anaId, "Pedro Ruiz", "Física");
+        rated.put("rating", 5);
+        String ratedRecommendation = read(call(as(anaToken, post("/teacher-recommendations/with-rating"))
+            .content(json(rated))), "$.recommendation.id");
+        call(as(betoToken, get("/teacher-recommendations")).param("userId", betoId));
+        call(as(betoToken, get("/teacher-recommendations/user/{userId}", anaId)));
+        call(as(betoToken, post("/teacher-recommendations/{id}/like", recommendation))
+            .content(json(Map.of("userId", betoId))));
+        call(as(betoToken, post("/teacher-recommendations/{id}/dislike", ratedRecommendation))
+            .content(json(Map.of("userId", betoId))));
+        call(as(betoToken, get("/teacher-recommendations/stats/{userId}", anaId)));
+        call(as(betoToken, get("/teacher-recommendations/{id}/related", recommendation)));
+        call(as(betoToken, get("/teacher-recommendations/subjects")));
+        call(as(anaToken, delete("/teacher-recommendations/{id}", ratedRecommendation)).param("userId", anaId));
+
+        // ==================== COMPATIBILIDAD APP MÓVIL ====================
+        Map<String, Object> teacher = new LinkedHashMap<>();
+        teacher.put("studentId", betoId);
+        teacher.put("teacherEmail", "carlos.perez@pascualbravo.edu.co");
+        teacher.put("subject", "Bases de Datos");
+        teacher.put("semester", "2024-2");
+        teacher.put("year", 2024);
+        String studentTeacher = read(call(as(betoToken, post("/student-teachers")).content(json(teacher))),
+            "$.studentTeacher.id");
+        call(as(betoToken, get("/student-teachers/student/{studentId}", betoId)));
+        call(as(betoToken, get("/student-teachers/subjects")));
+        call(get("/student-teachers/test"));
+        call(as(betoToken, delete("/student-teachers")).content(json(Map.of(
+            "studentId", betoId, "recommendationId", studentTeacher, "subject", "Bases de Datos"))));
+
+        // ==================== ANUNCIOS Y CIERRE DE SESIÓN ====================
+        call(as(adminToken, post("/announcements/email")).content(json(Map.of(
+            "program", PROGRAM, "title", "Aviso", "message", "Mensaje para el programa"))));
+        call(as(anaToken, post("/auth/logout")).content(json(Map.of(
+            "refreshToken", read(refreshed, "$.refreshToken"), "allDevices", true))));
+
+        System.out.println("Sentencias JDBC por controlador: " + measured);
+        assertThat(violations).as("presupuestos excedidos o métricas incompletas").isEmpty();
+        assertThat(measured.keySet())
+            .as("endpoints sin recorrer en esta prueba")
+            .containsAll(applicationHandlers());
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    /**
+     * Ejecuta una petición (y su despacho asíncrono si lo hay), exige una respuesta 2xx
+     * y compara las sentencias JDBC con el presupuesto y con la métrica del filtro
+     * @return Cuerpo de la respuesta
+     */
+    private String call(MockHttpServletRequestBuilder request) throws Exception {
+        Map<String, Double> recordedBefore = recordedStatements();
+        int before = JDBC_STATEMENTS.get();
+
+        if (!(request instanceof MockMultipartHttpServletRequestBuilder)) {
+            request.contentType(MediaType.APPLICATION_JSON);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+
+        int statements = JDBC_STATEMENTS.get() - before;
+        String handler = RequestStatisticsFilter.handlerName(result.getRequest());
+        String body = result.getResponse().getContentAsString();
+        assertThat(result.getResponse().getStatus())
+            .as("%s %s -> %s", result.getRequest().getMethod(), result.getRequest().getRequestURI(), body)
+            .isBetween(200, 299);
+        assertThat(handler).isNotNull();
+
+        measured.merge(handler, statements, Math::max);
+        int budget = budgets.budgetFor(handler);
+        if (budget > 0 && statements > budget) {
+            violations.add(handler + ": " + statements + " sentencias (presupuesto " + budget + ")");
+        }
+        double recorded = recordedStatements().getOrDefault(handler, 0.0) - recordedBefore.getOrDefault(handler, 0.0);
+        boolean complete = JDBC_TEMPLATE_HANDLERS.contains(handler) ? recorded <= statements : recorded == statements;
+        if (!complete) {
+            violations.add(handler + ": la métrica registró " + (int) recorded + " sentencias, JDBC vio " + statements);
+        }
+        return body;
+    }
+
+    private Map<String, Double> recordedStatements() {
+        Map<String, Double> totals = new HashMap<>();
+        for (DistributionSummary summary : meterRegistry.find("hibernate.request.statements").summaries()) {
+            totals.put(summary.getId().getTag("handler"), summary.totalAmount());
+        }
+        return totals;
+    }
+
+    /** Controladores de la aplicación ("Controlador.método"), sin los de Spring */
+    private Set<String> applicationHandlers() {
+        Set<String> names = new TreeSet<>();
+        for (HandlerMethod method : handlerMapping.getHandlerMethods().values()) {
+            if (method.getBeanType().getPackageName().startsWith("com.uniway")) {
+                names.add(method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+            }
+        }
+        return names;
+    }
+
+    private static MockHttpServletRequestBuilder as(String token, MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+
+    private static Map<String, Object> registration(String name, String role, String code) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("email", name + "@pascualbravo.edu.co");
+        request.put("password", PASSWORD);
+        request.put("role", role);
+        request.put("fullName", "Usuario " + name);
+        request.put("studentId", "ID-" + name);
+        request.put("program", PROGRAM);
+        if (code != null) {
+            request.put("verificationCode", code);
+        }
+        return request;
+    }
+
+    private static Map<String, Object> recommendation(String studentId, String teacherName, String subject) {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("studentId", studentId);
+        request.put("teacherName", teacherName);
+        request.put("subject", subject);
+        request.put("semester", "2024-2");
+        request.put("year", 2024);
+        request.put("reference", "Explica muy bien");
+        return request;
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static String read(String json, String path) {
+        return JsonPath.read(json, path);
+    }
+
+    private static byte[] png() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,24 @@
+package com.uniway.repository;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * MigrationQueryPlanTest sobre una base MySQL/MariaDB ya levantada, sin Docker:
+ *   mvn test -Dtest=ExternalDatabaseMigrationTest \
+ *       -Dmigration-test.url="jdbc:mysql://127.0.0.1:3306/uniway_it?createDatabaseIfNotExist=true" \
+ *       -Dmigration-test.username=root -Dmigration-test.password=...
+ *
+ * El esquema se borra antes de migrar: usar una base desechable, nunca la de la aplicación.
+ */
+@EnabledIfSystemProperty(named = "migration-test.url", matches = ".+")
+class ExternalDatabaseMigrationTest extends MigrationQueryPlanTest {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("migration-test.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("migration-test.username", "root"));
+        registry.add("spring.datasource.password", () -> System.getProperty("migration-test.password", ""));
+    }
+}
@@ -0,0 +1,98 @@
+package com.uniway.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migraciones de Flyway sobre MySQL real y plan de cada consulta de los repositorios
+ *
+ * Borra el esquema y ejecuta V1→Vn desde cero con Flyway; como en producción,
+ * Hibernate no toca el esquema (ddl-auto=none). Luego RepositoryQueryPlans hace
+ * EXPLAIN de la SQL de cada método de repositorio y la prueba falla si alguna
+ * sentencia recorre una tabla completa (type = ALL) fuera de las permitidas.
+ *
+ * La base la ponen las subclases: MySqlContainerMigrationTest (Testcontainers, se
+ * omite sin Docker) y ExternalDatabaseMigrationTest (-Dmigration-test.url=...).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.flyway.enabled=true",
+    "spring.flyway.clean-disabled=false",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+    "spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver",
+    // Sin caché: cada consulta tiene que llegar a la base para capturar su SQL
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("test")
+@Import(MigrationQueryPlanTest.MigrationConfig.class)
+abstract class MigrationQueryPlanTest {
+
+    private static MigrateResult migration;
+
+    @TestConfiguration
+    static class MigrationConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return RepositoryQueryPlans.recordingDataSource();
+        }
+
+        @Bean
+        FlywayMigrationStrategy cleanMigrate() {
+            return flyway -> {
+                flyway.clean();
+                migration = flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migrationsRunFromScratch() throws Exception {
+        int scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql").length;
+
+        assertThat(migration.success).isTrue();
+        assertThat(migration.initialSchemaVersion).isNull();
+        assertThat(migration.migrationsExecuted).isEqualTo(scripts);
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo(String.valueOf(scripts));
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        RepositoryQueryPlans plans = new RepositoryQueryPlans(context);
+        assertThat(plans.isH2()).isFalse();
+
+        List<RepositoryQueryPlans.Result> results = plans.explainAll();
+        results.forEach(result -> System.out.printf("  %-9s %-60s %s%n",
+                result.status().getLabel(), result.method(), result.summary()));
+
+        assertThat(results).isNotEmpty();
+        assertThat(results)
+            .as("sentencias que recorren una tabla completa o no se pudieron revisar")
+            .filteredOn(result -> result.status() == RepositoryQueryPlans.Status.RECORRIDO
+                || result.status() == RepositoryQueryPlans.Status.ERROR)
+            .isEmpty();
+    }
+}
@@ -0,0 +1,398 @@
+package com.uniway.repository;
+
+import com.uniway.id.Ids;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * RepositoryQueryPlans - EXPLAIN de cada consulta de los repositorios
+ *
+ * Invoca cada método declarado en las interfaces de com.uniway.repository con
+ * argumentos de prueba (dentro de una transacción que se revierte), captura la SQL
+ * que genera Hibernate con sus parámetros y la vuelve a ejecutar con EXPLAIN. Una
+ * sentencia recorre una tabla completa si:
+ * - H2: el plan contiene "tableScan"
+ * - MySQL/MariaDB: alguna fila del EXPLAIN tiene type = ALL
+ *
+ * La SQL solo se captura si el contexto registra recordingDataSource() antes de crear
+ * el DataSource. Lo usan MigrationQueryPlanTest (MySQL con las migraciones de Flyway)
+ * y QueryPlanCheck (perfil Maven "loadtest").
+ */
+public final class RepositoryQueryPlans {
+
+    private static final String REPOSITORY_PACKAGE = "com.uniway.repository";
+
+    /** Consultas que recorren la tabla a propósito, con el motivo */
+    public static final Map<String, String> ALLOWED_SCANS = Map.of(
+            "PostRepository.findAllWithAuthor", "listado completo sin filtro",
+            // Filtros opcionales: MySQL lee idx_users_created_id en orden y corta en el LIMIT (type=index)
+            "UserRepository.findUserPage", "primera página del listado por cursor");
+
+    private static final String SAMPLE_ID = Ids.newId();
+
+    /** Resultado de una sentencia (o de un método que no se pudo revisar) */
+    public enum Status {
+        OK("OK"),
+        PERMITIDO("PERMITIDO"),
+        RECORRIDO("RECORRIDO"),
+        SIN_SQL("SIN SQL"),
+        ERROR("ERROR");
+
+        private final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    /**
+     * @param method "Repositorio.método"
+     * @param status Resultado
+     * @param summary Accesos por tabla (tabla:tipo(índice)) o el error
+     * @param sql Sentencia revisada, null si no llegó a capturarse
+     */
+    public record Result(String method, Status status, String summary, String sql) {}
+
+    private final ApplicationContext context;
+    private final boolean h2;
+
+    /**
+     * @param context Contexto con recordingDataSource() registrado
+     */
+    public RepositoryQueryPlans(ApplicationContext context) {
+        this.context = context;
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            this.h2 = "H2".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (Exception e) {
+            throw new IllegalStateException("No se pudo identificar la base de datos", e);
+        }
+    }
+
+    public boolean isH2() { return h2; }
+
+    /**
+     * Post-procesador que envuelve el DataSource de la aplicación para registrar la SQL
+     * y los parámetros de cada PreparedStatement que se ejecuta
+     */
+    public static BeanPostProcessor recordingDataSource() {
+        return new RecordingDataSourcePostProcessor();
+    }
+
+    /**
+     * Revisa todos los métodos de los repositorios
+     * @return Un resultado por sentencia capturada, en orden de método
+     */
+    public List<Result> explainAll() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        Map<String, Method> methods = new TreeMap<>();
+        Map<String, Object> targets = new HashMap<>();
+        for (Object repository : context.getBeansOfType(Repository.class).values()) {
+            for (Class<?> type : ClassUtils.getAllInterfaces(repository)) {
+                if (!type.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    continue;
+                }
+                for (Method method : type.getDeclaredMethods()) {
+                    if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                        continue;
+                    }
+                    String name = type.getSimpleName() + "." + method.getName();
+                    methods.put(name, method);
+                    targets.put(name, repository);
+                }
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, Method> entry : methods.entrySet()) {
+            String name = entry.getKey();
+            List<CapturedStatement> statements;
+            try {
+                statements = capture(transactionTemplate, name, entry.getValue(), targets.get(name));
+            } catch (Exception e) {
+                results.add(new Result(name, Status.ERROR, rootMessage(e), null));
+                continue;
+            }
+            if (statements.isEmpty()) {
+                results.add(new Result(name, Status.SIN_SQL, "", null));
+                continue;
+            }
+            for (CapturedStatement statement : statements) {
+                Plan plan;
+                try {
+                    plan = explain(statement);
+                } catch (Exception e) {
+                    results.add(new Result(name, Status.ERROR, "EXPLAIN: " + rootMessage(e), statement.sql));
+                    continue;
+                }
+                Status status = Status.OK;
+                if (!plan.scannedTables.isEmpty()) {
+                    status = ALLOWED_SCANS.containsKey(name) ? Status.PERMITIDO : Status.RECORRIDO;
+                }
+                results.add(new Result(name, status, plan.summary, statement.sql));
+            }
+        }
+        return results;
+    }
+
+    // ==================== EJECUCIÓN ====================
+
+    /**
+     * Invoca el método con argumentos de prueba y devuelve las sentencias que ejecutó
+     */
+    private List<CapturedStatement> capture(TransactionTemplate transactionTemplate, String name, Method method,
+            Object repository) {
+        Object[] arguments = Arrays.stream(method.getParameters())
+                .map(RepositoryQueryPlans::sampleValue)
+                .toArray();
+        List<CapturedStatement> statements = new ArrayList<>();
+        EntityManager entityManager = context.getBean(EntityManager.class);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Los INSERT (upserts) usan ids de prueba que no existen; la transacción se revierte
+            entityManager.createNativeQuery(h2 ? "SET REFERENTIAL_INTEGRITY FALSE" : "SET FOREIGN_KEY_CHECKS = 0")
+                    .executeUpdate();
+            Recorder.start(statements);
+            try {
+                method.invoke(repository, arguments);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(name, e.getCause());
+            } finally {
+                Recorder.stop();
+                status.setRollbackOnly();
+            }
+        });
+        return statements;
+    }
+
+    private static Object sampleValue(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        if (type == String.class) {
+            return SAMPLE_ID;
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == int.class || type == Integer.class) {
+            return 5;
+        }
+        if (type == long.class || type == Long.class) {
+            return 5L;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return true;
+        }
+        if (type == byte[].class) {
+            // Ids binarios (BINARY(16)) en las consultas nativas; el resto son hashes SHA-256
+            Param param = parameter.getAnnotation(Param.class);
+            return param != null && param.value().endsWith("Id") ? Ids.toBytes(SAMPLE_ID) : new byte[32];
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 20);
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(SAMPLE_ID, Ids.newId());
+        }
+        throw new IllegalArgumentException("Sin valor de prueba para " + type.getName());
+    }
+
+    // ==================== EXPLAIN ====================
+
+    private Plan explain(CapturedStatement statement) throws Exception {
+        DataSource dataSource = context.getBean(DataSource.class);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql)) {
+            for (Binding binding : statement.bindings.values()) {
+                binding.setter.invoke(explain, binding.arguments);
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                return h2 ? h2Plan(rs) : mysqlPlan(rs);
+            }
+        }
+    }
+
+    /**
+     * H2 devuelve el plan como texto; cada tabla indica el índice que usa o tableScan
+     */
+    private static Plan h2Plan(ResultSet rs) throws Exception {
+        StringBuilder text = new StringBuilder();
+        while (rs.next()) {
+            text.append(rs.getString(1));
+        }
+        List<String> scanned = new ArrayList<>();
+        List<String> accesses = new ArrayList<>();
+        String plan = text.toString();
+        int position = plan.indexOf("/* ");
+        while (position >= 0) {
+            int end = plan.indexOf(" */", position);
+            if (end < 0) {
+                break;
+            }
+            String access = plan.substring(position + 3, end).split("[:\\s]")[0];
+            if (access.contains(".")) {
+                accesses.add(access);
+                if (access.endsWith(".tableScan")) {
+                    scanned.add(access.substring(0, access.indexOf('.')));
+                }
+            }
+            position = plan.indexOf("/* ", end);
+        }
+        return new Plan(scanned, String.join(", ", accesses));
+    }
+
+    /**
+     * MySQL/MariaDB: una fila por tabla; type = ALL es un recorrido completo
+     */
+    private static Plan mysqlPlan(ResultSet rs) throws Exception {
+        ResultSetMetaData metaData = rs.getMetaData();
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.put(metaData.getColumnLabel(i).toLowerCase(), i);
+        }
+        List<String> scanned = new ArrayList<>();
+        List<String> accesses = new ArrayList<>();
+        while (rs.next()) {
+            String table = rs.getString(columns.get("table"));
+            String type = rs.getString(columns.get("type"));
+            String key = rs.getString(columns.get("key"));
+            if (table == null) {
+                // Resuelta sin leer la tabla (p. ej. búsqueda por clave única sin coincidencias)
+                accesses.add(rs.getString(columns.get("extra")));
+                continue;
+            }
+            accesses.add(table + ":" + type + (key == null ? "" : "(" + key + ")"));
+            if ("ALL".equalsIgnoreCase(type)) {
+                scanned.add(table);
+            }
+        }
+        return new Plan(scanned, String.join(", ", accesses));
+    }
+
+    private record Plan(List<String> scannedTables, String summary) {}
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getClass().getSimpleName() + ": " + root.getMessage();
+    }
+
+    // ==================== CAPTURA DE SQL ====================
+
+    /** Parámetro enlazado: el setter de PreparedStatement y sus argumentos */
+    private record Binding(Method setter, Object[] arguments) {}
+
+    private record CapturedStatement(String sql, Map<Integer, Binding> bindings) {}
+
+    /**
+     * Sentencias ejecutadas por el hilo actual mientras se invoca un método de repositorio
+     */
+    private static final class Recorder {
+
+        private static final ThreadLocal<List<CapturedStatement>> CURRENT = new ThreadLocal<>();
+
+        static void start(List<CapturedStatement> statements) {
+            CURRENT.set(statements);
+        }
+
+        static void stop() {
+            CURRENT.remove();
+        }
+
+        static void record(String sql, Map<Integer, Binding> bindings) {
+            List<CapturedStatement> statements = CURRENT.get();
+            String verb = sql.stripLeading().toLowerCase();
+            if (statements != null && (verb.startsWith("select") || verb.startsWith("update") || verb.startsWith("delete"))) {
+                statements.add(new CapturedStatement(sql, new TreeMap<>(bindings)));
+            }
+        }
+    }
+
+    private static final class RecordingDataSourcePostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, (proxy, method, args) -> {
+                Object result = invoke(dataSource, method, args);
+                return result instanceof Connection connection ? recordingConnection(connection) : result;
+            });
+        }
+
+        private static Connection recordingConnection(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                    return recordingStatement(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+            Map<Integer, Binding> bindings = new LinkedHashMap<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    bindings.put(index, new Binding(method, args.clone()));
+                } else if (name.equals("clearParameters")) {
+                    bindings.clear();
+                } else if ((name.equals("executeQuery") || name.equals("executeUpdate") || name.equals("execute"))
+                        && (args == null || args.length == 0)) {
+                    Recorder.record(sql, bindings);
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(RepositoryQueryPlans.class.getClassLoader(), new Class<?>[] {type}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
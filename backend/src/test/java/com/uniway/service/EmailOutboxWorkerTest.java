@@ -0,0 +1,172 @@
+package com.uniway.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.uniway.entity.EmailOutbox;
+import com.uniway.entity.EmailOutboxStatus;
+import com.uniway.repository.EmailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Cola de correos de extremo a extremo: EmailService encola, EmailOutboxWorker reclama
+ * el lote y lo envía a un servidor SMTP en memoria (GreenMail, puerto 3025).
+ *
+ * El worker programado no corre durante las pruebas (scheduling.enabled=false en el
+ * perfil "test"); cada prueba llama a poll() y espera a que el lote termine.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmailOutboxWorkerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxWorker emailOutboxWorker;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Value("${email-outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${email-outbox.base-backoff-seconds}")
+    private long baseBackoffSeconds;
+
+    @BeforeEach
+    void clearOutbox() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void enqueuedEmailIsClaimedAndDeliveredOverSmtp() throws Exception {
+        String code = emailService.sendVerificationCode("ana@pascualbravo.edu.co");
+
+        EmailOutbox queued = singleEmail();
+        assertThat(queued.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(queued.getAttempts()).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+        emailOutboxWorker.poll();
+
+        awaitStatus(queued.getId(), EmailOutboxStatus.SENT);
+        EmailOutbox sent = reload(queued.getId());
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(sent.getLockedBy()).isNull();
+        assertThat(sent.getLastError()).isNull();
+
+        assertThat(greenMail.waitForIncomingEmail(TIMEOUT.toMillis(), 1)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("ana@pascualbravo.edu.co");
+        assertThat(received[0].getSubject()).isEqualTo(queued.getSubject());
+        assertThat(GreenMailUtil.getBody(received[0])).contains(code);
+    }
+
+    @Test
+    void smtpFailureReschedulesWithBackoffAndRetries() {
+        emailService.sendVerificationCode("beto@pascualbravo.edu.co");
+        String id = singleEmail().getId();
+
+        greenMail.stop();
+        LocalDateTime failedAt = LocalDateTime.now();
+        emailOutboxWorker.poll();
+        awaitAttempts(id, 1);
+
+        EmailOutbox failed = reload(id);
+        assertThat(failed.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(failed.getLastError()).isNotBlank();
+        assertThat(failed.getLockedBy()).isNull();
+        // Primer reintento: base ±20 %
+        long jitter = baseBackoffSeconds / 5;
+        assertThat(failed.getNextAttemptAt())
+            .isAfterOrEqualTo(failedAt.plusSeconds(baseBackoffSeconds - jitter))
+            .isBefore(LocalDateTime.now().plusSeconds(baseBackoffSeconds + jitter + 1));
+
+        // Con el servidor de vuelta, el correo espera su turno...
+        greenMail.start();
+        emailOutboxWorker.poll();
+        assertThat(reload(id).getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+
+        // ...y se envía en cuanto vence el backoff
+        makeDue(id);
+        emailOutboxWorker.poll();
+        awaitStatus(id, EmailOutboxStatus.SENT);
+        assertThat(reload(id).getAttempts()).isEqualTo(1);
+        assertThat(greenMail.waitForIncomingEmail(TIMEOUT.toMillis(), 1)).isTrue();
+    }
+
+    @Test
+    void emailIsMarkedFailedAfterMaxAttempts() {
+        emailService.sendVerificationCode("caro@pascualbravo.edu.co");
+        String id = singleEmail().getId();
+
+        greenMail.stop();
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            makeDue(id);
+            emailOutboxWorker.poll();
+            awaitAttempts(id, attempt);
+        }
+
+        EmailOutbox failed = reload(id);
+        assertThat(failed.getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(maxAttempts);
+        assertThat(failed.getLastError()).isNotBlank();
+
+        // Un correo FAILED no vuelve a reclamarse
+        greenMail.start();
+        emailOutboxWorker.poll();
+        assertThat(reload(id).getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(reload(id).getAttempts()).isEqualTo(maxAttempts);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    // ==================== MÉTODOS PRIVADOS ====================
+
+    private EmailOutbox singleEmail() {
+        List<EmailOutbox> emails = emailOutboxRepository.findAll();
+        assertThat(emails).hasSize(1);
+        return emails.get(0);
+    }
+
+    private EmailOutbox reload(String id) {
+        return emailOutboxRepository.findById(id).orElseThrow();
+    }
+
+    /** Adelanta el siguiente intento para no esperar el backoff real */
+    private void makeDue(String id) {
+        EmailOutbox email = reload(id);
+        email.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(email);
+    }
+
+    private void awaitStatus(String id, EmailOutboxStatus status) {
+        await().atMost(TIMEOUT).until(() -> reload(id).getStatus() == status);
+    }
+
+    private void awaitAttempts(String id, int attempts) {
+        await().atMost(TIMEOUT).until(() -> reload(id).getAttempts() == attempts
+            && reload(id).getStatus() != EmailOutboxStatus.SENDING);
+    }
+}
@@ -0,0 +1,84 @@
+package com.uniway.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Expiración, límite por email y uso único de los códigos en memoria
+ */
+class InMemoryVerificationCodeStoreTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private static InMemoryVerificationCodeStore store(int maxPerEmail) {
+        InMemoryVerificationCodeStore store = new InMemoryVerificationCodeStore();
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "maxPerEmail", maxPerEmail);
+        store.init();
+        return store;
+    }
+
+    @Test
+    void rejectsMaxPerEmailBelowOneAtStartup() {
+        assertThatThrownBy(() -> store(0))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("max-per-email");
+        assertThatThrownBy(() -> store(-1))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void codeCanBeConsumedOnlyOnce() {
+        InMemoryVerificationCodeStore store = store(3);
+        store.save("ana@pascualbravo.edu.co", "123456", TTL);
+
+        assertThat(store.consume("ana@pascualbravo.edu.co", "654321")).isFalse();
+        assertThat(store.consume("ANA@pascualbravo.edu.co ", "123456")).isTrue();
+        assertThat(store.consume("ana@pascualbravo.edu.co", "123456")).isFalse();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void expiredCodeIsRejectedAndPurged() {
+        InMemoryVerificationCodeStore store = store(3);
+        store.save("ana@pascualbravo.edu.co", "111111", Duration.ZERO);
+        store.save("beto@pascualbravo.edu.co", "333333", TTL);
+        store.save("beto@pascualbravo.edu.co", "222222", Duration.ZERO);
+
+        assertThat(store.consume("ana@pascualbravo.edu.co", "111111")).isFalse();
+        assertThat(store.purgeExpired()).isEqualTo(1);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.consume("beto@pascualbravo.edu.co", "222222")).isFalse();
+        assertThat(store.consume("beto@pascualbravo.edu.co", "333333")).isTrue();
+    }
+
+    @Test
+    void keepsOnlyTheNewestCodesPerEmail() {
+        InMemoryVerificationCodeStore store = store(3);
+        for (int i = 1; i <= 4; i++) {
+            store.save("ana@pascualbravo.edu.co", "00000" + i, TTL);
+        }
+
+        // El más antiguo se descartó al guardar el cuarto
+        assertThat(store.consume("ana@pascualbravo.edu.co", "000001")).isFalse();
+        assertThat(store.consume("ana@pascualbravo.edu.co", "000002")).isTrue();
+        assertThat(store.consume("ana@pascualbravo.edu.co", "000003")).isTrue();
+        assertThat(store.consume("ana@pascualbravo.edu.co", "000004")).isTrue();
+    }
+
+    @Test
+    void singleCodePerEmailReplacesThePreviousOne() {
+        InMemoryVerificationCodeStore store = store(1);
+        store.save("ana@pascualbravo.edu.co", "111111", TTL);
+        store.save("ana@pascualbravo.edu.co", "222222", TTL);
+
+        assertThat(store.consume("ana@pascualbravo.edu.co", "111111")).isFalse();
+        assertThat(store.consume("ana@pascualbravo.edu.co", "222222")).isTrue();
+    }
+}
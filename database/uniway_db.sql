@@ -7,6 +7,9 @@
 -- Servidor: 127.0.0.1
 -- Versión del servidor: 10.4.32-MariaDB
 -- Versión de PHP: 8.2.12
+--
+-- Cambios posteriores de esquema: backend/src/main/resources/db/migration/ (Flyway
+-- los aplica al arrancar la aplicación; este script equivale a la versión 1)
 
 CREATE DATABASE uniway_db
   DEFAULT CHARACTER SET utf8mb4
@@ -300,7 +303,9 @@ ALTER TABLE `reactions`
 ALTER TABLE `users`
   ADD PRIMARY KEY (`id`),
   ADD UNIQUE KEY `email` (`email`),
-  ADD UNIQUE KEY `student_id` (`student_id`);
+  ADD UNIQUE KEY `student_id` (`student_id`),
+  ADD KEY `idx_users_created_id` (`created_at`,`id`),
+  ADD KEY `idx_users_program_active` (`program`,`is_active`);
 
 --
 -- Restricciones para tablas volcadas
@@ -373,7 +378,54 @@ CREATE TABLE `verification_codes` (
   `created_at` datetime(6) NOT NULL,
   `email` varchar(255) NOT NULL,
   `expires_at` datetime(6) NOT NULL,
-  `is_used` bit(1) DEFAULT NULL
+  `is_used` bit(1) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_verification_codes_email_expires` (`email`,`expires_at`),
+  KEY `idx_verification_codes_expires` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- --------------------------------------------------------
+-- Estructura de tabla para la tabla `refresh_tokens`
+-- Tokens de renovación de sesión: solo se guarda el hash SHA-256 (32 bytes)
+--
+
+CREATE TABLE `refresh_tokens` (
+  `id` varchar(36) NOT NULL,
+  `token_hash` binary(32) NOT NULL COMMENT 'SHA-256 del token entregado al cliente',
+  `user_id` varchar(36) NOT NULL,
+  `family_id` varchar(36) NOT NULL COMMENT 'Familia de rotación (un inicio de sesión)',
+  `expires_at` datetime(6) NOT NULL,
+  `is_revoked` bit(1) NOT NULL DEFAULT b'0',
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_refresh_tokens_token_hash` (`token_hash`),
+  KEY `idx_refresh_tokens_user_id` (`user_id`),
+  KEY `idx_refresh_tokens_family_id` (`family_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- --------------------------------------------------------
+-- Estructura de tabla para la tabla `email_outbox`
+-- Cola de correos salientes: se escribe en la transacción del request y la
+-- procesa en segundo plano EmailOutboxWorker (reintentos con backoff)
+--
+
+CREATE TABLE `email_outbox` (
+  `id` varchar(36) NOT NULL,
+  `recipient` varchar(255) NOT NULL,
+  `subject` varchar(255) NOT NULL,
+  `body` text NOT NULL,
+  `body_html` text DEFAULT NULL,
+  `status` varchar(16) NOT NULL COMMENT 'PENDING, SENDING, SENT o FAILED',
+  `attempts` int(11) NOT NULL DEFAULT 0,
+  `next_attempt_at` datetime(6) NOT NULL,
+  `locked_by` varchar(36) DEFAULT NULL,
+  `locked_until` datetime(6) DEFAULT NULL,
+  `last_error` varchar(500) DEFAULT NULL,
+  `sent_at` datetime(6) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_email_outbox_status_next` (`status`,`next_attempt_at`),
+  KEY `idx_email_outbox_locked_by` (`locked_by`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 --
 -- Vista para recomendaciones con contadores de reacciones y calificaciones